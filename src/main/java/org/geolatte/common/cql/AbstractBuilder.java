@@ -23,14 +23,17 @@ package org.geolatte.common.cql;
 
 import org.geolatte.common.cql.analysis.DepthFirstAdapter;
 import org.geolatte.common.cql.node.*;
+import org.geolatte.common.util.DateCodec;
 import org.geolatte.geom.Geometry;
-import org.geolatte.geom.codec.Wkt;
 import org.geolatte.geom.codec.WktDecodeException;
 
-import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * No comment provided yet for this class.
@@ -46,6 +49,9 @@ import java.util.*;
  */
 public class AbstractBuilder extends DepthFirstAdapter {
 
+    private static final Pattern DURATION_PATTERN = Pattern.compile(
+            "P(?:(\\d+)Y)?(?:(\\d+)M)?(?:(\\d+)W)?(?:(\\d+)D)?(?:T(?:(\\d+)H)?(?:(\\d+)M)?(?:(\\d+)S)?)?");
+
     protected HashMap<Node, Object> translatedLiterals = new HashMap<Node, Object>();
 
 
@@ -97,6 +103,20 @@ public class AbstractBuilder extends DepthFirstAdapter {
         putLiteral(node, new FromToTimeSpan(parseDate(node.getFrom().getText().trim()), parseDate(node.getTo().getText().trim())));
     }
 
+    @Override
+    public void outAFromDurationTimespanLiteral(AFromDurationTimespanLiteral node) {
+
+        Date from = parseDate(node.getFrom().getText().trim());
+        putLiteral(node, new FromToTimeSpan(from, ((Duration) getLiteral(node.getDuration())).addTo(from, 1)));
+    }
+
+    @Override
+    public void outADurationToTimespanLiteral(ADurationToTimespanLiteral node) {
+
+        Date to = parseDate(node.getTo().getText().trim());
+        putLiteral(node, new FromToTimeSpan(((Duration) getLiteral(node.getDuration())).addTo(to, -1), to));
+    }
+
     @Override
     public void outAUnknownBooleanLiteral(AUnknownBooleanLiteral node) {
 
@@ -125,10 +145,50 @@ public class AbstractBuilder extends DepthFirstAdapter {
     @Override
     public void outAPointGeometryLiteral(APointGeometryLiteral node) {
 
-        String wkt = node.getWktPointLiteral().getText();
+        putGeometryLiteral(node, node.getWktPointLiteral().getText());
+    }
+
+    @Override
+    public void outALineStringGeometryLiteral(ALineStringGeometryLiteral node) {
+
+        putGeometryLiteral(node, node.getWktLineStringLiteral().getText());
+    }
+
+    @Override
+    public void outAPolygonGeometryLiteral(APolygonGeometryLiteral node) {
+
+        putGeometryLiteral(node, node.getWktPolygonLiteral().getText());
+    }
+
+    @Override
+    public void outAMultiPointGeometryLiteral(AMultiPointGeometryLiteral node) {
+
+        putGeometryLiteral(node, node.getWktMultiPointLiteral().getText());
+    }
+
+    @Override
+    public void outAMultiLineStringGeometryLiteral(AMultiLineStringGeometryLiteral node) {
+
+        putGeometryLiteral(node, node.getWktMultiLineStringLiteral().getText());
+    }
+
+    @Override
+    public void outAMultiPolygonGeometryLiteral(AMultiPolygonGeometryLiteral node) {
+
+        putGeometryLiteral(node, node.getWktMultiPolygonLiteral().getText());
+    }
+
+    @Override
+    public void outAGeometryCollectionGeometryLiteral(AGeometryCollectionGeometryLiteral node) {
+
+        putGeometryLiteral(node, node.getWktGeometryCollectionLiteral().getText());
+    }
+
+    private void putGeometryLiteral(Node node, String wkt) {
+
         try {
 
-            Geometry geo = Wkt.fromWkt(wkt);
+            Geometry geo = WktLiteralReader.read(wkt, 0, wkt.length());
             putLiteral(node, geo);
         }
         catch (WktDecodeException e) {
@@ -145,8 +205,7 @@ public class AbstractBuilder extends DepthFirstAdapter {
         Date date = null;
 
         try {
-            DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
-            date = formatter.parse(dateString);
+            date = DateCodec.ISO_DATE_TIME.parse(dateString);
         }
         catch (ParseException e) {
             ; // Cannot occur
@@ -155,6 +214,34 @@ public class AbstractBuilder extends DepthFirstAdapter {
         return date;
     }
 
+    /**
+     * Parses an ISO-8601 duration such as P1Y2M3DT4H5M6S, in which weeks count as 7 days.
+     *
+     * @param durationString the text of the duration
+     * @return the duration, or null if the text is not a duration
+     */
+    static Duration parseDuration(String durationString) {
+
+        Matcher matcher = DURATION_PATTERN.matcher(durationString);
+        if (!matcher.matches() || durationString.equals("P") || durationString.endsWith("T"))
+            return null;
+
+        try {
+            int[] fields = new int[7];
+            for (int i = 0; i < fields.length; i++) {
+                String field = matcher.group(i + 1);
+                fields[i] = field == null ? 0 : Integer.parseInt(field);
+            }
+            return new Duration(fields[0], fields[1], Math.addExact(Math.multiplyExact(7, fields[2]), fields[3]), fields[4], fields[5], fields[6]);
+        }
+        catch (ArithmeticException e) {
+            return null;
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     protected class FromToTimeSpan {
 
         public Date from;
@@ -166,7 +253,7 @@ public class AbstractBuilder extends DepthFirstAdapter {
         }
     }
 
-    protected class Duration {
+    protected static class Duration {
 
         private int years;
         private int months;
@@ -207,6 +294,23 @@ public class AbstractBuilder extends DepthFirstAdapter {
         public int getSeconds() {
             return seconds;
         }
+
+        /**
+         * Adds this duration to the given date, or subtracts it. The years, months and days are added in the default
+         * time zone, as calendar fields, and the hours, minutes and seconds as exact amounts of time.
+         *
+         * @param date the date
+         * @param sign 1 to add the duration, -1 to subtract it
+         * @return the resulting date
+         */
+        public Date addTo(Date date, int sign) {
+
+            ZonedDateTime time = date.toInstant().atZone(ZoneId.systemDefault());
+            Period period = Period.of(years, months, days);
+            java.time.Duration exact = java.time.Duration.ofSeconds(3600L * hours + 60L * minutes + seconds);
+            time = sign >= 0 ? time.plus(period).plus(exact) : time.minus(exact).minus(period);
+            return Date.from(time.toInstant());
+        }
     }
 
     protected List<String> getPropertyParts(PAttr attr) {
@@ -21,24 +21,25 @@
 
 package org.geolatte.common.cql;
 
+import org.geolatte.common.expressions.Expression;
 import org.geolatte.common.expressions.Filter;
-import org.geolatte.common.cql.lexer.Lexer;
-import org.geolatte.common.cql.lexer.LexerException;
-import org.geolatte.common.cql.node.Start;
-import org.geolatte.common.cql.parser.Parser;
-import org.geolatte.common.cql.parser.ParserException;
-
-import java.io.IOException;
-import java.io.PushbackReader;
-import java.io.StringReader;
+import org.geolatte.common.expressions.sql.SqlDialect;
+import org.geolatte.common.expressions.sql.SqlFilter;
+import org.geolatte.common.expressions.sql.SqlFilterTranslator;
+
 import java.text.ParseException;
 
 /**
  * <p>
- * Utility class that translates CQL expressions such as "({@code AnAttribute > 5}) and (AnotherOne LIKE 'this')" into an executable filter or Hibernate criteria.
+ * Utility class that translates CQL expressions such as "({@code AnAttribute > 5}) and (AnotherOne LIKE 'this')" into an executable filter, Hibernate criteria or an SQL WHERE clause.
  * CQL - Common Catalogue Query Language - is described in the OGC Catalogue Services Specification. Our implementation is based on that specification but might differ slightly in some areas.
  * </p>
  * <p>
+ * Filters are parsed by the hand-written {@link CqlParser}. The generated parser can be selected instead, with
+ * {@link #setGeneratedParserEnabled(boolean)} or by setting the system property {@value #GENERATED_PARSER_PROPERTY}
+ * to <code>true</code>.
+ * </p>
+ * <p>
  * <i>Creation-Date</i>: 26-May-2010<br>
  * <i>Creation-Time</i>:  11:38:44<br>
  * </p>
@@ -49,6 +50,14 @@ import java.text.ParseException;
  */
 public class Cql {
 
+    /**
+     * The system property that selects the generated parser when set to <code>true</code>.
+     */
+    public static final String GENERATED_PARSER_PROPERTY = "org.geolatte.common.cql.generatedParser";
+
+    private static volatile FilterCache filterCache = new FilterCache(FilterCache.DEFAULT_MAXIMUM_SIZE);
+    private static volatile boolean isGeneratedParserEnabled = Boolean.getBoolean(GENERATED_PARSER_PROPERTY);
+
      /**
       * Creates an executable object filter based on the given CQL expression.
       *
@@ -63,46 +72,81 @@ public class Cql {
 
     /**
      * Creates an executable object filter based on the given CQL expression.
-     * This filter is only applicable for the given class.
+     * This filter is only applicable for the given class. Filters are kept in the {@link #getFilterCache() filter cache},
+     * so the same expression is only parsed again once it is evicted.
      * @param cqlExpression The CQL expression.
      * @param clazz The type for which to construct the filter.
      * @return An object filter that behaves according to the given CQL expression.
-     * @throws java.text.ParseException When parsing fails for any reason (parser, lexer, IO)
+     * @throws java.text.ParseException When parsing fails for any reason (syntax, unknown property, invalid literal)
      */
     public static Filter toStaticFilter(String cqlExpression, Class clazz) throws ParseException {
 
-        try {
-            Parser p = new Parser( new Lexer( new PushbackReader(new StringReader(cqlExpression), 1024)));
-            // Parse the input.
-            Start tree = p.parse();
-
-            // Build the filter expression
-            FilterExpressionBuilder builder = new FilterExpressionBuilder();
-            tree.apply(builder);
-
-            // Wrap in a filter
-            return new Filter(builder.getExp());
-        }
-        catch(ParserException e) {
-
-            ParseException parseException = new ParseException(e.getMessage(), e.getToken().getPos());
-            parseException.initCause(e);
-            throw parseException;
-        }
-        catch (LexerException e) {
-
-            ParseException parseException = new ParseException(e.getMessage(), 0);
-            parseException.initCause(e);
-            throw parseException;
-        }
-        catch (IOException e) {
-
-            ParseException parseException = new ParseException(e.getMessage(), 0);
-            parseException.initCause(e);
-            throw parseException;
-        }
+        return filterCache.getFilter(cqlExpression, clazz);
+    }
+
+    /**
+     * Gets the cache of the filters created by {@link #toStaticFilter(String, Class)}, which {@link CqlFilter}s use as
+     * well.
+     * @return The filter cache.
+     */
+    public static FilterCache getFilterCache() {
+
+        return filterCache;
+    }
+
+    /**
+     * Replaces the cache of the filters created by {@link #toStaticFilter(String, Class)}, e.g. by a larger one or by
+     * one with another eviction policy. A cache with maximum size 0 disables caching.
+     * @param cache The new filter cache.
+     * @throws IllegalArgumentException If cache is null.
+     */
+    public static void setFilterCache(FilterCache cache) {
+
+        if (cache == null)
+            throw new IllegalArgumentException("Argument cache cannot be null");
+
+        filterCache = cache;
     }
 
+    /**
+     * @return True if filters are parsed by the generated parser, false if by the hand-written one.
+     */
+    public static boolean isGeneratedParserEnabled() {
+
+        return isGeneratedParserEnabled;
+    }
+
+    /**
+     * Selects the parser of the filters created from now on: the generated parser and {@link FilterExpressionBuilder},
+     * or the hand-written {@link CqlParser}. The {@link #getFilterCache() filter cache} is cleared, {@link CqlFilter}s
+     * keep the filters they already created.
+     * @param enabled True to use the generated parser, false to use the hand-written one.
+     */
+    public static void setGeneratedParserEnabled(boolean enabled) {
 
+        isGeneratedParserEnabled = enabled;
+        filterCache.clear();
+    }
 
+    /**
+     * Translates the given CQL expression with the selected parser.
+     */
+    static Expression<Boolean> parse(String cqlExpression, Class clazz) throws ParseException {
+
+        return isGeneratedParserEnabled ? FilterExpressionBuilder.parse(cqlExpression, clazz) : CqlParser.parse(cqlExpression, clazz);
+    }
+
+    /**
+     * Translates the given CQL expression into an SQL WHERE clause and a residual filter for the parts that can not be
+     * translated, so a database-backed source only reads the rows that can match.
+     * @param cqlExpression The CQL expression.
+     * @param clazz The type of the objects read from the database, which determines the types of the properties.
+     * @param dialect The SQL dialect of the database.
+     * @return The WHERE clause and residual filter.
+     * @throws java.text.ParseException When parsing fails for any reason (parser, lexer, IO)
+     */
+    public static SqlFilter toSqlFilter(String cqlExpression, Class clazz, SqlDialect dialect) throws ParseException {
+
+        return new SqlFilterTranslator(dialect).translate(toStaticFilter(cqlExpression, clazz));
+    }
 }
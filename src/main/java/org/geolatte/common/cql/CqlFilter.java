@@ -21,16 +21,8 @@
 
 package org.geolatte.common.cql;
 
-import org.geolatte.common.cql.lexer.Lexer;
-import org.geolatte.common.cql.lexer.LexerException;
-import org.geolatte.common.cql.node.Start;
-import org.geolatte.common.cql.parser.Parser;
-import org.geolatte.common.cql.parser.ParserException;
 import org.geolatte.common.expressions.Filter;
 
-import java.io.IOException;
-import java.io.PushbackReader;
-import java.io.StringReader;
 import java.text.ParseException;
 import java.util.HashMap;
 
@@ -64,38 +56,10 @@ public class CqlFilter {
 
         Class clazz = object.getClass();
         Filter currentFilter = filterExpressions.get(clazz);
-
-        try {
-            Parser p = new Parser( new Lexer( new PushbackReader(new StringReader(cqlString), 1024)));
-            // Parse the input.
-            Start tree = p.parse();
-
-            // Build the filter expression
-            FilterExpressionBuilder builder = new FilterExpressionBuilder(clazz);
-            tree.apply(builder);
-
-            currentFilter = new Filter(builder.getExp());
-
+        if (currentFilter == null) {
+            currentFilter = Cql.toStaticFilter(cqlString, clazz);
             filterExpressions.put(clazz, currentFilter);
         }
-        catch(ParserException e) {
-
-            ParseException parseException = new ParseException(e.getMessage(), e.getToken().getPos());
-            parseException.initCause(e);
-            throw parseException;
-        }
-        catch (LexerException e) {
-
-            ParseException parseException = new ParseException(e.getMessage(), 0);
-            parseException.initCause(e);
-            throw parseException;
-        }
-        catch (IOException e) {
-
-            ParseException parseException = new ParseException(e.getMessage(), 0);
-            parseException.initCause(e);
-            throw parseException;
-        }
 
         return currentFilter.evaluate(object);
     }
@@ -22,6 +22,7 @@
 package org.geolatte.common.cql;
 
 import org.geolatte.common.cql.lexer.Lexer;
+import org.geolatte.common.cql.lexer.LexerException;
 import org.geolatte.common.cql.node.*;
 
 import java.io.PushbackReader;
@@ -44,14 +45,15 @@ public class CqlLexer extends Lexer {
 
     private Token wktToken = null;
     private int openBraces = 0;
-    private String accumulatedWktText = "";
+    // The text of the WKT literal read so far, appended to for every token so a literal is read in linear time
+    private final StringBuilder accumulatedWktText = new StringBuilder();
 
     public CqlLexer(@SuppressWarnings("hiding") PushbackReader in) {
         super(in);
     }
 
     @Override
-    protected void filter() {
+    protected void filter() throws LexerException {
 
         if (state == State.WKT) {
 
@@ -65,12 +67,16 @@ public class CqlLexer extends Lexer {
 
                 wktToken = token; // save the current token (we will add text to this)
                 openBraces = 0; // reset open braces count (when it is back to 0, we are ready)
-                accumulatedWktText = token.getText();
+                accumulatedWktText.setLength(0);
+                accumulatedWktText.append(token.getText());
                 token = null; // continue parsing the next token
                 return;
             }
             else { // already in wkt state ..
 
+                if (token instanceof EOF)
+                    throw new LexerException("[" + wktToken.getLine() + "," + wktToken.getPos() + "] Unterminated geometry literal");
+
                 boolean tokenIsLeftParen = token instanceof TLeftParen;
                 boolean tokenIsRightParen = token instanceof TRightParen;
 
@@ -80,15 +86,16 @@ public class CqlLexer extends Lexer {
                 else if (tokenIsRightParen)
                     openBraces--;
 
-                accumulatedWktText += token.getText();
+                accumulatedWktText.append(token.getText());
 
                 // We are done if open braces count is back to 0 (can only happen if the current token is a right brace)
                 // or is we have an empty token
                 if (((tokenIsRightParen) && openBraces == 0) || token instanceof TWktEmptySetLiteral) {
 
                     state = State.NORMAL; // Set state back to normal
-                    wktToken.setText(accumulatedWktText); // Set token text
+                    wktToken.setText(accumulatedWktText.toString()); // Set token text
                     token = wktToken; // 'return' the cached token
+                    wktToken = null; // the next literal starts afresh
                 }
                 else // We are not done yet
                     token = null; // continue parsing the next token
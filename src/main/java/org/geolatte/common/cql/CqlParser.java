@@ -0,0 +1,955 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+import org.geolatte.common.expressions.*;
+import org.geolatte.common.reflection.EntityClassReader;
+import org.geolatte.common.util.DateCodec;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.WktDecodeException;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>
+ * Hand-written recursive-descent parser that translates a CQL string directly into an executable
+ * {@link org.geolatte.common.expressions.Expression}, without the token objects, syntax tree and tree walk of the
+ * generated parser and the {@link FilterExpressionBuilder}. It scans the characters of the string in place and builds
+ * every predicate as soon as it is read.
+ * </p>
+ * <p>
+ * It accepts the same language as the generated parser for <code>cql.grammar</code>, including its quirks: keywords
+ * are matched before identifiers of the same length, so <code>IS NOT NULL</code> can not be written, and WKT literals
+ * run up to their closing parenthesis or <code>EMPTY</code>. Only the periods of temporal predicates go further: they
+ * may have an ISO-8601 duration instead of a start or end (<code>DURING 2010-01-01T00:00:00/P1M2DT12H</code>), which
+ * the generated lexer scans as an identifier. The expressions are the ones the
+ * {@link FilterExpressionBuilder} builds, so predicates it does not translate (such as <code>IS NULL</code> or
+ * <code>DISJOINT</code>) yield no expression either. Unknown properties, numbers that can not be read and invalid WKT
+ * are reported as a {@link ParseException}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class CqlParser {
+
+    // Token kinds
+    private static final int EOF = 0;
+    private static final int IDENTIFIER = 1;
+    private static final int NUMBER = 2;
+    private static final int STRING = 3;
+    private static final int DATETIME = 4;
+    private static final int GEOMETRY = 5;
+    private static final int LEFT_PAREN = 6;
+    private static final int RIGHT_PAREN = 7;
+    private static final int PERIOD = 8;
+    private static final int COMMA = 9;
+    private static final int COLON = 10;
+    private static final int SIGN = 11;
+    private static final int SLASH = 12;
+    private static final int LESS_THAN = 13;
+    private static final int EQUALS = 14;
+    private static final int GREATER_THAN = 15;
+    private static final int NOT_EQUALS = 16;
+    private static final int GREATER_THAN_OR_EQUALS = 17;
+    private static final int LESS_THAN_OR_EQUALS = 18;
+    private static final int EMPTY = 19;
+    private static final int NOT = 20;
+    private static final int AND = 21;
+    private static final int OR = 22;
+    private static final int LIKE = 23;
+    private static final int ILIKE = 24;
+    private static final int IN = 25;
+    private static final int BETWEEN = 26;
+    private static final int EXISTS = 27;
+    private static final int DOES_NOT_EXIST = 28;
+    private static final int BEFORE = 29;
+    private static final int BEFORE_OR_DURING = 30;
+    private static final int DURING = 31;
+    private static final int DURING_OR_AFTER = 32;
+    private static final int AFTER = 33;
+    private static final int IS = 34;
+    private static final int GEO_EQUALS = 35;
+    private static final int GEO_DISJOINT = 36;
+    private static final int GEO_INTERSECTS = 37;
+    private static final int GEO_TOUCHES = 38;
+    private static final int GEO_CROSSES = 39;
+    private static final int GEO_WITHIN = 40;
+    private static final int GEO_CONTAINS = 41;
+    private static final int GEO_OVERLAPS = 42;
+    private static final int GEO_RELATE = 43;
+    private static final int DWITHIN = 44;
+    private static final int BEYOND = 45;
+    private static final int TRUE = 46;
+    private static final int FALSE = 47;
+    private static final int UNKNOWN = 48;
+    private static final int NULL = 49;
+
+    private static final String[] TOKEN_NAMES = {
+            "EOF", "identifier", "numeric literal", "character string literal", "datetime", "geometry literal",
+            "'('", "')'", "'.'", "','", "':'", "sign", "'/'", "'<'", "'='", "'>'", "'<>'", "'>='", "'<='", "EMPTY",
+            "NOT", "AND", "OR", "LIKE", "ILIKE", "IN", "BETWEEN", "EXISTS", "DOES-NOT-EXIST", "BEFORE",
+            "BEFORE OR DURING", "DURING", "DURING OR AFTER", "AFTER", "IS", "EQUALS", "DISJOINT", "INTERSECTS",
+            "TOUCHES", "CROSSES", "WITHIN", "CONTAINS", "OVERLAPS", "RELATE", "DWITHIN", "BEYOND", "TRUE", "FALSE",
+            "UNKNOWN", "NULL"};
+
+    // The keywords that read as a single word, with their kinds
+    private static final String[] KEYWORDS = {
+            "empty", "not", "and", "or", "like", "ilike", "in", "between", "exists", "before", "during", "after", "is",
+            "equals", "disjoint", "intersects", "touches", "crosses", "within", "contains", "overlaps", "relate",
+            "dwithin", "beyond", "true", "false", "unknown", "null"};
+    private static final int[] KEYWORD_KINDS = {
+            EMPTY, NOT, AND, OR, LIKE, ILIKE, IN, BETWEEN, EXISTS, BEFORE, DURING, AFTER, IS,
+            GEO_EQUALS, GEO_DISJOINT, GEO_INTERSECTS, GEO_TOUCHES, GEO_CROSSES, GEO_WITHIN, GEO_CONTAINS, GEO_OVERLAPS,
+            GEO_RELATE, DWITHIN, BEYOND, TRUE, FALSE, UNKNOWN, NULL};
+
+    // The keywords that start a WKT literal, and the ones that may follow inside it
+    private static final String[] WKT_KEYWORDS = {
+            "point", "linestring", "polygon", "multipoint", "multilinestring", "multipolygon", "geometrycollection"};
+    private static final String[] WKT_INNER_KEYWORDS = {
+            "point", "linestring", "polygon", "multipoint", "multilinestring", "multipolygon", "geometrycollection",
+            "empty"};
+
+    private final String input;
+    private final EntityClassReader reader;
+
+    // The current token
+    private int kind;
+    private int start;
+    private int end;
+
+    private CqlParser(String input, Class clazz) {
+
+        this.input = input;
+        this.reader = EntityClassReader.getClassReaderFor(clazz);
+    }
+
+    /**
+     * Translates the given CQL expression into a (simplified) filter expression for objects of the given class.
+     *
+     * @param cqlExpression The CQL expression.
+     * @param clazz The type of the objects to filter, which determines the types of the properties.
+     * @return The filter expression, or null if the expression is a predicate that can not be translated.
+     * @throws ParseException If the expression is not valid CQL, refers to a property the class does not have or holds
+     *                        a literal that can not be read.
+     * @throws IllegalArgumentException If cqlExpression or clazz is null.
+     */
+    static Expression<Boolean> parse(String cqlExpression, Class clazz) throws ParseException {
+
+        if (cqlExpression == null)
+            throw new IllegalArgumentException("Argument cqlExpression cannot be null");
+        if (clazz == null)
+            throw new IllegalArgumentException("Argument clazz cannot be null");
+
+        CqlParser parser = new CqlParser(cqlExpression, clazz);
+        parser.next();
+        Expression<Boolean> expression = parser.parseCondition();
+        parser.expect(EOF);
+
+        return expression == null ? null : ExpressionOptimizer.optimize(expression);
+    }
+
+    //
+    // Productions
+    //
+
+    /**
+     * Parses a search condition: terms separated by OR.
+     */
+    private Expression<Boolean> parseCondition() throws ParseException {
+
+        Expression<Boolean> expression = parseTerm();
+        while (kind == OR) {
+            next();
+            expression = Expressions.or(expression, parseTerm());
+        }
+        return expression;
+    }
+
+    /**
+     * Parses a boolean term: factors, each optionally negated, separated by AND.
+     */
+    private Expression<Boolean> parseTerm() throws ParseException {
+
+        Expression<Boolean> expression = parseFactor();
+        while (kind == AND) {
+            next();
+            expression = Expressions.and(expression, parseFactor());
+        }
+        return expression;
+    }
+
+    private Expression<Boolean> parseFactor() throws ParseException {
+
+        if (kind != NOT)
+            return parsePrimary();
+
+        next();
+        return Expressions.not(parsePrimary());
+    }
+
+    /**
+     * Parses a nested search condition, a spatial routine invocation or a predicate on an attribute.
+     */
+    private Expression<Boolean> parsePrimary() throws ParseException {
+
+        switch (kind) {
+            case LEFT_PAREN:
+                next();
+                Expression<Boolean> expression = parseCondition();
+                expect(RIGHT_PAREN);
+                next();
+                return expression;
+            case GEO_EQUALS:
+            case GEO_DISJOINT:
+            case GEO_INTERSECTS:
+            case GEO_TOUCHES:
+            case GEO_CROSSES:
+            case GEO_WITHIN:
+            case GEO_CONTAINS:
+            case GEO_OVERLAPS:
+            case GEO_RELATE:
+                return parseRoutineInvocation();
+            case IDENTIFIER:
+                return parsePredicate();
+            default:
+                throw unexpected("'(', geo operator, identifier");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Expression<Boolean> parseRoutineInvocation() throws ParseException {
+
+        int operator = kind;
+        next();
+        expect(LEFT_PAREN);
+        next();
+        Expression attribute = parseAttribute();
+        expect(COMMA);
+        next();
+        expect(GEOMETRY);
+        Geometry geometry = readGeometry();
+        next();
+        expect(RIGHT_PAREN);
+        next();
+
+        switch (operator) {
+            case GEO_EQUALS:
+                return Expressions.geoEquals(attribute, Expressions.constant(geometry));
+            case GEO_WITHIN:
+                return Expressions.geoWithin(attribute, Expressions.constant(geometry));
+            case GEO_CONTAINS:
+                return Expressions.geoContains(attribute, Expressions.constant(geometry));
+            case GEO_INTERSECTS:
+                return Expressions.geoIntersects(attribute, Expressions.constant(geometry));
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Expression<Boolean> parsePredicate() throws ParseException {
+
+        int attributeStart = start;
+        String propertyPath = parsePropertyPath();
+        Expression attribute = toProperty(propertyPath, attributeStart);
+
+        int operator = kind;
+        switch (operator) {
+            case EQUALS:
+            case NOT_EQUALS:
+            case LESS_THAN:
+            case GREATER_THAN:
+            case LESS_THAN_OR_EQUALS:
+            case GREATER_THAN_OR_EQUALS:
+                next();
+                return toComparison(operator, attribute, attributeStart, parseLiteral());
+            case NOT:
+                next();
+                if (kind != IN && kind != BETWEEN && kind != LIKE && kind != ILIKE)
+                    throw unexpected("IN, BETWEEN, LIKE, ILIKE");
+                return parseSetOrTextPredicate(attribute, attributeStart, true);
+            case IN:
+            case BETWEEN:
+            case LIKE:
+            case ILIKE:
+                return parseSetOrTextPredicate(attribute, attributeStart, false);
+            case IS:
+                next();
+                expect(NULL);
+                next();
+                return null;
+            case EXISTS:
+                next();
+                return Expressions.exists(propertyPath);
+            case DOES_NOT_EXIST:
+                next();
+                return Expressions.doesNotExist(propertyPath);
+            case BEFORE:
+            case AFTER:
+                next();
+                expect(DATETIME);
+                Date date = AbstractBuilder.parseDate(text());
+                next();
+                return operator == BEFORE ? Expressions.isBefore(attribute, Expressions.constant(date))
+                        : Expressions.isAfter(attribute, Expressions.constant(date));
+            case DURING:
+            case BEFORE_OR_DURING:
+            case DURING_OR_AFTER:
+                next();
+                // A period is a start and an end, or one of them and a duration, which scans as an identifier
+                AbstractBuilder.Duration fromDuration = readDuration();
+                Date from = fromDuration == null ? readDate() : null;
+                expect(SLASH);
+                next();
+                AbstractBuilder.Duration toDuration = fromDuration == null ? readDuration() : null;
+                Date to = toDuration == null ? readDate() : from;
+                if (fromDuration != null)
+                    from = fromDuration.addTo(to, -1);
+                else if (toDuration != null)
+                    to = toDuration.addTo(from, 1);
+                return operator != DURING ? null
+                        : Expressions.isBetween((ComparableExpression<Date>) attribute, Expressions.constant(from), Expressions.constant(to));
+            default:
+                throw unexpected("comparison operator, NOT, IN, BETWEEN, LIKE, ILIKE, IS, EXISTS, DOES-NOT-EXIST, "
+                        + "BEFORE, BEFORE OR DURING, DURING, DURING OR AFTER, AFTER");
+        }
+    }
+
+    /**
+     * Reads a date-time.
+     */
+    private Date readDate() throws ParseException {
+
+        expect(DATETIME);
+        Date date = AbstractBuilder.parseDate(text());
+        next();
+        return date;
+    }
+
+    /**
+     * Reads an ISO-8601 duration, if the current token is one.
+     *
+     * @return The duration, or null if the current token is no duration.
+     */
+    private AbstractBuilder.Duration readDuration() throws ParseException {
+
+        AbstractBuilder.Duration duration = kind == IDENTIFIER ? AbstractBuilder.parseDuration(text()) : null;
+        if (duration != null)
+            next();
+        return duration;
+    }
+
+    /**
+     * Parses an IN, BETWEEN, LIKE or ILIKE predicate, starting at its operator.
+     *
+     * @param isNegated Whether the operator is preceded by NOT.
+     */
+    @SuppressWarnings("unchecked")
+    private Expression<Boolean> parseSetOrTextPredicate(Expression attribute, int attributeStart, boolean isNegated) throws ParseException {
+
+        int operator = kind;
+        next();
+        Expression<Boolean> predicate;
+        switch (operator) {
+            case IN:
+                expect(LEFT_PAREN);
+                next();
+                List<String> literals = new ArrayList<String>();
+                literals.add(parseLiteral());
+                while (kind == COMMA) {
+                    next();
+                    literals.add(parseLiteral());
+                }
+                expect(RIGHT_PAREN);
+                next();
+                predicate = toIn(attribute, attributeStart, literals);
+                break;
+            case BETWEEN:
+                String low = parseLiteral();
+                expect(AND);
+                next();
+                predicate = toBetween(attribute, attributeStart, low, parseLiteral());
+                break;
+            default:
+                expect(STRING);
+                StringConstant pattern = Expressions.constant(unquote().replace("''", "'"));
+                next();
+                if (operator == LIKE)
+                    return isNegated ? Expressions.notLike(attribute, pattern) : Expressions.like(attribute, pattern);
+                return isNegated ? Expressions.notLike(attribute, pattern, true) : Expressions.like(attribute, pattern, true);
+        }
+        return isNegated && predicate != null ? Expressions.not(predicate) : predicate;
+    }
+
+    /**
+     * Parses a (compound) attribute name and returns the dot-separated property path.
+     */
+    private String parsePropertyPath() throws ParseException {
+
+        expect(IDENTIFIER);
+        String identifier = text();
+        next();
+        if (kind != PERIOD)
+            return identifier;
+
+        StringBuilder path = new StringBuilder(identifier);
+        while (kind == PERIOD) {
+            next();
+            expect(IDENTIFIER);
+            path.append('.').append(input, start, end);
+            next();
+        }
+        return path.toString();
+    }
+
+    private Expression parseAttribute() throws ParseException {
+
+        int attributeStart = start;
+        return toProperty(parsePropertyPath(), attributeStart);
+    }
+
+    /**
+     * Parses a numeric, string, datetime or boolean literal.
+     *
+     * @return The text of the literal, as the {@link FilterExpressionBuilder} reads it: strings without their quotes
+     *         (but with their quotes still doubled) and unknown as "null".
+     */
+    private String parseLiteral() throws ParseException {
+
+        String literal;
+        switch (kind) {
+            case NUMBER:
+            case DATETIME:
+                literal = text();
+                break;
+            case STRING:
+                literal = unquote();
+                break;
+            case TRUE:
+                literal = "true";
+                break;
+            case FALSE:
+                literal = "false";
+                break;
+            case UNKNOWN:
+                literal = "null";
+                break;
+            default:
+                throw unexpected("boolean literal, numeric literal, character string literal, datetime");
+        }
+        next();
+        return literal;
+    }
+
+    //
+    // Expressions
+    //
+
+    /**
+     * Creates the property expression for the given path, after the type of the property.
+     *
+     * @return The property expression, or null if the property has a type that can not be filtered on.
+     */
+    private Expression toProperty(String propertyPath, int position) throws ParseException {
+
+        Class type = reader.getPropertyType(propertyPath);
+        if (type == null)
+            throw error("Unknown property: " + propertyPath, position);
+
+        if (Number.class.isAssignableFrom(type) || type == int.class || type == long.class || type == short.class
+                || type == float.class || type == double.class || type == byte.class)
+            return Expressions.numberProperty(propertyPath);
+        if (String.class.isAssignableFrom(type))
+            return Expressions.stringProperty(propertyPath);
+        if (Boolean.class.isAssignableFrom(type))
+            return Expressions.booleanProperty(propertyPath);
+        if (DateCodec.isDateType(type))
+            return Expressions.dateProperty(propertyPath);
+        if (Geometry.class.isAssignableFrom(type))
+            return Expressions.geometryProperty(propertyPath);
+        return null;
+    }
+
+    /**
+     * Creates a comparison of a number, boolean or string property with a literal.
+     *
+     * @return The comparison, or null for properties of other types.
+     */
+    private Expression<Boolean> toComparison(int operator, Expression attribute, int position, String literal) throws ParseException {
+
+        checkComparable(attribute, position);
+        if (attribute instanceof NumberProperty) {
+            NumberExpression value = (NumberExpression) attribute;
+            NumberConstant constant = Expressions.constant(toNumber(literal, position));
+            switch (operator) {
+                case EQUALS:
+                    return Expressions.isEqual(value, constant);
+                case NOT_EQUALS:
+                    return Expressions.isNotEqual(value, constant);
+                case LESS_THAN:
+                    return Expressions.isLessThan(value, constant);
+                case GREATER_THAN:
+                    return Expressions.isGreaterThan(value, constant);
+                case LESS_THAN_OR_EQUALS:
+                    return Expressions.isLessThanOrEqual(value, constant);
+                default:
+                    return Expressions.isGreaterThanOrEqual(value, constant);
+            }
+        }
+        if (attribute instanceof BooleanProperty) {
+            BooleanExpression value = (BooleanExpression) attribute;
+            BooleanConstant constant = Expressions.constant(Boolean.parseBoolean(literal));
+            switch (operator) {
+                case EQUALS:
+                    return Expressions.isEqual(value, constant);
+                case NOT_EQUALS:
+                    return Expressions.isNotEqual(value, constant);
+                case LESS_THAN:
+                    return Expressions.isLessThan(value, constant);
+                case GREATER_THAN:
+                    return Expressions.isGreaterThan(value, constant);
+                case LESS_THAN_OR_EQUALS:
+                    return Expressions.isLessThanOrEqual(value, constant);
+                default:
+                    return Expressions.isGreaterThanOrEqual(value, constant);
+            }
+        }
+        if (attribute instanceof StringProperty) {
+            StringExpression value = (StringExpression) attribute;
+            StringConstant constant = Expressions.constant(literal);
+            switch (operator) {
+                case EQUALS:
+                    return Expressions.isEqual(value, constant);
+                case NOT_EQUALS:
+                    return Expressions.isNotEqual(value, constant);
+                case LESS_THAN:
+                    return Expressions.isLessThan(value, constant);
+                case GREATER_THAN:
+                    return Expressions.isGreaterThan(value, constant);
+                case LESS_THAN_OR_EQUALS:
+                    return Expressions.isLessThanOrEqual(value, constant);
+                default:
+                    return Expressions.isGreaterThanOrEqual(value, constant);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates an IN predicate: numbers and strings are looked up in a set of the literals, booleans are compared with
+     * each literal in turn.
+     *
+     * @return The predicate, or null for properties of other types.
+     */
+    private Expression<Boolean> toIn(Expression attribute, int position, List<String> literals) throws ParseException {
+
+        checkComparable(attribute, position);
+        if (attribute instanceof NumberProperty) {
+            List<Number> values = new ArrayList<Number>(literals.size());
+            for (String literal : literals)
+                values.add(toNumber(literal, position));
+            return Expressions.isIn((NumberExpression) attribute, values);
+        }
+        if (attribute instanceof BooleanProperty) {
+            Expression<Boolean> result = null;
+            for (String literal : literals) {
+                Expression<Boolean> isEqual = Expressions.isEqual((BooleanExpression) attribute, Expressions.constant(Boolean.parseBoolean(literal)));
+                result = result == null ? isEqual : Expressions.or(result, isEqual);
+            }
+            return result;
+        }
+        if (attribute instanceof StringProperty)
+            return Expressions.isIn((StringExpression) attribute, literals);
+        return null;
+    }
+
+    /**
+     * Creates a BETWEEN predicate, both bounds included.
+     *
+     * @return The predicate, or null for properties of other types.
+     */
+    @SuppressWarnings("unchecked")
+    private Expression<Boolean> toBetween(Expression attribute, int position, String low, String high) throws ParseException {
+
+        checkComparable(attribute, position);
+        if (attribute instanceof NumberProperty)
+            return Expressions.isBetween((NumberExpression) attribute, toNumber(low, position), toNumber(high, position));
+        if (attribute instanceof StringProperty) {
+            StringExpression value = (StringExpression) attribute;
+            return Expressions.and(Expressions.isGreaterThanOrEqual(value, Expressions.constant(low)),
+                                   Expressions.isLessThanOrEqual(value, Expressions.constant(high)));
+        }
+        if (attribute instanceof DateProperty) {
+            Expression<Date> value = attribute;
+            return Expressions.and(Expressions.not(Expressions.isBefore(value, Expressions.constant(AbstractBuilder.parseDate(low)))),
+                                   Expressions.not(Expressions.isAfter(value, Expressions.constant(AbstractBuilder.parseDate(high)))));
+        }
+        return null;
+    }
+
+    private void checkComparable(Expression attribute, int position) throws ParseException {
+
+        if (attribute == null)
+            throw error("Property can not be compared", position);
+    }
+
+    private Double toNumber(String literal, int position) throws ParseException {
+
+        try {
+            return Double.parseDouble(literal);
+        }
+        catch (NumberFormatException e) {
+            ParseException parseException = error("Not a number: " + literal, position);
+            parseException.initCause(e);
+            throw parseException;
+        }
+    }
+
+    private Geometry readGeometry() throws ParseException {
+
+        try {
+            return WktLiteralReader.read(input, start, end);
+        }
+        catch (WktDecodeException e) {
+            ParseException parseException = error("Could not parse WKT: " + text(), start);
+            parseException.initCause(e);
+            throw parseException;
+        }
+    }
+
+    //
+    // Scanner
+    //
+
+    /**
+     * Scans the next token, with the longest match at the current position as the generated lexer does.
+     */
+    private void next() throws ParseException {
+
+        int length = input.length();
+        int position = end;
+        while (position < length && isBlank(input.charAt(position)))
+            position++;
+
+        start = position;
+        if (position == length) {
+            kind = EOF;
+            end = position;
+            return;
+        }
+
+        char c = input.charAt(position);
+        end = position + 1;
+        switch (c) {
+            case '(':
+                kind = LEFT_PAREN;
+                return;
+            case ')':
+                kind = RIGHT_PAREN;
+                return;
+            case ',':
+                kind = COMMA;
+                return;
+            case ':':
+                kind = COLON;
+                return;
+            case '/':
+                kind = SLASH;
+                return;
+            case '=':
+                kind = EQUALS;
+                return;
+            case '<':
+                kind = LESS_THAN;
+                if (end < length && input.charAt(end) == '>') {
+                    kind = NOT_EQUALS;
+                    end++;
+                } else if (end < length && input.charAt(end) == '=') {
+                    kind = LESS_THAN_OR_EQUALS;
+                    end++;
+                }
+                return;
+            case '>':
+                kind = GREATER_THAN;
+                if (end < length && input.charAt(end) == '=') {
+                    kind = GREATER_THAN_OR_EQUALS;
+                    end++;
+                }
+                return;
+            case '\'':
+                scanString();
+                return;
+            default:
+                break;
+        }
+
+        int numberEnd = scanNumber(position);
+        if (numberEnd > position) {
+            int datetimeEnd = scanDatetime(position);
+            kind = datetimeEnd > position ? DATETIME : NUMBER;
+            end = Math.max(numberEnd, datetimeEnd);
+            return;
+        }
+        if (c == '.') {
+            kind = PERIOD;
+            return;
+        }
+        if (c == '+' || c == '-') {
+            kind = SIGN;
+            return;
+        }
+        if (isLetter(c)) {
+            scanWord();
+            return;
+        }
+        throw error("Unknown token: " + c, position);
+    }
+
+    /**
+     * Scans a quoted string, in which quotes are doubled.
+     */
+    private void scanString() throws ParseException {
+
+        int length = input.length();
+        int position = start + 1;
+        while (position < length) {
+            if (input.charAt(position) != '\'') {
+                position++;
+            } else if (position + 1 < length && input.charAt(position + 1) == '\'') {
+                position += 2;
+            } else {
+                break;
+            }
+        }
+        // Empty and unterminated strings are no tokens
+        if (position == length || position == start + 1)
+            throw error("Unknown token: " + input.substring(start, Math.min(position + 1, length)), start);
+
+        kind = STRING;
+        end = position + 1;
+    }
+
+    /**
+     * @return The end of the signed number at the given position, or the position itself if there is none.
+     */
+    private int scanNumber(int position) {
+
+        int length = input.length();
+        int digitsStart = position;
+        if (digitsStart < length && (input.charAt(digitsStart) == '+' || input.charAt(digitsStart) == '-'))
+            digitsStart++;
+
+        int digitsEnd = skipDigits(digitsStart);
+        if (digitsEnd < length && input.charAt(digitsEnd) == '.') {
+            int fractionEnd = skipDigits(digitsEnd + 1);
+            if (fractionEnd > digitsEnd + 1)
+                return fractionEnd;
+        }
+        return digitsEnd > digitsStart ? digitsEnd : position;
+    }
+
+    /**
+     * @return The end of the yyyy-MM-ddTHH:mm:ss[.S] datetime at the given position, or the position itself if there
+     *         is none.
+     */
+    private int scanDatetime(int position) {
+
+        String pattern = "dddd-dd-ddTdd:dd:dd";
+        if (position + pattern.length() > input.length())
+            return position;
+        for (int i = 0; i < pattern.length(); i++) {
+            char expected = pattern.charAt(i);
+            char c = input.charAt(position + i);
+            if (expected == 'd' ? !isDigit(c) : c != expected)
+                return position;
+        }
+
+        int datetimeEnd = position + pattern.length();
+        if (datetimeEnd < input.length() && input.charAt(datetimeEnd) == '.') {
+            int fractionEnd = skipDigits(datetimeEnd + 1);
+            if (fractionEnd > datetimeEnd + 1)
+                return fractionEnd;
+        }
+        return datetimeEnd;
+    }
+
+    /**
+     * Scans an identifier, a keyword or a WKT literal.
+     */
+    private void scanWord() throws ParseException {
+
+        int length = input.length();
+        int wordEnd = start + 1;
+        while (wordEnd < length && (isLetter(input.charAt(wordEnd)) || isDigit(input.charAt(wordEnd)) || input.charAt(wordEnd) == '_'))
+            wordEnd++;
+        end = wordEnd;
+        kind = IDENTIFIER;
+
+        int wordLength = wordEnd - start;
+        for (String keyword : WKT_KEYWORDS) {
+            if (keyword.length() == wordLength && input.regionMatches(true, start, keyword, 0, wordLength)) {
+                scanGeometry();
+                return;
+            }
+        }
+        for (int i = 0; i < KEYWORDS.length; i++) {
+            if (KEYWORDS[i].length() == wordLength && input.regionMatches(true, start, KEYWORDS[i], 0, wordLength)) {
+                kind = KEYWORD_KINDS[i];
+                break;
+            }
+        }
+
+        // The keywords that span several words are longer than any other match
+        if (kind == IDENTIFIER && matches("does-not-exist"))
+            kind = DOES_NOT_EXIST;
+        else if (kind == BEFORE && matches("before or during"))
+            kind = BEFORE_OR_DURING;
+        else if (kind == DURING && matches("during or after"))
+            kind = DURING_OR_AFTER;
+    }
+
+    /**
+     * Extends the current token to the given keyword if it is found at the start of the token.
+     */
+    private boolean matches(String keyword) {
+
+        if (!input.regionMatches(true, start, keyword, 0, keyword.length()))
+            return false;
+
+        end = start + keyword.length();
+        return true;
+    }
+
+    /**
+     * Scans the rest of a WKT literal, up to the parenthesis that closes it or to the EMPTY keyword.
+     */
+    private void scanGeometry() throws ParseException {
+
+        int length = input.length();
+        int position = end;
+        int openParens = 0;
+        while (true) {
+            if (position == length)
+                throw error("Unterminated geometry literal", start);
+
+            char c = input.charAt(position);
+            if (c == ')') {
+                position++;
+                if (--openParens == 0)
+                    break;
+            } else if (c == '(') {
+                openParens++;
+                position++;
+            } else if (isBlank(c) || isDigit(c) || c == '+' || c == '-' || c == '.' || c == ':' || c == ',') {
+                position++;
+            } else {
+                String keyword = null;
+                for (String candidate : WKT_INNER_KEYWORDS) {
+                    if ((keyword == null || candidate.length() > keyword.length())
+                            && input.regionMatches(true, position, candidate, 0, candidate.length()))
+                        keyword = candidate;
+                }
+                if (keyword == null)
+                    throw error("Unknown token: " + c, position);
+                position += keyword.length();
+                if (keyword.equals("empty"))
+                    break;
+            }
+        }
+
+        kind = GEOMETRY;
+        end = position;
+    }
+
+    private int skipDigits(int position) {
+
+        while (position < input.length() && isDigit(input.charAt(position)))
+            position++;
+        return position;
+    }
+
+    private static boolean isBlank(char c) {
+
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private static boolean isDigit(char c) {
+
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private String text() {
+
+        return input.substring(start, end);
+    }
+
+    /**
+     * @return The text of the current string token without its quotes.
+     */
+    private String unquote() {
+
+        return input.substring(start + 1, end - 1);
+    }
+
+    //
+    // Errors
+    //
+
+    private void expect(int expected) throws ParseException {
+
+        if (kind != expected)
+            throw unexpected(TOKEN_NAMES[expected]);
+    }
+
+    private ParseException unexpected(String expected) {
+
+        return error("expecting: " + expected, start);
+    }
+
+    /**
+     * Creates an exception for an error at the given position, with its line and column in the message.
+     */
+    private ParseException error(String message, int position) {
+
+        int line = 1;
+        int lineStart = 0;
+        for (int i = 0; i < position; i++) {
+            char c = input.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == input.length() || input.charAt(i + 1) != '\n'))) {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        return new ParseException("[" + line + "," + (position - lineStart + 1) + "] " + message, position);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+/**
+ * <p>
+ * Decides which entry a {@link FilterCache} evicts when it is full. The cache informs the policy of every entry that
+ * is added or looked up, and asks it for a victim whenever it holds more entries than its maximum size.
+ * </p>
+ * <p>
+ * The cache calls its policy from one thread at a time, so a policy need not be thread-safe, but an instance must not
+ * be shared between caches. Lookups are reported with a delay, and may be dropped under heavy load, so a policy can be
+ * told of a lookup of an entry it has already selected as victim, which it should then ignore.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ * @see LruEvictionPolicy
+ */
+public interface EvictionPolicy {
+
+    /**
+     * Called when an entry is added to the cache.
+     *
+     * @param key The key of the entry.
+     */
+    void entryAdded(Object key);
+
+    /**
+     * Called when an entry of the cache is looked up.
+     *
+     * @param key The key of the entry.
+     */
+    void entryAccessed(Object key);
+
+    /**
+     * Selects the entry to evict, and forgets about it.
+     *
+     * @return The key of one of the entries that were added and not yet selected or cleared.
+     */
+    Object selectVictim();
+
+    /**
+     * Called when all entries are removed from the cache.
+     */
+    void clear();
+}
@@ -0,0 +1,344 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.common.expressions.ReadOnceFilter;
+
+import java.lang.ref.WeakReference;
+import java.text.ParseException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * A size-bounded cache of the filters compiled from CQL expressions, by expression and class of the objects to filter.
+ * It can be used by many threads at once: filters are immutable, or keep their state per thread, so the same filter
+ * is handed to all threads that ask for the same expression and class.
+ * </p>
+ * <p>
+ * Lookups take no lock. A hit only records its access in a buffer, which is replayed to the eviction policy by the
+ * thread that fills the buffer, if no other thread is busy with the policy, or else before the next eviction. When
+ * the buffer is full, accesses are dropped, so under heavy load the least recently used order is an approximation.
+ * </p>
+ * <p>
+ * Expressions are parsed outside any lock, so a slow parse does not hold up other threads. Two threads that miss on
+ * the same expression at the same time both parse it, but only the first filter is kept. Expressions that fail to
+ * parse are not cached.
+ * </p>
+ * <p>
+ * The cache refers to the classes weakly, so it does not keep a class (and its class loader) from being unloaded. The
+ * filters of a class that has been unloaded can no longer be found, and are evicted in due course.
+ * </p>
+ * <p>
+ * {@link Cql} keeps a cache for the whole process, which can be replaced through {@link Cql#setFilterCache(FilterCache)}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FilterCache {
+
+    /**
+     * The maximum size of the cache of {@link Cql}.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    // Accesses buffered before a hit tries to replay them, and the maximum that is buffered
+    private static final int DRAIN_THRESHOLD = 32;
+    private static final int MAXIMUM_PENDING_ACCESSES = 1024;
+
+    private final int maximumSize;
+    private final EvictionPolicy evictionPolicy;
+    private final ConcurrentHashMap<Key, Entry> filters = new ConcurrentHashMap<Key, Entry>();
+
+    // Guards the eviction policy
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Queue<Key> accesses = new ConcurrentLinkedQueue<Key>();
+    private final AtomicInteger pendingAccessCount = new AtomicInteger();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Constructs a cache that evicts the least recently used filter when it is full.
+     *
+     * @param maximumSize The maximum number of filters to keep. With 0, nothing is cached.
+     * @throws IllegalArgumentException If maximumSize is negative.
+     */
+    public FilterCache(int maximumSize) {
+
+        this(maximumSize, new LruEvictionPolicy());
+    }
+
+    /**
+     * Constructs a cache with the given eviction policy.
+     *
+     * @param maximumSize The maximum number of filters to keep. With 0, nothing is cached.
+     * @param evictionPolicy The policy that selects the filter to evict when the cache is full. It must not be used
+     * by any other cache.
+     * @throws IllegalArgumentException If maximumSize is negative or evictionPolicy is null.
+     */
+    public FilterCache(int maximumSize, EvictionPolicy evictionPolicy) {
+
+        if (maximumSize < 0)
+            throw new IllegalArgumentException("Argument maximumSize cannot be negative");
+        if (evictionPolicy == null)
+            throw new IllegalArgumentException("Argument evictionPolicy cannot be null");
+
+        this.maximumSize = maximumSize;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    /**
+     * Gets the filter for the given CQL expression and class, compiling it if it is not in the cache.
+     *
+     * @param cqlExpression The CQL expression.
+     * @param clazz The type of the objects to filter.
+     * @return The filter.
+     * @throws ParseException When parsing fails for any reason (syntax, unknown property, invalid literal)
+     * @throws IllegalArgumentException If cqlExpression is null.
+     */
+    public Filter getFilter(String cqlExpression, Class clazz) throws ParseException {
+
+        if (cqlExpression == null)
+            throw new IllegalArgumentException("Argument cqlExpression cannot be null");
+
+        Entry entry = filters.get(new Key(cqlExpression, clazz, false));
+        if (entry != null) {
+            hitCount.increment();
+            recordAccess(entry.key);
+            return entry.filter;
+        }
+        missCount.increment();
+
+        Filter filter = ReadOnceFilter.create(Cql.parse(cqlExpression, clazz));
+        if (maximumSize == 0)
+            return filter;
+
+        Key key = new Key(cqlExpression, clazz, true);
+        Entry cached = filters.putIfAbsent(key, new Entry(key, filter));
+        if (cached != null) { // compiled by another thread in the meantime
+            recordAccess(cached.key);
+            return cached.filter;
+        }
+
+        evictionLock.lock();
+        try {
+            drainAccesses();
+            evictionPolicy.entryAdded(key);
+            while (filters.size() > maximumSize) {
+                Object victim = evictionPolicy.selectVictim();
+                if (victim == null || filters.remove(victim) == null)
+                    throw new IllegalStateException("Eviction policy selected an entry that is not in the cache: " + victim);
+                evictionCount.increment();
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+        return filter;
+    }
+
+    private void recordAccess(Key key) {
+
+        int pending = pendingAccessCount.incrementAndGet();
+        if (pending > MAXIMUM_PENDING_ACCESSES) {
+            pendingAccessCount.decrementAndGet(); // dropped
+        } else {
+            accesses.add(key);
+        }
+
+        if (pending >= DRAIN_THRESHOLD && evictionLock.tryLock()) {
+            try {
+                drainAccesses();
+            }
+            finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    // Called with the eviction lock held
+    private void drainAccesses() {
+
+        Key key;
+        while ((key = accesses.poll()) != null) {
+            pendingAccessCount.decrementAndGet();
+            evictionPolicy.entryAccessed(key);
+        }
+    }
+
+    /**
+     * Removes all filters from the cache. The statistics are kept.
+     */
+    public void clear() {
+
+        evictionLock.lock();
+        try {
+            drainAccesses();
+            filters.clear();
+            evictionPolicy.clear();
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @return The maximum number of filters the cache keeps.
+     */
+    public int getMaximumSize() {
+
+        return maximumSize;
+    }
+
+    /**
+     * @return The number of filters in the cache.
+     */
+    public int size() {
+
+        return filters.size();
+    }
+
+    /**
+     * @return The number of requests that found their filter in the cache.
+     */
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    /**
+     * @return The number of requests that had to compile their filter, including those that failed to parse.
+     */
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    /**
+     * @return The number of filters removed to make room for others.
+     */
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return The fraction of requests that found their filter in the cache, or 0 if there were none yet.
+     */
+    public double getHitRate() {
+
+        long hits = hitCount.sum();
+        long requestCount = hits + missCount.sum();
+        return requestCount == 0 ? 0 : (double) hits / requestCount;
+    }
+
+    @Override
+    public String toString() {
+
+        return "FilterCache[size=" + filters.size() + "/" + maximumSize + ", hits=" + hitCount.sum() + ", misses="
+                + missCount.sum() + ", evictions=" + evictionCount.sum() + "]";
+    }
+
+    /**
+     * A cached filter, with the key it is stored under.
+     */
+    private static final class Entry {
+
+        private final Key key;
+        private final Filter filter;
+
+        private Entry(Key key, Filter filter) {
+
+            this.key = key;
+            this.filter = filter;
+        }
+    }
+
+    /**
+     * The key of a filter: the CQL expression and the class. The keys in the cache refer to their class weakly, those
+     * used for lookups strongly.
+     */
+    private static final class Key {
+
+        private final String cqlExpression;
+        private final boolean hasClass;
+        private final Class clazz;
+        private final WeakReference<Class> classReference;
+        private final int hashCode;
+
+        private Key(String cqlExpression, Class clazz, boolean isWeak) {
+
+            this.cqlExpression = cqlExpression;
+            this.hasClass = clazz != null;
+            this.clazz = isWeak ? null : clazz;
+            this.classReference = isWeak && clazz != null ? new WeakReference<Class>(clazz) : null;
+            this.hashCode = 31 * cqlExpression.hashCode() + (clazz == null ? 0 : clazz.hashCode());
+        }
+
+        // Null if the key has no class, or if it has been unloaded
+        private Class getClazz() {
+
+            return classReference == null ? clazz : classReference.get();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+
+            Key other = (Key) o;
+            if (hashCode != other.hashCode || hasClass != other.hasClass || !cqlExpression.equals(other.cqlExpression))
+                return false;
+            if (!hasClass)
+                return true;
+
+            Class type = getClazz();
+            return type != null && type == other.getClazz();
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+
+            Class type = getClazz();
+            return (type == null ? "?" : type.getName()) + ": " + cqlExpression;
+        }
+    }
+}
@@ -21,13 +21,23 @@
 
 package org.geolatte.common.cql;
 
+import org.geolatte.common.cql.lexer.LexerException;
 import org.geolatte.common.cql.node.*;
+import org.geolatte.common.cql.parser.Parser;
+import org.geolatte.common.cql.parser.ParserException;
 import org.geolatte.common.expressions.*;
 import org.geolatte.common.reflection.EntityClassReader;
+import org.geolatte.common.util.DateCodec;
 import org.geolatte.geom.Geometry;
 
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * <p>
@@ -39,6 +49,7 @@ import java.util.HashMap;
  * Expression result = builder.getExp();
  * }
  * </pre>
+ * The resulting expression is simplified by the {@link ExpressionOptimizer}.
  * </p>
  * <p>
  * <i>Creation-Date</i>: 26-May-2010<br>
@@ -71,12 +82,54 @@ class FilterExpressionBuilder extends AbstractBuilder {
         return exp;
     }
 
+    /**
+     * Translates the given CQL expression with the generated parser and a builder for the given class.
+     *
+     * @param cqlExpression The CQL expression.
+     * @param clazz The type of the objects to filter.
+     * @return The filter expression, or null if the expression is a predicate that can not be translated.
+     * @throws ParseException When parsing fails for any reason (parser, lexer, IO)
+     */
+    static Expression<Boolean> parse(String cqlExpression, Class clazz) throws ParseException {
+
+        try {
+            Parser p = new Parser( new CqlLexer( new PushbackReader(new StringReader(cqlExpression), 1024)));
+            // Parse the input.
+            Start tree = p.parse();
+
+            // Build the filter expression
+            FilterExpressionBuilder builder = new FilterExpressionBuilder(clazz);
+            tree.apply(builder);
+            return builder.getExp();
+        }
+        catch(ParserException e) {
+
+            ParseException parseException = new ParseException(e.getMessage(), e.getToken().getPos());
+            parseException.initCause(e);
+            throw parseException;
+        }
+        catch (LexerException e) {
+
+            ParseException parseException = new ParseException(e.getMessage(), 0);
+            parseException.initCause(e);
+            throw parseException;
+        }
+        catch (IOException e) {
+
+            ParseException parseException = new ParseException(e.getMessage(), 0);
+            parseException.initCause(e);
+            throw parseException;
+        }
+    }
+
     @Override
     public void outStart(Start node) {
 
         node.getPExpr().apply(this);
 
         exp = (Expression<Boolean>)translatedExpressions.get(node.getPExpr());
+        if (exp != null)
+            exp = ExpressionOptimizer.optimize(exp);
     }
 
     @Override
@@ -250,21 +303,105 @@ class FilterExpressionBuilder extends AbstractBuilder {
     @Override
     public void outADuringExpr(ADuringExpr node) {
 
-        PTimespanLiteral timespan = node.getTimeSpan();
+        // A period with a duration has been resolved into its start and end
+        FromToTimeSpan timespan = (FromToTimeSpan) getLiteral(node.getTimeSpan());
 
-        Date lowDate;
-        Date highDate;
+        translatedExpressions.put(node, Expressions.isBetween((ComparableExpression<Date>)translatedExpressions.get(node.getAttr()), Expressions.constant(timespan.from), Expressions.constant(timespan.to)));
+    }
 
-        if (timespan instanceof AFromToTimespanLiteral ) {
 
-            AFromToTimespanLiteral fromToTimespan = (AFromToTimespanLiteral)timespan;
-            lowDate = parseDate(fromToTimespan.getFrom().getText().trim());
-            highDate = parseDate(fromToTimespan.getTo().getText().trim());
+    @Override
+    public void outAInExpr(AInExpr node) {
 
-            translatedExpressions.put(node, Expressions.isBetween((ComparableExpression<Date>)translatedExpressions.get(node.getAttr()), Expressions.constant(lowDate), Expressions.constant(highDate)));
-        }
+        putIn(node, node.getAttr(), node.getLiterals());
+    }
+
+    @Override
+    public void outANotInExpr(ANotInExpr node) {
+
+        putIn(node, node.getAttr(), node.getLiterals());
+        translatedExpressions.put(node, Expressions.not(translatedExpressions.get(node)));
+    }
+
+    @Override
+    public void outABetweenExpr(ABetweenExpr node) {
+
+        putBetween(node, node.getAttr(), node.getLow(), node.getHigh());
+    }
+
+    @Override
+    public void outANotBetweenExpr(ANotBetweenExpr node) {
+
+        putBetween(node, node.getAttr(), node.getLow(), node.getHigh());
+        translatedExpressions.put(node, Expressions.not(translatedExpressions.get(node)));
+    }
+
+    /**
+     * Translates an IN predicate: numbers and strings are looked up in a set of the literals, booleans are compared
+     * with each literal in turn.
+     *
+     * @param node The node to translate.
+     * @param attr The attribute that is looked up.
+     * @param literals The literals of the list.
+     */
+    private void putIn(final Node node, final PAttr attr, final List<PLiteral> literals) {
+
+        translatedExpressions.get(attr).switchOn(new EmptyBasicTypeSwitch() {
+            @Override
+            public void caseNumber(Expression<Number> expr) {
+                List<Number> values = new ArrayList<Number>();
+                for (PLiteral literal : literals)
+                    values.add(Double.parseDouble(getLiteral(literal).toString()));
+                translatedExpressions.put(node, Expressions.isIn((NumberExpression)translatedExpressions.get(attr), values));
+            }
+            @Override
+            public void caseBoolean(Expression<Boolean> expr) {
+                Expression<Boolean> result = null;
+                for (PLiteral literal : literals) {
+                    Expression<Boolean> isEqual = Expressions.isEqual((BooleanExpression)translatedExpressions.get(attr), Expressions.constant(Boolean.parseBoolean(getLiteral(literal).toString())));
+                    result = result == null ? isEqual : Expressions.or(result, isEqual);
+                }
+                translatedExpressions.put(node, result);
+            }
+            @Override
+            public void caseString(Expression<String> expr) {
+                List<String> values = new ArrayList<String>();
+                for (PLiteral literal : literals)
+                    values.add(getLiteral(literal).toString());
+                translatedExpressions.put(node, Expressions.isIn((StringExpression)translatedExpressions.get(attr), values));
+            }
+        });
     }
 
+    /**
+     * Translates a BETWEEN predicate, both bounds included.
+     *
+     * @param node The node to translate.
+     * @param attr The attribute that is compared.
+     * @param low The lowest literal in the range.
+     * @param high The highest literal in the range.
+     */
+    private void putBetween(final Node node, final PAttr attr, final PLiteral low, final PLiteral high) {
+
+        translatedExpressions.get(attr).switchOn(new EmptyBasicTypeSwitch() {
+            @Override
+            public void caseNumber(Expression<Number> expr) {
+                translatedExpressions.put(node, Expressions.isBetween((NumberExpression)translatedExpressions.get(attr), Double.parseDouble(getLiteral(low).toString()), Double.parseDouble(getLiteral(high).toString())));
+            }
+            @Override
+            public void caseString(Expression<String> expr) {
+                StringExpression value = (StringExpression)translatedExpressions.get(attr);
+                translatedExpressions.put(node, Expressions.and(Expressions.isGreaterThanOrEqual(value, Expressions.constant(getLiteral(low).toString())),
+                                                                Expressions.isLessThanOrEqual(value, Expressions.constant(getLiteral(high).toString()))));
+            }
+            @Override
+            public void caseDate(Expression<Date> expr) {
+                Expression<Date> value = translatedExpressions.get(attr);
+                translatedExpressions.put(node, Expressions.and(Expressions.not(Expressions.isBefore(value, Expressions.constant(parseDate(getLiteral(low).toString())))),
+                                                                Expressions.not(Expressions.isAfter(value, Expressions.constant(parseDate(getLiteral(high).toString()))))));
+            }
+        });
+    }
 
     @Override
     public void outAExistsExpr(AExistsExpr node) {
@@ -285,6 +422,24 @@ class FilterExpressionBuilder extends AbstractBuilder {
 
         translatedExpressions.put(node, Expressions.geoEquals(translatedExpressions.get(node.getLeft()), Expressions.constant((Geometry) getLiteral(node.getRight()))));
     }
+
+    @Override
+    public void outAGeoWithinExpr(AGeoWithinExpr node) {
+
+        translatedExpressions.put(node, Expressions.geoWithin(translatedExpressions.get(node.getLeft()), Expressions.constant((Geometry) getLiteral(node.getRight()))));
+    }
+
+    @Override
+    public void outAGeoContainsExpr(AGeoContainsExpr node) {
+
+        translatedExpressions.put(node, Expressions.geoContains(translatedExpressions.get(node.getLeft()), Expressions.constant((Geometry) getLiteral(node.getRight()))));
+    }
+
+    @Override
+    public void outAGeoIntersectsExpr(AGeoIntersectsExpr node) {
+
+        translatedExpressions.put(node, Expressions.geoIntersects(translatedExpressions.get(node.getLeft()), Expressions.constant((Geometry) getLiteral(node.getRight()))));
+    }
     
     @Override
     public void outACompoundIdAttr(ACompoundIdAttr node) {
@@ -319,7 +474,7 @@ class FilterExpressionBuilder extends AbstractBuilder {
             translatedExpressions.put(node, Expressions.stringProperty(attributeName));
         else if (Boolean.class.isAssignableFrom(attributeType))
             translatedExpressions.put(node, Expressions.booleanProperty(attributeName));
-        else if (Date.class.isAssignableFrom(attributeType))
+        else if (DateCodec.isDateType(attributeType))
             translatedExpressions.put(node, Expressions.dateProperty(attributeName));
         else if (Geometry.class.isAssignableFrom(attributeType))
             translatedExpressions.put(node, Expressions.geometryProperty(attributeName));
@@ -0,0 +1,82 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * <p>
+ * An {@link EvictionPolicy} that evicts the least recently used entry: the one that was added or looked up the
+ * longest time ago.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class LruEvictionPolicy implements EvictionPolicy {
+
+    // From least to most recently used
+    private final LinkedHashSet<Object> keys = new LinkedHashSet<Object>();
+
+    /**
+     * {@inheritDoc}
+     */
+    public void entryAdded(Object key) {
+
+        keys.remove(key);
+        keys.add(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void entryAccessed(Object key) {
+
+        if (keys.remove(key))
+            keys.add(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object selectVictim() {
+
+        Iterator<Object> iterator = keys.iterator();
+        if (!iterator.hasNext())
+            return null;
+
+        Object victim = iterator.next();
+        iterator.remove();
+        return victim;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void clear() {
+
+        keys.clear();
+    }
+}
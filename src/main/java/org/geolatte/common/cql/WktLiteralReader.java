@@ -0,0 +1,358 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+import org.geolatte.geom.DimensionalFlag;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.LineString;
+import org.geolatte.geom.LinearRing;
+import org.geolatte.geom.MultiLineString;
+import org.geolatte.geom.MultiPoint;
+import org.geolatte.geom.MultiPolygon;
+import org.geolatte.geom.Point;
+import org.geolatte.geom.PointSequence;
+import org.geolatte.geom.PointSequenceBuilder;
+import org.geolatte.geom.PointSequenceBuilders;
+import org.geolatte.geom.Points;
+import org.geolatte.geom.Polygon;
+import org.geolatte.geom.codec.Wkt;
+import org.geolatte.geom.codec.WktDecodeException;
+import org.geolatte.geom.crs.CrsId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Reads the WKT geometry literals of CQL expressions in a single pass over the characters of the expression, without
+ * copying the literal out first. The coordinates of each point sequence are read into a primitive buffer, and most
+ * numbers are converted without creating a string.
+ * </p>
+ * <p>
+ * Only the common, well-formed two-dimensional points, line strings, polygons and their multi-variants are read this
+ * way. Any other literal (empty or three-dimensional geometries, geometry collections, or literals that are not valid)
+ * is handed to {@link Wkt#fromWkt(String)}, so the result (or error) is always the one of that decoder.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class WktLiteralReader {
+
+    // Decimal numbers with at most this many digits are exactly representable as a double...
+    private static final int MAX_EXACT_DIGITS = 15;
+    // ... as are these powers of ten, so their quotient is correctly rounded, like Double.parseDouble
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18,
+            1e19, 1e20, 1e21, 1e22};
+
+    private static final String[] TYPES = {"point", "linestring", "polygon", "multipoint", "multilinestring", "multipolygon"};
+    private static final int POINT = 0;
+    private static final int LINE_STRING = 1;
+    private static final int POLYGON = 2;
+    private static final int MULTI_POINT = 3;
+    private static final int MULTI_LINE_STRING = 4;
+    private static final int MULTI_POLYGON = 5;
+
+    private final String text;
+    private final int end;
+    private int position;
+
+    // The x and y coordinates of the point sequence being read
+    private double[] coordinates = new double[64];
+    private int pointCount;
+
+    private WktLiteralReader(String text, int start, int end) {
+
+        this.text = text;
+        this.position = start;
+        this.end = end;
+    }
+
+    /**
+     * Reads the WKT literal in the given part of the given text.
+     *
+     * @param text The text that holds the literal, such as a CQL expression.
+     * @param start The position of the first character of the literal.
+     * @param end The position after the last character of the literal.
+     * @return The geometry.
+     * @throws WktDecodeException If the literal is not valid WKT.
+     */
+    static Geometry read(String text, int start, int end) throws WktDecodeException {
+
+        Geometry geometry = new WktLiteralReader(text, start, end).readGeometry();
+        return geometry != null ? geometry : Wkt.fromWkt(text.substring(start, end));
+    }
+
+    /**
+     * @return The geometry, or null if the literal is not one that is read here.
+     */
+    private Geometry readGeometry() {
+
+        skipBlanks();
+        int type = -1;
+        for (int i = 0; i < TYPES.length && type < 0; i++) {
+            String keyword = TYPES[i];
+            if (text.regionMatches(true, position, keyword, 0, keyword.length())
+                    && (position + keyword.length() == end || !Character.isLetter(text.charAt(position + keyword.length())))) {
+                type = i;
+                position += keyword.length();
+            }
+        }
+        if (type < 0)
+            return null;
+
+        Geometry geometry;
+        switch (type) {
+            case POINT:
+                PointSequence point = readPointSequence();
+                geometry = point == null || point.size() != 1 ? null : new Point(point);
+                break;
+            case LINE_STRING:
+                geometry = readLineString();
+                break;
+            case POLYGON:
+                geometry = readPolygon();
+                break;
+            case MULTI_POINT:
+                geometry = readMultiPoint();
+                break;
+            case MULTI_LINE_STRING:
+                List<LineString> lineStrings = new ArrayList<LineString>();
+                if (!readList(lineStrings, MULTI_LINE_STRING))
+                    return null;
+                geometry = new MultiLineString(lineStrings.toArray(new LineString[lineStrings.size()]));
+                break;
+            default:
+                List<Polygon> polygons = new ArrayList<Polygon>();
+                if (!readList(polygons, MULTI_POLYGON))
+                    return null;
+                geometry = new MultiPolygon(polygons.toArray(new Polygon[polygons.size()]));
+                break;
+        }
+
+        skipBlanks();
+        return position == end ? geometry : null;
+    }
+
+    private LineString readLineString() {
+
+        PointSequence points = readPointSequence();
+        return points == null || points.size() < 2 ? null : new LineString(points);
+    }
+
+    private Polygon readPolygon() {
+
+        List<LinearRing> rings = new ArrayList<LinearRing>();
+        return readList(rings, POLYGON) ? new Polygon(rings.toArray(new LinearRing[rings.size()])) : null;
+    }
+
+    /**
+     * Reads a parenthesized, comma-separated list of the parts of a polygon (rings), multi line string (line strings)
+     * or multi polygon (polygons).
+     *
+     * @return Whether the list could be read.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean readList(List parts, int type) {
+
+        if (!readSymbol('('))
+            return false;
+
+        do {
+            Geometry part;
+            if (type == POLYGON) {
+                PointSequence points = readPointSequence();
+                part = points == null || !isRing(points) ? null : new LinearRing(points);
+            } else if (type == MULTI_LINE_STRING) {
+                part = readLineString();
+            } else {
+                part = readPolygon();
+            }
+            if (part == null)
+                return false;
+            parts.add(part);
+        } while (readSymbol(','));
+
+        return readSymbol(')');
+    }
+
+    /**
+     * Reads a multi point, with or without parentheses around each point, but the same for all points.
+     */
+    private MultiPoint readMultiPoint() {
+
+        if (!readSymbol('('))
+            return null;
+
+        skipBlanks();
+        boolean isParenthesized = position < end && text.charAt(position) == '(';
+        List<Point> points = new ArrayList<Point>();
+        do {
+            if (isParenthesized && !readSymbol('('))
+                return null;
+            skipBlanks();
+            double x = readNumber();
+            if (Double.isNaN(x) || !skipSeparatingBlanks())
+                return null;
+            double y = readNumber();
+            if (Double.isNaN(y) || (isParenthesized && !readSymbol(')')))
+                return null;
+            points.add(Points.create2D(x, y, CrsId.UNDEFINED));
+        } while (readSymbol(','));
+
+        return readSymbol(')') ? new MultiPoint(points.toArray(new Point[points.size()])) : null;
+    }
+
+    /**
+     * Reads a parenthesized, comma-separated list of two-dimensional points.
+     *
+     * @return The points, or null if they could not be read.
+     */
+    private PointSequence readPointSequence() {
+
+        if (!readSymbol('('))
+            return null;
+
+        pointCount = 0;
+        do {
+            skipBlanks();
+            double x = readNumber();
+            if (Double.isNaN(x) || !skipSeparatingBlanks())
+                return null;
+            double y = readNumber();
+            if (Double.isNaN(y))
+                return null;
+            addPoint(x, y);
+        } while (readSymbol(','));
+
+        if (!readSymbol(')'))
+            return null;
+
+        PointSequenceBuilder builder = PointSequenceBuilders.fixedSized(pointCount, DimensionalFlag.d2D, CrsId.UNDEFINED);
+        for (int i = 0; i < pointCount; i++)
+            builder.add(coordinates[2 * i], coordinates[2 * i + 1]);
+        return builder.toPointSequence();
+    }
+
+    private void addPoint(double x, double y) {
+
+        if (2 * pointCount + 2 > coordinates.length) {
+            double[] grown = new double[coordinates.length * 2];
+            System.arraycopy(coordinates, 0, grown, 0, 2 * pointCount);
+            coordinates = grown;
+        }
+        coordinates[2 * pointCount] = x;
+        coordinates[2 * pointCount + 1] = y;
+        pointCount++;
+    }
+
+    /**
+     * Whether the given points form a ring as {@link LinearRing} requires: closed, with at least 4 points.
+     */
+    private static boolean isRing(PointSequence points) {
+
+        int last = points.size() - 1;
+        return points.size() >= 4 && points.getX(0) == points.getX(last) && points.getY(0) == points.getY(last);
+    }
+
+    /**
+     * Reads an unsigned or negative decimal number, which must be followed by a blank, a comma or a closing
+     * parenthesis.
+     *
+     * @return The number, or NaN if there is none.
+     */
+    private double readNumber() {
+
+        int start = position;
+        boolean isNegative = position < end && text.charAt(position) == '-';
+        if (isNegative)
+            position++;
+
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigitCount = 0;
+        boolean isFraction = false;
+        for (; position < end; position++) {
+            char c = text.charAt(position);
+            if (c >= '0' && c <= '9') {
+                if (digitCount < MAX_EXACT_DIGITS)
+                    mantissa = 10 * mantissa + (c - '0');
+                digitCount++;
+                if (isFraction)
+                    fractionDigitCount++;
+            } else if (c == '.' && !isFraction) {
+                isFraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digitCount == 0 || position == end || !(isBlank(text.charAt(position)) || text.charAt(position) == ',' || text.charAt(position) == ')'))
+            return Double.NaN;
+
+        // Adding zero turns a negative zero into zero, as the WKT decoder does
+        if (digitCount > MAX_EXACT_DIGITS || fractionDigitCount >= POWERS_OF_TEN.length)
+            return Double.parseDouble(text.substring(start, position)) + 0.0;
+        double value = mantissa / POWERS_OF_TEN[fractionDigitCount];
+        return (isNegative ? -value : value) + 0.0;
+    }
+
+    /**
+     * Skips the blanks before the given symbol and the symbol itself.
+     *
+     * @return Whether the symbol was found.
+     */
+    private boolean readSymbol(char symbol) {
+
+        skipBlanks();
+        if (position == end || text.charAt(position) != symbol)
+            return false;
+
+        position++;
+        return true;
+    }
+
+    /**
+     * Skips the blanks between two coordinates.
+     *
+     * @return Whether there was at least one.
+     */
+    private boolean skipSeparatingBlanks() {
+
+        int start = position;
+        skipBlanks();
+        return position > start;
+    }
+
+    private void skipBlanks() {
+
+        while (position < end && isBlank(text.charAt(position)))
+            position++;
+    }
+
+    private static boolean isBlank(char c) {
+
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.csv;
+
+import org.geolatte.common.dataformats.wkb.WkbCodec;
+import org.geolatte.common.reflection.EntityClassReader;
+import org.geolatte.common.transformer.AbstractObservableTransformerSource;
+import org.geolatte.common.util.DateCodec;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.jts.JTS;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * Base class of the CSV transformer sources. Reads the records of a CSV stream with a {@link CsvRecordReader}, hands
+ * the first record (the header) to {@link #bindHeader(CsvRecordReader)} so subclasses can resolve their column
+ * mapping once, and turns every following record into an object with {@link #createObject(CsvRecordReader)}.
+ * </p>
+ * <p>
+ * Records that can not be converted are skipped and reported as a non-terminating error; a failure to read the stream
+ * is reported as a terminating error. The stream is closed when it is exhausted. Since the stream can only be read
+ * once, so can the source.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the objects created from the records.
+ * @since SDK1.5
+ */
+abstract class AbstractCsvTransformerSource<T> extends AbstractObservableTransformerSource<T> {
+
+    private final CsvRecordReader records;
+    private DateCodec dateCodec = DateCodec.ISO_DATE;
+    private CsvIterator iterator;
+
+    /**
+     * @param reader    the stream to read. It is read in large blocks, so there is no need to buffer it.
+     * @param separator the character that separates the columns
+     * @throws IllegalArgumentException if reader is null
+     */
+    AbstractCsvTransformerSource(Reader reader, char separator) {
+
+        if (reader == null)
+            throw new IllegalArgumentException("Argument reader cannot be null");
+
+        records = new CsvRecordReader(reader, separator);
+    }
+
+    /**
+     * The formatter to use for date columns
+     *
+     * @param formatterToUse the formatter to use for dates
+     */
+    public void setDateFormatter(DateFormat formatterToUse) {
+        dateCodec = DateCodec.forFormat(formatterToUse);
+    }
+
+    /**
+     * The codec to use for date columns. Defaults to {@link DateCodec#ISO_DATE}.
+     *
+     * @param codecToUse the codec to use for dates
+     * @throws IllegalArgumentException if codecToUse is null
+     */
+    public void setDateCodec(DateCodec codecToUse) {
+
+        if (codecToUse == null)
+            throw new IllegalArgumentException("Argument codecToUse cannot be null");
+
+        dateCodec = codecToUse;
+    }
+
+    /**
+     * Resolves the column mapping from the header record.
+     *
+     * @param header the reader, positioned on the header record
+     */
+    abstract void bindHeader(CsvRecordReader header);
+
+    /**
+     * Creates the object that corresponds with the current record.
+     *
+     * @param record the reader, positioned on the record to convert
+     * @return the object, or null if the record is to be skipped
+     * @throws RuntimeException if the record can not be converted
+     */
+    abstract T createObject(CsvRecordReader record);
+
+    /**
+     * Converts the text of a column into a value of the given type. Geometries are read from WKT or from hexadecimal or
+     * base64 (E)WKB, whichever {@link WkbCodec} detects, dates with the date codec and all other supported types
+     * with {@link EntityClassReader#parseAsType(String, Class)}.
+     *
+     * @param text the text of the column, may be null
+     * @param type the type to convert to; if null, the text is returned as is
+     * @return the value, null if the text is null or empty
+     * @throws IllegalArgumentException if the text does not represent a value of the given type
+     */
+    Object parseValue(String text, Class type) {
+
+        if (text == null || text.length() == 0)
+            return null;
+        if (type == null || type == String.class)
+            return text;
+
+        if (Geometry.class.isAssignableFrom(type))
+            return WkbCodec.parse(text, null);
+        if (com.vividsolutions.jts.geom.Geometry.class.isAssignableFrom(type))
+            return JTS.to(WkbCodec.parse(text, null));
+        if (Date.class.isAssignableFrom(type)) {
+            try {
+                return dateCodec.parse(text);
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Invalid date: " + text, e);
+            }
+        }
+        return EntityClassReader.parseAsType(text, type);
+    }
+
+    /**
+     * Returns the objects read from the stream. The stream is read while the returned iterable is iterated.
+     *
+     * @return The objects created from the records.
+     * @throws IllegalStateException if the source was already read
+     */
+    @Override
+    protected synchronized Iterable<T> output() {
+
+        if (iterator != null)
+            throw new IllegalStateException("A CSV source can only be read once");
+
+        iterator = new CsvIterator();
+        return new Iterable<T>() {
+            public Iterator<T> iterator() {
+                return iterator;
+            }
+        };
+    }
+
+    private class CsvIterator implements Iterator<T> {
+
+        private boolean isHeaderRead = false;
+        private boolean isFinished = false;
+        private T next;
+
+        public boolean hasNext() {
+
+            while (next == null && !isFinished) {
+                try {
+                    if (!isHeaderRead) {
+                        isHeaderRead = true;
+                        if (!records.readRecord()) {
+                            finish();
+                            break;
+                        }
+                        bindHeader(records);
+                    }
+                    if (!records.readRecord()) {
+                        finish();
+                        break;
+                    }
+                } catch (IOException e) {
+                    onSourceErrorOccurred(true, e);
+                    finish();
+                    break;
+                }
+
+                try {
+                    next = createObject(records);
+                } catch (RuntimeException e) {
+                    onSourceErrorOccurred(false, new IllegalArgumentException("Invalid record " + records.getRecordNumber() + ": " + e.getMessage(), e));
+                }
+            }
+            return next != null;
+        }
+
+        public T next() {
+
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            T result = next;
+            next = null;
+            return result;
+        }
+
+        /**
+         * Not supported.
+         */
+        public void remove() {
+
+            throw new UnsupportedOperationException();
+        }
+
+        private void finish() {
+
+            isFinished = true;
+            try {
+                records.close();
+            } catch (IOException e) {
+                onSourceErrorOccurred(false, e);
+            }
+        }
+    }
+}
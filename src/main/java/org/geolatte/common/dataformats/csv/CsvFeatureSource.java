@@ -0,0 +1,135 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.csv;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.dataformats.json.jackson.DefaultFeature;
+import org.geolatte.common.reflection.EntityClassReader;
+import org.geolatte.geom.Geometry;
+
+import java.io.Reader;
+
+/**
+ * <p>
+ * A {@link org.geolatte.common.transformer.TransformerSource} that reads a CSV stream with a header record and creates
+ * a {@link Feature} for every following record. Every column of the header becomes a property of the features, except
+ * for the id and geometry columns, which become their id and geometry. Geometries are read from WKT or from
+ * hexadecimal or base64 (E)WKB.
+ * </p>
+ * <p>
+ * Without a schema class, all other values are kept as strings. With a schema class, the id and geometry columns are
+ * those of the class, and the values of each column are converted, as in {@link CsvTransformerSource}, to the type of
+ * the property of the class with the same name. Empty values become null.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class CsvFeatureSource extends AbstractCsvTransformerSource<Feature> {
+
+    private final String idColumn;
+    private final String geometryColumn;
+    private final EntityClassReader schema;
+
+    // Per column of the header
+    private String[] columnNames;
+    private Class[] columnTypes;
+    private int idIndex = -1;
+    private int geometryIndex = -1;
+
+    /**
+     * Constructs a source that reads features with untyped properties.
+     *
+     * @param reader         the stream to read. It is read in large blocks, so there is no need to buffer it.
+     * @param csvChar        the character that separates the columns
+     * @param idColumn       the name of the column that holds the id, matched ignoring case. May be null.
+     * @param geometryColumn the name of the column that holds the geometry, matched ignoring case. May be null.
+     * @throws IllegalArgumentException if reader is null
+     */
+    public CsvFeatureSource(Reader reader, char csvChar, String idColumn, String geometryColumn) {
+
+        super(reader, csvChar);
+        this.idColumn = idColumn;
+        this.geometryColumn = geometryColumn;
+        this.schema = null;
+    }
+
+    /**
+     * Constructs a source that reads features with properties typed after the given class.
+     *
+     * @param reader      the stream to read. It is read in large blocks, so there is no need to buffer it.
+     * @param csvChar     the character that separates the columns
+     * @param schemaClass the class whose properties determine the id, the geometry and the types of the columns
+     * @throws IllegalArgumentException if reader or schemaClass is null
+     */
+    public CsvFeatureSource(Reader reader, char csvChar, Class schemaClass) {
+
+        super(reader, csvChar);
+
+        if (schemaClass == null)
+            throw new IllegalArgumentException("Argument schemaClass cannot be null");
+
+        this.schema = EntityClassReader.getClassReaderFor(schemaClass);
+        this.idColumn = schema.getIdName();
+        this.geometryColumn = schema.getGeometryName();
+    }
+
+    @Override
+    void bindHeader(CsvRecordReader header) {
+
+        int columnCount = header.getFieldCount();
+        columnNames = new String[columnCount];
+        columnTypes = new Class[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            String column = header.getField(i).trim();
+            if (idIndex < 0 && column.equalsIgnoreCase(idColumn)) {
+                idIndex = i;
+                column = idColumn;
+            } else if (geometryIndex < 0 && column.equalsIgnoreCase(geometryColumn)) {
+                geometryIndex = i;
+                column = geometryColumn;
+                columnTypes[i] = Geometry.class;
+            }
+            columnNames[i] = column;
+            if (schema != null && columnTypes[i] == null && column.length() > 0)
+                columnTypes[i] = schema.getPropertyType(column);
+        }
+    }
+
+    @Override
+    Feature createObject(CsvRecordReader record) {
+
+        DefaultFeature feature = new DefaultFeature();
+        for (int i = 0; i < columnNames.length; i++) {
+            Object value = parseValue(record.getField(i), columnTypes[i]);
+            if (i == idIndex)
+                feature.setId(columnNames[i], value);
+            else if (i == geometryIndex)
+                feature.setGeometry(columnNames[i], (Geometry) value);
+            else
+                feature.addProperty(columnNames[i], value);
+        }
+        return feature;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * <p>
+ * Reads <a href="http://tools.ietf.org/html/rfc4180">RFC 4180</a> CSV records from a character stream in a single
+ * pass. The stream is read in large blocks into a private buffer, and each record is split into its fields by scanning
+ * that buffer once: runs of ordinary characters are copied in bulk, quoted fields may contain separators, doubled
+ * quotes and line breaks.
+ * </p>
+ * <p>
+ * Records may be terminated by CRLF, LF or CR. Blank lines are skipped. The reader is lenient towards malformed input:
+ * a quote inside an unquoted field starts a quoted section and an unterminated quoted field ends at the end of the
+ * stream.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+class CsvRecordReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char separator;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+
+    // Reused for every field and record
+    private final StringBuilder field = new StringBuilder(64);
+    private String[] fields = new String[16];
+    private int fieldCount = 0;
+    private long recordNumber = 0;
+
+    /**
+     * @param reader    the stream to read from, not null
+     * @param separator the character that separates the fields of a record
+     */
+    CsvRecordReader(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return false if the end of the stream was reached before a new record started
+     * @throws IOException if reading the stream fails
+     */
+    boolean readRecord() throws IOException {
+
+        fieldCount = 0;
+        field.setLength(0);
+        boolean isRecordStarted = false;
+        boolean isQuoted = false;
+        boolean isQuoteClosed = false;
+
+        while (true) {
+
+            if (position == limit && !fill()) {
+                if (!isRecordStarted)
+                    return false;
+                endField();
+                recordNumber++;
+                return true;
+            }
+
+            if (isQuoted) {
+                int start = position;
+                while (position < limit && buffer[position] != '"')
+                    position++;
+                field.append(buffer, start, position - start);
+                if (position < limit) {
+                    position++;
+                    isQuoted = false;
+                    isQuoteClosed = true;
+                }
+                continue;
+            }
+
+            char c = buffer[position];
+            if (c == '"') {
+                // A quote right after a closing quote is an escaped quote
+                if (isQuoteClosed)
+                    field.append('"');
+                position++;
+                isRecordStarted = true;
+                isQuoted = true;
+                isQuoteClosed = false;
+                continue;
+            }
+
+            isQuoteClosed = false;
+            if (c == separator) {
+                position++;
+                isRecordStarted = true;
+                endField();
+            } else if (c == '\n' || c == '\r') {
+                position++;
+                if (isRecordStarted) {
+                    endField();
+                    recordNumber++;
+                    return true;
+                }
+                // The LF of a CRLF, or a blank line
+            } else {
+                int start = position;
+                while (position < limit) {
+                    char d = buffer[position];
+                    if (d == separator || d == '"' || d == '\n' || d == '\r')
+                        break;
+                    position++;
+                }
+                field.append(buffer, start, position - start);
+                isRecordStarted = true;
+            }
+        }
+    }
+
+    /**
+     * @return the number of fields in the current record
+     */
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param index the index of the field
+     * @return the field with the given index in the current record, or null if the record has fewer fields
+     */
+    String getField(int index) {
+        return index < fieldCount ? fields[index] : null;
+    }
+
+    /**
+     * @return the fields of the current record, copied into a new array
+     */
+    String[] getFields() {
+        String[] result = new String[fieldCount];
+        System.arraycopy(fields, 0, result, 0, fieldCount);
+        return result;
+    }
+
+    /**
+     * @return the 1-based number of the current record, blank lines not included
+     */
+    long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if closing the stream fails
+     */
+    void close() throws IOException {
+        reader.close();
+    }
+
+    private void endField() {
+
+        if (fieldCount == fields.length) {
+            String[] larger = new String[2 * fields.length];
+            System.arraycopy(fields, 0, larger, 0, fieldCount);
+            fields = larger;
+        }
+        fields[fieldCount++] = field.length() == 0 ? "" : field.toString();
+        field.setLength(0);
+    }
+
+    private boolean fill() throws IOException {
+
+        int read = reader.read(buffer, 0, buffer.length);
+        while (read == 0)
+            read = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+}
@@ -21,15 +21,18 @@
 
 package org.geolatte.common.dataformats.csv;
 
+import org.geolatte.common.dataformats.wkb.GeometryEncoding;
+import org.geolatte.common.dataformats.wkb.WkbCodec;
 import org.geolatte.common.reflection.EntityClassReader;
 import org.geolatte.common.reflection.InvalidObjectReaderException;
 import org.geolatte.common.transformer.Transformation;
 import org.geolatte.common.transformer.TransformationException;
+import org.geolatte.common.util.DateCodec;
+import org.geolatte.geom.ByteOrder;
 import org.geolatte.geom.Geometry;
 
 
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -50,7 +53,8 @@ import java.util.List;
 public class CsvSerializationTransformation<T> implements Transformation<T, String> {
 
     private char separator;
-    private DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+    private DateCodec dateCodec = DateCodec.ISO_DATE;
+    private GeometryEncoding geometryEncoding = GeometryEncoding.WKT;
     private Class<? extends T> entityClass;
     private EntityClassReader reader;
     private List<String> columnList;
@@ -89,7 +93,33 @@ public class CsvSerializationTransformation<T> implements Transformation<T, Stri
      * @param formatterToUse the formatter to use for dates
      */
     public void setDateFormatter(DateFormat formatterToUse) {
-        formatter = formatterToUse;
+        dateCodec = DateCodec.forFormat(formatterToUse);
+    }
+
+    /**
+     * The codec to use for dates. Defaults to {@link DateCodec#ISO_DATE}.
+     *
+     * @param codecToUse the codec to use for dates
+     * @throws IllegalArgumentException if codecToUse is null
+     */
+    public void setDateCodec(DateCodec codecToUse) {
+
+        if (codecToUse == null)
+            throw new IllegalArgumentException("Argument codecToUse cannot be null");
+
+        dateCodec = codecToUse;
+    }
+
+    /**
+     * The encoding to use for the geometry. Defaults to WKT.
+     *
+     * @param geometryEncoding the encoding to use for geometries, not null
+     * @throws IllegalArgumentException if geometryEncoding is null
+     */
+    public void setGeometryEncoding(GeometryEncoding geometryEncoding) {
+        if (geometryEncoding == null)
+            throw new IllegalArgumentException("Argument geometryEncoding cannot be null");
+        this.geometryEncoding = geometryEncoding;
     }
 
     /**
@@ -135,13 +165,15 @@ public class CsvSerializationTransformation<T> implements Transformation<T, Stri
                         sb.append(separator);
                     } else if (column.equalsIgnoreCase(reader.getGeometryName())) {
                         Geometry geom = reader.getGeometry(input);
-                        sb.append(geom == null ? "" : geom.asText());
+                        if (geom != null) {
+                            WkbCodec.append(geom, geometryEncoding, ByteOrder.NDR, sb);
+                        }
                         sb.append(separator);
                     } else {
                         Object value = reader.getPropertyValue(input, column);
                         value = null == value ? "" : value;
                         if (value instanceof Date) {
-                            sb.append(formatter.format((Date) value));
+                            sb.append(dateCodec.format((Date) value));
                         } else {
                             sb.append(value);
                         }
@@ -158,7 +190,7 @@ public class CsvSerializationTransformation<T> implements Transformation<T, Stri
                     Object value = reader.getPropertyValue(input, name);
                     value = null == value ? "" : value;
                     if (value instanceof Date) {
-                        sb.append(formatter.format((Date) value));
+                        sb.append(dateCodec.format((Date) value));
                     } else {
                         sb.append(value);
                     }
@@ -166,7 +198,9 @@ public class CsvSerializationTransformation<T> implements Transformation<T, Stri
                 }
                 if (reader.getGeometryName() != null) {
                     Geometry geom = reader.getGeometry(input);
-                    sb.append(geom == null ? "" : geom.asText());
+                    if (geom != null) {
+                        WkbCodec.append(geom, geometryEncoding, ByteOrder.NDR, sb);
+                    }
                     sb.append(separator);
                 }
             }
@@ -0,0 +1,353 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.csv;
+
+import org.geolatte.common.dataformats.wkb.GeometryEncoding;
+import org.geolatte.common.dataformats.wkb.WkbCodec;
+import org.geolatte.common.reflection.EntityClassReader;
+import org.geolatte.common.reflection.PropertyReader;
+import org.geolatte.common.transformer.AbstractObservableTransformerSink;
+import org.geolatte.common.transformer.TransformationException;
+import org.geolatte.common.util.DateCodec;
+import org.geolatte.geom.ByteOrder;
+import org.geolatte.geom.Geometry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>
+ * A {@link org.geolatte.common.transformer.TransformerSink} that writes the objects it consumes as
+ * <a href="http://tools.ietf.org/html/rfc4180">RFC 4180</a> CSV records to a character stream. It is the streaming
+ * counterpart of {@link CsvSerializationTransformation}: the columns and their property accessors are resolved once, at
+ * construction, and each record is assembled in a reused buffer and written straight to a buffered writer.
+ * </p>
+ * <p>
+ * Fields that contain the separator, a double quote or a line break are enclosed in double quotes, and embedded double
+ * quotes are doubled. Null values are written as empty fields. Geometries are written as WKT unless another
+ * {@link GeometryEncoding} is set. Records are terminated by CRLF unless another line separator is set. Objects of
+ * another class than the entity class of the sink are skipped and reported as an error.
+ * </p>
+ * <p>
+ * The sink flushes its writer when its input is exhausted, but does not close it.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the objects written by this sink.
+ * @since SDK1.5
+ */
+public class CsvTransformerSink<T> extends AbstractObservableTransformerSink<T> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
+
+    private final Writer writer;
+    private final char separator;
+    private final Class<? extends T> entityClass;
+    private final String[] columnNames;
+    // Null for columns that do not correspond with a property
+    private final PropertyReader[] columnReaders;
+
+    private DateCodec dateCodec = DateCodec.ISO_DATE;
+    private GeometryEncoding geometryEncoding = GeometryEncoding.WKT;
+    private String lineSeparator = "\r\n";
+    private boolean isHeaderWritten = true;
+
+    private Iterable<? extends T> input;
+
+    // Reused for every record
+    private final StringBuilder record = new StringBuilder(256);
+    private final StringBuilder geometryText = new StringBuilder(256);
+    private char[] recordChars = new char[256];
+
+    /**
+     * Constructs a sink that writes all properties of the given class: the id first, then the other properties in no
+     * particular order, then the geometry.
+     *
+     * @param writer      the writer to write to. It is wrapped in a {@link BufferedWriter} unless it already is one.
+     * @param objectClass the class of the objects to write
+     * @param csvChar     the character to use to separate different columns.
+     * @throws IllegalArgumentException if writer or objectClass is null
+     */
+    public CsvTransformerSink(Writer writer, Class<? extends T> objectClass, char csvChar) {
+        this(writer, objectClass, csvChar, null);
+    }
+
+    /**
+     * Constructs a sink that writes the given columns of the given class.
+     *
+     * @param writer      the writer to write to. It is wrapped in a {@link BufferedWriter} unless it already is one.
+     * @param objectClass the class of the objects to write
+     * @param csvChar     the character to use to separate different columns.
+     * @param columnList  if set, only the columns in the given list will be written and in that order. If not,
+     *                    all columns will be written: the id first, then the other properties in no particular order,
+     *                    then the geometry.
+     * @throws IllegalArgumentException if writer or objectClass is null
+     */
+    public CsvTransformerSink(Writer writer, Class<? extends T> objectClass, char csvChar, List<String> columnList) {
+
+        if (writer == null)
+            throw new IllegalArgumentException("Argument writer cannot be null");
+        if (objectClass == null)
+            throw new IllegalArgumentException("Argument objectClass cannot be null");
+
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, BUFFER_SIZE);
+        this.separator = csvChar;
+        this.entityClass = objectClass;
+
+        EntityClassReader reader = EntityClassReader.getClassReaderFor(objectClass);
+        List<String> names = new ArrayList<String>();
+        List<PropertyReader> readers = new ArrayList<PropertyReader>();
+        if (columnList != null && columnList.size() > 0) {
+            for (String column : columnList) {
+                String propertyName = column;
+                if (column.equalsIgnoreCase(reader.getIdName()))
+                    propertyName = reader.getIdName();
+                else if (column.equalsIgnoreCase(reader.getGeometryName()))
+                    propertyName = reader.getGeometryName();
+                names.add(column);
+                readers.add(reader.getPropertyReader(propertyName));
+            }
+        } else {
+            if (reader.getIdName() != null) {
+                names.add(reader.getIdName());
+                readers.add(reader.getPropertyReader(reader.getIdName()));
+            }
+            for (String name : reader.getProperties()) {
+                names.add(name);
+                readers.add(reader.getPropertyReader(name));
+            }
+            if (reader.getGeometryName() != null) {
+                names.add(reader.getGeometryName());
+                readers.add(reader.getPropertyReader(reader.getGeometryName()));
+            }
+        }
+        columnNames = names.toArray(new String[names.size()]);
+        columnReaders = readers.toArray(new PropertyReader[readers.size()]);
+    }
+
+    /**
+     * Constructs a sink that writes the given columns of the given class to a stream, encoded in UTF-8.
+     *
+     * @param outputStream the stream to write to.
+     * @param objectClass  the class of the objects to write
+     * @param csvChar      the character to use to separate different columns.
+     * @param columnList   if set, only the columns in the given list will be written and in that order. If not,
+     *                     all columns will be written.
+     * @throws IllegalArgumentException if outputStream or objectClass is null
+     */
+    public CsvTransformerSink(OutputStream outputStream, Class<? extends T> objectClass, char csvChar, List<String> columnList) {
+        this(outputStream == null ? null : new OutputStreamWriter(outputStream, DEFAULT_CHARSET), objectClass, csvChar, columnList);
+    }
+
+    /**
+     * The formatter to use for date values
+     *
+     * @param formatterToUse the formatter to use for dates
+     */
+    public void setDateFormatter(DateFormat formatterToUse) {
+        dateCodec = DateCodec.forFormat(formatterToUse);
+    }
+
+    /**
+     * The codec to use for date values. Defaults to {@link DateCodec#ISO_DATE}.
+     *
+     * @param codecToUse the codec to use for dates
+     * @throws IllegalArgumentException if codecToUse is null
+     */
+    public void setDateCodec(DateCodec codecToUse) {
+
+        if (codecToUse == null)
+            throw new IllegalArgumentException("Argument codecToUse cannot be null");
+
+        dateCodec = codecToUse;
+    }
+
+    /**
+     * Sets the encoding of geometry columns. Defaults to WKT. The WKB encodings are written in little endian (NDR) byte
+     * order, and are both smaller and faster to produce and to read back.
+     *
+     * @param geometryEncoding the encoding to use, not null
+     * @throws IllegalArgumentException if geometryEncoding is null
+     */
+    public void setGeometryEncoding(GeometryEncoding geometryEncoding) {
+        if (geometryEncoding == null)
+            throw new IllegalArgumentException("Argument geometryEncoding cannot be null");
+        this.geometryEncoding = geometryEncoding;
+    }
+
+    /**
+     * Sets the string that terminates each record. Defaults to CRLF, as prescribed by RFC 4180.
+     *
+     * @param lineSeparator the record terminator, not null
+     * @throws IllegalArgumentException if lineSeparator is null
+     */
+    public void setLineSeparator(String lineSeparator) {
+        if (lineSeparator == null)
+            throw new IllegalArgumentException("Argument lineSeparator cannot be null");
+        this.lineSeparator = lineSeparator;
+    }
+
+    /**
+     * Sets whether a header record with the column names is written before the first object. Defaults to true.
+     *
+     * @param headerWritten whether to write the header
+     */
+    public void setHeaderWritten(boolean headerWritten) {
+        isHeaderWritten = headerWritten;
+    }
+
+    /**
+     * @return the header (all column names separated by the separator, quoted where needed)
+     */
+    public String getHeader() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0)
+                sb.append(separator);
+            appendField(sb, columnNames[i]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    protected void setInput(Iterable<? extends T> input) {
+
+        this.input = input;
+    }
+
+    /**
+     * Writes all objects of the input, preceded by the header if required, and flushes the writer. Write failures are
+     * reported as an error event and end the output.
+     */
+    @Override
+    protected void start() {
+
+        try {
+            if (isHeaderWritten) {
+                for (int i = 0; i < columnNames.length; i++) {
+                    if (i > 0)
+                        record.append(separator);
+                    appendField(record, columnNames[i]);
+                }
+                writeRecord();
+            }
+            if (input != null) {
+                for (T element : input) {
+                    if (element == null)
+                        continue;
+                    if (element.getClass() != entityClass) {
+                        onTransformationSinkErrorOccurred(new TransformationException("Object not of correct type", element));
+                        continue;
+                    }
+                    try {
+                        appendRecord(element);
+                    } catch (RuntimeException e) {
+                        record.setLength(0);
+                        onTransformationSinkErrorOccurred(e);
+                        continue;
+                    }
+                    writeRecord();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            record.setLength(0);
+            onTransformationSinkErrorOccurred(e);
+        }
+    }
+
+    private void appendRecord(T element) {
+
+        for (int i = 0; i < columnReaders.length; i++) {
+            if (i > 0)
+                record.append(separator);
+            if (columnReaders[i] == null)
+                continue;
+            Object value = columnReaders[i].getValueFrom(element);
+            if (value == null)
+                continue;
+            if (value instanceof CharSequence) {
+                appendField(record, (CharSequence) value);
+            } else if (value instanceof Geometry) {
+                geometryText.setLength(0);
+                WkbCodec.append((Geometry) value, geometryEncoding, ByteOrder.NDR, geometryText);
+                appendField(record, geometryText);
+            } else if (value instanceof Date) {
+                appendField(record, dateCodec.format((Date) value));
+            } else {
+                appendField(record, value.toString());
+            }
+        }
+    }
+
+    /**
+     * Terminates the record in the buffer, writes it and clears the buffer.
+     */
+    private void writeRecord() throws IOException {
+
+        record.append(lineSeparator);
+        int length = record.length();
+        if (recordChars.length < length)
+            recordChars = new char[Math.max(length, 2 * recordChars.length)];
+        record.getChars(0, length, recordChars, 0);
+        record.setLength(0);
+        writer.write(recordChars, 0, length);
+    }
+
+    /**
+     * Appends the given field, enclosed in double quotes if it contains the separator, a double quote or a line break.
+     */
+    private void appendField(StringBuilder sb, CharSequence field) {
+
+        int length = field.length();
+        boolean isQuoted = false;
+        for (int i = 0; i < length && !isQuoted; i++) {
+            char c = field.charAt(i);
+            isQuoted = c == separator || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!isQuoted) {
+            sb.append(field);
+            return;
+        }
+
+        sb.append('"');
+        for (int i = 0; i < length; i++) {
+            char c = field.charAt(i);
+            if (c == '"')
+                sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.csv;
+
+import org.geolatte.common.reflection.EntityClassReader;
+
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * A {@link org.geolatte.common.transformer.TransformerSource} that reads a CSV stream with a header record and creates
+ * an instance of a given class for every following record. The counterpart of {@link CsvTransformerSink}.
+ * </p>
+ * <p>
+ * The class needs a no-argument constructor. Each column of the header is mapped, once, on the property with the same
+ * name (the id and geometry property are matched ignoring case, as in {@link CsvSerializationTransformation}), and its
+ * values are converted to the type of the property's setter: numbers and booleans as by
+ * {@link EntityClassReader#parseAsPropertyType(String, String)}, geometries from WKT or (E)WKB and dates
+ * with the date codec. Of overloaded setters, the one that takes the type of the property is used. Columns without a
+ * matching setter are ignored; empty values leave the property untouched.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the objects created from the records.
+ * @since SDK1.5
+ */
+public class CsvTransformerSource<T> extends AbstractCsvTransformerSource<T> {
+
+    private final Class<T> entityClass;
+    private final Constructor<T> constructor;
+
+    // Per column of the header, null if the column is not mapped
+    private Method[] columnSetters;
+    private Class[] columnTypes;
+
+    /**
+     * Constructs a source that reads objects of the given class.
+     *
+     * @param reader      the stream to read. It is read in large blocks, so there is no need to buffer it.
+     * @param csvChar     the character that separates the columns
+     * @param objectClass the class of the objects to create
+     * @throws IllegalArgumentException if reader or objectClass is null, or if objectClass has no no-argument
+     *                                  constructor
+     */
+    public CsvTransformerSource(Reader reader, char csvChar, Class<T> objectClass) {
+
+        super(reader, csvChar);
+
+        if (objectClass == null)
+            throw new IllegalArgumentException("Argument objectClass cannot be null");
+
+        entityClass = objectClass;
+        try {
+            constructor = objectClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Class " + objectClass.getName() + " has no no-argument constructor", e);
+        }
+    }
+
+    @Override
+    void bindHeader(CsvRecordReader header) {
+
+        EntityClassReader reader = EntityClassReader.getClassReaderFor(entityClass);
+        int columnCount = header.getFieldCount();
+        columnSetters = new Method[columnCount];
+        columnTypes = new Class[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            String column = header.getField(i).trim();
+            if (column.equalsIgnoreCase(reader.getIdName()))
+                column = reader.getIdName();
+            else if (column.equalsIgnoreCase(reader.getGeometryName()))
+                column = reader.getGeometryName();
+
+            Method setter = findSetter(column);
+            if (setter != null) {
+                columnSetters[i] = setter;
+                columnTypes[i] = setter.getParameterTypes()[0];
+            }
+        }
+    }
+
+    @Override
+    T createObject(CsvRecordReader record) {
+
+        try {
+            T result = constructor.newInstance();
+            for (int i = 0; i < columnSetters.length; i++) {
+                if (columnSetters[i] == null)
+                    continue;
+                Object value = parseValue(record.getField(i), columnTypes[i]);
+                if (value == null && columnTypes[i].isPrimitive())
+                    continue;
+                columnSetters[i].invoke(result, value);
+            }
+            return result;
+        } catch (InstantiationException e) {
+            throw new IllegalStateException("Failed to create object", e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to set value", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Failed to set value", e.getCause());
+        }
+    }
+
+    /**
+     * Finds the setter of the given property. Of overloaded setters, the one that takes the type of the property's
+     * getter, or else of its field, is chosen.
+     *
+     * @throws IllegalStateException if the property has overloaded setters and none or several take that type
+     */
+    private Method findSetter(String propertyName) {
+
+        if (propertyName.length() == 0)
+            return null;
+
+        String capitalized = Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+        String setterName = "set" + capitalized;
+        List<Method> candidates = new ArrayList<Method>();
+        for (Method m : entityClass.getMethods()) {
+            if (m.getName().equals(setterName) && m.getParameterTypes().length == 1 && !m.isBridge())
+                candidates.add(m);
+        }
+        if (candidates.size() <= 1)
+            return candidates.isEmpty() ? null : candidates.get(0);
+
+        Class propertyType = findPropertyType(propertyName, capitalized);
+        Method setter = null;
+        for (Method m : candidates) {
+            if (m.getParameterTypes()[0] == propertyType) {
+                if (setter != null) {
+                    setter = null;
+                    break;
+                }
+                setter = m;
+            }
+        }
+        if (setter == null)
+            throw new IllegalStateException("Ambiguous setters " + setterName + " in " + entityClass.getName()
+                    + (propertyType == null ? "" : " for property type " + propertyType.getName()));
+        return setter;
+    }
+
+    /**
+     * @return The return type of the getter of the given property, or else the type of its field, or null if it has
+     *         neither.
+     */
+    private Class findPropertyType(String propertyName, String capitalized) {
+
+        for (String prefix : new String[]{"get", "is"}) {
+            try {
+                Method getter = entityClass.getMethod(prefix + capitalized);
+                if (getter.getReturnType() != void.class)
+                    return getter.getReturnType();
+            } catch (NoSuchMethodException e) {
+                // try the next prefix
+            }
+        }
+        for (Class type = entityClass; type != null; type = type.getSuperclass()) {
+            try {
+                return type.getDeclaredField(propertyName).getType();
+            } catch (NoSuchFieldException e) {
+                // try the superclass
+            }
+        }
+        return null;
+    }
+}
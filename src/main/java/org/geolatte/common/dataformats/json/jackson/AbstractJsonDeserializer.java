@@ -18,11 +18,10 @@ package org.geolatte.common.dataformats.json.jackson;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import org.geolatte.common.util.DateCodec;
 
 import java.io.IOException;
-import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Map;
 
@@ -364,12 +363,10 @@ public abstract class AbstractJsonDeserializer<T> extends JsonDeserializer<T> {
             }
         }
         try {
-            DateFormat formatter = new SimpleDateFormat("dd/MM/yyyy");
-            return formatter.parse(dateInString);
+            return DateCodec.forPattern("dd/MM/yyyy").parse(dateInString);
         } catch (ParseException ignored) {
-            DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
             try {
-                return formatter.parse(dateInString);
+                return DateCodec.ISO_DATE.parse(dateInString);
             } catch (ParseException e) {
                 if (errorMessage == null) {
                     return null;
@@ -16,9 +16,11 @@ package org.geolatte.common.dataformats.json.jackson;
 
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -141,6 +143,37 @@ public class JsonMapper {
         }
     }
 
+    /**
+     * Converts the UTF-8 encoded json between the position and the limit of the given buffer into an object of the
+     * given class. The bytes are parsed in place, so a slice of a memory-mapped file can be parsed without first
+     * copying it into a string. The position of the given buffer is not changed.
+     *
+     * @param json  the buffer holding the json representing the object to be parsed
+     * @param clazz The class to which the returned object should belong
+     * @param <T>   the type of the returned object
+     * @return an instantiated object of class T corresponding to the given json
+     * @throws JsonException If deserialization failed or if the object of class T could for some reason not be
+     *                       constructed.
+     */
+    public synchronized <T> T fromJson(ByteBuffer json, Class<T> clazz)
+            throws JsonException {
+        if (json == null) {
+            return null;
+        }
+        try {
+            if (json.hasArray()) {
+                return mapper.readValue(json.array(), json.arrayOffset() + json.position(), json.remaining(), clazz);
+            }
+            return mapper.readValue(new ByteBufferInputStream(json.duplicate()), clazz);
+        } catch (JsonParseException e) {
+            throw new JsonException(e.getMessage(), e);
+        } catch (JsonMappingException e) {
+            throw new JsonException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Converts a JsonString into a corresponding javaobject of the requested type.
      *
@@ -285,4 +318,39 @@ public class JsonMapper {
         }
     }
 
+    /**
+     * Reads the remaining bytes of a buffer, without copying them up front.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
 }
@@ -0,0 +1,295 @@
+/*
+ * This file is part of the GeoLatte project. This code is licenced under
+ * the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions and limitations under the
+ * License.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.Qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.json.jackson;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.transformer.AbstractObservableTransformerSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A {@link org.geolatte.common.transformer.TransformerSource} that reads the features of a newline-delimited GeoJSON
+ * file: one GeoJSON Feature per line, optionally preceded by the RFC 8142 record separator (0x1E), as written by
+ * {@link NdjsonTransformerSink}. Blank lines are skipped.
+ * </p>
+ * <p>
+ * The file is memory-mapped in large windows. Records are located by scanning the mapped bytes for newlines and each
+ * record is parsed in place from its byte range with {@link JsonMapper#fromJson(java.nio.ByteBuffer, Class)}, so the
+ * file content is never copied into strings. Records that can not be parsed are skipped and reported as a
+ * non-terminating error.
+ * </p>
+ * <p>
+ * A source can be restricted to a byte range of the file. It then reads the records that start within that range,
+ * whether or not the range boundaries fall on record boundaries, so {@link #split(int)} can cut a file into ranges that
+ * are read in parallel by different chains, each with its own mapper, without losing or duplicating a record.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class NdjsonFeatureSource extends AbstractObservableTransformerSource<Feature> {
+
+    private static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+    private static final byte RECORD_SEPARATOR = 0x1E;
+
+    private final File file;
+    private final long start;
+    private final long end;
+    private final JsonMapper mapper;
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    /**
+     * Constructs a source that reads all features of the given file.
+     *
+     * @param file the file to read
+     * @throws IllegalArgumentException if file is null
+     */
+    public NdjsonFeatureSource(File file) {
+        this(file, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a source that reads the features whose record starts within the given byte range of the file.
+     *
+     * @param file  the file to read
+     * @param start the offset of the first byte of the range
+     * @param end   the offset of the first byte after the range; may exceed the length of the file
+     * @throws IllegalArgumentException if file is null, or if start is negative or larger than end
+     */
+    public NdjsonFeatureSource(File file, long start, long end) {
+
+        if (file == null)
+            throw new IllegalArgumentException("Argument file cannot be null");
+        if (start < 0 || start > end)
+            throw new IllegalArgumentException("Invalid range: [" + start + ", " + end + ")");
+
+        this.file = file;
+        this.start = start;
+        this.end = end;
+        this.mapper = new JsonMapper();
+    }
+
+    /**
+     * Splits this source into consecutive sources that together read the same features. Each of them has its own
+     * {@link JsonMapper}, so they can be read concurrently.
+     *
+     * @param parts the number of sources to split into, at least 1
+     * @return the sources, in file order
+     * @throws IllegalArgumentException if parts is smaller than 1
+     */
+    public List<NdjsonFeatureSource> split(int parts) {
+
+        if (parts < 1)
+            throw new IllegalArgumentException("Argument parts must be at least 1");
+
+        long rangeEnd = Math.min(end, file.length());
+        long length = Math.max(0, rangeEnd - start);
+        List<NdjsonFeatureSource> result = new ArrayList<NdjsonFeatureSource>(parts);
+        long partStart = start;
+        for (int i = 1; i <= parts; i++) {
+            long partEnd = i == parts ? end : start + length * i / parts;
+            NdjsonFeatureSource part = new NdjsonFeatureSource(file, partStart, partEnd);
+            part.windowSize = windowSize;
+            result.add(part);
+            partStart = partEnd;
+        }
+        return result;
+    }
+
+    /**
+     * Sets the maximum number of bytes mapped at once. A single record may not be larger than this.
+     *
+     * @param windowSize the size of the mapping window in bytes
+     */
+    void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Returns the features of the file. The file is opened each time the returned iterable is iterated, and closed when
+     * the iteration is finished.
+     *
+     * @return The features read from the file.
+     */
+    @Override
+    protected Iterable<Feature> output() {
+
+        return new Iterable<Feature>() {
+            public Iterator<Feature> iterator() {
+                return new RecordIterator();
+            }
+        };
+    }
+
+    private class RecordIterator implements Iterator<Feature> {
+
+        private FileChannel channel;
+        private long fileSize;
+        private long rangeEnd;
+        private long position;
+        private boolean isFinished = false;
+
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long windowEnd;
+
+        private Feature next;
+
+        public boolean hasNext() {
+
+            if (next != null)
+                return true;
+
+            try {
+                if (channel == null && !isFinished)
+                    open();
+
+                while (next == null && !isFinished) {
+                    if (position >= rangeEnd) {
+                        finish();
+                        break;
+                    }
+                    long recordStart = position;
+                    long recordEnd = findNewline(recordStart);
+                    position = recordEnd + 1;
+                    next = parse(recordStart, recordEnd);
+                }
+            } catch (IOException e) {
+                onSourceErrorOccurred(true, e);
+                finish();
+            }
+            return next != null;
+        }
+
+        public Feature next() {
+
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            Feature result = next;
+            next = null;
+            return result;
+        }
+
+        /**
+         * Not supported.
+         */
+        public void remove() {
+
+            throw new UnsupportedOperationException();
+        }
+
+        private void open() throws IOException {
+
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            fileSize = channel.size();
+            rangeEnd = Math.min(end, fileSize);
+            position = start;
+            // Unless the range starts right after a newline, the record under its start belongs to the previous range
+            if (start > 0 && start < rangeEnd)
+                position = findNewline(start - 1) + 1;
+        }
+
+        private void finish() {
+
+            isFinished = true;
+            window = null;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    onSourceErrorOccurred(false, e);
+                }
+            }
+        }
+
+        /**
+         * Finds the first newline at or after the given offset, mapping the window so that it covers the bytes from the
+         * given offset up to the newline.
+         *
+         * @return the offset of the newline, or the file size if there is none
+         */
+        private long findNewline(long from) throws IOException {
+
+            if (window == null || from < windowStart || from >= windowEnd)
+                map(from);
+
+            long scan = from;
+            while (true) {
+                int limit = (int) (windowEnd - windowStart);
+                for (int i = (int) (scan - windowStart); i < limit; i++) {
+                    if (window.get(i) == '\n')
+                        return windowStart + i;
+                }
+                if (windowEnd == fileSize)
+                    return fileSize;
+                if (from == windowStart)
+                    throw new IOException("Record at offset " + from + " is larger than " + windowSize + " bytes");
+                scan = windowEnd;
+                map(from);
+            }
+        }
+
+        private void map(long from) throws IOException {
+
+            windowStart = from;
+            windowEnd = Math.min(fileSize, from + windowSize);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+        }
+
+        /**
+         * Parses the record in the given byte range, which must be covered by the window.
+         *
+         * @return the feature, or null if the record is blank or invalid
+         */
+        private Feature parse(long recordStart, long recordEnd) {
+
+            int from = (int) (recordStart - windowStart);
+            int to = (int) (recordEnd - windowStart);
+            while (from < to && isBlank(window.get(from)))
+                from++;
+            while (to > from && isBlank(window.get(to - 1)))
+                to--;
+            if (from == to)
+                return null;
+
+            java.nio.ByteBuffer record = window.duplicate();
+            record.limit(to);
+            record.position(from);
+            try {
+                return mapper.fromJson(record, Feature.class);
+            } catch (JsonException e) {
+                onSourceErrorOccurred(false, e);
+                return null;
+            }
+        }
+
+        private boolean isBlank(byte b) {
+
+            return b == ' ' || b == '\t' || b == '\r' || b == RECORD_SEPARATOR;
+        }
+    }
+}
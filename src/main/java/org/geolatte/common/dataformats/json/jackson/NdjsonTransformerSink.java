@@ -0,0 +1,125 @@
+/*
+ * This file is part of the GeoLatte project. This code is licenced under
+ * the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions and limitations under the
+ * License.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.Qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.json.jackson;
+
+import org.geolatte.common.transformer.AbstractObservableTransformerSink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * <p>
+ * A {@link org.geolatte.common.transformer.TransformerSink} that writes the objects it consumes as newline-delimited
+ * json: each object is serialized with a {@link JsonMapper} (features as GeoJSON Features) on a line of its own. If
+ * required, each record is preceded by the record separator character (0x1E), which makes the output a GeoJSON text
+ * sequence as defined by RFC 8142. The output can be read back with {@link NdjsonFeatureSource}.
+ * </p>
+ * <p>
+ * Objects that can not be serialized are skipped and reported as an error. The sink flushes its writer when its input
+ * is exhausted, but does not close it.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the objects written by this sink.
+ * @since SDK1.5
+ */
+public class NdjsonTransformerSink<T> extends AbstractObservableTransformerSink<T> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char RECORD_SEPARATOR = 0x1E;
+
+    private final Writer writer;
+    private final JsonMapper mapper;
+    private boolean isRecordSeparated = false;
+
+    private Iterable<? extends T> input;
+
+    /**
+     * Constructs a sink that writes to the given writer.
+     *
+     * @param writer the writer to write to. It is wrapped in a {@link BufferedWriter} unless it already is one.
+     * @throws IllegalArgumentException if writer is null
+     */
+    public NdjsonTransformerSink(Writer writer) {
+
+        if (writer == null)
+            throw new IllegalArgumentException("Argument writer cannot be null");
+
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, BUFFER_SIZE);
+        this.mapper = new JsonMapper();
+    }
+
+    /**
+     * Constructs a sink that writes to the given stream, encoded in UTF-8.
+     *
+     * @param outputStream the stream to write to.
+     * @throws IllegalArgumentException if outputStream is null
+     */
+    public NdjsonTransformerSink(OutputStream outputStream) {
+        this(outputStream == null ? null : new OutputStreamWriter(outputStream, Charset.forName("UTF-8")));
+    }
+
+    /**
+     * Sets whether each record is preceded by the RFC 8142 record separator. Defaults to false.
+     *
+     * @param recordSeparated whether to write record separators
+     */
+    public void setRecordSeparated(boolean recordSeparated) {
+        isRecordSeparated = recordSeparated;
+    }
+
+    @Override
+    protected void setInput(Iterable<? extends T> input) {
+
+        this.input = input;
+    }
+
+    /**
+     * Writes all objects of the input and flushes the writer. Write failures are reported as an error event and end the
+     * output.
+     */
+    @Override
+    protected void start() {
+
+        try {
+            if (input != null) {
+                for (T element : input) {
+                    if (element == null)
+                        continue;
+                    String json;
+                    try {
+                        json = mapper.toJson(element);
+                    } catch (JsonException e) {
+                        onTransformationSinkErrorOccurred(e);
+                        continue;
+                    }
+                    if (isRecordSeparated)
+                        writer.write(RECORD_SEPARATOR);
+                    writer.write(json);
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            onTransformationSinkErrorOccurred(e);
+        }
+    }
+}
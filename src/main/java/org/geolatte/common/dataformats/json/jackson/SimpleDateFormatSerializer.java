@@ -18,10 +18,9 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import org.geolatte.common.util.DateCodec;
 
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 /**
@@ -38,10 +37,8 @@ import java.util.Date;
  */
 public class SimpleDateFormatSerializer extends JsonSerializer<Date> {
 
-    private DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-
     @Override
     public void serialize(Date date, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException, JsonProcessingException {
-        jsonGenerator.writeString(formatter.format(date)); 
+        jsonGenerator.writeString(DateCodec.ISO_DATE.format(date));
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.wkb;
+
+import org.geolatte.common.transformer.Transformation;
+import org.geolatte.common.transformer.TransformationException;
+import org.geolatte.geom.ByteOrder;
+import org.geolatte.geom.Geometry;
+
+/**
+ * <p>
+ * A transformation that encodes geometries as text: WKT, or hexadecimal or base64 (extended) well-known binary. See
+ * {@link WkbCodec}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class GeometryToTextTransformation implements Transformation<Geometry, String> {
+
+    private final GeometryEncoding encoding;
+    private final ByteOrder byteOrder;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    /**
+     * Constructs a transformation that encodes in the given encoding, using little endian (NDR) byte order for WKB.
+     *
+     * @param encoding the encoding to use, not null
+     * @throws IllegalArgumentException if encoding is null
+     */
+    public GeometryToTextTransformation(GeometryEncoding encoding) {
+        this(encoding, ByteOrder.NDR);
+    }
+
+    /**
+     * Constructs a transformation that encodes in the given encoding and byte order.
+     *
+     * @param encoding  the encoding to use, not null
+     * @param byteOrder the byte order to use for WKB, not null
+     * @throws IllegalArgumentException if encoding or byteOrder is null
+     */
+    public GeometryToTextTransformation(GeometryEncoding encoding, ByteOrder byteOrder) {
+
+        if (encoding == null)
+            throw new IllegalArgumentException("Argument encoding cannot be null");
+        if (byteOrder == null)
+            throw new IllegalArgumentException("Argument byteOrder cannot be null");
+
+        this.encoding = encoding;
+        this.byteOrder = byteOrder;
+    }
+
+    public synchronized String transform(Geometry input) throws TransformationException {
+
+        if (input == null)
+            throw new TransformationException("Cannot encode a null geometry", input);
+
+        try {
+            buffer.setLength(0);
+            WkbCodec.append(input, encoding, byteOrder, buffer);
+            return buffer.toString();
+        } catch (RuntimeException e) {
+            throw new TransformationException(e, input);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.wkb;
+
+import org.geolatte.geom.ByteBuffer;
+import org.geolatte.geom.ByteOrder;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkb;
+import org.geolatte.geom.codec.WkbEncoder;
+import org.geolatte.geom.codec.Wkt;
+
+import java.util.Base64;
+
+/**
+ * <p>
+ * Converts geometries from and to (extended) well-known binary and its hexadecimal and base64 text forms. Geometries
+ * are encoded in the PostGIS EWKB dialect: for a geometry without SRID this is plain OGC WKB, otherwise the SRID is
+ * included.
+ * </p>
+ * <p>
+ * The append methods write the text form of a geometry straight into a caller-supplied (and typically reused)
+ * {@link StringBuilder}, without an intermediate byte array or string.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public final class WkbCodec {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final char[] BASE64_DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private WkbCodec() {
+    }
+
+    /**
+     * Encodes the given geometry as (E)WKB.
+     *
+     * @param geometry  the geometry to encode, not null
+     * @param byteOrder the byte order to use
+     * @return the bytes of the encoded geometry
+     */
+    public static byte[] toWkb(Geometry geometry, ByteOrder byteOrder) {
+        return encode(geometry, byteOrder).toByteArray();
+    }
+
+    /**
+     * Decodes a geometry from (E)WKB.
+     *
+     * @param wkb the bytes to decode, not null
+     * @return the geometry
+     * @throws RuntimeException if the bytes are not a valid (E)WKB geometry
+     */
+    public static Geometry fromWkb(byte[] wkb) {
+        return Wkb.fromWkb(ByteBuffer.from(wkb));
+    }
+
+    /**
+     * Appends the given geometry in the given text encoding.
+     *
+     * @param geometry  the geometry to append, not null
+     * @param encoding  the text encoding to use
+     * @param byteOrder the byte order to use for the WKB encodings
+     * @param target    the builder to append to
+     */
+    public static void append(Geometry geometry, GeometryEncoding encoding, ByteOrder byteOrder, StringBuilder target) {
+
+        switch (encoding) {
+            case WKB_HEX:
+                appendHex(encode(geometry, byteOrder), target);
+                break;
+            case WKB_BASE64:
+                appendBase64(encode(geometry, byteOrder), target);
+                break;
+            default:
+                target.append(geometry.asText());
+        }
+    }
+
+    /**
+     * Decodes a geometry from the given text encoding.
+     *
+     * @param text     the text to decode, not null
+     * @param encoding the text encoding of the geometry, or null to detect it: text that consists of an even number of
+     *                 hexadecimal digits is read as WKB_HEX, text that contains a parenthesis or a space as WKT and
+     *                 any other text as WKB_BASE64.
+     * @return the geometry
+     * @throws RuntimeException if the text is not a valid geometry in the given encoding
+     */
+    public static Geometry parse(CharSequence text, GeometryEncoding encoding) {
+
+        if (encoding == null)
+            encoding = detect(text);
+
+        switch (encoding) {
+            case WKB_HEX:
+                return fromWkb(decodeHex(text));
+            case WKB_BASE64:
+                return fromWkb(decodeBase64(text));
+            default:
+                return Wkt.fromWkt(text.toString());
+        }
+    }
+
+    private static GeometryEncoding detect(CharSequence text) {
+
+        int length = text.length();
+        boolean isHex = length % 2 == 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ' ')
+                return GeometryEncoding.WKT;
+            isHex = isHex && (c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F');
+        }
+        return isHex ? GeometryEncoding.WKB_HEX : GeometryEncoding.WKB_BASE64;
+    }
+
+    private static ByteBuffer encode(Geometry geometry, ByteOrder byteOrder) {
+
+        WkbEncoder encoder = Wkb.newEncoder(Wkb.Dialect.POSTGIS_EWKB_1);
+        ByteBuffer buffer = encoder.encode(geometry, byteOrder);
+        buffer.rewind();
+        return buffer;
+    }
+
+    private static void appendHex(ByteBuffer bytes, StringBuilder target) {
+
+        int length = bytes.limit();
+        target.ensureCapacity(target.length() + 2 * length);
+        for (int i = 0; i < length; i++) {
+            int b = bytes.get() & 0xFF;
+            target.append(HEX_DIGITS[b >> 4]).append(HEX_DIGITS[b & 0x0F]);
+        }
+    }
+
+    private static void appendBase64(ByteBuffer bytes, StringBuilder target) {
+
+        int length = bytes.limit();
+        target.ensureCapacity(target.length() + (length + 2) / 3 * 4);
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int group = (bytes.get() & 0xFF) << 16 | (bytes.get() & 0xFF) << 8 | (bytes.get() & 0xFF);
+            target.append(BASE64_DIGITS[group >> 18 & 0x3F]).append(BASE64_DIGITS[group >> 12 & 0x3F])
+                    .append(BASE64_DIGITS[group >> 6 & 0x3F]).append(BASE64_DIGITS[group & 0x3F]);
+        }
+        int remaining = length - i;
+        if (remaining > 0) {
+            int group = (bytes.get() & 0xFF) << 16;
+            if (remaining == 2)
+                group |= (bytes.get() & 0xFF) << 8;
+            target.append(BASE64_DIGITS[group >> 18 & 0x3F]).append(BASE64_DIGITS[group >> 12 & 0x3F]);
+            target.append(remaining == 2 ? BASE64_DIGITS[group >> 6 & 0x3F] : '=').append('=');
+        }
+    }
+
+    private static byte[] decodeHex(CharSequence text) {
+
+        int length = text.length();
+        if (length % 2 != 0)
+            throw new IllegalArgumentException("Hexadecimal text must have an even length");
+
+        byte[] result = new byte[length / 2];
+        for (int i = 0; i < result.length; i++)
+            result[i] = (byte) (hexValue(text.charAt(2 * i)) << 4 | hexValue(text.charAt(2 * i + 1)));
+        return result;
+    }
+
+    private static int hexValue(char c) {
+
+        int value = Character.digit(c, 16);
+        if (value < 0)
+            throw new IllegalArgumentException("Invalid hexadecimal digit: " + c);
+        return value;
+    }
+
+    private static byte[] decodeBase64(CharSequence text) {
+
+        return Base64.getDecoder().decode(text.toString());
+    }
+}
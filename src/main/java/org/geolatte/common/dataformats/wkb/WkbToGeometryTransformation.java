@@ -0,0 +1,51 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.wkb;
+
+import org.geolatte.common.transformer.Transformation;
+import org.geolatte.common.transformer.TransformationException;
+import org.geolatte.geom.Geometry;
+
+/**
+ * <p>
+ * A transformation that decodes geometries from (extended) well-known binary. See {@link WkbCodec}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class WkbToGeometryTransformation implements Transformation<byte[], Geometry> {
+
+    public Geometry transform(byte[] input) throws TransformationException {
+
+        if (input == null)
+            throw new TransformationException("Cannot decode a null geometry", input);
+
+        try {
+            return WkbCodec.fromWkb(input);
+        } catch (RuntimeException e) {
+            throw new TransformationException(e, input);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>
+ * A {@link Filter} that evaluates the operands of its conjunctions and disjunctions in the order that is cheapest for
+ * the objects it actually gets: an And stops at the first false operand and an Or at the first true one, so operands
+ * that are cheap and decisive are moved to the front.
+ * </p>
+ * <p>
+ * Nested Ands (and nested Ors) are flattened into a single list of operands. One in {@link #DEFAULT_SAMPLE_RATE}
+ * evaluations (or the given sample rate) is a sample: all operands are evaluated, and the time each one takes and its
+ * result are recorded. After a given number of samples, the operands are sorted on their expected cost per decision:
+ * the average cost divided by the fraction of evaluations in which the operand decides the result. Older samples then
+ * count for half, so the order follows changes in the input.
+ * </p>
+ * <p>
+ * The result of the filter does not depend on the order of its operands: for every object the filter expression can
+ * evaluate, an adaptive filter returns the same result. Operands whose value does not matter are skipped however, so
+ * an object on which one of those operands fails may be evaluated by an adaptive filter where the filter expression
+ * itself would fail.
+ * </p>
+ * <p>
+ * An adaptive filter can be used concurrently; all threads contribute to and share the same order.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class AdaptiveFilter extends Filter {
+
+    /**
+     * The default number of evaluations per sample.
+     */
+    public static final int DEFAULT_SAMPLE_RATE = 16;
+
+    /**
+     * The default number of samples after which the operands are reordered.
+     */
+    public static final int DEFAULT_REORDER_INTERVAL = 64;
+
+    private final int sampleRate;
+    private final int reorderInterval;
+    private final Node root;
+
+    /**
+     * Constructs an adaptive filter with the default sample rate and reorder interval.
+     *
+     * @param filterExpression The filter expression.
+     * @throws IllegalArgumentException If the given filterExpression is null.
+     */
+    public AdaptiveFilter(Expression<Boolean> filterExpression) throws IllegalArgumentException {
+        this(filterExpression, DEFAULT_SAMPLE_RATE, DEFAULT_REORDER_INTERVAL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param filterExpression The filter expression.
+     * @param sampleRate       The number of evaluations per sample; 1 samples every evaluation.
+     * @param reorderInterval  The number of samples after which the operands are reordered.
+     * @throws IllegalArgumentException If the given filterExpression is null, or sampleRate or reorderInterval is not
+     *                                  positive.
+     */
+    public AdaptiveFilter(Expression<Boolean> filterExpression, int sampleRate, int reorderInterval) throws IllegalArgumentException {
+        super(filterExpression);
+
+        if (sampleRate < 1)
+            throw new IllegalArgumentException("Argument sampleRate must be positive");
+        if (reorderInterval < 1)
+            throw new IllegalArgumentException("Argument reorderInterval must be positive");
+
+        this.sampleRate = sampleRate;
+        this.reorderInterval = reorderInterval;
+        this.root = createNode(filterExpression);
+    }
+
+    /**
+     * Evaluates the given object against this filter.
+     *
+     * @param o The object to evaluate.
+     * @return True if the object is accepted by the filter, false otherwise.
+     */
+    @Override
+    public Boolean evaluate(Object o) {
+
+        boolean isSample = sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+        return root.evaluate(o, isSample);
+    }
+
+    /**
+     * Gets the filter expression with the operands of its conjunctions and disjunctions in the order in which they
+     * are currently evaluated. Nested conjunctions (disjunctions) are returned flattened, as a left-deep tree.
+     *
+     * @return The expression as currently evaluated.
+     */
+    public Expression<Boolean> getCurrentExpression() {
+        return root.toExpression();
+    }
+
+    private Node createNode(Expression<Boolean> expression) {
+
+        if (expression instanceof And || expression instanceof Or) {
+            boolean isConjunction = expression instanceof And;
+            List<Node> operands = new ArrayList<Node>();
+            collectOperands(expression, isConjunction, operands);
+            return new Junction(isConjunction, operands.toArray(new Node[operands.size()]));
+        }
+        return new Leaf(expression);
+    }
+
+    private void collectOperands(Expression<Boolean> expression, boolean isConjunction, List<Node> operands) {
+
+        if (isConjunction ? expression instanceof And : expression instanceof Or) {
+            BinaryBooleanExpression<Boolean> binary = (BinaryBooleanExpression<Boolean>) expression;
+            collectOperands(binary.getLeft(), isConjunction, operands);
+            collectOperands(binary.getRight(), isConjunction, operands);
+        } else {
+            operands.add(createNode(expression));
+        }
+    }
+
+    /**
+     * A node of the evaluated tree.
+     */
+    private abstract static class Node {
+
+        /**
+         * @param o        The object to evaluate.
+         * @param isSample True if this evaluation is sampled: all operands are to be evaluated and measured.
+         * @return The value of the node; null only if the expression of a leaf is null.
+         */
+        abstract Boolean evaluate(Object o, boolean isSample);
+
+        abstract Expression<Boolean> toExpression();
+    }
+
+    private static final class Leaf extends Node {
+
+        private final Expression<Boolean> expression;
+
+        Leaf(Expression<Boolean> expression) {
+            this.expression = expression;
+        }
+
+        Boolean evaluate(Object o, boolean isSample) {
+            return expression.evaluate(o);
+        }
+
+        Expression<Boolean> toExpression() {
+            return expression;
+        }
+    }
+
+    /**
+     * A flattened conjunction or disjunction, with statistics for each of its operands.
+     */
+    private final class Junction extends Node {
+
+        private final boolean isConjunction;
+        private final Node[] operands;
+
+        // Statistics per operand, in the order of the operands array; guarded by this
+        private final double[] costs;
+        private final double[] decisions;
+        private final double[] samples;
+        private int sampleCount = 0;
+
+        // The order in which the operands are evaluated, replaced as a whole
+        private volatile Node[] order;
+
+        Junction(boolean isConjunction, Node[] operands) {
+            this.isConjunction = isConjunction;
+            this.operands = operands;
+            this.costs = new double[operands.length];
+            this.decisions = new double[operands.length];
+            this.samples = new double[operands.length];
+            this.order = operands.clone();
+        }
+
+        Boolean evaluate(Object o, boolean isSample) {
+
+            if (isSample)
+                return evaluateSample(o);
+
+            // A conjunction is decided by a false operand, a disjunction by a true one
+            boolean decisive = !isConjunction;
+            for (Node operand : order) {
+                if (operand.evaluate(o, false) == decisive)
+                    return decisive;
+            }
+            return !decisive;
+        }
+
+        private Boolean evaluateSample(Object o) {
+
+            boolean decisive = !isConjunction;
+            long[] elapsed = new long[operands.length];
+            boolean[] isDecisive = new boolean[operands.length];
+            boolean result = !decisive;
+            for (int i = 0; i < operands.length; i++) {
+                long start = System.nanoTime();
+                Boolean value = operands[i].evaluate(o, true);
+                elapsed[i] = System.nanoTime() - start;
+                // Like And and Or themselves, fail on a null operand
+                if (value.booleanValue() == decisive) {
+                    isDecisive[i] = true;
+                    result = decisive;
+                }
+            }
+            record(elapsed, isDecisive);
+            return result;
+        }
+
+        private synchronized void record(long[] elapsed, boolean[] isDecisive) {
+
+            for (int i = 0; i < operands.length; i++) {
+                costs[i] += elapsed[i];
+                samples[i]++;
+                if (isDecisive[i])
+                    decisions[i]++;
+            }
+
+            if (++sampleCount < reorderInterval)
+                return;
+
+            Integer[] indexes = new Integer[operands.length];
+            final double[] ranks = new double[operands.length];
+            final double[] averageCosts = new double[operands.length];
+            for (int i = 0; i < operands.length; i++) {
+                indexes[i] = i;
+                // The expected cost per decision; operands that never decided go last, ordered by their cost
+                ranks[i] = decisions[i] == 0 ? Double.POSITIVE_INFINITY : costs[i] / decisions[i];
+                averageCosts[i] = costs[i] / samples[i];
+                costs[i] /= 2;
+                decisions[i] /= 2;
+                samples[i] /= 2;
+            }
+            Arrays.sort(indexes, new Comparator<Integer>() {
+                public int compare(Integer first, Integer second) {
+                    int result = Double.compare(ranks[first], ranks[second]);
+                    return result != 0 ? result : Double.compare(averageCosts[first], averageCosts[second]);
+                }
+            });
+
+            Node[] newOrder = new Node[operands.length];
+            for (int i = 0; i < indexes.length; i++) {
+                newOrder[i] = operands[indexes[i]];
+            }
+            order = newOrder;
+            sampleCount = 0;
+        }
+
+        Expression<Boolean> toExpression() {
+
+            Node[] current = order;
+            Expression<Boolean> result = current[0].toExpression();
+            for (int i = 1; i < current.length; i++) {
+                result = isConjunction ? new And(result, current[i].toExpression()) : new Or(result, current[i].toExpression());
+            }
+            return result;
+        }
+    }
+}
@@ -64,15 +64,26 @@ public class BooleanProperty extends BooleanExpression implements PropertyExpres
         if (classReader.getPropertyType(propertyName) != Boolean.class)
                 throw new RuntimeException("Property " + propertyName + " on object " + o + " is not of type Boolean");
 
-        Object result = null;
+        Object result = readValue(o);
+
+        return (Boolean)result;
+    }
+
+    /**
+     * Reads the value of the property from the given object.
+     *
+     * @param o The object to read.
+     * @return The value of the property, null if the object has no such property.
+     */
+    Object readValue(Object o) {
+
+        EntityClassReader classReader = EntityClassReader.getClassReaderFor(o.getClass());
         try {
-            result = classReader.getPropertyValue(o, propertyName);
+            return classReader.getPropertyValue(o, propertyName);
         }
         catch (InvalidObjectReaderException e) {
-            ; // can never occur
+            return null; // can never occur
         }
-
-        return (Boolean)result;
     }
 
     public String getPropertyName() {
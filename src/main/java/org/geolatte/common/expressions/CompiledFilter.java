@@ -0,0 +1,107 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.common.transformer.Transformation;
+import org.geolatte.common.transformer.TransformationException;
+
+/**
+ * <p>
+ * A {@link Filter} compiled by {@link ExpressionCompiler} for objects of a single class. {@link #test(Object)} answers
+ * the same as the filter, without boxing and without resolving properties per evaluation.
+ * </p>
+ * <p>
+ * A compiled filter is stateless and can be used concurrently. It can also be used as the filter transformation of a
+ * {@link org.geolatte.common.transformer.DefaultFilter}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the objects to test.
+ * @since SDK1.5
+ */
+public final class CompiledFilter<T> implements Transformation<T, Boolean> {
+
+    private final Expression<Boolean> expression;
+    private final Class<T> type;
+    private final ExpressionCompiler.BooleanNode root;
+    private final int interpretedNodeCount;
+
+    CompiledFilter(Expression<Boolean> expression, Class<T> type, ExpressionCompiler.BooleanNode root, int interpretedNodeCount) {
+        this.expression = expression;
+        this.type = type;
+        this.root = root;
+        this.interpretedNodeCount = interpretedNodeCount;
+    }
+
+    /**
+     * Tests the given object. Objects of another class than the one the filter was compiled for, and objects for which
+     * a compiled node meets a null or unexpected value, are evaluated by the original expression, so that the result
+     * (or exception) is always the same as that of {@link Filter#evaluate(Object)}.
+     *
+     * @param object The object to test.
+     * @return True if the filter evaluates to true for the given object.
+     */
+    public boolean test(T object) {
+
+        if (object == null || object.getClass() != type)
+            return Boolean.TRUE.equals(expression.evaluate(object));
+
+        try {
+            return root.test(object);
+        }
+        catch (ExpressionCompiler.ValueUnavailable e) {
+            return Boolean.TRUE.equals(expression.evaluate(object));
+        }
+    }
+
+    public Boolean transform(T input) throws TransformationException {
+
+        return test(input);
+    }
+
+    /**
+     * @return The class this filter was compiled for.
+     */
+    public Class<T> getType() {
+
+        return type;
+    }
+
+    /**
+     * @return The expression this filter was compiled from.
+     */
+    public Expression<Boolean> getExpression() {
+
+        return expression;
+    }
+
+    /**
+     * @return The number of expressions that could not be compiled and are interpreted instead. Zero if the whole
+     * expression was compiled.
+     */
+    public int getInterpretedNodeCount() {
+
+        return interpretedNodeCount;
+    }
+}
@@ -21,6 +21,9 @@
 
 package org.geolatte.common.expressions;
 
+import org.geolatte.common.util.DateCodec;
+
+import java.time.temporal.Temporal;
 import java.util.Date;
 
 /**
@@ -48,6 +51,19 @@ public class DateConstant extends DateExpression implements ConstantExpression<D
         this.date = date;
     }
 
+    /**
+     * Constructs a constant with the value of the given java.time object, converted as by
+     * {@link DateCodec#toDate(Object)}.
+     * @param temporal An instant, zoned, offset or local date-time, or a local date.
+     * @throws IllegalArgumentException If temporal is of another type.
+     */
+    public DateConstant(Temporal temporal) {
+
+        this.date = DateCodec.toDate(temporal);
+        if (temporal != null && date == null)
+            throw new IllegalArgumentException("Unsupported date type: " + temporal.getClass().getName());
+    }
+
     public Date evaluate(Object o) {
         return date;
     }
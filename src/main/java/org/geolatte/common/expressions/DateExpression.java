@@ -53,6 +53,22 @@ public abstract class DateExpression implements ComparableExpression<Date> {
         return thisDate.before(value) ? -1 : 1;
     }
 
+    /**
+     * Evaluates this expression into the time of the date, as the temporal predicates compare dates.
+     *
+     * @param evaluateObject The object against which the expression is evaluated.
+     * @return The time of the date, in milliseconds since the epoch.
+     * @throws NullPointerException If the expression evaluates to null.
+     */
+    long evaluateMillis(Object evaluateObject) {
+
+        Date date = evaluate(evaluateObject);
+        if (date == null)
+            throw new NullPointerException("This date evaluated to null");
+
+        return date.getTime();
+    }
+
     public void switchOn(BasicTypeSwitch switcher) {
 
         switcher.caseDate(this);
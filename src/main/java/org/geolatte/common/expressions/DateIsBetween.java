@@ -38,6 +38,11 @@ import java.util.Date;
  */
 public class DateIsBetween extends DateComparisonExpression {
 
+    // Null if the base date is not a date expression, and compares itself
+    private final DateOperand base;
+    private final DateOperand low;
+    private final DateOperand high;
+
     /**
      * Constructs a DateIsBetween object.
      * @param baseDate The date that is checked being between lowDate and highDate.
@@ -46,10 +51,18 @@ public class DateIsBetween extends DateComparisonExpression {
      */
     protected DateIsBetween(ComparableExpression<Date> baseDate, ComparableExpression<Date> lowDate, ComparableExpression<Date> highDate) {
         super(baseDate, lowDate, highDate);
+
+        this.base = baseDate instanceof DateExpression ? new DateOperand(baseDate, false) : null;
+        this.low = new DateOperand(lowDate, true);
+        this.high = new DateOperand(highDate, true);
     }
 
     public Boolean evaluate(Object o) {
 
+        if (base != null) {
+            long millis = base.millis(o);
+            return millis > low.millis(o) && millis < high.millis(o);
+        }
         return getBaseDate().compareTo(o, getLowDate().evaluate(o)) > 0 && getBaseDate().compareTo(o, getHighDate().evaluate(o)) < 0;
     }
 }
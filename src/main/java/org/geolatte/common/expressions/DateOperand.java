@@ -0,0 +1,83 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import java.util.Date;
+
+/**
+ * <p>
+ * An operand of a temporal predicate, evaluated into the time of its date in milliseconds since the epoch. The time
+ * of a constant date is read once, when the predicate is created, and property values are converted without
+ * creating a date where possible.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class DateOperand {
+
+    private final Expression<Date> expression;
+    // Whether the operand is the bound of a period, which may not be null
+    private final boolean isBound;
+    private final boolean isConstant;
+    private final long constantMillis;
+
+    /**
+     * @param expression The expression of the operand.
+     * @param isBound Whether the operand is the bound of a period, for which null is an illegal argument rather than
+     * a null pointer.
+     */
+    DateOperand(Expression<Date> expression, boolean isBound) {
+
+        this.expression = expression;
+        this.isBound = isBound;
+        Date constant = expression instanceof DateConstant ? expression.evaluate(null) : null;
+        this.isConstant = constant != null;
+        this.constantMillis = isConstant ? constant.getTime() : 0;
+    }
+
+    /**
+     * Evaluates the operand on the given object.
+     *
+     * @param o The object to evaluate.
+     * @return The time of the date, in milliseconds since the epoch.
+     * @throws NullPointerException If the date is null and the operand is not a bound.
+     * @throws IllegalArgumentException If the date is null and the operand is a bound.
+     */
+    long millis(Object o) {
+
+        if (isConstant)
+            return constantMillis;
+        if (!isBound && expression instanceof DateExpression)
+            return ((DateExpression) expression).evaluateMillis(o);
+
+        Date date = expression.evaluate(o);
+        if (date == null) {
+            if (isBound)
+                throw new IllegalArgumentException("The given date value is null");
+            throw new NullPointerException("This date evaluated to null");
+        }
+        return date.getTime();
+    }
+}
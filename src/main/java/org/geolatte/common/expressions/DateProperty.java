@@ -23,12 +23,15 @@ package org.geolatte.common.expressions;
 
 import org.geolatte.common.reflection.EntityClassReader;
 import org.geolatte.common.reflection.InvalidObjectReaderException;
+import org.geolatte.common.util.DateCodec;
 
+import java.time.Instant;
 import java.util.Date;
 
 /**
  * <p>
- * Represents a Date valued property.
+ * Represents a Date valued property. Values of the java.time types that {@link DateCodec#toDate(Object)} supports
+ * are converted into dates.
  * <br>
  * <p>
  * <i>Creation-Date</i>: 01-Jun-2010<br>
@@ -61,16 +64,45 @@ public class DateProperty extends DateExpression implements PropertyExpression<D
      */
     public Date evaluate(Object o) {
 
+        Object result = readValue(o);
+
+        if (result == null || result instanceof Date)
+            return (Date) result;
+
+        Date date = DateCodec.toDate(result);
+        return date != null ? date : (Date) result;
+    }
+
+    @Override
+    long evaluateMillis(Object o) {
+
+        Object result = readValue(o);
+        if (result instanceof Date)
+            return ((Date) result).getTime();
+        if (result instanceof Instant)
+            return ((Instant) result).toEpochMilli();
+        if (result == null)
+            throw new NullPointerException("This date evaluated to null");
+
+        Date date = DateCodec.toDate(result);
+        return (date != null ? date : (Date) result).getTime();
+    }
+
+    /**
+     * Reads the value of the property from the given object.
+     *
+     * @param o The object to read.
+     * @return The value of the property, null if the object has no such property.
+     */
+    Object readValue(Object o) {
+
         EntityClassReader classReader = EntityClassReader.getClassReaderFor(o.getClass());
-        Object result = null;
         try {
-            result = classReader.getPropertyValue(o, propertyName);
+            return classReader.getPropertyValue(o, propertyName);
         }
         catch (InvalidObjectReaderException e) {
-            ; // can never occur
+            return null; // can never occur
         }
-
-        return result == null ? null : (Date)result;
     }
 
     public String getPropertyName() {
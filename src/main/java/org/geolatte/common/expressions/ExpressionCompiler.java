@@ -0,0 +1,628 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.common.expressions.geo.GeoEquals;
+import org.geolatte.common.expressions.geo.GeometryProperty;
+import org.geolatte.common.reflection.EntityClassReader;
+import org.geolatte.common.reflection.PropertyReader;
+import org.geolatte.common.util.DateCodec;
+import org.geolatte.common.util.WildcardMatch;
+import org.geolatte.geom.Geometry;
+
+import java.util.Date;
+
+/**
+ * <p>
+ * Compiles the expression of a {@link Filter} for objects of a given class into a {@link CompiledFilter}. The filter is
+ * turned into a tree of specialized nodes: boolean nodes answer a primitive boolean, number nodes a primitive double,
+ * constants are unboxed once, property getters are resolved once (see
+ * {@link EntityClassReader#getPropertyReader(String)}) and each comparison node implements a single operator. This
+ * removes the boxing, the per-evaluation property lookups and the generic dispatch of the interpreted tree.
+ * </p>
+ * <p>
+ * Expressions the compiler does not know are kept as they are and interpreted. Whenever a compiled node meets a value
+ * the interpreter would not accept either (a null, or a value of an unexpected type), the compiled filter evaluates
+ * the original expression instead, so the results and exceptions of a compiled filter are those of the interpreter.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public final class ExpressionCompiler {
+
+    private final Class type;
+    private final EntityClassReader reader;
+    private int interpretedNodeCount = 0;
+
+    private ExpressionCompiler(Class type) {
+        this.type = type;
+        this.reader = EntityClassReader.getClassReaderFor(type);
+    }
+
+    /**
+     * Compiles the given filter for objects of the given class.
+     *
+     * @param filter The filter to compile.
+     * @param type   The class of the objects the filter will be applied to.
+     * @return The compiled filter.
+     * @throws IllegalArgumentException If filter or type is null.
+     */
+    public static <T> CompiledFilter<T> compile(Filter filter, Class<T> type) {
+
+        if (filter == null)
+            throw new IllegalArgumentException("Argument filter cannot be null");
+
+        return compile(filter.getFilterExpression(), type);
+    }
+
+    /**
+     * Compiles the given boolean expression for objects of the given class.
+     *
+     * @param expression The expression to compile.
+     * @param type       The class of the objects the expression will be applied to.
+     * @return The compiled filter.
+     * @throws IllegalArgumentException If expression or type is null.
+     */
+    public static <T> CompiledFilter<T> compile(Expression<Boolean> expression, Class<T> type) {
+
+        if (expression == null)
+            throw new IllegalArgumentException("Argument expression cannot be null");
+        if (type == null)
+            throw new IllegalArgumentException("Argument type cannot be null");
+
+        ExpressionCompiler compiler = new ExpressionCompiler(type);
+        BooleanNode root = compiler.compileBoolean(expression);
+        return new CompiledFilter<T>(expression, type, root, compiler.interpretedNodeCount);
+    }
+
+    // ---------------------------------------------------------------- booleans
+
+    @SuppressWarnings("unchecked")
+    private BooleanNode compileBoolean(Expression<Boolean> expression) {
+
+        // And and Or evaluate both operands, as the interpreter does, so that an operand that fails is never skipped
+        if (expression instanceof And) {
+            final BooleanNode left = compileBoolean(((And) expression).getLeft());
+            final BooleanNode right = compileBoolean(((And) expression).getRight());
+            return new BooleanNode() {
+                boolean test(Object o) {
+                    return left.test(o) & right.test(o);
+                }
+            };
+        }
+        if (expression instanceof Or) {
+            final BooleanNode left = compileBoolean(((Or) expression).getLeft());
+            final BooleanNode right = compileBoolean(((Or) expression).getRight());
+            return new BooleanNode() {
+                boolean test(Object o) {
+                    return left.test(o) | right.test(o);
+                }
+            };
+        }
+        if (expression instanceof Not) {
+            final BooleanNode inner = compileBoolean(((Not) expression).getExpression());
+            return new BooleanNode() {
+                boolean test(Object o) {
+                    return !inner.test(o);
+                }
+            };
+        }
+        if (expression instanceof BooleanConstant) {
+            Boolean value = expression.evaluate(null);
+            return value == null ? UNAVAILABLE_BOOLEAN : value ? TRUE : FALSE;
+        }
+        if (expression instanceof PropertyExists) {
+            return reader.exists(((PropertyExists) expression).getPropertyName(), true) ? TRUE : FALSE;
+        }
+        if (expression instanceof PropertyDoesNotExist) {
+            return reader.exists(((PropertyDoesNotExist) expression).getPropertyName(), true) ? FALSE : TRUE;
+        }
+        if (expression instanceof BooleanProperty) {
+            String propertyName = ((BooleanProperty) expression).getPropertyName();
+            // BooleanProperty rejects properties that are not of type Boolean on every evaluation
+            if (reader.getPropertyType(propertyName) == Boolean.class) {
+                final PropertyReader property = bind(reader, propertyName);
+                if (property != null) {
+                    return new BooleanNode() {
+                        boolean test(Object o) {
+                            Object value = property.getValueFrom(o);
+                            if (value == null)
+                                throw ValueUnavailable.INSTANCE;
+                            return (Boolean) value;
+                        }
+                    };
+                }
+            }
+        }
+        if (expression instanceof BooleanIsEqual || expression instanceof BooleanIsNotEqual
+                || expression instanceof BooleanComparisonExpression) {
+            BinaryBooleanExpression<Boolean> binary = (BinaryBooleanExpression<Boolean>) expression;
+            if (isCompilableBoolean(binary.getLeft()) && isCompilableBoolean(binary.getRight())) {
+                return compareBooleans(operator(expression), compileBoolean(binary.getLeft()), compileBoolean(binary.getRight()));
+            }
+        }
+        if (expression instanceof BinaryNumberExpression) {
+            int op = operator(expression);
+            BinaryNumberExpression<Boolean> binary = (BinaryNumberExpression<Boolean>) expression;
+            if (op >= 0 && isCompilableNumber(binary.getLeft()) && isCompilableNumber(binary.getRight())) {
+                return compareNumbers(op, compileNumber(binary.getLeft()), compileNumber(binary.getRight()));
+            }
+        }
+        if (expression instanceof IsInRange) {
+            IsInRange range = (IsInRange) expression;
+            if (isCompilableNumber(range.getValue())) {
+                return inRange(compileNumber(range.getValue()), range.getLowerBound(), range.isLowerBoundIncluded(),
+                        range.getUpperBound(), range.isUpperBoundIncluded());
+            }
+        }
+        if (expression instanceof IsIn) {
+            final IsIn in = (IsIn) expression;
+            if (isCompilableNumber(in.getValue())) {
+                final NumberNode value = compileNumber(in.getValue());
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return in.contains(value.value(o));
+                    }
+                };
+            }
+        }
+        if (expression instanceof StringIsIn) {
+            final StringIsIn in = (StringIsIn) expression;
+            if (isCompilableString(in.getValue())) {
+                final ValueNode value = compileValue(in.getValue());
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return in.contains((String) value.value(o));
+                    }
+                };
+            }
+        }
+        if (expression instanceof Like || expression instanceof NotLike) {
+            StringLikeComparisonExpression like = (StringLikeComparisonExpression) expression;
+            if (isCompilableString(like.getLeft()) && isCompilableString(like.getRight())) {
+                // NotLike always uses '%' as its wildcard, see NotLike.evaluate()
+                boolean isNegated = like instanceof NotLike;
+                return like(compileValue(like.getLeft()), compileValue(like.getRight()),
+                        isNegated ? '%' : like.getWildcardChar(), like.isCaseInsensitive(), isNegated);
+            }
+        }
+        if (expression instanceof StringComparisonExpression) {
+            int op = operator(expression);
+            StringComparisonExpression binary = (StringComparisonExpression) expression;
+            if (op >= 0 && isCompilableString(binary.getLeft()) && isCompilableString(binary.getRight())) {
+                return compareStrings(op, compileValue(binary.getLeft()), compileValue(binary.getRight()));
+            }
+        }
+        if (expression instanceof IsBefore || expression instanceof IsAfter) {
+            BinaryDateExpression<Boolean> binary = (BinaryDateExpression<Boolean>) expression;
+            if (isCompilableDate(binary.getLeft()) && isCompilableDate(binary.getRight())) {
+                final boolean isBefore = expression instanceof IsBefore;
+                final ValueNode left = compileValue(binary.getLeft());
+                final ValueNode right = compileValue(binary.getRight());
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        Date leftDate = (Date) left.value(o);
+                        Date rightDate = (Date) right.value(o);
+                        return isBefore ? leftDate.before(rightDate) : leftDate.after(rightDate);
+                    }
+                };
+            }
+        }
+        if (expression instanceof DateIsBetween) {
+            DateIsBetween between = (DateIsBetween) expression;
+            if (isCompilableDate(between.getBaseDate()) && isCompilableDate(between.getLowDate())
+                    && isCompilableDate(between.getHighDate())) {
+                final ValueNode base = compileValue(between.getBaseDate());
+                final ValueNode low = compileValue(between.getLowDate());
+                final ValueNode high = compileValue(between.getHighDate());
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        Date baseDate = (Date) base.value(o);
+                        return compareDates(baseDate, (Date) low.value(o)) > 0 && compareDates(baseDate, (Date) high.value(o)) < 0;
+                    }
+                };
+            }
+        }
+        if (expression instanceof GeoEquals) {
+            GeoEquals equals = (GeoEquals) expression;
+            if (isCompilableGeometry(equals.getLeft()) && isCompilableGeometry(equals.getRight())) {
+                final ValueNode left = compileValue(equals.getLeft());
+                final ValueNode right = compileValue(equals.getRight());
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return left.value(o).equals(right.value(o));
+                    }
+                };
+            }
+        }
+        return interpret(expression);
+    }
+
+    private BooleanNode interpret(final Expression<Boolean> expression) {
+
+        interpretedNodeCount++;
+        return new BooleanNode() {
+            boolean test(Object o) {
+                Boolean value = expression.evaluate(o);
+                if (value == null)
+                    throw ValueUnavailable.INSTANCE;
+                return value;
+            }
+        };
+    }
+
+    private static boolean isCompilableBoolean(Expression<Boolean> expression) {
+
+        return expression instanceof BooleanConstant || expression instanceof BooleanProperty;
+    }
+
+    private static BooleanNode compareBooleans(final int op, final BooleanNode left, final BooleanNode right) {
+
+        return new BooleanNode() {
+            boolean test(Object o) {
+                boolean leftValue = left.test(o);
+                boolean rightValue = right.test(o);
+                return accepts(op, leftValue == rightValue ? 0 : (leftValue ? 1 : -1));
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------- numbers
+
+    private static boolean isCompilableNumber(Expression<Number> expression) {
+
+        if (expression instanceof Add) {
+            return isCompilableNumber(((Add) expression).getLeft()) && isCompilableNumber(((Add) expression).getRight());
+        }
+        return expression instanceof NumberConstant || expression instanceof NumberProperty;
+    }
+
+    private NumberNode compileNumber(Expression<Number> expression) {
+
+        if (expression instanceof NumberConstant) {
+            Number value = expression.evaluate(null);
+            if (value == null) {
+                return UNAVAILABLE_NUMBER;
+            }
+            final double constant = value.doubleValue();
+            return new NumberNode() {
+                double value(Object o) {
+                    return constant;
+                }
+            };
+        }
+        if (expression instanceof Add) {
+            final NumberNode left = compileNumber(((Add) expression).getLeft());
+            final NumberNode right = compileNumber(((Add) expression).getRight());
+            return new NumberNode() {
+                double value(Object o) {
+                    return left.value(o) + right.value(o);
+                }
+            };
+        }
+        final PropertyReader property = bind(reader, ((NumberProperty) expression).getPropertyName());
+        if (property == null) {
+            return UNAVAILABLE_NUMBER;
+        }
+        return new NumberNode() {
+            double value(Object o) {
+                Object value = property.getValueFrom(o);
+                if (!(value instanceof Number))
+                    throw ValueUnavailable.INSTANCE;
+                return ((Number) value).doubleValue();
+            }
+        };
+    }
+
+    private static BooleanNode compareNumbers(int op, final NumberNode left, final NumberNode right) {
+
+        // The operators follow the implementation of each expression class: some use NumberExpression.compareTo(),
+        // which compares the sign of the difference, others compare the values directly.
+        switch (op) {
+            case EQ:
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return (int) Math.signum(left.value(o) - right.value(o)) == 0;
+                    }
+                };
+            case NE:
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return (int) Math.signum(left.value(o) - right.value(o)) != 0;
+                    }
+                };
+            case GE:
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return (int) Math.signum(left.value(o) - right.value(o)) >= 0;
+                    }
+                };
+            case LT:
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return left.value(o) < right.value(o);
+                    }
+                };
+            case LE:
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return left.value(o) <= right.value(o);
+                    }
+                };
+            default:
+                return new BooleanNode() {
+                    boolean test(Object o) {
+                        return left.value(o) > right.value(o);
+                    }
+                };
+        }
+    }
+
+    private static BooleanNode inRange(final NumberNode value, Number lowerBound, final boolean isLowerBoundIncluded,
+                                       Number upperBound, final boolean isUpperBoundIncluded) {
+
+        // An open bound is replaced by an infinite one, which only NaN fails (as it fails any bound)
+        final double low = lowerBound == null ? Double.NEGATIVE_INFINITY : lowerBound.doubleValue();
+        final double high = upperBound == null ? Double.POSITIVE_INFINITY : upperBound.doubleValue();
+        final boolean isLowIncluded = lowerBound == null || isLowerBoundIncluded;
+        final boolean isHighIncluded = upperBound == null || isUpperBoundIncluded;
+        return new BooleanNode() {
+            boolean test(Object o) {
+                double number = value.value(o);
+                return (isLowIncluded ? number >= low : number > low) && (isHighIncluded ? number <= high : number < high);
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------- other values
+
+    private static boolean isCompilableString(Expression<String> expression) {
+
+        return expression instanceof StringConstant
+                || (expression instanceof StringProperty && ((StringProperty) expression).getPropertyName() != null);
+    }
+
+    private static boolean isCompilableDate(Expression<Date> expression) {
+
+        return expression instanceof DateConstant || expression instanceof DateProperty;
+    }
+
+    private static boolean isCompilableGeometry(Expression<Geometry> expression) {
+
+        return expression instanceof ConstantExpression || expression instanceof GeometryProperty;
+    }
+
+    private ValueNode compileValue(Expression<?> expression) {
+
+        if (expression instanceof ConstantExpression) {
+            final Object constant = expression.evaluate(null);
+            if (constant == null) {
+                return UNAVAILABLE_VALUE;
+            }
+            return new ValueNode() {
+                Object value(Object o) {
+                    return constant;
+                }
+            };
+        }
+
+        PropertyReader resolved;
+        final Class valueType;
+        if (expression instanceof GeometryProperty) {
+            // GeometryProperty reads the geometry as a normal property, see GeometryProperty.evaluate()
+            resolved = bind(EntityClassReader.getClassReaderFor(type, null, "id"), ((GeometryProperty) expression).getPropertyName());
+            valueType = Geometry.class;
+        } else {
+            resolved = bind(reader, ((PropertyExpression) expression).getPropertyName());
+            valueType = expression instanceof DateProperty ? Date.class : null;
+        }
+        if (resolved == null) {
+            return UNAVAILABLE_VALUE;
+        }
+        final PropertyReader property = resolved;
+        if (valueType == null) {
+            // StringProperty uses the string representation of the value
+            return new ValueNode() {
+                Object value(Object o) {
+                    Object value = property.getValueFrom(o);
+                    if (value == null)
+                        throw ValueUnavailable.INSTANCE;
+                    return value.toString();
+                }
+            };
+        }
+        return new ValueNode() {
+            Object value(Object o) {
+                Object value = property.getValueFrom(o);
+                if (valueType == Date.class && !(value instanceof Date))
+                    value = DateCodec.toDate(value); // DateProperty converts java.time values
+                if (!valueType.isInstance(value))
+                    throw ValueUnavailable.INSTANCE;
+                return value;
+            }
+        };
+    }
+
+    private static BooleanNode compareStrings(final int op, final ValueNode left, final ValueNode right) {
+
+        return new BooleanNode() {
+            boolean test(Object o) {
+                return accepts(op, ((String) left.value(o)).compareTo((String) right.value(o)));
+            }
+        };
+    }
+
+    private static BooleanNode like(final ValueNode text, final ValueNode pattern, final char wildcard,
+                                    final boolean isCaseInsensitive, final boolean isNegated) {
+
+        return new BooleanNode() {
+            boolean test(Object o) {
+                // A WildcardMatch keeps state while matching, so it can not be shared between threads
+                WildcardMatch matcher = new WildcardMatch('_', wildcard, '\\');
+                matcher.setCaseSensitive(!isCaseInsensitive);
+                return matcher.match((String) text.value(o), (String) pattern.value(o)) != isNegated;
+            }
+        };
+    }
+
+    /**
+     * Compares two dates as {@link DateExpression#compareTo(Object, Date)} does.
+     */
+    private static int compareDates(Date date, Date other) {
+
+        if (date.equals(other))
+            return 0;
+        return date.before(other) ? -1 : 1;
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private static final int EQ = 0;
+    private static final int NE = 1;
+    private static final int LT = 2;
+    private static final int LE = 3;
+    private static final int GT = 4;
+    private static final int GE = 5;
+
+    private static int operator(Expression<Boolean> expression) {
+
+        if (expression instanceof IsEqual || expression instanceof StringIsEqual || expression instanceof BooleanIsEqual) return EQ;
+        if (expression instanceof IsNotEqual || expression instanceof StringIsNotEqual || expression instanceof BooleanIsNotEqual) return NE;
+        if (expression instanceof IsLessThan || expression instanceof StringIsLessThan || expression instanceof BooleanIsLessThan) return LT;
+        if (expression instanceof IsLessThanOrEqual || expression instanceof StringIsLessThanOrEqual || expression instanceof BooleanIsLessThanOrEqual) return LE;
+        if (expression instanceof IsGreaterThan || expression instanceof StringIsGreaterThan || expression instanceof BooleanIsGreaterThan) return GT;
+        if (expression instanceof IsGreaterThanOrEqual || expression instanceof StringIsGreaterThanOrEqual || expression instanceof BooleanIsGreaterThanOrEqual) return GE;
+        return -1;
+    }
+
+    private static boolean accepts(int op, int comparison) {
+
+        switch (op) {
+            case EQ:
+                return comparison == 0;
+            case NE:
+                return comparison != 0;
+            case LT:
+                return comparison < 0;
+            case LE:
+                return comparison <= 0;
+            case GT:
+                return comparison > 0;
+            default:
+                return comparison >= 0;
+        }
+    }
+
+    /**
+     * Resolves a property the way the property expressions do: a direct name only denotes a normal property (see
+     * {@link EntityClassReader#getPropertyValue(Object, String)}).
+     *
+     * @return The reader of the property, or null if the property is never available.
+     */
+    private static PropertyReader bind(EntityClassReader classReader, String propertyName) {
+
+        if (propertyName == null)
+            return null;
+        if (propertyName.indexOf('.') < 0 && !classReader.exists(propertyName, false))
+            return null;
+        return classReader.getPropertyReader(propertyName);
+    }
+
+    /**
+     * A compiled boolean expression.
+     */
+    abstract static class BooleanNode {
+
+        /**
+         * @throws ValueUnavailable If the node can not be evaluated for the given object.
+         */
+        abstract boolean test(Object o);
+    }
+
+    /**
+     * A compiled number expression.
+     */
+    abstract static class NumberNode {
+
+        /**
+         * @throws ValueUnavailable If the value is null or not a number.
+         */
+        abstract double value(Object o);
+    }
+
+    /**
+     * A compiled expression of another type.
+     */
+    abstract static class ValueNode {
+
+        /**
+         * @throws ValueUnavailable If the value is null or of an unexpected type.
+         */
+        abstract Object value(Object o);
+    }
+
+    /**
+     * Thrown by a compiled node that meets a value it can not handle, so that the compiled filter falls back to the
+     * interpreter for that object. A single instance without stack trace is reused.
+     */
+    static final class ValueUnavailable extends RuntimeException {
+
+        static final ValueUnavailable INSTANCE = new ValueUnavailable();
+
+        private ValueUnavailable() {
+            super("Value not available to the compiled expression", null, false, false);
+        }
+    }
+
+    private static final BooleanNode TRUE = new BooleanNode() {
+        boolean test(Object o) {
+            return true;
+        }
+    };
+
+    private static final BooleanNode FALSE = new BooleanNode() {
+        boolean test(Object o) {
+            return false;
+        }
+    };
+
+    private static final BooleanNode UNAVAILABLE_BOOLEAN = new BooleanNode() {
+        boolean test(Object o) {
+            throw ValueUnavailable.INSTANCE;
+        }
+    };
+
+    private static final NumberNode UNAVAILABLE_NUMBER = new NumberNode() {
+        double value(Object o) {
+            throw ValueUnavailable.INSTANCE;
+        }
+    };
+
+    private static final ValueNode UNAVAILABLE_VALUE = new ValueNode() {
+        Object value(Object o) {
+            throw ValueUnavailable.INSTANCE;
+        }
+    };
+}
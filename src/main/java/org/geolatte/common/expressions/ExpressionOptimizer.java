@@ -0,0 +1,670 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.common.expressions.geo.BinaryGeometryExpression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Rewrites a boolean {@link Expression} into a cheaper equivalent one:
+ * <ul>
+ * <li>Constant folding: sums and comparisons of constants are evaluated once.</li>
+ * <li>Double negations are removed and negated constants are folded.</li>
+ * <li>Conjunctions and disjunctions are flattened; constant, duplicate and complementary operands
+ * ({@code a AND NOT a}) are folded away.</li>
+ * <li>Comparisons of an expression with itself are folded where the result does not depend on the value.</li>
+ * <li>Comparisons of the same number property with constants in a conjunction are merged into a single
+ * {@link IsInRange}, e.g. {@code x > 1 AND x < 5 AND x > 2} becomes {@code 2 < x < 5}. An empty range folds the
+ * conjunction to false.</li>
+ * <li>Equalities of the same number or string property with constants in a disjunction are merged into a single
+ * {@link IsIn} or {@link StringIsIn}, e.g. {@code x = 1 OR x = 2 OR x = 3} becomes {@code x IN (1, 2, 3)}.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * An optimized expression evaluates to the same value as the original one for every object the original one can
+ * evaluate, including NaN values. It may however skip operands whose value does not matter to the result, so an
+ * object on which the original expression fails (e.g. on a null value) may be evaluated by the optimized one.
+ * </p>
+ * <p>
+ * Expressions are immutable, so unchanged subexpressions are shared between the original and the optimized expression.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public final class ExpressionOptimizer {
+
+    private static final BooleanConstant TRUE = new BooleanConstant(true);
+    private static final BooleanConstant FALSE = new BooleanConstant(false);
+
+    private ExpressionOptimizer() {
+    }
+
+    /**
+     * Optimizes the expression of the given filter.
+     *
+     * @param filter The filter to optimize.
+     * @return A filter with the optimized expression.
+     * @throws IllegalArgumentException If filter is null.
+     */
+    public static Filter optimize(Filter filter) {
+
+        if (filter == null)
+            throw new IllegalArgumentException("Argument filter cannot be null");
+
+        return new Filter(optimize(filter.getFilterExpression()));
+    }
+
+    /**
+     * Optimizes the given boolean expression.
+     *
+     * @param expression The expression to optimize.
+     * @return The optimized expression; the given expression itself if it can not be optimized.
+     * @throws IllegalArgumentException If expression is null.
+     */
+    public static Expression<Boolean> optimize(Expression<Boolean> expression) {
+
+        if (expression == null)
+            throw new IllegalArgumentException("Argument expression cannot be null");
+
+        return optimizeBoolean(expression);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<Boolean> optimizeBoolean(Expression<Boolean> expression) {
+
+        if (expression instanceof And) {
+            return conjunction((And) expression);
+        }
+        if (expression instanceof Or) {
+            return disjunction((Or) expression);
+        }
+        if (expression instanceof Not) {
+            return negation((Not) expression);
+        }
+        if (expression instanceof BooleanBinaryNumberExpression) {
+            return numberComparison((BooleanBinaryNumberExpression) expression);
+        }
+        if (expression instanceof StringComparisonExpression && !(expression instanceof StringLikeComparisonExpression)) {
+            StringComparisonExpression comparison = (StringComparisonExpression) expression;
+            // String.compareTo() is reflexive
+            if (!isConstant(comparison) && isSame(comparison.getLeft(), comparison.getRight())) {
+                return expression instanceof StringIsEqual || expression instanceof StringIsLessThanOrEqual
+                        || expression instanceof StringIsGreaterThanOrEqual ? TRUE : FALSE;
+            }
+        }
+        return fold(expression);
+    }
+
+    // ---------------------------------------------------------------- boolean operators
+
+    private static Expression<Boolean> conjunction(And and) {
+
+        List<Expression<Boolean>> operands = new ArrayList<Expression<Boolean>>();
+        collectOperands(and, true, operands);
+
+        List<Expression<Boolean>> result = new ArrayList<Expression<Boolean>>();
+        for (Expression<Boolean> operand : operands) {
+            if (isConstant(operand, false))
+                return FALSE;
+            if (!isConstant(operand, true) && indexOf(result, operand) < 0)
+                result.add(operand);
+        }
+        if (hasComplementaryOperands(result))
+            return FALSE;
+        if (!mergeRanges(result))
+            return FALSE;
+
+        return combine(result, true);
+    }
+
+    private static Expression<Boolean> disjunction(Or or) {
+
+        List<Expression<Boolean>> operands = new ArrayList<Expression<Boolean>>();
+        collectOperands(or, false, operands);
+
+        List<Expression<Boolean>> result = new ArrayList<Expression<Boolean>>();
+        for (Expression<Boolean> operand : operands) {
+            if (isConstant(operand, true))
+                return TRUE;
+            if (!isConstant(operand, false) && indexOf(result, operand) < 0)
+                result.add(operand);
+        }
+        if (hasComplementaryOperands(result))
+            return TRUE;
+        mergeEqualities(result);
+
+        return combine(result, false);
+    }
+
+    private static Expression<Boolean> negation(Not not) {
+
+        Expression<Boolean> inner = optimizeBoolean(not.getExpression());
+        if (isConstant(inner, true))
+            return FALSE;
+        if (isConstant(inner, false))
+            return TRUE;
+        if (inner instanceof Not)
+            return ((Not) inner).getExpression();
+        return inner == not.getExpression() ? not : new Not(inner);
+    }
+
+    /**
+     * Collects the optimized operands of a tree of conjunctions (or disjunctions), flattening nested ones.
+     */
+    private static void collectOperands(Expression<Boolean> expression, boolean isConjunction, List<Expression<Boolean>> operands) {
+
+        if (isConjunction ? expression instanceof And : expression instanceof Or) {
+            BinaryBooleanExpression<Boolean> binary = (BinaryBooleanExpression<Boolean>) expression;
+            collectOperands(binary.getLeft(), isConjunction, operands);
+            collectOperands(binary.getRight(), isConjunction, operands);
+        } else {
+            addFlattened(optimizeBoolean(expression), isConjunction, operands);
+        }
+    }
+
+    /**
+     * Adds an already optimized operand; an optimized operand may itself be a flattened conjunction (or disjunction).
+     */
+    private static void addFlattened(Expression<Boolean> operand, boolean isConjunction, List<Expression<Boolean>> operands) {
+
+        if (isConjunction ? operand instanceof And : operand instanceof Or) {
+            BinaryBooleanExpression<Boolean> binary = (BinaryBooleanExpression<Boolean>) operand;
+            addFlattened(binary.getLeft(), isConjunction, operands);
+            addFlattened(binary.getRight(), isConjunction, operands);
+        } else {
+            operands.add(operand);
+        }
+    }
+
+    private static boolean hasComplementaryOperands(List<Expression<Boolean>> operands) {
+
+        for (Expression<Boolean> operand : operands) {
+            if (operand instanceof Not && indexOf(operands, ((Not) operand).getExpression()) >= 0)
+                return true;
+        }
+        return false;
+    }
+
+    private static Expression<Boolean> combine(List<Expression<Boolean>> operands, boolean isConjunction) {
+
+        if (operands.isEmpty())
+            return isConjunction ? TRUE : FALSE;
+
+        Expression<Boolean> result = operands.get(0);
+        for (int i = 1; i < operands.size(); i++) {
+            result = isConjunction ? new And(result, operands.get(i)) : new Or(result, operands.get(i));
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------- numbers
+
+    @SuppressWarnings("unchecked")
+    private static Expression<Boolean> numberComparison(BooleanBinaryNumberExpression comparison) {
+
+        ComparableExpression<Number> left = (ComparableExpression<Number>) foldNumber(comparison.getLeft());
+        ComparableExpression<Number> right = (ComparableExpression<Number>) foldNumber(comparison.getRight());
+
+        Expression<Boolean> result;
+        if (left == comparison.getLeft() && right == comparison.getRight())
+            result = comparison;
+        else if (comparison instanceof IsEqual)
+            result = new IsEqual(left, right);
+        else if (comparison instanceof IsNotEqual)
+            result = new IsNotEqual(left, right);
+        else if (comparison instanceof IsLessThan)
+            result = new IsLessThan(left, right);
+        else if (comparison instanceof IsLessThanOrEqual)
+            result = new IsLessThanOrEqual(left, right);
+        else if (comparison instanceof IsGreaterThan)
+            result = new IsGreaterThan(left, right);
+        else if (comparison instanceof IsGreaterThanOrEqual)
+            result = new IsGreaterThanOrEqual(left, right);
+        else
+            return fold(comparison);
+
+        if (!isConstant(result) && isSame(left, right)) {
+            // IsEqual and IsGreaterThanOrEqual compare the sign of the difference, which is 0 for NaN as well, the
+            // others compare the values directly, which is false for NaN. Only <= depends on the value.
+            if (result instanceof IsEqual || result instanceof IsGreaterThanOrEqual)
+                return TRUE;
+            if (!(result instanceof IsLessThanOrEqual))
+                return FALSE;
+        }
+        return fold(result);
+    }
+
+    private static Expression<Number> foldNumber(Expression<Number> expression) {
+
+        if (!(expression instanceof Add))
+            return expression;
+
+        Add add = (Add) expression;
+        Expression<Number> left = foldNumber(add.getLeft());
+        Expression<Number> right = foldNumber(add.getRight());
+        if (left instanceof ConstantExpression && right instanceof ConstantExpression) {
+            try {
+                return new NumberConstant(new Add(left, right).evaluate(null));
+            } catch (RuntimeException e) {
+                // a null constant, keep it for the interpreter to fail on
+            }
+        }
+        return left == add.getLeft() && right == add.getRight() ? add : new Add(left, right);
+    }
+
+    /**
+     * Merges the comparisons of the same number property with constants in the given conjunction into range checks.
+     *
+     * @return False if one of the ranges is empty, so the conjunction is always false.
+     */
+    private static boolean mergeRanges(List<Expression<Boolean>> operands) {
+
+        Map<String, Range> ranges = new LinkedHashMap<String, Range>();
+        for (int i = 0; i < operands.size(); i++) {
+            Expression<Boolean> operand = operands.get(i);
+            if (!(operand instanceof BooleanBinaryNumberExpression))
+                continue;
+            BooleanBinaryNumberExpression comparison = (BooleanBinaryNumberExpression) operand;
+
+            boolean isPropertyLeft = comparison.getLeft() instanceof NumberProperty;
+            Expression<Number> property = isPropertyLeft ? comparison.getLeft() : comparison.getRight();
+            Expression<Number> constant = isPropertyLeft ? comparison.getRight() : comparison.getLeft();
+            if (!(property instanceof NumberProperty) || !(constant instanceof NumberConstant))
+                continue;
+            Number bound = constant.evaluate(null);
+            String propertyName = ((NumberProperty) property).getPropertyName();
+            if (bound == null || Double.isNaN(bound.doubleValue()) || propertyName == null)
+                continue;
+
+            Range range = ranges.get(propertyName);
+            if (range == null) {
+                range = new Range((NumberProperty) property);
+                ranges.put(propertyName, range);
+            }
+            if (!range.add(comparison, isPropertyLeft, bound)) {
+                if (range.operands.isEmpty())
+                    ranges.remove(propertyName);
+                continue;
+            }
+            range.operands.add(operand);
+        }
+
+        for (Range range : ranges.values()) {
+            // IsEqual and IsGreaterThanOrEqual are true for NaN (see numberComparison()), IsInRange is not, so only
+            // conjunctions that are false for NaN anyway can be merged.
+            if (range.operands.size() < 2 || !range.isFalseForNaN)
+                continue;
+            if (range.isEmpty())
+                return false;
+
+            int index = indexOf(operands, range.operands.get(0));
+            for (Expression<Boolean> operand : range.operands) {
+                operands.remove(indexOf(operands, operand));
+            }
+            operands.add(index, new IsInRange(range.property, range.lowerBound, range.isLowerBoundIncluded,
+                    range.upperBound, range.isUpperBoundIncluded));
+        }
+        return true;
+    }
+
+    /**
+     * Merges the equalities of the same number or string property with constants in the given disjunction into a
+     * single set lookup, e.g. {@code x = 1 OR x = 3 OR x = 2} becomes {@code x IN (1, 3, 2)}. Both evaluate all
+     * comparisons, so they fail on the same null values.
+     */
+    private static void mergeEqualities(List<Expression<Boolean>> operands) {
+
+        Map<String, List<Expression<Boolean>>> groups = new LinkedHashMap<String, List<Expression<Boolean>>>();
+        Map<String, List<Object>> groupValues = new LinkedHashMap<String, List<Object>>();
+        for (Expression<Boolean> operand : operands) {
+            PropertyExpression<?> property = null;
+            List<?> values = null;
+            if (operand instanceof IsEqual || operand instanceof StringIsEqual) {
+                Expression<?> constant = getEqualityConstant(operand);
+                property = getEqualityProperty(operand);
+                if (constant != null && constant.evaluate(null) != null)
+                    values = Collections.singletonList(constant.evaluate(null));
+            } else if (operand instanceof IsIn && ((IsIn) operand).getValue() instanceof NumberProperty) {
+                property = (NumberProperty) ((IsIn) operand).getValue();
+                values = ((IsIn) operand).getValues();
+            } else if (operand instanceof StringIsIn && ((StringIsIn) operand).getValue() instanceof StringProperty) {
+                property = (StringProperty) ((StringIsIn) operand).getValue();
+                values = new ArrayList<String>(((StringIsIn) operand).getValues());
+            }
+            if (values == null || !(property instanceof NumberProperty || property instanceof StringProperty)
+                    || property.getPropertyName() == null)
+                continue;
+
+            // Number and string properties with the same name are grouped apart
+            String key = (property instanceof NumberProperty ? "n:" : "s:") + property.getPropertyName();
+            if (!groups.containsKey(key)) {
+                groups.put(key, new ArrayList<Expression<Boolean>>());
+                groupValues.put(key, new ArrayList<Object>());
+            }
+            groups.get(key).add(operand);
+            groupValues.get(key).addAll(values);
+        }
+
+        for (Map.Entry<String, List<Expression<Boolean>>> group : groups.entrySet()) {
+            List<Expression<Boolean>> equalities = group.getValue();
+            if (equalities.size() < 2)
+                continue;
+
+            Expression<Boolean> first = equalities.get(0);
+            Expression<?> property = first instanceof IsIn ? ((IsIn) first).getValue()
+                    : first instanceof StringIsIn ? ((StringIsIn) first).getValue()
+                    : (Expression<?>) getEqualityProperty(first);
+
+            int index = indexOf(operands, first);
+            for (Expression<Boolean> equality : equalities) {
+                operands.remove(indexOf(operands, equality));
+            }
+            List<Object> values = groupValues.get(group.getKey());
+            if (property instanceof NumberProperty) {
+                List<Number> numbers = new ArrayList<Number>();
+                for (Object value : values) {
+                    numbers.add((Number) value);
+                }
+                operands.add(index, new IsIn((NumberProperty) property, numbers));
+            } else {
+                List<String> strings = new ArrayList<String>();
+                for (Object value : values) {
+                    strings.add((String) value);
+                }
+                operands.add(index, new StringIsIn((StringProperty) property, strings));
+            }
+        }
+    }
+
+    /**
+     * @return The property operand of the given IsEqual or StringIsEqual if the other operand is a constant, else null.
+     */
+    private static PropertyExpression<?> getEqualityProperty(Expression<Boolean> equality) {
+
+        Expression<?> left = equality instanceof IsEqual ? ((IsEqual) equality).getLeft() : ((StringIsEqual) equality).getLeft();
+        Expression<?> right = equality instanceof IsEqual ? ((IsEqual) equality).getRight() : ((StringIsEqual) equality).getRight();
+        if (left instanceof PropertyExpression && right instanceof ConstantExpression)
+            return (PropertyExpression<?>) left;
+        if (right instanceof PropertyExpression && left instanceof ConstantExpression)
+            return (PropertyExpression<?>) right;
+        return null;
+    }
+
+    /**
+     * @return The constant operand of the given IsEqual or StringIsEqual if the other operand is a property, else null.
+     */
+    private static Expression<?> getEqualityConstant(Expression<Boolean> equality) {
+
+        Expression<?> left = equality instanceof IsEqual ? ((IsEqual) equality).getLeft() : ((StringIsEqual) equality).getLeft();
+        Expression<?> right = equality instanceof IsEqual ? ((IsEqual) equality).getRight() : ((StringIsEqual) equality).getRight();
+        if (left instanceof PropertyExpression && right instanceof ConstantExpression)
+            return right;
+        if (right instanceof PropertyExpression && left instanceof ConstantExpression)
+            return left;
+        return null;
+    }
+
+    /**
+     * The bounds imposed by a number of comparisons of a number property with constants.
+     */
+    private static final class Range {
+
+        final NumberProperty property;
+        final List<Expression<Boolean>> operands = new ArrayList<Expression<Boolean>>();
+        Number lowerBound;
+        boolean isLowerBoundIncluded;
+        Number upperBound;
+        boolean isUpperBoundIncluded;
+        boolean isFalseForNaN = false;
+
+        Range(NumberProperty property) {
+            this.property = property;
+        }
+
+        /**
+         * @return False if the comparison does not impose a range (i.e., it is an IsNotEqual).
+         */
+        boolean add(BooleanBinaryNumberExpression comparison, boolean isPropertyLeft, Number bound) {
+
+            boolean isLower;
+            boolean isIncluded;
+            if (comparison instanceof IsEqual) {
+                restrictLower(bound, true);
+                restrictUpper(bound, true);
+                return true;
+            } else if (comparison instanceof IsGreaterThan) {
+                isLower = isPropertyLeft;
+                isIncluded = false;
+            } else if (comparison instanceof IsGreaterThanOrEqual) {
+                isLower = isPropertyLeft;
+                isIncluded = true;
+            } else if (comparison instanceof IsLessThan) {
+                isLower = !isPropertyLeft;
+                isIncluded = false;
+            } else if (comparison instanceof IsLessThanOrEqual) {
+                isLower = !isPropertyLeft;
+                isIncluded = true;
+            } else {
+                return false;
+            }
+
+            if (!(comparison instanceof IsGreaterThanOrEqual))
+                isFalseForNaN = true;
+            if (isLower)
+                restrictLower(bound, isIncluded);
+            else
+                restrictUpper(bound, isIncluded);
+            return true;
+        }
+
+        private void restrictLower(Number bound, boolean isIncluded) {
+
+            if (lowerBound == null || bound.doubleValue() > lowerBound.doubleValue()
+                    || (bound.doubleValue() == lowerBound.doubleValue() && !isIncluded)) {
+                lowerBound = bound;
+                isLowerBoundIncluded = isIncluded;
+            }
+        }
+
+        private void restrictUpper(Number bound, boolean isIncluded) {
+
+            if (upperBound == null || bound.doubleValue() < upperBound.doubleValue()
+                    || (bound.doubleValue() == upperBound.doubleValue() && !isIncluded)) {
+                upperBound = bound;
+                isUpperBoundIncluded = isIncluded;
+            }
+        }
+
+        boolean isEmpty() {
+
+            if (lowerBound == null || upperBound == null)
+                return false;
+            double low = lowerBound.doubleValue();
+            double high = upperBound.doubleValue();
+            return low > high || (low == high && !(isLowerBoundIncluded && isUpperBoundIncluded));
+        }
+    }
+
+    // ---------------------------------------------------------------- constants
+
+    /**
+     * Replaces an expression that only depends on constants by its value.
+     */
+    private static Expression<Boolean> fold(Expression<Boolean> expression) {
+
+        if (expression instanceof ConstantExpression || !isConstant(expression))
+            return expression;
+        try {
+            Boolean value = expression.evaluate(null);
+            if (value != null)
+                return value ? TRUE : FALSE;
+        } catch (RuntimeException e) {
+            // e.g. a null constant, keep it for the interpreter to fail on
+        }
+        return expression;
+    }
+
+    private static boolean isConstant(Expression<Boolean> expression, boolean value) {
+
+        return expression instanceof ConstantExpression && Boolean.valueOf(value).equals(expression.evaluate(null));
+    }
+
+    /**
+     * @return True if the value of the given expression does not depend on the object it is evaluated on.
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean isConstant(Expression<?> expression) {
+
+        if (expression instanceof ConstantExpression)
+            return true;
+        if (expression instanceof Not)
+            return isConstant(((Not) expression).getExpression());
+        if (expression instanceof IsInRange)
+            return isConstant(((IsInRange) expression).getValue());
+        if (expression instanceof IsIn)
+            return isConstant(((IsIn) expression).getValue());
+        if (expression instanceof StringIsIn)
+            return isConstant(((StringIsIn) expression).getValue());
+        if (expression instanceof DateIsBetween) {
+            DateIsBetween between = (DateIsBetween) expression;
+            return isConstant(between.getBaseDate()) && isConstant(between.getLowDate()) && isConstant(between.getHighDate());
+        }
+        if (expression instanceof BinaryBooleanExpression) {
+            BinaryBooleanExpression<?> binary = (BinaryBooleanExpression<?>) expression;
+            return isConstant(binary.getLeft()) && isConstant(binary.getRight());
+        }
+        if (expression instanceof BinaryNumberExpression) {
+            BinaryNumberExpression<?> binary = (BinaryNumberExpression<?>) expression;
+            return isConstant(binary.getLeft()) && isConstant(binary.getRight());
+        }
+        if (expression instanceof BinaryStringExpression) {
+            BinaryStringExpression<?> binary = (BinaryStringExpression<?>) expression;
+            return isConstant(binary.getLeft()) && isConstant(binary.getRight());
+        }
+        if (expression instanceof BinaryDateExpression) {
+            BinaryDateExpression<?> binary = (BinaryDateExpression<?>) expression;
+            return isConstant(binary.getLeft()) && isConstant(binary.getRight());
+        }
+        if (expression instanceof BinaryGeometryExpression) {
+            BinaryGeometryExpression<?> binary = (BinaryGeometryExpression<?>) expression;
+            return isConstant(binary.getLeft()) && isConstant(binary.getRight());
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------- structural equality
+
+    private static int indexOf(List<Expression<Boolean>> expressions, Expression<Boolean> expression) {
+
+        for (int i = 0; i < expressions.size(); i++) {
+            if (isSame(expressions.get(i), expression))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return True if both expressions are of the same class and have the same operands, so they always evaluate to
+     *         the same value.
+     */
+    public static boolean isSame(Expression<?> expression, Expression<?> other) {
+
+        if (expression == other)
+            return true;
+        if (expression == null || other == null || expression.getClass() != other.getClass())
+            return false;
+
+        if (expression instanceof ConstantExpression)
+            return isEqual(expression.evaluate(null), other.evaluate(null));
+        if (expression instanceof PropertyExpression)
+            return isEqual(((PropertyExpression) expression).getPropertyName(), ((PropertyExpression) other).getPropertyName());
+        if (expression instanceof PropertyExists)
+            return isEqual(((PropertyExists) expression).getPropertyName(), ((PropertyExists) other).getPropertyName());
+        if (expression instanceof PropertyDoesNotExist)
+            return isEqual(((PropertyDoesNotExist) expression).getPropertyName(), ((PropertyDoesNotExist) other).getPropertyName());
+        if (expression instanceof Not)
+            return isSame(((Not) expression).getExpression(), ((Not) other).getExpression());
+        if (expression instanceof IsInRange) {
+            IsInRange range = (IsInRange) expression;
+            IsInRange otherRange = (IsInRange) other;
+            return isSame(range.getValue(), otherRange.getValue())
+                    && isEqual(range.getLowerBound(), otherRange.getLowerBound()) && range.isLowerBoundIncluded() == otherRange.isLowerBoundIncluded()
+                    && isEqual(range.getUpperBound(), otherRange.getUpperBound()) && range.isUpperBoundIncluded() == otherRange.isUpperBoundIncluded();
+        }
+        if (expression instanceof IsIn) {
+            return isSame(((IsIn) expression).getValue(), ((IsIn) other).getValue())
+                    && isEqual(((IsIn) expression).getValues(), ((IsIn) other).getValues());
+        }
+        if (expression instanceof StringIsIn) {
+            return isSame(((StringIsIn) expression).getValue(), ((StringIsIn) other).getValue())
+                    && isEqual(((StringIsIn) expression).getValues(), ((StringIsIn) other).getValues());
+        }
+        if (expression instanceof DateIsBetween) {
+            DateIsBetween between = (DateIsBetween) expression;
+            DateIsBetween otherBetween = (DateIsBetween) other;
+            return isSame(between.getBaseDate(), otherBetween.getBaseDate())
+                    && isSame(between.getLowDate(), otherBetween.getLowDate())
+                    && isSame(between.getHighDate(), otherBetween.getHighDate());
+        }
+        if (expression instanceof StringLikeComparisonExpression) {
+            StringLikeComparisonExpression like = (StringLikeComparisonExpression) expression;
+            StringLikeComparisonExpression otherLike = (StringLikeComparisonExpression) other;
+            if (like.getWildcardChar() != otherLike.getWildcardChar() || like.isCaseInsensitive() != otherLike.isCaseInsensitive())
+                return false;
+        }
+        if (expression instanceof BinaryBooleanExpression) {
+            return isSame(((BinaryBooleanExpression<?>) expression).getLeft(), ((BinaryBooleanExpression<?>) other).getLeft())
+                    && isSame(((BinaryBooleanExpression<?>) expression).getRight(), ((BinaryBooleanExpression<?>) other).getRight());
+        }
+        if (expression instanceof BinaryNumberExpression) {
+            return isSame(((BinaryNumberExpression<?>) expression).getLeft(), ((BinaryNumberExpression<?>) other).getLeft())
+                    && isSame(((BinaryNumberExpression<?>) expression).getRight(), ((BinaryNumberExpression<?>) other).getRight());
+        }
+        if (expression instanceof BinaryStringExpression) {
+            return isSame(((BinaryStringExpression<?>) expression).getLeft(), ((BinaryStringExpression<?>) other).getLeft())
+                    && isSame(((BinaryStringExpression<?>) expression).getRight(), ((BinaryStringExpression<?>) other).getRight());
+        }
+        if (expression instanceof BinaryDateExpression) {
+            return isSame(((BinaryDateExpression<?>) expression).getLeft(), ((BinaryDateExpression<?>) other).getLeft())
+                    && isSame(((BinaryDateExpression<?>) expression).getRight(), ((BinaryDateExpression<?>) other).getRight());
+        }
+        if (expression instanceof BinaryGeometryExpression) {
+            return isSame(((BinaryGeometryExpression<?>) expression).getLeft(), ((BinaryGeometryExpression<?>) other).getLeft())
+                    && isSame(((BinaryGeometryExpression<?>) expression).getRight(), ((BinaryGeometryExpression<?>) other).getRight());
+        }
+        return false;
+    }
+
+    private static boolean isEqual(Object value, Object other) {
+
+        return value == null ? other == null : value.equals(other);
+    }
+}
@@ -21,11 +21,16 @@
 
 package org.geolatte.common.expressions;
 
+import org.geolatte.common.expressions.geo.GeoContains;
 import org.geolatte.common.expressions.geo.GeoEquals;
+import org.geolatte.common.expressions.geo.GeoIntersects;
+import org.geolatte.common.expressions.geo.GeoWithin;
 import org.geolatte.common.expressions.geo.GeometryConstant;
 import org.geolatte.common.expressions.geo.GeometryProperty;
 import org.geolatte.geom.Geometry;
 
+import java.time.temporal.Temporal;
+import java.util.Collection;
 import java.util.Date;
 
 /**
@@ -83,6 +88,17 @@ public class Expressions {
         return new DateConstant(date);
     }
 
+    /**
+     * Creates a DateConstant expression from the given java.time object.
+     *
+     * @param temporal An instant, zoned, offset or local date-time, or a local date.
+     * @return A DateConstant expression.
+     * @throws IllegalArgumentException If temporal is of another type.
+     */
+    public static DateConstant constant(Temporal temporal) {
+        return new DateConstant(temporal);
+    }
+
     public static GeometryConstant constant(Geometry geometry) {
 
         return new GeometryConstant(geometry);
@@ -768,6 +784,54 @@ public class Expressions {
         return new DateIsBetween(date, lowDate, highDate);
     }
 
+    /**
+     * Creates an IsIn expression from the given expression and numbers.
+     *
+     * @param value The number to look up.
+     * @param values The numbers to compare with.
+     * @return An IsIn expression.
+     */
+    public static IsIn isIn(ComparableExpression<Number> value, Collection<? extends Number> values) {
+        return new IsIn(value, values);
+    }
+
+    /**
+     * Creates a StringIsIn expression from the given expression and strings.
+     *
+     * @param value The string to look up.
+     * @param values The strings to compare with.
+     * @return A StringIsIn expression.
+     */
+    public static StringIsIn isIn(StringExpression value, Collection<String> values) {
+        return new StringIsIn(value, values);
+    }
+
+    /**
+     * Creates an expression that checks whether a number lies between two numbers, both included.
+     *
+     * @param value The number to check.
+     * @param low The lowest number in the range.
+     * @param high The highest number in the range.
+     * @return An IsInRange expression.
+     */
+    public static IsInRange isBetween(ComparableExpression<Number> value, Number low, Number high) {
+        return new IsInRange(value, low, true, high, true);
+    }
+
+    /**
+     * Creates an IsInRange expression from the given expression and bounds.
+     *
+     * @param value The number to check.
+     * @param lowerBound The lower bound, or null if the range has no lower bound.
+     * @param isLowerBoundIncluded True if the lower bound itself is in the range.
+     * @param upperBound The upper bound, or null if the range has no upper bound.
+     * @param isUpperBoundIncluded True if the upper bound itself is in the range.
+     * @return An IsInRange expression.
+     */
+    public static IsInRange isInRange(ComparableExpression<Number> value, Number lowerBound, boolean isLowerBoundIncluded, Number upperBound, boolean isUpperBoundIncluded) {
+        return new IsInRange(value, lowerBound, isLowerBoundIncluded, upperBound, isUpperBoundIncluded);
+    }
+
     /**
      * Creates a PropertyDoesNotExist expression from the given property name.
      * @param propertyName The property name.
@@ -796,6 +860,36 @@ public class Expressions {
         return new GeoEquals(left, right);
     }
 
+    /**
+     * Creates a GeoWithin expression from the left and right expressions.
+     * @param left The left expression.
+     * @param right The right expression.
+     * @return A GeoWithin expression.
+     */
+    public static GeoWithin geoWithin(Expression<Geometry> left, Expression<Geometry> right) {
+        return new GeoWithin(left, right);
+    }
+
+    /**
+     * Creates a GeoContains expression from the left and right expressions.
+     * @param left The left expression.
+     * @param right The right expression.
+     * @return A GeoContains expression.
+     */
+    public static GeoContains geoContains(Expression<Geometry> left, Expression<Geometry> right) {
+        return new GeoContains(left, right);
+    }
+
+    /**
+     * Creates a GeoIntersects expression from the left and right expressions.
+     * @param left The left expression.
+     * @param right The right expression.
+     * @return A GeoIntersects expression.
+     */
+    public static GeoIntersects geoIntersects(Expression<Geometry> left, Expression<Geometry> right) {
+        return new GeoIntersects(left, right);
+    }
+
     public static GeometryProperty geometryProperty(String attributeName) {
 
         return new GeometryProperty(attributeName);
@@ -61,4 +61,13 @@ public class Filter {
     public Boolean evaluate(Object o) {
         return filterExpression.evaluate(o);
     }
+
+    /**
+     * Gets the expression this filter evaluates.
+     *
+     * @return The filter expression.
+     */
+    public Expression<Boolean> getFilterExpression() {
+        return filterExpression;
+    }
 }
\ No newline at end of file
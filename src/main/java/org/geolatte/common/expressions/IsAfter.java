@@ -38,6 +38,9 @@ import java.util.Date;
  */
 public class IsAfter extends BooleanBinaryDateExpression {
 
+    private final DateOperand left;
+    private final DateOperand right;
+
     /**
      * Creates an IsAfter expression (left is-after right).
      * @param left The left hand side expression.
@@ -45,10 +48,13 @@ public class IsAfter extends BooleanBinaryDateExpression {
      */
     protected IsAfter(Expression<Date> left, Expression<Date> right) {
         super(left, right);
+
+        this.left = new DateOperand(left, false);
+        this.right = new DateOperand(right, false);
     }
 
     public Boolean evaluate(Object o) {
 
-        return getLeft().evaluate(o).after(getRight().evaluate(o));
+        return left.millis(o) > right.millis(o);
     }
 }
@@ -38,6 +38,9 @@ import java.util.Date;
  */
 public class IsBefore extends BooleanBinaryDateExpression {
 
+    private final DateOperand left;
+    private final DateOperand right;
+
     /**
      * Creates an IsBefore expression (left is-before right).
      * @param left The left hand side expression.
@@ -45,10 +48,13 @@ public class IsBefore extends BooleanBinaryDateExpression {
      */
     protected IsBefore(Expression<Date> left, Expression<Date> right) {
         super(left, right);
+
+        this.left = new DateOperand(left, false);
+        this.right = new DateOperand(right, false);
     }
 
     public Boolean evaluate(Object o) {
 
-        return getLeft().evaluate(o).before(getRight().evaluate(o));
+        return left.millis(o) < right.millis(o);
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Expression that checks whether a number equals one of a list of numbers. The numbers are kept in a sorted primitive
+ * array, so a check takes a binary search instead of a comparison per number.
+ * </p>
+ * <p>
+ * Numbers are equal as in {@link IsEqual}, so an IsIn expression evaluates to the same value as a disjunction of IsEqual
+ * expressions with the same numbers: a NaN value equals any number, and a NaN in the list equals any value.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class IsIn extends BooleanExpression {
+
+    private final ComparableExpression<Number> value;
+    private final List<Number> values;
+    private final double[] sortedValues;
+    private final boolean containsNaN;
+
+    /**
+     * Constructor.
+     *
+     * @param value  The number to look up.
+     * @param values The numbers to compare with.
+     * @throws IllegalArgumentException If values is null or contains null.
+     */
+    public IsIn(ComparableExpression<Number> value, Collection<? extends Number> values) {
+
+        if (values == null || values.contains(null))
+            throw new IllegalArgumentException("Argument values cannot be or contain null");
+
+        this.value = value;
+        this.values = Collections.unmodifiableList(new ArrayList<Number>(values));
+
+        double[] sorted = new double[values.size()];
+        int count = 0;
+        boolean hasNaN = false;
+        for (Number number : values) {
+            double d = number.doubleValue();
+            if (Double.isNaN(d))
+                hasNaN = true;
+            else
+                sorted[count++] = d + 0.0; // -0.0 equals 0.0
+        }
+        sorted = Arrays.copyOf(sorted, count);
+        Arrays.sort(sorted);
+        this.sortedValues = sorted;
+        this.containsNaN = hasNaN;
+    }
+
+    public Boolean evaluate(Object o) {
+
+        return contains(value.evaluate(o).doubleValue());
+    }
+
+    /**
+     * @param number A value.
+     * @return True if the given value equals one of the numbers.
+     */
+    public boolean contains(double number) {
+
+        if (containsNaN || Double.isNaN(number))
+            return containsNaN || sortedValues.length > 0;
+        return Arrays.binarySearch(sortedValues, number + 0.0) >= 0;
+    }
+
+    public ComparableExpression<Number> getValue() {
+        return value;
+    }
+
+    /**
+     * @return The numbers to compare with, in the given order.
+     */
+    public List<Number> getValues() {
+        return values;
+    }
+}
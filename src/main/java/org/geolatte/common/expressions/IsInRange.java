@@ -0,0 +1,97 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+/**
+ * <p>
+ * Expression that checks whether a number lies within a range. Either bound may be open (null), and each bound is
+ * either included or excluded. Evaluates the number only once, so a range check is cheaper than the conjunction of
+ * comparisons it replaces. NaN is never in a range.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class IsInRange extends BooleanExpression {
+
+    private final ComparableExpression<Number> value;
+    private final Number lowerBound;
+    private final boolean isLowerBoundIncluded;
+    private final Number upperBound;
+    private final boolean isUpperBoundIncluded;
+
+    /**
+     * Constructor.
+     *
+     * @param value                The number to check.
+     * @param lowerBound           The lower bound, or null if the range has no lower bound.
+     * @param isLowerBoundIncluded True if the lower bound itself is in the range.
+     * @param upperBound           The upper bound, or null if the range has no upper bound.
+     * @param isUpperBoundIncluded True if the upper bound itself is in the range.
+     */
+    public IsInRange(ComparableExpression<Number> value, Number lowerBound, boolean isLowerBoundIncluded, Number upperBound, boolean isUpperBoundIncluded) {
+        this.value = value;
+        this.lowerBound = lowerBound;
+        this.isLowerBoundIncluded = isLowerBoundIncluded;
+        this.upperBound = upperBound;
+        this.isUpperBoundIncluded = isUpperBoundIncluded;
+    }
+
+    public Boolean evaluate(Object o) {
+
+        double number = value.evaluate(o).doubleValue();
+
+        if (lowerBound != null) {
+            double low = lowerBound.doubleValue();
+            if (isLowerBoundIncluded ? !(number >= low) : !(number > low))
+                return false;
+        }
+        if (upperBound != null) {
+            double high = upperBound.doubleValue();
+            if (isUpperBoundIncluded ? !(number <= high) : !(number < high))
+                return false;
+        }
+        return true;
+    }
+
+    public ComparableExpression<Number> getValue() {
+        return value;
+    }
+
+    public Number getLowerBound() {
+        return lowerBound;
+    }
+
+    public boolean isLowerBoundIncluded() {
+        return isLowerBoundIncluded;
+    }
+
+    public Number getUpperBound() {
+        return upperBound;
+    }
+
+    public boolean isUpperBoundIncluded() {
+        return isUpperBoundIncluded;
+    }
+}
@@ -53,4 +53,12 @@ public class Not extends BooleanExpression {
 
         return !leftValue;
     }
+
+    /**
+     * Gets the negated expression.
+     * @return The boolean expression that is negated.
+     */
+    public Expression<Boolean> getExpression() {
+        return expression;
+    }
 }
\ No newline at end of file
@@ -60,14 +60,7 @@ public class NumberProperty extends NumberExpression implements PropertyExpressi
      */
     public Number evaluate(Object o) {
 
-        EntityClassReader classReader = EntityClassReader.getClassReaderFor(o.getClass());
-        Object result = null;
-        try {
-            result = classReader.getPropertyValue(o, propertyName);
-        }
-        catch (InvalidObjectReaderException e) {
-            ; // can never occur
-        }
+        Object result = readValue(o);
 
         if (!(result instanceof Number))
                 return null;
@@ -75,6 +68,23 @@ public class NumberProperty extends NumberExpression implements PropertyExpressi
         return (Number)result;
     }
 
+    /**
+     * Reads the value of the property from the given object.
+     *
+     * @param o The object to read.
+     * @return The value of the property, null if the object has no such property.
+     */
+    Object readValue(Object o) {
+
+        EntityClassReader classReader = EntityClassReader.getClassReaderFor(o.getClass());
+        try {
+            return classReader.getPropertyValue(o, propertyName);
+        }
+        catch (InvalidObjectReaderException e) {
+            return null; // can never occur
+        }
+    }
+
     public String getPropertyName() {
         return propertyName;
     }
@@ -54,4 +54,12 @@ public class PropertyDoesNotExist extends BooleanExpression {
         EntityClassReader classReader = EntityClassReader.getClassReaderFor(o.getClass());
         return !classReader.exists(propertyName, true);
     }
+
+    /**
+     * Gets the name of the property whose existence is checked.
+     * @return The name of the property.
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
 }
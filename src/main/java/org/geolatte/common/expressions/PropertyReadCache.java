@@ -0,0 +1,365 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * <p>
+ * A copy of the expression of a {@link ReadOnceFilter} in which every property expression that refers to a repeated
+ * property is replaced by one that reads a fixed slot of this cache. A slot is filled by the first read of its
+ * property and serves all other reads during the evaluation of the same object.
+ * </p>
+ * <p>
+ * The slots belong to this copy alone, so a cache must only be used by one evaluation at a time.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class PropertyReadCache {
+
+    private final Object[] values;
+    private final boolean[] isRead;
+    private final Expression<Boolean> expression;
+    private Object target;
+
+    /**
+     * @param expression The filter expression to copy.
+     * @param slots      The slot index of every repeated property, by property name.
+     */
+    PropertyReadCache(Expression<Boolean> expression, Map<String, Integer> slots) {
+
+        this.values = new Object[slots.size()];
+        this.isRead = new boolean[slots.size()];
+        this.expression = new Binder(slots).bindBoolean(expression);
+    }
+
+    /**
+     * @return The copy of the filter expression that reads through the slots of this cache.
+     */
+    Expression<Boolean> getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return True if the cache is in use by an evaluation.
+     */
+    boolean isActive() {
+        return target != null;
+    }
+
+    /**
+     * Evaluates the given object with the copy of the filter expression, reading each repeated property once.
+     *
+     * @param o The object to evaluate, not null.
+     * @return The result of the filter expression.
+     */
+    Boolean evaluate(Object o) {
+
+        target = o;
+        Arrays.fill(isRead, false);
+        try {
+            return expression.evaluate(o);
+        }
+        finally {
+            target = null;
+            Arrays.fill(values, null);
+        }
+    }
+
+    private boolean isRead(Object o, int slot) {
+        return o == target && isRead[slot];
+    }
+
+    private Object store(Object o, int slot, Object value) {
+
+        if (o == target) {
+            values[slot] = value;
+            isRead[slot] = true;
+        }
+        return value;
+    }
+
+    private final class NumberSlot extends NumberProperty {
+
+        private final int slot;
+
+        NumberSlot(String propertyName, int slot) {
+            super(propertyName);
+            this.slot = slot;
+        }
+
+        @Override
+        Object readValue(Object o) {
+            return isRead(o, slot) ? values[slot] : store(o, slot, super.readValue(o));
+        }
+    }
+
+    private final class StringSlot extends StringProperty {
+
+        private final int slot;
+
+        StringSlot(String propertyName, int slot) {
+            super(propertyName);
+            this.slot = slot;
+        }
+
+        @Override
+        Object readValue(Object o) {
+            return isRead(o, slot) ? values[slot] : store(o, slot, super.readValue(o));
+        }
+    }
+
+    private final class DateSlot extends DateProperty {
+
+        private final int slot;
+
+        DateSlot(String propertyName, int slot) {
+            super(propertyName);
+            this.slot = slot;
+        }
+
+        @Override
+        Object readValue(Object o) {
+            return isRead(o, slot) ? values[slot] : store(o, slot, super.readValue(o));
+        }
+    }
+
+    private final class BooleanSlot extends BooleanProperty {
+
+        private final int slot;
+
+        BooleanSlot(String propertyName, int slot) {
+            super(propertyName);
+            this.slot = slot;
+        }
+
+        @Override
+        Object readValue(Object o) {
+            return isRead(o, slot) ? values[slot] : store(o, slot, super.readValue(o));
+        }
+    }
+
+    /**
+     * Copies an expression, replacing the property expressions of the repeated properties by slot reads. Unchanged
+     * subexpressions are shared with the original. Expressions of types it does not know are kept as they are, their
+     * properties are then simply read directly.
+     */
+    private final class Binder {
+
+        private final Map<String, Integer> slots;
+
+        Binder(Map<String, Integer> slots) {
+            this.slots = slots;
+        }
+
+        private Integer slotOf(PropertyExpression<?> property) {
+            return property.getPropertyName() == null ? null : slots.get(property.getPropertyName());
+        }
+
+        Expression<Boolean> bindBoolean(Expression<Boolean> expression) {
+
+            if (expression instanceof BooleanProperty) {
+                Integer slot = slotOf((BooleanProperty) expression);
+                return slot == null ? expression : new BooleanSlot(((BooleanProperty) expression).getPropertyName(), slot);
+            }
+            if (expression instanceof Not) {
+                Expression<Boolean> inner = bindBoolean(((Not) expression).getExpression());
+                return inner == ((Not) expression).getExpression() ? expression : new Not(inner);
+            }
+            if (expression instanceof BinaryBooleanExpression)
+                return bindBooleanOperands(expression);
+            if (expression instanceof BooleanBinaryNumberExpression)
+                return bindNumberComparison((BooleanBinaryNumberExpression) expression);
+            if (expression instanceof BooleanBinaryStringExpression)
+                return bindStringComparison((BooleanBinaryStringExpression) expression);
+            if (expression instanceof BooleanBinaryDateExpression)
+                return bindDateComparison((BooleanBinaryDateExpression) expression);
+            if (expression instanceof DateIsBetween) {
+                DateIsBetween between = (DateIsBetween) expression;
+                Expression<Date> base = bindDate(between.getBaseDate());
+                Expression<Date> low = bindDate(between.getLowDate());
+                Expression<Date> high = bindDate(between.getHighDate());
+                return base == between.getBaseDate() && low == between.getLowDate() && high == between.getHighDate()
+                        ? expression : new DateIsBetween(comparable(base), comparable(low), comparable(high));
+            }
+            if (expression instanceof IsInRange) {
+                IsInRange range = (IsInRange) expression;
+                Expression<Number> value = bindNumber(range.getValue());
+                return value == range.getValue() ? expression : new IsInRange(comparable(value), range.getLowerBound(),
+                        range.isLowerBoundIncluded(), range.getUpperBound(), range.isUpperBoundIncluded());
+            }
+            if (expression instanceof IsIn) {
+                IsIn in = (IsIn) expression;
+                Expression<Number> value = bindNumber(in.getValue());
+                return value == in.getValue() ? expression : new IsIn(comparable(value), in.getValues());
+            }
+            if (expression instanceof StringIsIn) {
+                StringIsIn in = (StringIsIn) expression;
+                Expression<String> value = bindString(in.getValue());
+                return value == in.getValue() ? expression : new StringIsIn(value, in.getValues());
+            }
+            return expression;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Expression<Boolean> bindBooleanOperands(Expression<Boolean> expression) {
+
+            BinaryBooleanExpression<Boolean> binary = (BinaryBooleanExpression<Boolean>) expression;
+            Expression<Boolean> left = bindBoolean(binary.getLeft());
+            Expression<Boolean> right = bindBoolean(binary.getRight());
+            if (left == binary.getLeft() && right == binary.getRight())
+                return expression;
+
+            if (expression instanceof And)
+                return new And(left, right);
+            if (expression instanceof Or)
+                return new Or(left, right);
+            if (expression instanceof BooleanIsEqual)
+                return new BooleanIsEqual(left, right);
+            if (expression instanceof BooleanIsNotEqual)
+                return new BooleanIsNotEqual(left, right);
+            if (expression instanceof BooleanIsGreaterThan)
+                return new BooleanIsGreaterThan(comparable(left), comparable(right));
+            if (expression instanceof BooleanIsGreaterThanOrEqual)
+                return new BooleanIsGreaterThanOrEqual(comparable(left), comparable(right));
+            if (expression instanceof BooleanIsLessThan)
+                return new BooleanIsLessThan(comparable(left), comparable(right));
+            if (expression instanceof BooleanIsLessThanOrEqual)
+                return new BooleanIsLessThanOrEqual(comparable(left), comparable(right));
+            return expression;
+        }
+
+        private Expression<Boolean> bindNumberComparison(BooleanBinaryNumberExpression comparison) {
+
+            Expression<Number> left = bindNumber(comparison.getLeft());
+            Expression<Number> right = bindNumber(comparison.getRight());
+            if (left == comparison.getLeft() && right == comparison.getRight())
+                return comparison;
+
+            if (comparison instanceof IsEqual)
+                return new IsEqual(comparable(left), comparable(right));
+            if (comparison instanceof IsNotEqual)
+                return new IsNotEqual(comparable(left), comparable(right));
+            if (comparison instanceof IsLessThan)
+                return new IsLessThan(comparable(left), comparable(right));
+            if (comparison instanceof IsLessThanOrEqual)
+                return new IsLessThanOrEqual(comparable(left), comparable(right));
+            if (comparison instanceof IsGreaterThan)
+                return new IsGreaterThan(comparable(left), comparable(right));
+            if (comparison instanceof IsGreaterThanOrEqual)
+                return new IsGreaterThanOrEqual(comparable(left), comparable(right));
+            return comparison;
+        }
+
+        private Expression<Boolean> bindStringComparison(BooleanBinaryStringExpression comparison) {
+
+            Expression<String> left = bindString(comparison.getLeft());
+            Expression<String> right = bindString(comparison.getRight());
+            if (left == comparison.getLeft() && right == comparison.getRight())
+                return comparison;
+
+            if (comparison instanceof Like) {
+                Like like = (Like) comparison;
+                return new Like(left, right, like.getWildcardChar(), like.isCaseInsensitive());
+            }
+            if (comparison instanceof NotLike) {
+                NotLike notLike = (NotLike) comparison;
+                return new NotLike(left, right, notLike.getWildcardChar(), notLike.isCaseInsensitive());
+            }
+            if (comparison instanceof StringIsEqual)
+                return new StringIsEqual(comparable(left), comparable(right));
+            if (comparison instanceof StringIsNotEqual)
+                return new StringIsNotEqual(comparable(left), comparable(right));
+            if (comparison instanceof StringIsLessThan)
+                return new StringIsLessThan(comparable(left), comparable(right));
+            if (comparison instanceof StringIsLessThanOrEqual)
+                return new StringIsLessThanOrEqual(comparable(left), comparable(right));
+            if (comparison instanceof StringIsGreaterThan)
+                return new StringIsGreaterThan(comparable(left), comparable(right));
+            if (comparison instanceof StringIsGreaterThanOrEqual)
+                return new StringIsGreaterThanOrEqual(comparable(left), comparable(right));
+            return comparison;
+        }
+
+        private Expression<Boolean> bindDateComparison(BooleanBinaryDateExpression comparison) {
+
+            Expression<Date> left = bindDate(comparison.getLeft());
+            Expression<Date> right = bindDate(comparison.getRight());
+            if (left == comparison.getLeft() && right == comparison.getRight())
+                return comparison;
+
+            if (comparison instanceof IsBefore)
+                return new IsBefore(left, right);
+            if (comparison instanceof IsAfter)
+                return new IsAfter(left, right);
+            return comparison;
+        }
+
+        private Expression<Number> bindNumber(Expression<Number> expression) {
+
+            if (expression instanceof NumberProperty) {
+                Integer slot = slotOf((NumberProperty) expression);
+                if (slot != null)
+                    return new NumberSlot(((NumberProperty) expression).getPropertyName(), slot);
+            } else if (expression instanceof Add) {
+                Add add = (Add) expression;
+                Expression<Number> left = bindNumber(add.getLeft());
+                Expression<Number> right = bindNumber(add.getRight());
+                if (left != add.getLeft() || right != add.getRight())
+                    return new Add(left, right);
+            }
+            return expression;
+        }
+
+        private Expression<String> bindString(Expression<String> expression) {
+
+            if (expression instanceof StringProperty) {
+                Integer slot = slotOf((StringProperty) expression);
+                if (slot != null)
+                    return new StringSlot(((StringProperty) expression).getPropertyName(), slot);
+            }
+            return expression;
+        }
+
+        private Expression<Date> bindDate(Expression<Date> expression) {
+
+            if (expression instanceof DateProperty) {
+                Integer slot = slotOf((DateProperty) expression);
+                if (slot != null)
+                    return new DateSlot(((DateProperty) expression).getPropertyName(), slot);
+            }
+            return expression;
+        }
+
+        // A bound operand is either the original one or a slot property, so it is comparable where the original was
+        @SuppressWarnings("unchecked")
+        private <T> ComparableExpression<T> comparable(Expression<T> expression) {
+            return (ComparableExpression<T>) expression;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.common.expressions.geo.BinaryGeometryExpression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A {@link Filter} that reads each property its expression refers to more than once (e.g.
+ * {@code speed > 10 AND speed < 120 AND speed <> 55}) only once per evaluated object. Every repeated property gets
+ * a slot, and the filter evaluates a copy of its expression in which the number, string, date and boolean property
+ * expressions of that property read the slot by its index. The slot is filled on first use and serves the other
+ * reads for the rest of the evaluation. The expression returned by {@link #getFilterExpression()} is left unchanged.
+ * </p>
+ * <p>
+ * The result is the same as that of a plain filter with the same expression, provided that reading a property has no
+ * side effects. A read-once filter can be used concurrently: every thread has its own copy and slots.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class ReadOnceFilter extends Filter {
+
+    private final String[] repeatedPropertyNames;
+    private final Map<String, Integer> slots = new HashMap<String, Integer>();
+    private final ThreadLocal<PropertyReadCache> caches = new ThreadLocal<PropertyReadCache>() {
+        @Override
+        protected PropertyReadCache initialValue() {
+            return new PropertyReadCache(getFilterExpression(), slots);
+        }
+    };
+
+    /**
+     * Constructor.
+     *
+     * @param filterExpression The filter expression.
+     * @throws IllegalArgumentException If the given filterExpression is null.
+     */
+    public ReadOnceFilter(Expression<Boolean> filterExpression) throws IllegalArgumentException {
+        super(filterExpression);
+
+        repeatedPropertyNames = findRepeatedPropertyNames(filterExpression);
+        for (int i = 0; i < repeatedPropertyNames.length; i++)
+            slots.put(repeatedPropertyNames[i], i);
+    }
+
+    /**
+     * Creates a filter for the given expression: a read-once filter if the expression reads a property more than
+     * once, a plain filter otherwise.
+     *
+     * @param filterExpression The filter expression.
+     * @return The filter.
+     * @throws IllegalArgumentException If the given filterExpression is null.
+     */
+    public static Filter create(Expression<Boolean> filterExpression) throws IllegalArgumentException {
+
+        ReadOnceFilter filter = new ReadOnceFilter(filterExpression);
+        return filter.repeatedPropertyNames.length == 0 ? new Filter(filterExpression) : filter;
+    }
+
+    /**
+     * Evaluates the given object against this filter.
+     *
+     * @param o The object to evaluate.
+     * @return True if the object is accepted by the filter, false otherwise.
+     */
+    @Override
+    public Boolean evaluate(Object o) {
+
+        if (o == null || repeatedPropertyNames.length == 0)
+            return super.evaluate(o);
+
+        PropertyReadCache cache = caches.get();
+        if (cache.isActive()) // this filter is evaluated while it evaluates, e.g. by a property getter
+            cache = new PropertyReadCache(getFilterExpression(), slots);
+
+        return cache.evaluate(o);
+    }
+
+    /**
+     * Gets the names of the properties that are read only once per evaluated object.
+     *
+     * @return The names of the properties the filter expression refers to more than once.
+     */
+    public List<String> getRepeatedPropertyNames() {
+        return Collections.unmodifiableList(Arrays.asList(repeatedPropertyNames));
+    }
+
+    private static String[] findRepeatedPropertyNames(Expression<?> expression) {
+
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        List<String> names = new ArrayList<String>();
+        countPropertyReads(expression, counts, names);
+
+        List<String> repeated = new ArrayList<String>();
+        for (String name : names) {
+            if (counts.get(name) > 1)
+                repeated.add(name);
+        }
+        return repeated.toArray(new String[repeated.size()]);
+    }
+
+    private static void countPropertyReads(Expression<?> expression, Map<String, Integer> counts, List<String> names) {
+
+        if (expression instanceof NumberProperty || expression instanceof StringProperty
+                || expression instanceof DateProperty || expression instanceof BooleanProperty) {
+            String name = ((PropertyExpression<?>) expression).getPropertyName();
+            if (name != null) {
+                Integer count = counts.get(name);
+                if (count == null)
+                    names.add(name);
+                counts.put(name, count == null ? 1 : count + 1);
+            }
+        } else if (expression instanceof Not) {
+            countPropertyReads(((Not) expression).getExpression(), counts, names);
+        } else if (expression instanceof IsInRange) {
+            countPropertyReads(((IsInRange) expression).getValue(), counts, names);
+        } else if (expression instanceof IsIn) {
+            countPropertyReads(((IsIn) expression).getValue(), counts, names);
+        } else if (expression instanceof StringIsIn) {
+            countPropertyReads(((StringIsIn) expression).getValue(), counts, names);
+        } else if (expression instanceof DateIsBetween) {
+            DateIsBetween between = (DateIsBetween) expression;
+            countPropertyReads(between.getBaseDate(), counts, names);
+            countPropertyReads(between.getLowDate(), counts, names);
+            countPropertyReads(between.getHighDate(), counts, names);
+        } else if (expression instanceof BinaryBooleanExpression) {
+            countPropertyReads(((BinaryBooleanExpression<?>) expression).getLeft(), counts, names);
+            countPropertyReads(((BinaryBooleanExpression<?>) expression).getRight(), counts, names);
+        } else if (expression instanceof BinaryNumberExpression) {
+            countPropertyReads(((BinaryNumberExpression<?>) expression).getLeft(), counts, names);
+            countPropertyReads(((BinaryNumberExpression<?>) expression).getRight(), counts, names);
+        } else if (expression instanceof BinaryStringExpression) {
+            countPropertyReads(((BinaryStringExpression<?>) expression).getLeft(), counts, names);
+            countPropertyReads(((BinaryStringExpression<?>) expression).getRight(), counts, names);
+        } else if (expression instanceof BinaryDateExpression) {
+            countPropertyReads(((BinaryDateExpression<?>) expression).getLeft(), counts, names);
+            countPropertyReads(((BinaryDateExpression<?>) expression).getRight(), counts, names);
+        } else if (expression instanceof BinaryGeometryExpression) {
+            countPropertyReads(((BinaryGeometryExpression<?>) expression).getLeft(), counts, names);
+            countPropertyReads(((BinaryGeometryExpression<?>) expression).getRight(), counts, names);
+        }
+    }
+}
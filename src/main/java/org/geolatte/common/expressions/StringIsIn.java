@@ -0,0 +1,89 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * Expression that checks whether a string equals one of a set of strings, with a single hash lookup. Evaluates to the
+ * same value as a disjunction of {@link StringIsEqual} expressions with the same strings.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class StringIsIn extends BooleanExpression {
+
+    private final Expression<String> value;
+    private final Set<String> values;
+
+    /**
+     * Constructor.
+     *
+     * @param value  The string to look up.
+     * @param values The strings to compare with.
+     * @throws IllegalArgumentException If values is null or contains null.
+     */
+    public StringIsIn(Expression<String> value, Collection<String> values) {
+
+        if (values == null || values.contains(null))
+            throw new IllegalArgumentException("Argument values cannot be or contain null");
+
+        this.value = value;
+        this.values = Collections.unmodifiableSet(new LinkedHashSet<String>(values));
+    }
+
+    public Boolean evaluate(Object o) {
+
+        String string = value.evaluate(o);
+        if (string == null)
+            throw new NullPointerException("StringExpression evaluates to null, cannot compare this.");
+
+        return contains(string);
+    }
+
+    /**
+     * @param string A value.
+     * @return True if the given value equals one of the strings.
+     */
+    public boolean contains(String string) {
+
+        return values.contains(string);
+    }
+
+    public Expression<String> getValue() {
+        return value;
+    }
+
+    /**
+     * @return The strings to compare with, in the given order.
+     */
+    public Set<String> getValues() {
+        return values;
+    }
+}
@@ -141,7 +141,7 @@ public abstract class StringLikeComparisonExpression extends BooleanBinaryString
      * Gets the wildcard character.
      * @return The wildcard character.
      */
-    protected char getWildcardChar() {
+    public char getWildcardChar() {
         return wildcard;
     }
 
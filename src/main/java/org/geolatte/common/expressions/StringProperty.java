@@ -56,16 +56,26 @@ public class StringProperty extends StringExpression implements PropertyExpressi
         if (propertyName == null)
             return o.toString();
 
+        Object result = readValue(o);
+
+        return result == null ? null : result.toString();
+    }
+
+    /**
+     * Reads the value of the property from the given object.
+     *
+     * @param o The object to read.
+     * @return The value of the property, null if the object has no such property.
+     */
+    Object readValue(Object o) {
+
         EntityClassReader classReader = EntityClassReader.getClassReaderFor(o.getClass());
-        Object result = null;
         try {
-            result = classReader.getPropertyValue(o, propertyName);
+            return classReader.getPropertyValue(o, propertyName);
         }
         catch (InvalidObjectReaderException e) {
-            ; // can never occur
+            return null; // can never occur
         }
-
-        return result == null ? null : result.toString();
     }
 
     public String getPropertyName() {
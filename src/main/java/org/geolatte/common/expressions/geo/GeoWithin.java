@@ -0,0 +1,58 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions.geo;
+
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.geom.Geometry;
+
+/**
+ * <p>
+ * Tests whether the left geometry lies within the right one: no point of the left geometry lies in the exterior of the right one, and their interiors intersect, as {@link Geometry#within(Geometry)}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class GeoWithin extends BooleanBinaryGeometryExpression {
+
+    /**
+     * Constructor of a binary geometry expression.
+     *
+     * @param left  The left hand side expression.
+     * @param right The right hand side expression.
+     */
+    public GeoWithin(Expression<Geometry> left, Expression<Geometry> right) {
+        super(left, right);
+    }
+
+    /**
+     * Evaluates the given object against this expression.
+     *
+     * @param o The object to evaluate.
+     * @return True if the left geometry is within the right one, false otherwise.
+     */
+    public Boolean evaluate(Object o) {
+        return getLeft().evaluate(o).within(getRight().evaluate(o));
+    }
+}
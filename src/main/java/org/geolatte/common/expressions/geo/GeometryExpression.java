@@ -52,6 +52,39 @@ public abstract class GeometryExpression implements Expression<Geometry> {
         return new GeoEquals(this, right);
     }
 
+    /**
+     * Creates a GeoWithin expression from this expression (as left expression) and the given expression (as right
+     * expression).
+     *
+     * @param right The right expression.
+     * @return A GeoWithin expression.
+     */
+    public GeoWithin within(Expression<Geometry> right) {
+        return new GeoWithin(this, right);
+    }
+
+    /**
+     * Creates a GeoContains expression from this expression (as left expression) and the given expression (as right
+     * expression).
+     *
+     * @param right The right expression.
+     * @return A GeoContains expression.
+     */
+    public GeoContains contains(Expression<Geometry> right) {
+        return new GeoContains(this, right);
+    }
+
+    /**
+     * Creates a GeoIntersects expression from this expression (as left expression) and the given expression (as right
+     * expression).
+     *
+     * @param right The right expression.
+     * @return A GeoIntersects expression.
+     */
+    public GeoIntersects intersects(Expression<Geometry> right) {
+        return new GeoIntersects(this, right);
+    }
+
     /**
      * Implements the visitor pattern as a switch on the type of this expression.
      * For example, on an {@code Expression<Integer>}, this method calls the {@link org.geolatte.common.expressions.BasicTypeSwitch#caseInteger(org.geolatte.common.expressions.Expression)} method on the given switcher.
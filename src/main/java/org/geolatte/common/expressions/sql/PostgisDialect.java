@@ -0,0 +1,114 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions.sql;
+
+import org.geolatte.common.dataformats.wkb.WkbCodec;
+import org.geolatte.geom.ByteOrder;
+import org.geolatte.geom.Geometry;
+
+/**
+ * <p>
+ * The SQL dialect of PostgreSQL with PostGIS. Uses ILIKE for case-insensitive matching, the "C" collation for ordering
+ * comparisons of strings, the ST_ functions for geometry relations, and passes geometries as EWKB, so their SRID is
+ * kept.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class PostgisDialect extends SqlDialect {
+
+    @Override
+    public String booleanLiteral(boolean value) {
+
+        return value ? "TRUE" : "FALSE";
+    }
+
+    @Override
+    public void appendLike(StringBuilder sql, String text, boolean isNegated, boolean isCaseInsensitive) {
+
+        if (!isCaseInsensitive) {
+            super.appendLike(sql, text, isNegated, false);
+            return;
+        }
+        sql.append(text).append(isNegated ? " NOT ILIKE " : " ILIKE ").append("? ESCAPE '\\'");
+    }
+
+    @Override
+    public String getBinaryCollation() {
+
+        return "COLLATE \"C\"";
+    }
+
+    @Override
+    public boolean supportsGeometries() {
+
+        return true;
+    }
+
+    /**
+     * Uses ST_OrderingEquals, which like {@link Geometry#equals(Object)} requires the same points in the same order,
+     * where ST_Equals would also accept geometries that only cover the same space.
+     */
+    @Override
+    public void appendGeometryEquals(StringBuilder sql, String left, String right) {
+
+        sql.append("ST_OrderingEquals(").append(left).append(", ").append(right).append(')');
+    }
+
+    /**
+     * Uses ST_Within, ST_Contains and ST_Intersects, which follow the same DE-9IM definitions as
+     * {@link Geometry#within(Geometry)} and its siblings. Their index-assisted envelope test lets a spatial index on
+     * the column select the candidates.
+     */
+    @Override
+    public void appendGeometryWithin(StringBuilder sql, String left, String right) {
+
+        sql.append("ST_Within(").append(left).append(", ").append(right).append(')');
+    }
+
+    @Override
+    public void appendGeometryContains(StringBuilder sql, String left, String right) {
+
+        sql.append("ST_Contains(").append(left).append(", ").append(right).append(')');
+    }
+
+    @Override
+    public void appendGeometryIntersects(StringBuilder sql, String left, String right) {
+
+        sql.append("ST_Intersects(").append(left).append(", ").append(right).append(')');
+    }
+
+    @Override
+    public String getGeometryPlaceholder() {
+
+        return "ST_GeomFromEWKB(?)";
+    }
+
+    @Override
+    public Object toGeometryParameter(Geometry geometry) {
+
+        return WkbCodec.toWkb(geometry, ByteOrder.NDR);
+    }
+}
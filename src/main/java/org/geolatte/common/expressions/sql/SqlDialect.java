@@ -0,0 +1,175 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions.sql;
+
+import org.geolatte.geom.Geometry;
+
+/**
+ * <p>
+ * The SQL dialect of the database a {@link SqlFilterTranslator} translates filters for. This base class generates
+ * standard SQL and has no spatial support, so spatial predicates are left to the residual filter. Subclasses adapt it
+ * to a specific database, see {@link PostgisDialect}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class SqlDialect {
+
+    /**
+     * Quotes the given name as an identifier, so it can not be mistaken for a keyword and keeps its case.
+     *
+     * @param name The name of a column.
+     * @return The quoted name.
+     */
+    public String quoteIdentifier(String name) {
+
+        return '"' + name.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * @param value A boolean.
+     * @return A condition that always has the given value.
+     */
+    public String booleanLiteral(boolean value) {
+
+        return value ? "(1 = 1)" : "(1 = 0)";
+    }
+
+    /**
+     * Appends a LIKE condition. The pattern is passed as a parameter, with '%' and '_' as wildcards and '\' as escape
+     * character.
+     *
+     * @param sql The SQL to append to.
+     * @param text The column or parameter that is matched.
+     * @param isNegated Whether the condition is NOT LIKE.
+     * @param isCaseInsensitive Whether the match ignores case.
+     */
+    public void appendLike(StringBuilder sql, String text, boolean isNegated, boolean isCaseInsensitive) {
+
+        if (isCaseInsensitive)
+            sql.append("LOWER(").append(text).append(')').append(isNegated ? " NOT LIKE " : " LIKE ").append("LOWER(?)");
+        else
+            sql.append(text).append(isNegated ? " NOT LIKE " : " LIKE ").append('?');
+        sql.append(" ESCAPE '\\'");
+    }
+
+    /**
+     * Gets the clause that makes an ordering comparison of strings (e.g. {@code <}) compare by character code, as
+     * {@link String#compareTo(String)} does, instead of by the collation of the database.
+     *
+     * @return The clause to append to each operand, or null if strings are compared by character code by default.
+     */
+    public String getBinaryCollation() {
+
+        return null;
+    }
+
+    /**
+     * @return True if the dialect can compare and relate geometries.
+     */
+    public boolean supportsGeometries() {
+
+        return false;
+    }
+
+    /**
+     * Appends a condition that checks whether two geometries are equal, point by point. Only called if
+     * {@link #supportsGeometries()} is true.
+     *
+     * @param sql The SQL to append to.
+     * @param left A geometry column or parameter.
+     * @param right A geometry column or parameter.
+     * @throws UnsupportedOperationException If the dialect does not support geometries.
+     */
+    public void appendGeometryEquals(StringBuilder sql, String left, String right) {
+
+        throw new UnsupportedOperationException("Geometries are not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Appends a condition that checks whether the left geometry is within the right one. Only called if
+     * {@link #supportsGeometries()} is true.
+     *
+     * @param sql The SQL to append to.
+     * @param left A geometry column or parameter.
+     * @param right A geometry column or parameter.
+     * @throws UnsupportedOperationException If the dialect does not support geometries.
+     */
+    public void appendGeometryWithin(StringBuilder sql, String left, String right) {
+
+        throw new UnsupportedOperationException("Geometries are not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Appends a condition that checks whether the left geometry contains the right one. Only called if
+     * {@link #supportsGeometries()} is true.
+     *
+     * @param sql The SQL to append to.
+     * @param left A geometry column or parameter.
+     * @param right A geometry column or parameter.
+     * @throws UnsupportedOperationException If the dialect does not support geometries.
+     */
+    public void appendGeometryContains(StringBuilder sql, String left, String right) {
+
+        throw new UnsupportedOperationException("Geometries are not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Appends a condition that checks whether two geometries intersect. Only called if {@link #supportsGeometries()}
+     * is true.
+     *
+     * @param sql The SQL to append to.
+     * @param left A geometry column or parameter.
+     * @param right A geometry column or parameter.
+     * @throws UnsupportedOperationException If the dialect does not support geometries.
+     */
+    public void appendGeometryIntersects(StringBuilder sql, String left, String right) {
+
+        throw new UnsupportedOperationException("Geometries are not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Gets the placeholder of a geometry parameter, e.g. a function that converts the parameter into a geometry.
+     *
+     * @return The placeholder.
+     * @throws UnsupportedOperationException If the dialect does not support geometries.
+     */
+    public String getGeometryPlaceholder() {
+
+        throw new UnsupportedOperationException("Geometries are not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Converts a geometry into the value of its parameter.
+     *
+     * @param geometry A geometry.
+     * @return The value to bind to the placeholder returned by {@link #getGeometryPlaceholder()}.
+     * @throws UnsupportedOperationException If the dialect does not support geometries.
+     */
+    public Object toGeometryParameter(Geometry geometry) {
+
+        throw new UnsupportedOperationException("Geometries are not supported by " + getClass().getSimpleName());
+    }
+}
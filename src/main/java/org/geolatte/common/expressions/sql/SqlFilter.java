@@ -0,0 +1,115 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions.sql;
+
+import org.geolatte.common.expressions.Filter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * A filter split by a {@link SqlFilterTranslator}: a parameterized SQL WHERE clause that the database evaluates, and
+ * a residual filter for the objects read from its result. An object matches the original filter if its row matches
+ * the WHERE clause and the object matches the residual filter.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class SqlFilter {
+
+    private final String whereClause;
+    private final List<Object> parameters;
+    private final Filter residualFilter;
+
+    SqlFilter(String whereClause, List<Object> parameters, Filter residualFilter) {
+
+        this.whereClause = whereClause;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.residualFilter = residualFilter;
+    }
+
+    /**
+     * Gets the condition to put after WHERE, with a '?' placeholder per parameter.
+     *
+     * @return The condition, or null if no part of the filter could be translated.
+     */
+    public String getWhereClause() {
+        return whereClause;
+    }
+
+    /**
+     * @return The values of the placeholders in the WHERE clause, in order.
+     */
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Gets the part of the filter that could not be translated, to apply to the objects read from the database.
+     *
+     * @return The residual filter, or null if the whole filter was translated.
+     */
+    public Filter getResidualFilter() {
+        return residualFilter;
+    }
+
+    /**
+     * @return True if the whole filter is evaluated by the database.
+     */
+    public boolean isComplete() {
+        return residualFilter == null;
+    }
+
+    /**
+     * Checks whether an object read from the database matches the original filter.
+     *
+     * @param o An object read with the WHERE clause.
+     * @return True if the object matches the residual filter, or if there is none.
+     */
+    public boolean evaluate(Object o) {
+
+        return residualFilter == null || residualFilter.evaluate(o);
+    }
+
+    /**
+     * Binds the parameters to a statement that contains the WHERE clause.
+     *
+     * @param statement The statement.
+     * @param firstIndex The index of the first placeholder of the WHERE clause in the statement, starting from 1.
+     * @return The index of the first placeholder after the WHERE clause.
+     * @throws SQLException If a parameter can not be bound.
+     */
+    public int setParameters(PreparedStatement statement, int firstIndex) throws SQLException {
+
+        int index = firstIndex;
+        for (Object parameter : parameters) {
+            statement.setObject(index++, parameter);
+        }
+        return index;
+    }
+}
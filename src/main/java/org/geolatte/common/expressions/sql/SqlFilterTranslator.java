@@ -0,0 +1,485 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions.sql;
+
+import org.geolatte.common.expressions.*;
+import org.geolatte.common.expressions.geo.BooleanBinaryGeometryExpression;
+import org.geolatte.common.expressions.geo.GeoContains;
+import org.geolatte.common.expressions.geo.GeoEquals;
+import org.geolatte.common.expressions.geo.GeoIntersects;
+import org.geolatte.common.expressions.geo.GeoWithin;
+import org.geolatte.common.expressions.geo.GeometryConstant;
+import org.geolatte.common.expressions.geo.GeometryProperty;
+import org.geolatte.geom.Geometry;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Translates a filter into a parameterized SQL WHERE clause, so a database-backed source only reads the rows that can
+ * match instead of a whole table. The conjuncts of the filter ({@code a AND b AND ...}) are translated one by one;
+ * those that can not be translated are kept in a residual filter, to apply to the objects read from the database (see
+ * {@link SqlFilter}). Use as follows:
+ * <pre>
+ * {@code
+ * SqlFilter sqlFilter = new SqlFilterTranslator(new PostgisDialect()).translate(filter);
+ * PreparedStatement statement = connection.prepareStatement("SELECT * FROM roads WHERE " + sqlFilter.getWhereClause());
+ * sqlFilter.setParameters(statement, 1);
+ * ...
+ * if (sqlFilter.evaluate(road))
+ *     ...
+ * }
+ * </pre>
+ * </p>
+ * <p>
+ * Translated are the boolean operators and constants, the comparisons of numbers (including sums), number ranges and
+ * sets, strings and string sets, booleans and dates, (not) like, and, if the dialect supports geometries, geometry
+ * equality, within, contains and intersects. Property (non-)existence depends on the class of the objects rather than on the row, and is always left to
+ * the residual filter. Constants are passed as parameters, never as SQL text.
+ * </p>
+ * <p>
+ * Properties are translated into the columns with the same name, or, if a column mapping is given, into the mapped
+ * columns; conditions on properties that are not mapped stay in the residual filter. Null values follow SQL semantics:
+ * a comparison with a null column is not true, so its row is not selected, whether the comparison is negated or not
+ * (on such an object, the filter itself would fail). Like patterns follow the standard SQL semantics of their wildcards
+ * and NaN values those of the database.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class SqlFilterTranslator {
+
+    private final SqlDialect dialect;
+    private final Map<String, String> columnNames;
+
+    /**
+     * Creates a translator that maps every property on the column with the same name.
+     *
+     * @param dialect The dialect of the database.
+     * @throws IllegalArgumentException If dialect is null.
+     */
+    public SqlFilterTranslator(SqlDialect dialect) {
+
+        this(dialect, null);
+    }
+
+    /**
+     * Creates a translator that maps properties on the given columns.
+     *
+     * @param dialect The dialect of the database.
+     * @param columnNames Per property name, the column (or SQL expression) to use, as is. Null to map every property
+     *                    on the column with the same name.
+     * @throws IllegalArgumentException If dialect is null.
+     */
+    public SqlFilterTranslator(SqlDialect dialect, Map<String, String> columnNames) {
+
+        if (dialect == null)
+            throw new IllegalArgumentException("Argument dialect cannot be null");
+
+        this.dialect = dialect;
+        this.columnNames = columnNames == null ? null : new HashMap<String, String>(columnNames);
+    }
+
+    /**
+     * Translates the expression of the given filter.
+     *
+     * @param filter The filter to translate.
+     * @return The WHERE clause and residual filter.
+     * @throws IllegalArgumentException If filter is null.
+     */
+    public SqlFilter translate(Filter filter) {
+
+        if (filter == null)
+            throw new IllegalArgumentException("Argument filter cannot be null");
+
+        return translate(filter.getFilterExpression());
+    }
+
+    /**
+     * Translates the given boolean expression.
+     *
+     * @param expression The expression to translate.
+     * @return The WHERE clause and residual filter.
+     * @throws IllegalArgumentException If expression is null.
+     */
+    public SqlFilter translate(Expression<Boolean> expression) {
+
+        if (expression == null)
+            throw new IllegalArgumentException("Argument expression cannot be null");
+
+        List<Expression<Boolean>> conjuncts = new ArrayList<Expression<Boolean>>();
+        collectConjuncts(expression, conjuncts);
+
+        StringBuilder whereClause = new StringBuilder();
+        List<Object> parameters = new ArrayList<Object>();
+        Expression<Boolean> residual = null;
+        for (Expression<Boolean> conjunct : conjuncts) {
+            StringBuilder sql = new StringBuilder();
+            List<Object> conjunctParameters = new ArrayList<Object>();
+            if (appendCondition(conjunct, sql, conjunctParameters)) {
+                if (whereClause.length() > 0)
+                    whereClause.append(" AND ");
+                whereClause.append(sql);
+                parameters.addAll(conjunctParameters);
+            } else {
+                residual = residual == null ? conjunct : Expressions.and(residual, conjunct);
+            }
+        }
+
+        return new SqlFilter(whereClause.length() == 0 ? null : whereClause.toString(), parameters,
+                residual == null ? null : new Filter(residual));
+    }
+
+    private static void collectConjuncts(Expression<Boolean> expression, List<Expression<Boolean>> conjuncts) {
+
+        if (expression instanceof And) {
+            collectConjuncts(((And) expression).getLeft(), conjuncts);
+            collectConjuncts(((And) expression).getRight(), conjuncts);
+        } else {
+            conjuncts.add(expression);
+        }
+    }
+
+    // ---------------------------------------------------------------- conditions
+
+    /**
+     * Appends the given condition.
+     *
+     * @return False if the condition can not be translated, in which case the appended text is to be discarded.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean appendCondition(Expression<Boolean> expression, StringBuilder sql, List<Object> parameters) {
+
+        if (expression instanceof BooleanConstant) {
+            sql.append(dialect.booleanLiteral(expression.evaluate(null)));
+            return true;
+        }
+        if (expression instanceof BooleanProperty) {
+            return appendBoolean(expression, sql, parameters) && appendParameter(" = ?", Boolean.TRUE, sql, parameters);
+        }
+        if (expression instanceof And || expression instanceof Or) {
+            BooleanBinaryBooleanExpression binary = (BooleanBinaryBooleanExpression) expression;
+            sql.append('(');
+            if (!appendCondition(binary.getLeft(), sql, parameters))
+                return false;
+            sql.append(expression instanceof And ? " AND " : " OR ");
+            if (!appendCondition(binary.getRight(), sql, parameters))
+                return false;
+            sql.append(')');
+            return true;
+        }
+        if (expression instanceof Not) {
+            sql.append("NOT (");
+            if (!appendCondition(((Not) expression).getExpression(), sql, parameters))
+                return false;
+            sql.append(')');
+            return true;
+        }
+        if (expression instanceof BooleanIsEqual || expression instanceof BooleanIsNotEqual
+                || expression instanceof BooleanComparisonExpression) {
+            BinaryBooleanExpression<Boolean> binary = (BinaryBooleanExpression<Boolean>) expression;
+            return appendBoolean(binary.getLeft(), sql, parameters)
+                    && appendOperator(expression, sql)
+                    && appendBoolean(binary.getRight(), sql, parameters);
+        }
+        if (expression instanceof BooleanBinaryNumberExpression) {
+            BinaryNumberExpression<Boolean> binary = (BinaryNumberExpression<Boolean>) expression;
+            return appendNumber(binary.getLeft(), sql, parameters)
+                    && appendOperator(expression, sql)
+                    && appendNumber(binary.getRight(), sql, parameters);
+        }
+        if (expression instanceof IsInRange) {
+            return appendRange((IsInRange) expression, sql, parameters);
+        }
+        if (expression instanceof IsIn) {
+            List<Number> values = ((IsIn) expression).getValues();
+            for (Number value : values) {
+                if (Double.isNaN(value.doubleValue()))
+                    return false;
+            }
+            return appendIn(((IsIn) expression).getValue(), values, sql, parameters);
+        }
+        if (expression instanceof StringIsIn) {
+            return appendIn(((StringIsIn) expression).getValue(), ((StringIsIn) expression).getValues(), sql, parameters);
+        }
+        if (expression instanceof StringLikeComparisonExpression) {
+            return appendLike((StringLikeComparisonExpression) expression, sql, parameters);
+        }
+        if (expression instanceof StringComparisonExpression) {
+            StringComparisonExpression binary = (StringComparisonExpression) expression;
+            boolean isOrdering = !(expression instanceof StringIsEqual || expression instanceof StringIsNotEqual);
+            if (!appendString(binary.getLeft(), sql, parameters))
+                return false;
+            if (isOrdering && dialect.getBinaryCollation() != null)
+                sql.append(' ').append(dialect.getBinaryCollation());
+            return appendOperator(expression, sql) && appendString(binary.getRight(), sql, parameters);
+        }
+        if (expression instanceof IsBefore || expression instanceof IsAfter) {
+            BinaryDateExpression<Boolean> binary = (BinaryDateExpression<Boolean>) expression;
+            return appendDate(binary.getLeft(), sql, parameters)
+                    && appendOperator(expression, sql)
+                    && appendDate(binary.getRight(), sql, parameters);
+        }
+        if (expression instanceof DateIsBetween) {
+            // Both bounds are excluded, see DateIsBetween.evaluate()
+            DateIsBetween between = (DateIsBetween) expression;
+            sql.append('(');
+            if (!appendDate(between.getBaseDate(), sql, parameters))
+                return false;
+            sql.append(" > ");
+            if (!appendDate(between.getLowDate(), sql, parameters))
+                return false;
+            sql.append(" AND ");
+            if (!appendDate(between.getBaseDate(), sql, parameters))
+                return false;
+            sql.append(" < ");
+            if (!appendDate(between.getHighDate(), sql, parameters))
+                return false;
+            sql.append(')');
+            return true;
+        }
+        if ((expression instanceof GeoEquals || expression instanceof GeoWithin || expression instanceof GeoContains
+                || expression instanceof GeoIntersects) && dialect.supportsGeometries()) {
+            BooleanBinaryGeometryExpression relation = (BooleanBinaryGeometryExpression) expression;
+            StringBuilder left = new StringBuilder();
+            StringBuilder right = new StringBuilder();
+            if (!appendGeometry(relation.getLeft(), left, parameters) || !appendGeometry(relation.getRight(), right, parameters))
+                return false;
+            if (expression instanceof GeoEquals)
+                dialect.appendGeometryEquals(sql, left.toString(), right.toString());
+            else if (expression instanceof GeoWithin)
+                dialect.appendGeometryWithin(sql, left.toString(), right.toString());
+            else if (expression instanceof GeoContains)
+                dialect.appendGeometryContains(sql, left.toString(), right.toString());
+            else
+                dialect.appendGeometryIntersects(sql, left.toString(), right.toString());
+            return true;
+        }
+        return false;
+    }
+
+    private boolean appendOperator(Expression<Boolean> comparison, StringBuilder sql) {
+
+        if (comparison instanceof IsEqual || comparison instanceof StringIsEqual || comparison instanceof BooleanIsEqual)
+            sql.append(" = ");
+        else if (comparison instanceof IsNotEqual || comparison instanceof StringIsNotEqual || comparison instanceof BooleanIsNotEqual)
+            sql.append(" <> ");
+        else if (comparison instanceof IsLessThan || comparison instanceof StringIsLessThan
+                || comparison instanceof BooleanIsLessThan || comparison instanceof IsBefore)
+            sql.append(" < ");
+        else if (comparison instanceof IsLessThanOrEqual || comparison instanceof StringIsLessThanOrEqual
+                || comparison instanceof BooleanIsLessThanOrEqual)
+            sql.append(" <= ");
+        else if (comparison instanceof IsGreaterThan || comparison instanceof StringIsGreaterThan
+                || comparison instanceof BooleanIsGreaterThan || comparison instanceof IsAfter)
+            sql.append(" > ");
+        else if (comparison instanceof IsGreaterThanOrEqual || comparison instanceof StringIsGreaterThanOrEqual
+                || comparison instanceof BooleanIsGreaterThanOrEqual)
+            sql.append(" >= ");
+        else
+            return false;
+        return true;
+    }
+
+    private boolean appendRange(IsInRange range, StringBuilder sql, List<Object> parameters) {
+
+        if (range.getLowerBound() == null && range.getUpperBound() == null) {
+            // Only null values (and NaN, see above) are outside a range without bounds
+            if (!appendNumber(range.getValue(), sql, parameters))
+                return false;
+            sql.append(" IS NOT NULL");
+            return true;
+        }
+        sql.append('(');
+        if (range.getLowerBound() != null) {
+            if (!appendNumber(range.getValue(), sql, parameters))
+                return false;
+            appendParameter(range.isLowerBoundIncluded() ? " >= ?" : " > ?", range.getLowerBound(), sql, parameters);
+        }
+        if (range.getUpperBound() != null) {
+            if (range.getLowerBound() != null)
+                sql.append(" AND ");
+            if (!appendNumber(range.getValue(), sql, parameters))
+                return false;
+            appendParameter(range.isUpperBoundIncluded() ? " <= ?" : " < ?", range.getUpperBound(), sql, parameters);
+        }
+        sql.append(')');
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean appendIn(Expression<?> value, Collection<?> values, StringBuilder sql, List<Object> parameters) {
+
+        if (values.isEmpty()) {
+            sql.append(dialect.booleanLiteral(false));
+            return true;
+        }
+        boolean isNumber = value instanceof NumberExpression;
+        if (isNumber ? !appendNumber((Expression<Number>) value, sql, parameters) : !appendString((Expression<String>) value, sql, parameters))
+            return false;
+        sql.append(" IN (");
+        boolean isFirst = true;
+        for (Object element : values) {
+            if (!isFirst)
+                sql.append(", ");
+            appendParameter("?", element, sql, parameters);
+            isFirst = false;
+        }
+        sql.append(')');
+        return true;
+    }
+
+    private boolean appendLike(StringLikeComparisonExpression like, StringBuilder sql, List<Object> parameters) {
+
+        Expression<String> pattern = like.getRight();
+        if (!(pattern instanceof StringConstant) || pattern.evaluate(null) == null)
+            return false;
+        // NotLike always uses '%' as its wildcard, see NotLike.evaluate()
+        boolean isNegated = like instanceof NotLike;
+        String sqlPattern = toSqlPattern(pattern.evaluate(null), isNegated ? '%' : like.getWildcardChar());
+        if (sqlPattern == null)
+            return false;
+
+        StringBuilder text = new StringBuilder();
+        if (!appendString(like.getLeft(), text, parameters))
+            return false;
+        dialect.appendLike(sql, text.toString(), isNegated, like.isCaseInsensitive());
+        parameters.add(sqlPattern);
+        return true;
+    }
+
+    /**
+     * Converts a like pattern into an SQL LIKE pattern, with '%' and '_' as wildcards and '\' as escape character.
+     *
+     * @param pattern The pattern, with the given multiple character wildcard, '_' as single character wildcard and '\'
+     *                as escape character.
+     * @param wildcard The multiple character wildcard of the pattern.
+     * @return The SQL pattern, or null if the pattern ends with an unfinished escape sequence.
+     */
+    static String toSqlPattern(String pattern, char wildcard) {
+
+        StringBuilder result = new StringBuilder(pattern.length() + 8);
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                if (++i == pattern.length())
+                    return null;
+                result.append('\\').append(pattern.charAt(i));
+            } else if (c == wildcard) {
+                result.append('%');
+            } else if (c == '%') {
+                result.append("\\%");
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    // ---------------------------------------------------------------- operands
+
+    private boolean appendParameter(String placeholder, Object value, StringBuilder sql, List<Object> parameters) {
+
+        sql.append(placeholder);
+        parameters.add(value);
+        return true;
+    }
+
+    private boolean appendColumn(String propertyName, StringBuilder sql) {
+
+        String column;
+        if (columnNames != null)
+            column = columnNames.get(propertyName);
+        else
+            column = propertyName == null || propertyName.indexOf('.') >= 0 ? null : dialect.quoteIdentifier(propertyName);
+        if (column == null)
+            return false;
+        sql.append(column);
+        return true;
+    }
+
+    private boolean appendBoolean(Expression<Boolean> expression, StringBuilder sql, List<Object> parameters) {
+
+        if (expression instanceof BooleanProperty)
+            return appendColumn(((BooleanProperty) expression).getPropertyName(), sql);
+        if (expression instanceof BooleanConstant && expression.evaluate(null) != null)
+            return appendParameter("?", expression.evaluate(null), sql, parameters);
+        return false;
+    }
+
+    private boolean appendNumber(Expression<Number> expression, StringBuilder sql, List<Object> parameters) {
+
+        if (expression instanceof NumberProperty)
+            return appendColumn(((NumberProperty) expression).getPropertyName(), sql);
+        if (expression instanceof NumberConstant) {
+            Number value = expression.evaluate(null);
+            return value != null && !Double.isNaN(value.doubleValue()) && appendParameter("?", value, sql, parameters);
+        }
+        if (expression instanceof Add) {
+            sql.append('(');
+            if (!appendNumber(((Add) expression).getLeft(), sql, parameters))
+                return false;
+            sql.append(" + ");
+            if (!appendNumber(((Add) expression).getRight(), sql, parameters))
+                return false;
+            sql.append(')');
+            return true;
+        }
+        return false;
+    }
+
+    private boolean appendString(Expression<String> expression, StringBuilder sql, List<Object> parameters) {
+
+        if (expression instanceof StringProperty)
+            return appendColumn(((StringProperty) expression).getPropertyName(), sql);
+        if (expression instanceof StringConstant && expression.evaluate(null) != null)
+            return appendParameter("?", expression.evaluate(null), sql, parameters);
+        return false;
+    }
+
+    private boolean appendDate(Expression<Date> expression, StringBuilder sql, List<Object> parameters) {
+
+        if (expression instanceof DateProperty)
+            return appendColumn(((DateProperty) expression).getPropertyName(), sql);
+        if (expression instanceof DateConstant && expression.evaluate(null) != null)
+            return appendParameter("?", new Timestamp(expression.evaluate(null).getTime()), sql, parameters);
+        return false;
+    }
+
+    private boolean appendGeometry(Expression<Geometry> expression, StringBuilder sql, List<Object> parameters) {
+
+        if (expression instanceof GeometryProperty)
+            return appendColumn(((GeometryProperty) expression).getPropertyName(), sql);
+        if (expression instanceof GeometryConstant && expression.evaluate(null) != null)
+            return appendParameter(dialect.getGeometryPlaceholder(), dialect.toGeometryParameter(expression.evaluate(null)), sql, parameters);
+        return false;
+    }
+}
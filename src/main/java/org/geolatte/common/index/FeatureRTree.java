@@ -0,0 +1,198 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.FeatureCollection;
+import org.geolatte.common.transformer.SimpleTransformerSink;
+import org.geolatte.common.transformer.TransformerChainFactory;
+import org.geolatte.common.transformer.TransformerSource;
+import org.geolatte.geom.Envelope;
+import org.geolatte.geom.Geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * A {@link PackedRTree} over the geometries of a list of features, for envelope queries and nearest neighbour
+ * searches. Features without a geometry, or with an empty one, are kept but never found.
+ * </p>
+ * <p>
+ * The tree refers to the features by their position in the list. A tree written to a file can therefore be reused,
+ * without building it again, for the same features in the same order.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FeatureRTree {
+
+    private final List<Feature> features;
+    private final PackedRTree tree;
+
+    /**
+     * Builds a tree over the features of the given collection.
+     *
+     * @param collection The features to index.
+     * @throws IllegalArgumentException if collection is null
+     */
+    public FeatureRTree(FeatureCollection collection) {
+
+        this(collection == null ? null : collection.getFeatures(), PackedRTree.DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Builds a tree over the features of the given source. The source is read completely.
+     *
+     * @param source The features to index.
+     * @throws IllegalArgumentException if source is null
+     */
+    public FeatureRTree(TransformerSource<Feature> source) {
+
+        this(readSource(source), PackedRTree.DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Builds a tree over the given features.
+     *
+     * @param features     The features to index. They are copied.
+     * @param nodeCapacity The maximum number of children of a node.
+     * @throws IllegalArgumentException if features is null or nodeCapacity is less than 2
+     */
+    public FeatureRTree(List<? extends Feature> features, int nodeCapacity) {
+
+        if (features == null)
+            throw new IllegalArgumentException("Argument features cannot be null");
+
+        this.features = new ArrayList<Feature>(features);
+        this.tree = PackedRTree.build(toBounds(this.features), nodeCapacity);
+    }
+
+    /**
+     * Combines the given features with a tree that was built over the same features, in the same order.
+     *
+     * @param features The indexed features. They are copied.
+     * @param tree     The tree, e.g. one {@link PackedRTree#map(java.io.File) mapped} from a file.
+     * @throws IllegalArgumentException if features or tree is null, or if the tree was built over another number of
+     *                                  features
+     */
+    public FeatureRTree(List<? extends Feature> features, PackedRTree tree) {
+
+        if (features == null)
+            throw new IllegalArgumentException("Argument features cannot be null");
+        if (tree == null)
+            throw new IllegalArgumentException("Argument tree cannot be null");
+        if (tree.getItemCount() != features.size())
+            throw new IllegalArgumentException("The tree was built over " + tree.getItemCount() + " features, not " + features.size());
+
+        this.features = new ArrayList<Feature>(features);
+        this.tree = tree;
+    }
+
+    /**
+     * @return The features, in the order of the tree.
+     */
+    public List<Feature> getFeatures() {
+        return Collections.unmodifiableList(features);
+    }
+
+    /**
+     * @return The tree.
+     */
+    public PackedRTree getTree() {
+        return tree;
+    }
+
+    /**
+     * Searches the features whose envelope intersects the given envelope.
+     *
+     * @param envelope The envelope to search.
+     * @return The features, in the order of the list.
+     * @throws IllegalArgumentException if envelope is null
+     */
+    public List<Feature> query(Envelope envelope) {
+
+        if (envelope == null)
+            throw new IllegalArgumentException("Argument envelope cannot be null");
+        if (envelope.isEmpty())
+            return new ArrayList<Feature>();
+
+        return toFeatures(tree.search(envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY()));
+    }
+
+    /**
+     * Searches the features whose envelopes are nearest to the given point. For points, that is the distance of the
+     * geometry itself.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @param k The maximum number of features to find.
+     * @return The features, by increasing distance.
+     */
+    public List<Feature> nearest(double x, double y, int k) {
+
+        return toFeatures(tree.nearest(x, y, k));
+    }
+
+    private List<Feature> toFeatures(int[] items) {
+
+        List<Feature> result = new ArrayList<Feature>(items.length);
+        for (int item : items) {
+            result.add(features.get(item));
+        }
+        return result;
+    }
+
+    private static double[] toBounds(List<Feature> features) {
+
+        double[] bounds = new double[4 * features.size()];
+        for (int i = 0; i < features.size(); i++) {
+            Feature feature = features.get(i);
+            Geometry geometry = feature == null || !feature.hasGeometry() ? null : feature.getGeometry();
+            if (geometry == null || geometry.isEmpty()) {
+                Arrays.fill(bounds, 4 * i, 4 * i + 4, Double.NaN);
+            } else {
+                Envelope envelope = geometry.getEnvelope();
+                bounds[4 * i] = envelope.getMinX();
+                bounds[4 * i + 1] = envelope.getMinY();
+                bounds[4 * i + 2] = envelope.getMaxX();
+                bounds[4 * i + 3] = envelope.getMaxY();
+            }
+        }
+        return bounds;
+    }
+
+    private static List<Feature> readSource(TransformerSource<Feature> source) {
+
+        if (source == null)
+            throw new IllegalArgumentException("Argument source cannot be null");
+
+        SimpleTransformerSink<Feature> sink = new SimpleTransformerSink<Feature>();
+        TransformerChainFactory.<Feature, Feature>newChain().add(source).last(sink).run();
+        return sink.getCollectedOutput();
+    }
+}
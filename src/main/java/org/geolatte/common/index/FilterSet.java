@@ -0,0 +1,613 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.cql.Cql;
+import org.geolatte.common.expressions.And;
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.ExpressionOptimizer;
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.common.expressions.PropertyExpression;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * A set of filters (e.g. standing subscriptions), each with an id, that finds the ids of all filters an object matches
+ * at once, instead of evaluating every filter on its own.
+ * </p>
+ * <p>
+ * The filters are compiled together: each (optimized) filter expression is split in its top-level conjuncts, and
+ * every conjunct that compares a number, string or date property with constants (equality, IN, comparisons and
+ * ranges) becomes a predicate. Equal predicates of different filters are shared. Per property, the predicates are
+ * indexed in a hash table (equalities and IN lists) and an interval tree (comparisons and ranges), so the property of
+ * an object is read once and only the predicates it satisfies are visited. Every satisfied predicate increments a
+ * counter of the filters that contain it; a filter whose counter reaches its number of predicates is a candidate, on
+ * which the remaining conjuncts are evaluated. Those, too, are shared and evaluated at most once per object. Filters
+ * without predicates are always evaluated.
+ * </p>
+ * <p>
+ * A filter matches an object if its expression evaluates to true. A filter that fails on an object (e.g. on a missing
+ * property) does not match it.
+ * </p>
+ * <p>
+ * Filters can be added and removed at any time; the set is compiled again on the next match after a change. Matching
+ * is thread-safe.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <K> The type of the ids of the filters.
+ * @since SDK1.5
+ */
+public class FilterSet<K> {
+
+    private final Map<K, Filter> filters = new LinkedHashMap<K, Filter>();
+    private volatile Compiled<K> compiled;
+
+    /**
+     * Adds a filter, or replaces the filter with the same id.
+     *
+     * @param id     The id of the filter.
+     * @param filter The filter.
+     * @throws IllegalArgumentException if id or filter is null
+     */
+    public synchronized void add(K id, Filter filter) {
+
+        if (id == null)
+            throw new IllegalArgumentException("Argument id cannot be null");
+        if (filter == null)
+            throw new IllegalArgumentException("Argument filter cannot be null");
+
+        filters.put(id, filter);
+        compiled = null;
+    }
+
+    /**
+     * Adds a CQL filter for objects of the given class, or replaces the filter with the same id.
+     *
+     * @param id            The id of the filter.
+     * @param cqlExpression The CQL expression.
+     * @param clazz         The class of the objects to match.
+     * @throws ParseException           if the expression can not be parsed
+     * @throws IllegalArgumentException if id is null
+     */
+    public void add(K id, String cqlExpression, Class clazz) throws ParseException {
+
+        add(id, Cql.toStaticFilter(cqlExpression, clazz));
+    }
+
+    /**
+     * Removes the filter with the given id.
+     *
+     * @param id The id of the filter.
+     * @return True if the set contained the filter.
+     */
+    public synchronized boolean remove(K id) {
+
+        if (filters.remove(id) == null)
+            return false;
+        compiled = null;
+        return true;
+    }
+
+    /**
+     * @return The number of filters.
+     */
+    public synchronized int size() {
+        return filters.size();
+    }
+
+    /**
+     * Finds the filters the given object matches.
+     *
+     * @param o The object to match.
+     * @return The ids of the matching filters, in the order they were added.
+     */
+    public List<K> match(Object o) {
+
+        Compiled<K> current = compiled;
+        if (current == null) {
+            synchronized (this) {
+                if (compiled == null)
+                    compiled = new Compiled<K>(filters);
+                current = compiled;
+            }
+        }
+        return current.match(o);
+    }
+
+    /**
+     * The filters, compiled together.
+     */
+    private static final class Compiled<K> {
+
+        private final List<K> ids;
+        private final Attribute[] attributes;
+        // Per predicate, the filters that contain it
+        private final int[][] filtersByPredicate;
+        // Per filter, its number of predicates and its residual conditions
+        private final int[] predicateCounts;
+        private final int[][] residualsByFilter;
+        private final Expression<?>[] residuals;
+        // The filters without predicates, ascending
+        private final int[] unindexedFilters;
+
+        private final ThreadLocal<MatchState> states = new ThreadLocal<MatchState>() {
+            @Override
+            protected MatchState initialValue() {
+                return new MatchState(ids.size(), residuals.length);
+            }
+        };
+
+        private Compiled(Map<K, Filter> filters) {
+
+            ids = new ArrayList<K>(filters.keySet());
+            predicateCounts = new int[ids.size()];
+            residualsByFilter = new int[ids.size()][];
+
+            Map<List<Object>, Integer> attributeIndexes = new HashMap<List<Object>, Integer>();
+            List<Expression<?>> properties = new ArrayList<Expression<?>>();
+            Map<List<Object>, Integer> predicateIndexes = new HashMap<List<Object>, Integer>();
+            List<Index.Values> predicateValues = new ArrayList<Index.Values>();
+            List<Integer> predicateAttributes = new ArrayList<Integer>();
+            List<List<Integer>> predicateFilters = new ArrayList<List<Integer>>();
+            List<Expression<Boolean>> residualList = new ArrayList<Expression<Boolean>>();
+            Map<Class, List<Integer>> residualsByClass = new HashMap<Class, List<Integer>>();
+            List<Integer> unindexed = new ArrayList<Integer>();
+
+            int filter = 0;
+            for (Filter f : filters.values()) {
+                List<Expression<Boolean>> conjuncts = new ArrayList<Expression<Boolean>>();
+                addConjuncts(ExpressionOptimizer.optimize(f.getFilterExpression()), conjuncts);
+
+                Set<Integer> predicates = new LinkedHashSet<Integer>();
+                Set<Integer> filterResiduals = new LinkedHashSet<Integer>();
+                for (Expression<Boolean> conjunct : conjuncts) {
+                    Expression<?> property = Index.findProperty(conjunct);
+                    if (property == null) {
+                        filterResiduals.add(shareResidual(conjunct, residualList, residualsByClass));
+                        continue;
+                    }
+
+                    List<Object> attributeKey = Arrays.<Object>asList(property.getClass(), ((PropertyExpression<?>) property).getPropertyName());
+                    Integer attribute = attributeIndexes.get(attributeKey);
+                    if (attribute == null) {
+                        attribute = properties.size();
+                        attributeIndexes.put(attributeKey, attribute);
+                        properties.add(property);
+                    }
+
+                    Index.Values values = Index.toValues(conjunct, property);
+                    List<Object> predicateKey = Arrays.<Object>asList(attribute, values);
+                    Integer predicate = predicateIndexes.get(predicateKey);
+                    if (predicate == null) {
+                        predicate = predicateValues.size();
+                        predicateIndexes.put(predicateKey, predicate);
+                        predicateValues.add(values);
+                        predicateAttributes.add(attribute);
+                        predicateFilters.add(new ArrayList<Integer>());
+                    }
+                    if (predicates.add(predicate))
+                        predicateFilters.get(predicate).add(filter);
+                }
+
+                predicateCounts[filter] = predicates.size();
+                if (predicates.isEmpty())
+                    unindexed.add(filter);
+                residualsByFilter[filter] = HashIndex.toArray(new ArrayList<Integer>(filterResiduals));
+                filter++;
+            }
+
+            filtersByPredicate = new int[predicateFilters.size()][];
+            for (int predicate = 0; predicate < filtersByPredicate.length; predicate++) {
+                filtersByPredicate[predicate] = HashIndex.toArray(predicateFilters.get(predicate));
+            }
+            residuals = residualList.toArray(new Expression<?>[residualList.size()]);
+            unindexedFilters = HashIndex.toArray(unindexed);
+
+            attributes = new Attribute[properties.size()];
+            for (int attribute = 0; attribute < attributes.length; attribute++) {
+                List<Integer> predicates = new ArrayList<Integer>();
+                for (int predicate = 0; predicate < predicateValues.size(); predicate++) {
+                    if (predicateAttributes.get(predicate) == attribute)
+                        predicates.add(predicate);
+                }
+                attributes[attribute] = new Attribute(properties.get(attribute), predicates, predicateValues);
+            }
+        }
+
+        private List<K> match(Object o) {
+
+            MatchState state = states.get();
+            try {
+                for (Attribute attribute : attributes) {
+                    Object value = attribute.readValue(o);
+                    if (value != null)
+                        attribute.visit(value, this, state);
+                }
+
+                state.addCandidates(unindexedFilters);
+                int[] candidates = state.getCandidates();
+                List<K> result = new ArrayList<K>();
+                for (int filter : candidates) {
+                    if (matchesResiduals(filter, o, state))
+                        result.add(ids.get(filter));
+                }
+                return result;
+            } finally {
+                state.reset();
+            }
+        }
+
+        /**
+         * Counts a satisfied predicate for the filters that contain it.
+         */
+        private void satisfy(int predicate, MatchState state) {
+
+            for (int filter : filtersByPredicate[predicate]) {
+                if (state.count(filter) == predicateCounts[filter])
+                    state.addCandidate(filter);
+            }
+        }
+
+        private boolean matchesResiduals(int filter, Object o, MatchState state) {
+
+            for (int residual : residualsByFilter[filter]) {
+                byte result = state.residualResults[residual];
+                if (result == MatchState.UNKNOWN) {
+                    result = evaluate(residuals[residual], o) ? MatchState.TRUE : MatchState.FALSE;
+                    state.setResidualResult(residual, result);
+                }
+                if (result == MatchState.FALSE)
+                    return false;
+            }
+            return true;
+        }
+
+        private static boolean evaluate(Expression<?> expression, Object o) {
+
+            try {
+                return Boolean.TRUE.equals(expression.evaluate(o));
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        private static int shareResidual(Expression<Boolean> conjunct, List<Expression<Boolean>> residualList,
+                                         Map<Class, List<Integer>> residualsByClass) {
+
+            List<Integer> candidates = residualsByClass.get(conjunct.getClass());
+            if (candidates == null) {
+                candidates = new ArrayList<Integer>();
+                residualsByClass.put(conjunct.getClass(), candidates);
+            }
+            for (int candidate : candidates) {
+                if (ExpressionOptimizer.isSame(residualList.get(candidate), conjunct))
+                    return candidate;
+            }
+            candidates.add(residualList.size());
+            residualList.add(conjunct);
+            return residualList.size() - 1;
+        }
+
+        private static void addConjuncts(Expression<Boolean> expression, List<Expression<Boolean>> conjuncts) {
+
+            if (expression instanceof And) {
+                addConjuncts(((And) expression).getLeft(), conjuncts);
+                addConjuncts(((And) expression).getRight(), conjuncts);
+            } else {
+                conjuncts.add(expression);
+            }
+        }
+    }
+
+    /**
+     * The predicates on one property. Equalities and IN lists are looked up by value; comparisons and ranges are
+     * mapped onto the positions of their bounds among all bounds (2i for bound i, 2i + 1 for the values between
+     * bounds i and i + 1) and kept in a centered interval tree over those positions.
+     */
+    private static final class Attribute {
+
+        private final Expression<?> property;
+        private final Map<Object, int[]> predicatesByValue = new HashMap<Object, int[]>();
+        private final Object[] bounds;
+        private final IntervalNode intervals;
+        private final int[] nanPredicates;
+
+        private Attribute(Expression<?> property, List<Integer> predicates, List<Index.Values> predicateValues) {
+
+            this.property = property;
+
+            Map<Object, List<Integer>> lists = new HashMap<Object, List<Integer>>();
+            List<Integer> nans = new ArrayList<Integer>();
+            List<Integer> intervalPredicates = new ArrayList<Integer>();
+            List<Object> boundList = new ArrayList<Object>();
+            for (int predicate : predicates) {
+                Index.Values values = predicateValues.get(predicate);
+                if (values.matchesNaN)
+                    nans.add(predicate);
+                if (values.set != null || values.isPoint()) {
+                    for (Object value : values.set != null ? values.set : Collections.singletonList(values.low)) {
+                        List<Integer> list = lists.get(value);
+                        if (list == null) {
+                            list = new ArrayList<Integer>();
+                            lists.put(value, list);
+                        }
+                        if (!list.contains(predicate))
+                            list.add(predicate);
+                    }
+                } else {
+                    intervalPredicates.add(predicate);
+                    if (values.low != null)
+                        boundList.add(values.low);
+                    if (values.high != null)
+                        boundList.add(values.high);
+                }
+            }
+            for (Map.Entry<Object, List<Integer>> entry : lists.entrySet()) {
+                predicatesByValue.put(entry.getKey(), HashIndex.toArray(entry.getValue()));
+            }
+            nanPredicates = HashIndex.toArray(nans);
+
+            bounds = new LinkedHashSet<Object>(boundList).toArray();
+            Arrays.sort(bounds);
+
+            // Every interval as a closed range of positions; empty ones never match
+            List<int[]> ranges = new ArrayList<int[]>();
+            for (int predicate : intervalPredicates) {
+                Index.Values values = predicateValues.get(predicate);
+                int low = values.low == null ? -1 : 2 * Arrays.binarySearch(bounds, values.low) + (values.isLowIncluded ? 0 : 1);
+                int high = values.high == null ? 2 * bounds.length - 1 : 2 * Arrays.binarySearch(bounds, values.high) - (values.isHighIncluded ? 0 : 1);
+                if (low <= high)
+                    ranges.add(new int[]{low, high, predicate});
+            }
+            intervals = IntervalNode.build(ranges, -1, 2 * bounds.length - 1);
+        }
+
+        private Object readValue(Object o) {
+
+            Object value;
+            try {
+                value = o == null ? null : property.evaluate(o);
+            } catch (RuntimeException e) {
+                return null;
+            }
+            if (value instanceof Number)
+                return ((Number) value).doubleValue() + 0.0; // -0.0 equals 0.0
+            if (value instanceof Date)
+                return (double) ((Date) value).getTime();
+            return value;
+        }
+
+        private void visit(Object value, Compiled<?> compiled, MatchState state) {
+
+            if (value instanceof Double && ((Double) value).isNaN()) {
+                for (int predicate : nanPredicates) {
+                    compiled.satisfy(predicate, state);
+                }
+                return;
+            }
+
+            int[] predicates = predicatesByValue.get(value);
+            if (predicates != null) {
+                for (int predicate : predicates) {
+                    compiled.satisfy(predicate, state);
+                }
+            }
+
+            if (intervals != null) {
+                int position = Arrays.binarySearch(bounds, value);
+                intervals.visit(position >= 0 ? 2 * position : 2 * (-position - 1) - 1, compiled, state);
+            }
+        }
+    }
+
+    /**
+     * A node of a centered interval tree over closed ranges of positions.
+     */
+    private static final class IntervalNode {
+
+        private final int center;
+        // The ranges that contain the center: by ascending low and by descending high
+        private final int[] lows;
+        private final int[] lowPredicates;
+        private final int[] highs;
+        private final int[] highPredicates;
+        private final IntervalNode left;
+        private final IntervalNode right;
+
+        private IntervalNode(int center, List<int[]> overlapping, IntervalNode left, IntervalNode right) {
+
+            this.center = center;
+            this.left = left;
+            this.right = right;
+
+            int[][] byLow = overlapping.toArray(new int[overlapping.size()][]);
+            Arrays.sort(byLow, new Comparator<int[]>() {
+                public int compare(int[] a, int[] b) {
+                    return a[0] < b[0] ? -1 : (a[0] == b[0] ? 0 : 1);
+                }
+            });
+            lows = new int[byLow.length];
+            lowPredicates = new int[byLow.length];
+            for (int i = 0; i < byLow.length; i++) {
+                lows[i] = byLow[i][0];
+                lowPredicates[i] = byLow[i][2];
+            }
+
+            int[][] byHigh = overlapping.toArray(new int[overlapping.size()][]);
+            Arrays.sort(byHigh, new Comparator<int[]>() {
+                public int compare(int[] a, int[] b) {
+                    return a[1] > b[1] ? -1 : (a[1] == b[1] ? 0 : 1);
+                }
+            });
+            highs = new int[byHigh.length];
+            highPredicates = new int[byHigh.length];
+            for (int i = 0; i < byHigh.length; i++) {
+                highs[i] = byHigh[i][1];
+                highPredicates[i] = byHigh[i][2];
+            }
+        }
+
+        /**
+         * Builds a tree of the given ranges, which all lie within [from, to].
+         */
+        private static IntervalNode build(List<int[]> ranges, int from, int to) {
+
+            if (ranges.isEmpty())
+                return null;
+
+            int center = from + (to - from) / 2;
+            List<int[]> below = new ArrayList<int[]>();
+            List<int[]> above = new ArrayList<int[]>();
+            List<int[]> overlapping = new ArrayList<int[]>();
+            for (int[] range : ranges) {
+                if (range[1] < center)
+                    below.add(range);
+                else if (range[0] > center)
+                    above.add(range);
+                else
+                    overlapping.add(range);
+            }
+            return new IntervalNode(center, overlapping, build(below, from, center - 1), build(above, center + 1, to));
+        }
+
+        private void visit(int position, Compiled<?> compiled, MatchState state) {
+
+            IntervalNode node = this;
+            while (node != null) {
+                if (position < node.center) {
+                    for (int i = 0; i < node.lows.length && node.lows[i] <= position; i++) {
+                        compiled.satisfy(node.lowPredicates[i], state);
+                    }
+                    node = node.left;
+                } else if (position > node.center) {
+                    for (int i = 0; i < node.highs.length && node.highs[i] >= position; i++) {
+                        compiled.satisfy(node.highPredicates[i], state);
+                    }
+                    node = node.right;
+                } else {
+                    for (int predicate : node.lowPredicates) {
+                        compiled.satisfy(predicate, state);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The counters and cached residual results of one thread, reset after every match.
+     */
+    private static final class MatchState {
+
+        private static final byte UNKNOWN = 0;
+        private static final byte TRUE = 1;
+        private static final byte FALSE = 2;
+
+        private final int[] counts;
+        private int[] touched = new int[16];
+        private int touchedCount = 0;
+        private int[] candidates = new int[16];
+        private int candidateCount = 0;
+        private final byte[] residualResults;
+        private int[] evaluated = new int[16];
+        private int evaluatedCount = 0;
+
+        private MatchState(int filterCount, int residualCount) {
+
+            counts = new int[filterCount];
+            residualResults = new byte[residualCount];
+        }
+
+        /**
+         * @return The number of satisfied predicates of the given filter, after counting one more.
+         */
+        private int count(int filter) {
+
+            if (counts[filter] == 0) {
+                if (touchedCount == touched.length)
+                    touched = Arrays.copyOf(touched, 2 * touchedCount);
+                touched[touchedCount++] = filter;
+            }
+            return ++counts[filter];
+        }
+
+        private void addCandidate(int filter) {
+
+            if (candidateCount == candidates.length)
+                candidates = Arrays.copyOf(candidates, 2 * candidateCount);
+            candidates[candidateCount++] = filter;
+        }
+
+        private void addCandidates(int[] filters) {
+
+            for (int filter : filters) {
+                addCandidate(filter);
+            }
+        }
+
+        /**
+         * @return The candidate filters, ascending.
+         */
+        private int[] getCandidates() {
+
+            int[] result = Arrays.copyOf(candidates, candidateCount);
+            Arrays.sort(result);
+            return result;
+        }
+
+        private void setResidualResult(int residual, byte result) {
+
+            residualResults[residual] = result;
+            if (evaluatedCount == evaluated.length)
+                evaluated = Arrays.copyOf(evaluated, 2 * evaluatedCount);
+            evaluated[evaluatedCount++] = residual;
+        }
+
+        private void reset() {
+
+            for (int i = 0; i < touchedCount; i++) {
+                counts[touched[i]] = 0;
+            }
+            for (int i = 0; i < evaluatedCount; i++) {
+                residualResults[evaluated[i]] = UNKNOWN;
+            }
+            touchedCount = 0;
+            candidateCount = 0;
+            evaluatedCount = 0;
+        }
+    }
+}
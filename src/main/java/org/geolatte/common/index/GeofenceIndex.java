@@ -0,0 +1,329 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.cql.Cql;
+import org.geolatte.common.expressions.ConstantExpression;
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.common.expressions.geo.GeoContains;
+import org.geolatte.common.expressions.geo.GeoIntersects;
+import org.geolatte.common.expressions.geo.GeoWithin;
+import org.geolatte.common.expressions.geo.GeometryConstant;
+import org.geolatte.common.expressions.geo.GeometryProperty;
+import org.geolatte.geom.Envelope;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.Point;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * An index of geofences (polygons or multipolygons, each with an id) that finds the fences containing a point, e.g.
+ * the position of a GPS feature, without testing every fence.
+ * </p>
+ * <p>
+ * The envelopes of the fences are indexed in a {@link PackedRTree}, and every fence is {@link PreparedPolygon prepared}
+ * with an index of its edges, so a point is only located in the fences whose envelope contains it, and only against
+ * the edges near it. Since the tree can not change, fences added later are kept aside (and tested by envelope) and
+ * removed fences are skipped, until there are enough of them to rebuild the tree.
+ * </p>
+ * <p>
+ * A fence either excludes its boundary, as the CQL {@code WITHIN} predicate, or includes it, as {@code INTERSECTS}.
+ * Fences can be added and removed at any time, also while the index is being queried.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <K> The type of the ids of the fences.
+ * @since SDK1.5
+ */
+public class GeofenceIndex<K> {
+
+    private static final int MIN_REBUILD_COUNT = 64;
+
+    private final Map<K, Fence<K>> fences = new HashMap<K, Fence<K>>();
+    private long nextSequence = 0;
+    private volatile Snapshot<K> snapshot = new Snapshot<K>(PackedRTree.build(new double[0]), newFences(0), 0, newFences(0));
+
+    /**
+     * Adds a fence that excludes its boundary, or replaces the fence with the same id.
+     *
+     * @param id    The id of the fence.
+     * @param fence A constant polygon or multipolygon.
+     * @throws IllegalArgumentException if id or fence is null, or if fence is no non-empty polygon or multipolygon
+     */
+    public void add(K id, GeometryConstant fence) {
+
+        if (fence == null)
+            throw new IllegalArgumentException("Argument fence cannot be null");
+
+        add(id, fence.evaluate(null), false);
+    }
+
+    /**
+     * Adds the fence of the given filter, or replaces the fence with the same id. The filter must be a single spatial
+     * predicate of a geometry property and a polygon or multipolygon: {@code WITHIN(property, polygon)} or
+     * {@code CONTAINS(polygon, property)}, which exclude the boundary of the polygon, or
+     * {@code INTERSECTS(property, polygon)}, which includes it. The name of the property is not used: points are
+     * matched directly.
+     *
+     * @param id     The id of the fence.
+     * @param filter The filter.
+     * @throws IllegalArgumentException if id or filter is null, or if filter is no such predicate
+     */
+    public void add(K id, Filter filter) {
+
+        if (filter == null)
+            throw new IllegalArgumentException("Argument filter cannot be null");
+
+        Expression<Boolean> expression = filter.getFilterExpression();
+        if (expression instanceof GeoWithin && isProperty(((GeoWithin) expression).getLeft()) && isConstant(((GeoWithin) expression).getRight()))
+            add(id, ((GeoWithin) expression).getRight().evaluate(null), false);
+        else if (expression instanceof GeoContains && isConstant(((GeoContains) expression).getLeft()) && isProperty(((GeoContains) expression).getRight()))
+            add(id, ((GeoContains) expression).getLeft().evaluate(null), false);
+        else if (expression instanceof GeoIntersects && isProperty(((GeoIntersects) expression).getLeft()) && isConstant(((GeoIntersects) expression).getRight()))
+            add(id, ((GeoIntersects) expression).getRight().evaluate(null), true);
+        else if (expression instanceof GeoIntersects && isConstant(((GeoIntersects) expression).getLeft()) && isProperty(((GeoIntersects) expression).getRight()))
+            add(id, ((GeoIntersects) expression).getLeft().evaluate(null), true);
+        else
+            throw new IllegalArgumentException("The filter is no spatial predicate of a geometry property and a constant");
+    }
+
+    /**
+     * Adds the fence of the given CQL filter, or replaces the fence with the same id. See {@link #add(Object, Filter)}.
+     *
+     * @param id            The id of the fence.
+     * @param cqlExpression The CQL expression, e.g. {@code WITHIN(location, POLYGON((0 0, 10 0, 10 10, 0 0)))}.
+     * @param clazz         The class of the filtered objects, which has the geometry property.
+     * @throws ParseException           if the expression can not be parsed
+     * @throws IllegalArgumentException if id is null, or if the expression is no such predicate
+     */
+    public void add(K id, String cqlExpression, Class clazz) throws ParseException {
+
+        add(id, Cql.toStaticFilter(cqlExpression, clazz));
+    }
+
+    /**
+     * Adds a fence, or replaces the fence with the same id.
+     *
+     * @param id                 The id of the fence.
+     * @param fence              A polygon or multipolygon.
+     * @param isBoundaryIncluded True if points on the boundary of the fence are contained in it.
+     * @throws IllegalArgumentException if id or fence is null, or if fence is no non-empty polygon or multipolygon
+     */
+    public synchronized void add(K id, Geometry fence, boolean isBoundaryIncluded) {
+
+        if (id == null)
+            throw new IllegalArgumentException("Argument id cannot be null");
+
+        Fence<K> added = new Fence<K>(id, nextSequence++, new PreparedPolygon(fence), isBoundaryIncluded);
+        Snapshot<K> current = removeFence(snapshot, fences.remove(id));
+        fences.put(id, added);
+
+        Fence<K>[] recent = Arrays.copyOf(current.recent, current.recent.length + 1);
+        recent[recent.length - 1] = added;
+        snapshot = new Snapshot<K>(current.tree, current.indexed, current.removedCount, recent);
+        if (recent.length >= Math.max(MIN_REBUILD_COUNT, current.indexed.length / 8))
+            rebuild();
+    }
+
+    /**
+     * Removes the fence with the given id.
+     *
+     * @param id The id of the fence.
+     * @return True if the index contained the fence.
+     */
+    public synchronized boolean remove(K id) {
+
+        Fence<K> removed = fences.remove(id);
+        if (removed == null)
+            return false;
+
+        snapshot = removeFence(snapshot, removed);
+        if (snapshot.removedCount >= Math.max(MIN_REBUILD_COUNT, snapshot.indexed.length / 4))
+            rebuild();
+        return true;
+    }
+
+    /**
+     * @return The number of fences.
+     */
+    public synchronized int size() {
+        return fences.size();
+    }
+
+    /**
+     * Finds the fences that contain the given point.
+     *
+     * @param point The point. May be null or empty, in which case no fences contain it.
+     * @return The ids of the fences, in the order they were added.
+     */
+    public List<K> match(Point point) {
+
+        if (point == null || point.isEmpty())
+            return new ArrayList<K>();
+        return match(point.getX(), point.getY());
+    }
+
+    /**
+     * Finds the fences that contain the given point.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return The ids of the fences, in the order they were added.
+     */
+    public List<K> match(double x, double y) {
+
+        Snapshot<K> current = snapshot;
+        List<Fence<K>> found = new ArrayList<Fence<K>>();
+        for (int item : current.tree.search(x, y, x, y)) {
+            Fence<K> fence = current.indexed[item];
+            if (fence != null && fence.contains(x, y))
+                found.add(fence);
+        }
+        for (Fence<K> fence : current.recent) {
+            if (fence.contains(x, y))
+                found.add(fence);
+        }
+
+        // The tree holds the fences by sequence, and all recent fences were added after it was built
+        List<K> result = new ArrayList<K>(found.size());
+        for (Fence<K> fence : found) {
+            result.add(fence.id);
+        }
+        return result;
+    }
+
+    /**
+     * Builds a new tree over all fences, in the order they were added.
+     */
+    private void rebuild() {
+
+        List<Fence<K>> all = new ArrayList<Fence<K>>(fences.values());
+        all.sort(new Comparator<Fence<K>>() {
+            public int compare(Fence<K> a, Fence<K> b) {
+                return a.sequence < b.sequence ? -1 : (a.sequence == b.sequence ? 0 : 1);
+            }
+        });
+
+        Fence<K>[] indexed = newFences(all.size());
+        double[] bounds = new double[4 * all.size()];
+        for (int i = 0; i < indexed.length; i++) {
+            indexed[i] = all.get(i);
+            indexed[i].item = i;
+            bounds[4 * i] = indexed[i].envelope.getMinX();
+            bounds[4 * i + 1] = indexed[i].envelope.getMinY();
+            bounds[4 * i + 2] = indexed[i].envelope.getMaxX();
+            bounds[4 * i + 3] = indexed[i].envelope.getMaxY();
+        }
+        snapshot = new Snapshot<K>(PackedRTree.build(bounds), indexed, 0, newFences(0));
+    }
+
+    private static <K> Snapshot<K> removeFence(Snapshot<K> current, Fence<K> fence) {
+
+        if (fence == null)
+            return current;
+
+        if (fence.item >= 0 && fence.item < current.indexed.length && current.indexed[fence.item] == fence) {
+            Fence<K>[] indexed = current.indexed.clone();
+            indexed[fence.item] = null;
+            return new Snapshot<K>(current.tree, indexed, current.removedCount + 1, current.recent);
+        }
+
+        Fence<K>[] recent = newFences(current.recent.length - 1);
+        int i = 0;
+        for (Fence<K> other : current.recent) {
+            if (other != fence)
+                recent[i++] = other;
+        }
+        return new Snapshot<K>(current.tree, current.indexed, current.removedCount, recent);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Fence<K>[] newFences(int size) {
+        return new Fence[size];
+    }
+
+    private static boolean isProperty(Expression<Geometry> expression) {
+        return expression instanceof GeometryProperty;
+    }
+
+    private static boolean isConstant(Expression<Geometry> expression) {
+        return expression instanceof ConstantExpression;
+    }
+
+    /**
+     * A fence with its prepared polygon.
+     */
+    private static final class Fence<K> {
+
+        private final K id;
+        private final long sequence;
+        private final PreparedPolygon polygon;
+        private final Envelope envelope;
+        private final boolean isBoundaryIncluded;
+        // The position of the fence in the latest tree, or -1
+        private int item = -1;
+
+        private Fence(K id, long sequence, PreparedPolygon polygon, boolean isBoundaryIncluded) {
+
+            this.id = id;
+            this.sequence = sequence;
+            this.polygon = polygon;
+            this.envelope = polygon.getEnvelope();
+            this.isBoundaryIncluded = isBoundaryIncluded;
+        }
+
+        private boolean contains(double x, double y) {
+
+            int location = polygon.locate(x, y);
+            return location == PreparedPolygon.INTERIOR || (isBoundaryIncluded && location == PreparedPolygon.BOUNDARY);
+        }
+    }
+
+    /**
+     * The fences as seen by queries: those in the tree (null once removed) and those added since the tree was built.
+     */
+    private static final class Snapshot<K> {
+
+        private final PackedRTree tree;
+        private final Fence<K>[] indexed;
+        private final int removedCount;
+        private final Fence<K>[] recent;
+
+        private Snapshot(PackedRTree tree, Fence<K>[] indexed, int removedCount, Fence<K>[] recent) {
+
+            this.tree = tree;
+            this.indexed = indexed;
+            this.removedCount = removedCount;
+            this.recent = recent;
+        }
+    }
+}
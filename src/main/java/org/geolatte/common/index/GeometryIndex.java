@@ -0,0 +1,138 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.geo.BooleanBinaryGeometryExpression;
+import org.geolatte.common.expressions.geo.GeoContains;
+import org.geolatte.common.expressions.geo.GeoEquals;
+import org.geolatte.common.expressions.geo.GeoIntersects;
+import org.geolatte.common.expressions.geo.GeoWithin;
+import org.geolatte.common.expressions.geo.GeometryConstant;
+import org.geolatte.geom.Envelope;
+import org.geolatte.geom.Geometry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * An index on the envelopes of the values of a geometry property, in a {@link PackedRTree}. A geometry equality,
+ * intersection, containment or "within" with a constant is looked up as a search of the tree with the envelope of the
+ * constant, whose results are narrowed by the relation of the envelopes that the geometries must have: equal
+ * envelopes for an equality, an envelope inside that of the constant for "within", and so on.
+ * </p>
+ * <p>
+ * Geometries whose envelopes relate that way need not relate themselves, so the condition is still evaluated on the
+ * rows found. Empty geometries are not indexed, and a condition with an empty constant is not looked up.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class GeometryIndex extends Index {
+
+    // The envelope of each row, with NaN bounds if the row is not indexed
+    private final double[] bounds;
+    private final PackedRTree tree;
+
+    /**
+     * @param property A geometry property.
+     * @param objects The objects to index, by row.
+     */
+    GeometryIndex(Expression<?> property, List<?> objects) {
+
+        super(property);
+
+        bounds = new double[4 * objects.size()];
+        for (int row = 0; row < objects.size(); row++) {
+            Envelope envelope = toEnvelope(readValue(objects.get(row)));
+            if (envelope == null) {
+                Arrays.fill(bounds, 4 * row, 4 * row + 4, Double.NaN);
+            } else {
+                bounds[4 * row] = envelope.getMinX();
+                bounds[4 * row + 1] = envelope.getMinY();
+                bounds[4 * row + 2] = envelope.getMaxX();
+                bounds[4 * row + 3] = envelope.getMaxY();
+            }
+        }
+        tree = PackedRTree.build(bounds);
+    }
+
+    @Override
+    Lookup lookUp(Expression<Boolean> condition) {
+
+        if (!(condition instanceof GeoEquals) && !(condition instanceof GeoIntersects)
+                && !(condition instanceof GeoWithin) && !(condition instanceof GeoContains))
+            return null;
+        BooleanBinaryGeometryExpression relation = (BooleanBinaryGeometryExpression) condition;
+        boolean isIndexedLeft = isIndexed(relation.getLeft());
+        Expression<Geometry> other;
+        if (isIndexedLeft)
+            other = relation.getRight();
+        else if (isIndexed(relation.getRight()))
+            other = relation.getLeft();
+        else
+            return null;
+        if (!(other instanceof GeometryConstant))
+            return null;
+        Envelope envelope = toEnvelope(other.evaluate(null));
+        if (envelope == null)
+            return null;
+
+        double minX = envelope.getMinX();
+        double minY = envelope.getMinY();
+        double maxX = envelope.getMaxX();
+        double maxY = envelope.getMaxY();
+        // Whether the envelope of a matching row must lie inside, or must cover, that of the constant
+        boolean isInside = condition instanceof GeoEquals
+                || (condition instanceof GeoWithin && isIndexedLeft) || (condition instanceof GeoContains && !isIndexedLeft);
+        boolean isCovering = condition instanceof GeoEquals
+                || (condition instanceof GeoContains && isIndexedLeft) || (condition instanceof GeoWithin && !isIndexedLeft);
+
+        int[] candidates = tree.search(minX, minY, maxX, maxY);
+        int count = 0;
+        for (int row : candidates) {
+            int i = 4 * row;
+            if (isInside && (bounds[i] < minX || bounds[i + 1] < minY || bounds[i + 2] > maxX || bounds[i + 3] > maxY))
+                continue;
+            if (isCovering && (bounds[i] > minX || bounds[i + 1] > minY || bounds[i + 2] < maxX || bounds[i + 3] < maxY))
+                continue;
+            candidates[count++] = row;
+        }
+        return new HashIndex.BucketLookup(Collections.singletonList(Arrays.copyOf(candidates, count)), false);
+    }
+
+    /**
+     * @return The envelope of the given geometry, or null if it is null or empty.
+     */
+    private static Envelope toEnvelope(Object value) {
+
+        if (value == null || ((Geometry) value).isEmpty())
+            return null;
+        Envelope envelope = ((Geometry) value).getEnvelope();
+        return envelope == null || envelope.isEmpty() ? null : envelope;
+    }
+}
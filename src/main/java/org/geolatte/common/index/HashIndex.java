@@ -0,0 +1,153 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.NumberProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * An index that maps each value of a number or string property on its rows. Looks up equalities with constants and
+ * (IN) sets with a hash lookup per value.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class HashIndex extends Index {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final Map<Object, int[]> rowsByValue = new HashMap<Object, int[]>();
+    private final int[] nanRows;
+
+    /**
+     * @param property A number or string property.
+     * @param objects The objects to index, by row.
+     */
+    HashIndex(Expression<?> property, List<?> objects) {
+
+        super(property);
+
+        boolean isNumber = property instanceof NumberProperty;
+        Map<Object, List<Integer>> lists = new HashMap<Object, List<Integer>>();
+        List<Integer> nans = new ArrayList<Integer>();
+        for (int row = 0; row < objects.size(); row++) {
+            Object value = readValue(objects.get(row));
+            if (value == null)
+                continue;
+            if (isNumber) {
+                value = ((Number) value).doubleValue() + 0.0; // -0.0 equals 0.0
+                if (((Double) value).isNaN()) {
+                    nans.add(row);
+                    continue;
+                }
+            }
+            List<Integer> rows = lists.get(value);
+            if (rows == null) {
+                rows = new ArrayList<Integer>();
+                lists.put(value, rows);
+            }
+            rows.add(row);
+        }
+        for (Map.Entry<Object, List<Integer>> entry : lists.entrySet()) {
+            rowsByValue.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        nanRows = toArray(nans);
+    }
+
+    @Override
+    Lookup lookUp(Expression<Boolean> condition) {
+
+        Values values = toValues(condition);
+        if (values == null || (values.set == null && !values.isPoint()))
+            return null;
+
+        List<int[]> buckets = new ArrayList<int[]>();
+        for (Object value : values.set != null ? new LinkedHashSet<Object>(values.set) : Collections.singleton(values.low)) {
+            int[] rows = rowsByValue.get(value);
+            if (rows != null)
+                buckets.add(rows);
+        }
+        if (values.matchesNaN)
+            buckets.add(nanRows);
+        return new BucketLookup(buckets, true);
+    }
+
+    static int[] toArray(List<Integer> list) {
+
+        if (list.isEmpty())
+            return NO_ROWS;
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * The rows of a number of buckets of a hash index.
+     */
+    static final class BucketLookup extends Lookup {
+
+        private final List<int[]> buckets;
+        private final boolean isExact;
+
+        BucketLookup(List<int[]> buckets, boolean isExact) {
+            this.buckets = buckets;
+            this.isExact = isExact;
+        }
+
+        int getCandidateCount() {
+            int count = 0;
+            for (int[] bucket : buckets) {
+                count += bucket.length;
+            }
+            return count;
+        }
+
+        int[] getRows() {
+            int[] rows = new int[getCandidateCount()];
+            int position = 0;
+            for (int[] bucket : buckets) {
+                System.arraycopy(bucket, 0, rows, position, bucket.length);
+                position += bucket.length;
+            }
+            Arrays.sort(rows);
+            return rows;
+        }
+
+        boolean isExact() {
+            return isExact;
+        }
+    }
+}
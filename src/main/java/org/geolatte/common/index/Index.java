@@ -0,0 +1,368 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.expressions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * <p>
+ * A secondary index on one property of the objects of an {@link IndexedCollection}. The values of the property are
+ * read once, with the property expression of the index, so they compare exactly as they do in a filter.
+ * </p>
+ * <p>
+ * Given a condition of a filter, an index looks up the rows that can match it. Objects whose value can not be read
+ * (e.g. a null value) are never looked up: a filter would fail on them.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+abstract class Index {
+
+    private final Expression<?> property;
+
+    /**
+     * @param property The indexed property.
+     */
+    Index(Expression<?> property) {
+
+        this.property = property;
+    }
+
+    /**
+     * @return The indexed property.
+     */
+    Expression<?> getProperty() {
+        return property;
+    }
+
+    /**
+     * Looks up the rows that can match the given condition.
+     *
+     * @param condition A conjunct of a filter.
+     * @return The lookup, or null if the index can not be used for the condition.
+     */
+    abstract Lookup lookUp(Expression<Boolean> condition);
+
+    /**
+     * Reads the indexed property of the given object.
+     *
+     * @return The value, or null if it can not be read.
+     */
+    Object readValue(Object o) {
+
+        try {
+            return o == null ? null : property.evaluate(o);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return True if the given expression reads the indexed property as the index does.
+     */
+    boolean isIndexed(Expression<?> expression) {
+
+        return isSameProperty(property, expression);
+    }
+
+    /**
+     * Converts the given condition on the indexed property into the values or interval of values it accepts.
+     *
+     * @return The values, or null if the condition does not compare the indexed property with constants.
+     */
+    Values toValues(Expression<Boolean> condition) {
+
+        return toValues(condition, property);
+    }
+
+    /**
+     * @return True if the given expression reads the given property the same way.
+     */
+    static boolean isSameProperty(Expression<?> property, Expression<?> expression) {
+
+        return expression != null && expression.getClass() == property.getClass()
+                && ((PropertyExpression<?>) property).getPropertyName().equals(((PropertyExpression<?>) expression).getPropertyName());
+    }
+
+    /**
+     * Finds the number, string or date property that the given condition compares with constants.
+     *
+     * @return The property, or null if the condition is no such comparison.
+     */
+    static Expression<?> findProperty(Expression<Boolean> condition) {
+
+        Expression<?> candidate = null;
+        Expression<?> other = null;
+        if (condition instanceof BooleanBinaryNumberExpression) {
+            candidate = ((BooleanBinaryNumberExpression) condition).getLeft();
+            other = ((BooleanBinaryNumberExpression) condition).getRight();
+        } else if (condition instanceof BooleanBinaryStringExpression) {
+            candidate = ((BooleanBinaryStringExpression) condition).getLeft();
+            other = ((BooleanBinaryStringExpression) condition).getRight();
+        } else if (condition instanceof BooleanBinaryDateExpression) {
+            candidate = ((BooleanBinaryDateExpression) condition).getLeft();
+            other = ((BooleanBinaryDateExpression) condition).getRight();
+        } else if (condition instanceof IsInRange) {
+            candidate = ((IsInRange) condition).getValue();
+        } else if (condition instanceof IsIn) {
+            candidate = ((IsIn) condition).getValue();
+        } else if (condition instanceof StringIsIn) {
+            candidate = ((StringIsIn) condition).getValue();
+        } else if (condition instanceof DateIsBetween) {
+            candidate = ((DateIsBetween) condition).getBaseDate();
+        }
+        if (!isIndexable(candidate))
+            candidate = other;
+        if (!isIndexable(candidate) || toValues(condition, candidate) == null)
+            return null;
+        return candidate;
+    }
+
+    private static boolean isIndexable(Expression<?> expression) {
+
+        return expression instanceof NumberProperty || expression instanceof StringProperty || expression instanceof DateProperty;
+    }
+
+    /**
+     * Converts the given condition on the given property into the values or interval of values it accepts.
+     *
+     * @return The values, or null if the condition does not compare the property with constants.
+     */
+    @SuppressWarnings("unchecked")
+    static Values toValues(Expression<Boolean> condition, Expression<?> property) {
+
+        if (condition instanceof BooleanBinaryNumberExpression) {
+            BooleanBinaryNumberExpression comparison = (BooleanBinaryNumberExpression) condition;
+            boolean isPropertyLeft = isSameProperty(property, comparison.getLeft());
+            if (!isPropertyLeft && !isSameProperty(property, comparison.getRight()))
+                return null;
+            Double constant = toNumber(isPropertyLeft ? comparison.getRight() : comparison.getLeft());
+            if (constant == null || constant.isNaN())
+                return null;
+            // IsEqual and IsGreaterThanOrEqual compare the sign of the difference, which is 0 for NaN
+            boolean matchesNaN = condition instanceof IsEqual || condition instanceof IsGreaterThanOrEqual;
+            if (condition instanceof IsEqual)
+                return Values.interval(constant, true, constant, true, matchesNaN);
+            if (condition instanceof IsLessThan || condition instanceof IsLessThanOrEqual)
+                return isPropertyLeft ? Values.interval(null, false, constant, condition instanceof IsLessThanOrEqual, matchesNaN)
+                        : Values.interval(constant, condition instanceof IsLessThanOrEqual, null, false, matchesNaN);
+            if (condition instanceof IsGreaterThan || condition instanceof IsGreaterThanOrEqual)
+                return isPropertyLeft ? Values.interval(constant, condition instanceof IsGreaterThanOrEqual, null, false, matchesNaN)
+                        : Values.interval(null, false, constant, condition instanceof IsGreaterThanOrEqual, matchesNaN);
+            return null;
+        }
+        if (condition instanceof IsInRange) {
+            IsInRange range = (IsInRange) condition;
+            if (!isSameProperty(property, range.getValue()))
+                return null;
+            return Values.interval(range.getLowerBound() == null ? null : range.getLowerBound().doubleValue() + 0.0, range.isLowerBoundIncluded(),
+                    range.getUpperBound() == null ? null : range.getUpperBound().doubleValue() + 0.0, range.isUpperBoundIncluded(), false);
+        }
+        if (condition instanceof IsIn) {
+            IsIn in = (IsIn) condition;
+            if (!isSameProperty(property, in.getValue()))
+                return null;
+            List<Object> values = new ArrayList<Object>();
+            for (Number value : in.getValues()) {
+                if (Double.isNaN(value.doubleValue()))
+                    return null; // matches everything
+                values.add(value.doubleValue() + 0.0);
+            }
+            return Values.set(values, !values.isEmpty());
+        }
+        if (condition instanceof StringComparisonExpression) {
+            StringComparisonExpression comparison = (StringComparisonExpression) condition;
+            boolean isPropertyLeft = isSameProperty(property, comparison.getLeft());
+            if (!isPropertyLeft && !isSameProperty(property, comparison.getRight()))
+                return null;
+            Expression<String> other = isPropertyLeft ? comparison.getRight() : comparison.getLeft();
+            String constant = other instanceof StringConstant ? other.evaluate(null) : null;
+            if (constant == null)
+                return null;
+            if (condition instanceof StringIsEqual)
+                return Values.interval(constant, true, constant, true, false);
+            if (condition instanceof StringIsLessThan || condition instanceof StringIsLessThanOrEqual)
+                return isPropertyLeft ? Values.interval(null, false, constant, condition instanceof StringIsLessThanOrEqual, false)
+                        : Values.interval(constant, condition instanceof StringIsLessThanOrEqual, null, false, false);
+            if (condition instanceof StringIsGreaterThan || condition instanceof StringIsGreaterThanOrEqual)
+                return isPropertyLeft ? Values.interval(constant, condition instanceof StringIsGreaterThanOrEqual, null, false, false)
+                        : Values.interval(null, false, constant, condition instanceof StringIsGreaterThanOrEqual, false);
+            return null;
+        }
+        if (condition instanceof StringIsIn) {
+            StringIsIn in = (StringIsIn) condition;
+            if (!isSameProperty(property, in.getValue()))
+                return null;
+            return Values.set(new ArrayList<Object>(in.getValues()), false);
+        }
+        if (condition instanceof IsBefore || condition instanceof IsAfter) {
+            BooleanBinaryDateExpression comparison = (BooleanBinaryDateExpression) condition;
+            boolean isPropertyLeft = isSameProperty(property, comparison.getLeft());
+            if (!isPropertyLeft && !isSameProperty(property, comparison.getRight()))
+                return null;
+            Double constant = toTime(isPropertyLeft ? comparison.getRight() : comparison.getLeft());
+            if (constant == null)
+                return null;
+            boolean isBelow = (condition instanceof IsBefore) == isPropertyLeft;
+            return isBelow ? Values.interval(null, false, constant, false, false) : Values.interval(constant, false, null, false, false);
+        }
+        if (condition instanceof DateIsBetween) {
+            DateIsBetween between = (DateIsBetween) condition;
+            if (!isSameProperty(property, between.getBaseDate()))
+                return null;
+            Double low = toTime(between.getLowDate());
+            Double high = toTime(between.getHighDate());
+            if (low == null || high == null)
+                return null;
+            return Values.interval(low, false, high, false, false);
+        }
+        return null;
+    }
+
+    private static Double toNumber(Expression<Number> expression) {
+
+        if (!(expression instanceof NumberConstant) || expression.evaluate(null) == null)
+            return null;
+        return expression.evaluate(null).doubleValue() + 0.0; // -0.0 equals 0.0
+    }
+
+    private static Double toTime(Expression<java.util.Date> expression) {
+
+        if (!(expression instanceof DateConstant) || expression.evaluate(null) == null)
+            return null;
+        return (double) expression.evaluate(null).getTime();
+    }
+
+    /**
+     * Collects the given ranges of the given rows, sorted.
+     */
+    static int[] collectRows(int[] rows, int[] from, int[] to, int[] extraRows) {
+
+        int count = extraRows == null ? 0 : extraRows.length;
+        for (int i = 0; i < from.length; i++) {
+            count += Math.max(0, to[i] - from[i]);
+        }
+        int[] result = new int[count];
+        int position = 0;
+        for (int i = 0; i < from.length; i++) {
+            if (to[i] > from[i]) {
+                System.arraycopy(rows, from[i], result, position, to[i] - from[i]);
+                position += to[i] - from[i];
+            }
+        }
+        if (extraRows != null)
+            System.arraycopy(extraRows, 0, result, position, extraRows.length);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * The values accepted by a condition: either a set of values or an interval, of numbers (as doubles, including
+     * times) or strings.
+     */
+    static final class Values {
+
+        final Collection<Object> set;
+        final Object low;
+        final boolean isLowIncluded;
+        final Object high;
+        final boolean isHighIncluded;
+        final boolean matchesNaN;
+
+        private Values(Collection<Object> set, Object low, boolean isLowIncluded, Object high, boolean isHighIncluded, boolean matchesNaN) {
+            this.set = set;
+            this.low = low;
+            this.isLowIncluded = isLowIncluded;
+            this.high = high;
+            this.isHighIncluded = isHighIncluded;
+            this.matchesNaN = matchesNaN;
+        }
+
+        static Values set(Collection<Object> values, boolean matchesNaN) {
+            return new Values(values, null, false, null, false, matchesNaN);
+        }
+
+        static Values interval(Object low, boolean isLowIncluded, Object high, boolean isHighIncluded, boolean matchesNaN) {
+            return new Values(null, low, isLowIncluded, high, isHighIncluded, matchesNaN);
+        }
+
+        /**
+         * @return True if the values are a single value.
+         */
+        boolean isPoint() {
+            return set == null && low != null && low.equals(high) && isLowIncluded && isHighIncluded;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o)
+                return true;
+            if (!(o instanceof Values))
+                return false;
+            Values other = (Values) o;
+            return (set == null ? other.set == null : other.set != null && new HashSet<Object>(set).equals(new HashSet<Object>(other.set)))
+                    && (low == null ? other.low == null : low.equals(other.low)) && isLowIncluded == other.isLowIncluded
+                    && (high == null ? other.high == null : high.equals(other.high)) && isHighIncluded == other.isHighIncluded
+                    && matchesNaN == other.matchesNaN;
+        }
+
+        @Override
+        public int hashCode() {
+
+            int result = set == null ? 0 : new HashSet<Object>(set).hashCode();
+            result = 31 * result + (low == null ? 0 : low.hashCode());
+            result = 31 * result + (high == null ? 0 : high.hashCode());
+            return 31 * result + (matchesNaN ? 1 : 0);
+        }
+    }
+
+    /**
+     * The result of looking up a condition in an index.
+     */
+    abstract static class Lookup {
+
+        /**
+         * @return The number of rows the lookup returns.
+         */
+        abstract int getCandidateCount();
+
+        /**
+         * @return The rows that can match the condition, in ascending order.
+         */
+        abstract int[] getRows();
+
+        /**
+         * @return True if exactly the rows that match the condition are returned, so it need not be evaluated on them.
+         */
+        abstract boolean isExact();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.expressions.And;
+import org.geolatte.common.expressions.DateProperty;
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.ExpressionOptimizer;
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.common.expressions.NumberProperty;
+import org.geolatte.common.expressions.PropertyExpression;
+import org.geolatte.common.expressions.StringProperty;
+import org.geolatte.common.expressions.geo.GeometryProperty;
+import org.geolatte.common.transformer.SimpleTransformerSource;
+import org.geolatte.common.transformer.TransformerSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>
+ * An in-memory collection of objects with secondary indexes on some of their properties, queried with
+ * {@link Filter}s.
+ * </p>
+ * <p>
+ * To evaluate a filter, the collection {@link #plan(Filter) plans} it: it splits the (optimized) filter expression in
+ * its top-level conjuncts, looks up each conjunct in each index that applies to it and picks the lookup with the fewest
+ * candidates. The filter is then only evaluated on those candidates, with the remaining conjuncts as residual filter.
+ * Without an applicable index, the filter is evaluated on all objects. The result is the same either way, in the order
+ * of the collection.
+ * </p>
+ * <ul>
+ * <li>A hash index ({@link #addHashIndex(PropertyExpression)}) answers equalities and IN lists on numbers and
+ * strings.</li>
+ * <li>A sorted index ({@link #addSortedIndex(PropertyExpression)}) answers comparisons, ranges, equalities and IN lists
+ * on numbers, strings and dates.</li>
+ * <li>A geometry index ({@link #addGeometryIndex(GeometryProperty)}) answers geometry equalities, intersections,
+ * containments and "within" conditions with constants, from an R-tree on the envelopes.</li>
+ * </ul>
+ * <p>
+ * The collection itself is immutable. Indexes can be added at any time, also while the collection is being queried.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the objects in the collection.
+ * @since SDK1.5
+ */
+public class IndexedCollection<T> {
+
+    private final List<T> objects;
+    private final List<Index> indexes = new CopyOnWriteArrayList<Index>();
+
+    /**
+     * Constructs a collection with the given objects, without indexes.
+     *
+     * @param objects The objects of the collection. They are copied.
+     * @throws IllegalArgumentException if objects is null
+     */
+    public IndexedCollection(Collection<? extends T> objects) {
+
+        if (objects == null)
+            throw new IllegalArgumentException("Argument objects cannot be null");
+
+        this.objects = new ArrayList<T>(objects);
+    }
+
+    /**
+     * @return The number of objects in the collection.
+     */
+    public int size() {
+        return objects.size();
+    }
+
+    /**
+     * Adds a hash index on the given property.
+     *
+     * @param property A number or string property.
+     * @throws IllegalArgumentException if property is null or of another type
+     */
+    public void addHashIndex(PropertyExpression<?> property) {
+
+        if (!(property instanceof NumberProperty) && !(property instanceof StringProperty))
+            throw new IllegalArgumentException("A hash index requires a number or string property");
+
+        indexes.add(new HashIndex(property, objects));
+    }
+
+    /**
+     * Adds a sorted index on the given property.
+     *
+     * @param property A number, string or date property.
+     * @throws IllegalArgumentException if property is null or of another type
+     */
+    public void addSortedIndex(PropertyExpression<?> property) {
+
+        if (!(property instanceof NumberProperty) && !(property instanceof StringProperty) && !(property instanceof DateProperty))
+            throw new IllegalArgumentException("A sorted index requires a number, string or date property");
+
+        indexes.add(new SortedIndex(property, objects));
+    }
+
+    /**
+     * Adds a geometry index on the given property.
+     *
+     * @param property A geometry property.
+     * @throws IllegalArgumentException if property is null
+     */
+    public void addGeometryIndex(GeometryProperty property) {
+
+        if (property == null)
+            throw new IllegalArgumentException("Argument property cannot be null");
+
+        indexes.add(new GeometryIndex(property, objects));
+    }
+
+    /**
+     * Plans the evaluation of the given filter.
+     *
+     * @param filter The filter to evaluate.
+     * @return The plan.
+     * @throws IllegalArgumentException if filter is null
+     */
+    public QueryPlan plan(Filter filter) {
+
+        if (filter == null)
+            throw new IllegalArgumentException("Argument filter cannot be null");
+
+        List<Expression<Boolean>> conjuncts = new ArrayList<Expression<Boolean>>();
+        addConjuncts(ExpressionOptimizer.optimize(filter.getFilterExpression()), conjuncts);
+
+        int bestConjunct = -1;
+        Index bestIndex = null;
+        Index.Lookup bestLookup = null;
+        for (int i = 0; i < conjuncts.size(); i++) {
+            for (Index index : indexes) {
+                Index.Lookup lookup = index.lookUp(conjuncts.get(i));
+                if (lookup != null && (bestLookup == null || lookup.getCandidateCount() < bestLookup.getCandidateCount())) {
+                    bestConjunct = i;
+                    bestIndex = index;
+                    bestLookup = lookup;
+                }
+            }
+        }
+
+        if (bestLookup == null)
+            return new QueryPlan(null, null, null, filter);
+
+        Expression<Boolean> residual = bestLookup.isExact() ? null : conjuncts.get(bestConjunct);
+        for (int i = 0; i < conjuncts.size(); i++) {
+            if (i != bestConjunct)
+                residual = residual == null ? conjuncts.get(i) : new And(residual, conjuncts.get(i));
+        }
+        return new QueryPlan(conjuncts.get(bestConjunct), bestIndex, bestLookup,
+                residual == null ? null : new Filter(residual));
+    }
+
+    /**
+     * Selects the objects that match the given filter.
+     *
+     * @param filter The filter to evaluate.
+     * @return The matching objects, in the order of the collection.
+     * @throws IllegalArgumentException if filter is null
+     */
+    public List<T> select(Filter filter) {
+
+        QueryPlan plan = plan(filter);
+        Filter residual = plan.getResidualFilter();
+        List<T> result = new ArrayList<T>();
+        if (plan.getLookup() == null) {
+            for (T o : objects) {
+                if (residual.evaluate(o))
+                    result.add(o);
+            }
+        } else {
+            for (int row : plan.getLookup().getRows()) {
+                T o = objects.get(row);
+                if (residual == null || residual.evaluate(o))
+                    result.add(o);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Selects the objects that match the given filter, as a source for a transformation chain.
+     *
+     * @param filter The filter to evaluate.
+     * @return A source of the matching objects, in the order of the collection.
+     * @throws IllegalArgumentException if filter is null
+     */
+    public TransformerSource<T> query(Filter filter) {
+
+        return new SimpleTransformerSource<T>(select(filter));
+    }
+
+    private static void addConjuncts(Expression<Boolean> expression, List<Expression<Boolean>> conjuncts) {
+
+        if (expression instanceof And) {
+            addConjuncts(((And) expression).getLeft(), conjuncts);
+            addConjuncts(((And) expression).getRight(), conjuncts);
+        } else {
+            conjuncts.add(expression);
+        }
+    }
+}
@@ -0,0 +1,546 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * <p>
+ * A static R-tree over the envelopes of a numbered set of items, bulk loaded with the Sort-Tile-Recursive (STR)
+ * algorithm. Every node is filled to capacity, except for the last node of each level.
+ * </p>
+ * <p>
+ * The tree has no node objects. All entries (the items in the leaves, followed by the nodes level by level up to the
+ * root) are stored in two flat buffers: one with the envelope of each entry (minX, minY, maxX, maxY) and one with the
+ * item number of each leaf entry or the position of the first child of each node entry. A tree can therefore be
+ * written to a file and {@link #map(File) mapped} back into memory without parsing or copying it.
+ * </p>
+ * <p>
+ * Items without an envelope (e.g. empty geometries) are not indexed, but keep their item number. A tree is immutable
+ * and can be queried concurrently.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public final class PackedRTree {
+
+    /**
+     * The number of children of a node if no other capacity is given.
+     */
+    public static final int DEFAULT_NODE_CAPACITY = 16;
+
+    private static final int MAGIC = 0x54524c47; // "GLRT", little endian
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+
+    private final int nodeCapacity;
+    private final int itemCount;
+    private final int leafCount;
+    // The end position of each level, from the leaves up to the root
+    private final int[] levelBounds;
+    private final DoubleBuffer boxes;
+    private final IntBuffer indices;
+
+    private PackedRTree(int nodeCapacity, int itemCount, int[] levelBounds, DoubleBuffer boxes, IntBuffer indices) {
+
+        this.nodeCapacity = nodeCapacity;
+        this.itemCount = itemCount;
+        this.levelBounds = levelBounds;
+        this.leafCount = levelBounds.length == 0 ? 0 : levelBounds[0];
+        this.boxes = boxes;
+        this.indices = indices;
+    }
+
+    /**
+     * Builds a tree with the default node capacity.
+     *
+     * @param bounds The envelopes of the items: minX, minY, maxX and maxY of item 0, followed by those of item 1, and
+     *               so on. An item with a NaN bound is not indexed.
+     * @return The tree.
+     * @throws IllegalArgumentException if bounds is null or its length is not a multiple of 4
+     */
+    public static PackedRTree build(double[] bounds) {
+
+        return build(bounds, DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Builds a tree.
+     *
+     * @param bounds       The envelopes of the items: minX, minY, maxX and maxY of item 0, followed by those of item 1,
+     *                     and so on. An item with a NaN bound is not indexed.
+     * @param nodeCapacity The maximum number of children of a node.
+     * @return The tree.
+     * @throws IllegalArgumentException if bounds is null or its length is not a multiple of 4, or if nodeCapacity is
+     *                                  less than 2
+     */
+    public static PackedRTree build(double[] bounds, int nodeCapacity) {
+
+        if (bounds == null)
+            throw new IllegalArgumentException("Argument bounds cannot be null");
+        if (bounds.length % 4 != 0)
+            throw new IllegalArgumentException("The length of bounds must be a multiple of 4");
+        if (nodeCapacity < 2)
+            throw new IllegalArgumentException("The node capacity must be at least 2");
+
+        int itemCount = bounds.length / 4;
+        int leafCount = 0;
+        for (int i = 0; i < itemCount; i++) {
+            if (!isEmpty(bounds, i))
+                leafCount++;
+        }
+
+        // Size the levels
+        int levelCount = 0;
+        int entryCount = 0;
+        int[] levelSizes = new int[32];
+        for (int size = leafCount; size > 0; size = size == 1 ? 0 : (size + nodeCapacity - 1) / nodeCapacity) {
+            levelSizes[levelCount++] = size;
+            entryCount += size;
+        }
+        int[] levelBounds = new int[levelCount];
+        for (int level = 0, end = 0; level < levelCount; level++) {
+            end += levelSizes[level];
+            levelBounds[level] = end;
+        }
+
+        double[] treeBoxes = new double[4 * entryCount];
+        int[] treeIndices = new int[entryCount];
+
+        // The entries of the current level, before sorting
+        double[] levelBoxes = new double[4 * leafCount];
+        int[] levelIndices = new int[leafCount];
+        for (int i = 0, entry = 0; i < itemCount; i++) {
+            if (!isEmpty(bounds, i)) {
+                System.arraycopy(bounds, 4 * i, levelBoxes, 4 * entry, 4);
+                levelIndices[entry++] = i;
+            }
+        }
+
+        for (int level = 0, start = 0; level < levelCount; start = levelBounds[level++]) {
+            int size = levelSizes[level];
+            Integer[] order = sortTileRecursive(levelBoxes, size, nodeCapacity);
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(levelBoxes, 4 * order[i], treeBoxes, 4 * (start + i), 4);
+                treeIndices[start + i] = levelIndices[order[i]];
+            }
+            if (level + 1 == levelCount)
+                break;
+
+            // The parents of consecutive groups of entries
+            int parentCount = levelSizes[level + 1];
+            levelBoxes = new double[4 * parentCount];
+            levelIndices = new int[parentCount];
+            for (int parent = 0; parent < parentCount; parent++) {
+                int first = start + parent * nodeCapacity;
+                int end = Math.min(first + nodeCapacity, start + size);
+                double minX = Double.POSITIVE_INFINITY;
+                double minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY;
+                double maxY = Double.NEGATIVE_INFINITY;
+                for (int child = first; child < end; child++) {
+                    minX = Math.min(minX, treeBoxes[4 * child]);
+                    minY = Math.min(minY, treeBoxes[4 * child + 1]);
+                    maxX = Math.max(maxX, treeBoxes[4 * child + 2]);
+                    maxY = Math.max(maxY, treeBoxes[4 * child + 3]);
+                }
+                levelBoxes[4 * parent] = minX;
+                levelBoxes[4 * parent + 1] = minY;
+                levelBoxes[4 * parent + 2] = maxX;
+                levelBoxes[4 * parent + 3] = maxY;
+                levelIndices[parent] = first;
+            }
+        }
+
+        return new PackedRTree(nodeCapacity, itemCount, levelBounds, DoubleBuffer.wrap(treeBoxes), IntBuffer.wrap(treeIndices));
+    }
+
+    /**
+     * Reads a tree written by {@link #writeTo(OutputStream)} from the given buffer. The tree uses the content of the
+     * buffer directly, which must therefore not change while the tree is in use.
+     *
+     * @param buffer The buffer, positioned at the start of the tree.
+     * @return The tree.
+     * @throws IllegalArgumentException if buffer is null or does not hold a tree
+     */
+    public static PackedRTree read(ByteBuffer buffer) {
+
+        if (buffer == null)
+            throw new IllegalArgumentException("Argument buffer cannot be null");
+
+        ByteBuffer source = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (source.remaining() < 4 * HEADER_INTS || source.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("The buffer does not hold a packed R-tree");
+        if (source.getInt(4) != VERSION)
+            throw new IllegalArgumentException("Unsupported packed R-tree version: " + source.getInt(4));
+
+        int nodeCapacity = source.getInt(8);
+        int itemCount = source.getInt(12);
+        int levelCount = source.getInt(16);
+        int[] levelBounds = new int[levelCount];
+        for (int level = 0; level < levelCount; level++) {
+            levelBounds[level] = source.getInt(4 * (HEADER_INTS + level));
+        }
+        int entryCount = levelCount == 0 ? 0 : levelBounds[levelCount - 1];
+        int boxesOffset = boxesOffset(levelCount);
+        int indicesOffset = boxesOffset + 32 * entryCount;
+        if (source.remaining() < indicesOffset + 4 * entryCount)
+            throw new IllegalArgumentException("The buffer does not hold a complete packed R-tree");
+
+        source.position(boxesOffset).limit(indicesOffset);
+        DoubleBuffer boxes = source.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        source.limit(indicesOffset + 4 * entryCount).position(indicesOffset);
+        IntBuffer indices = source.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        return new PackedRTree(nodeCapacity, itemCount, levelBounds, boxes, indices);
+    }
+
+    /**
+     * Maps a file written by {@link #writeTo(OutputStream)} into memory. Only the parts of the tree that are visited
+     * by queries are actually read from the file.
+     *
+     * @param file The file.
+     * @return The tree.
+     * @throws IOException              if the file can not be mapped
+     * @throws IllegalArgumentException if file is null or does not hold a tree
+     */
+    public static PackedRTree map(File file) throws IOException {
+
+        if (file == null)
+            throw new IllegalArgumentException("Argument file cannot be null");
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Writes the tree to the given stream, in a form that can be read back with {@link #read(ByteBuffer)} or
+     * {@link #map(File)}. The stream is not closed.
+     *
+     * @param out The stream.
+     * @throws IOException if the tree can not be written
+     * @throws IllegalArgumentException if out is null
+     */
+    public void writeTo(OutputStream out) throws IOException {
+
+        if (out == null)
+            throw new IllegalArgumentException("Argument out cannot be null");
+
+        int entryCount = getEntryCount();
+        WritableByteChannel channel = Channels.newChannel(out);
+        ByteBuffer buffer = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(nodeCapacity).putInt(itemCount).putInt(levelBounds.length);
+        for (int bound : levelBounds) {
+            flushIfFull(channel, buffer, 4);
+            buffer.putInt(bound);
+        }
+        while (buffer.position() < boxesOffset(levelBounds.length)) {
+            buffer.put((byte) 0);
+        }
+        for (int i = 0; i < 4 * entryCount; i++) {
+            flushIfFull(channel, buffer, 8);
+            buffer.putDouble(boxes.get(i));
+        }
+        for (int i = 0; i < entryCount; i++) {
+            flushIfFull(channel, buffer, 4);
+            buffer.putInt(indices.get(i));
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * @return The number of items, including those that are not indexed.
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * @return The number of indexed items.
+     */
+    public int getIndexedItemCount() {
+        return leafCount;
+    }
+
+    /**
+     * @return The maximum number of children of a node.
+     */
+    public int getNodeCapacity() {
+        return nodeCapacity;
+    }
+
+    /**
+     * Searches the items whose envelope intersects the given envelope (including its boundary).
+     *
+     * @return The item numbers, in ascending order.
+     */
+    public int[] search(double minX, double minY, double maxX, double maxY) {
+
+        int entryCount = getEntryCount();
+        if (entryCount == 0)
+            return new int[0];
+
+        int[] result = new int[16];
+        int resultCount = 0;
+        int[] stack = new int[16];
+        int stackSize = 0;
+        if (intersects(entryCount - 1, minX, minY, maxX, maxY))
+            stack[stackSize++] = entryCount - 1;
+
+        while (stackSize > 0) {
+            int entry = stack[--stackSize];
+            if (entry < leafCount) {
+                if (resultCount == result.length)
+                    result = Arrays.copyOf(result, 2 * resultCount);
+                result[resultCount++] = indices.get(entry);
+                continue;
+            }
+            int end = childEnd(entry);
+            for (int child = indices.get(entry); child < end; child++) {
+                if (intersects(child, minX, minY, maxX, maxY)) {
+                    if (stackSize == stack.length)
+                        stack = Arrays.copyOf(stack, 2 * stackSize);
+                    stack[stackSize++] = child;
+                }
+            }
+        }
+
+        result = Arrays.copyOf(result, resultCount);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Searches the items whose envelopes are nearest to the given point.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @param k The maximum number of items to find.
+     * @return The item numbers, by increasing distance of their envelopes to the point.
+     */
+    public int[] nearest(double x, double y, int k) {
+
+        return nearest(x, y, k, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Searches the items whose envelopes are nearest to the given point, within a maximum distance. Nodes are visited
+     * best first, so only the nodes closer than the k-th item are read.
+     *
+     * @param x           The x-coordinate of the point.
+     * @param y           The y-coordinate of the point.
+     * @param k           The maximum number of items to find.
+     * @param maxDistance The maximum distance of the envelope of an item to the point.
+     * @return The item numbers, by increasing distance of their envelopes to the point.
+     */
+    public int[] nearest(double x, double y, int k, double maxDistance) {
+
+        int entryCount = getEntryCount();
+        if (entryCount == 0 || k <= 0)
+            return new int[0];
+
+        double maxSquaredDistance = maxDistance * maxDistance;
+        int[] result = new int[Math.min(k, leafCount)];
+        int resultCount = 0;
+        EntryQueue queue = new EntryQueue();
+        queue.add(entryCount - 1, squaredDistance(entryCount - 1, x, y));
+
+        while (queue.size > 0 && resultCount < result.length) {
+            if (queue.peekDistance() > maxSquaredDistance)
+                break;
+            int entry = queue.poll();
+            if (entry < leafCount) {
+                result[resultCount++] = indices.get(entry);
+                continue;
+            }
+            int end = childEnd(entry);
+            for (int child = indices.get(entry); child < end; child++) {
+                queue.add(child, squaredDistance(child, x, y));
+            }
+        }
+
+        return resultCount == result.length ? result : Arrays.copyOf(result, resultCount);
+    }
+
+    private int getEntryCount() {
+        return levelBounds.length == 0 ? 0 : levelBounds[levelBounds.length - 1];
+    }
+
+    /**
+     * @return The position after the last child of the given node entry.
+     */
+    private int childEnd(int entry) {
+
+        int level = 1;
+        while (entry >= levelBounds[level]) {
+            level++;
+        }
+        return Math.min(indices.get(entry) + nodeCapacity, levelBounds[level - 1]);
+    }
+
+    private boolean intersects(int entry, double minX, double minY, double maxX, double maxY) {
+
+        return boxes.get(4 * entry) <= maxX && boxes.get(4 * entry + 1) <= maxY
+                && boxes.get(4 * entry + 2) >= minX && boxes.get(4 * entry + 3) >= minY;
+    }
+
+    private double squaredDistance(int entry, double x, double y) {
+
+        double dx = Math.max(Math.max(boxes.get(4 * entry) - x, x - boxes.get(4 * entry + 2)), 0);
+        double dy = Math.max(Math.max(boxes.get(4 * entry + 1) - y, y - boxes.get(4 * entry + 3)), 0);
+        return dx * dx + dy * dy;
+    }
+
+    private static boolean isEmpty(double[] bounds, int item) {
+
+        for (int i = 4 * item; i < 4 * item + 4; i++) {
+            if (Double.isNaN(bounds[i]))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Orders the given entries into tiles: vertical slices of whole nodes, by the x-coordinate of their center, each
+     * sorted by the y-coordinate of the center.
+     */
+    private static Integer[] sortTileRecursive(final double[] entryBoxes, int size, int nodeCapacity) {
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Double.compare(entryBoxes[4 * a] + entryBoxes[4 * a + 2], entryBoxes[4 * b] + entryBoxes[4 * b + 2]);
+            }
+        });
+
+        int nodeCount = (size + nodeCapacity - 1) / nodeCapacity;
+        int sliceSize = (int) Math.ceil(Math.sqrt(nodeCount)) * nodeCapacity;
+        Comparator<Integer> byY = new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Double.compare(entryBoxes[4 * a + 1] + entryBoxes[4 * a + 3], entryBoxes[4 * b + 1] + entryBoxes[4 * b + 3]);
+            }
+        };
+        for (int start = 0; start < size; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(start + sliceSize, size), byY);
+        }
+        return order;
+    }
+
+    private static int boxesOffset(int levelCount) {
+
+        int headerSize = 4 * (HEADER_INTS + levelCount);
+        return (headerSize + 7) & ~7; // align the envelopes on 8 bytes
+    }
+
+    private static void flushIfFull(WritableByteChannel channel, ByteBuffer buffer, int size) throws IOException {
+
+        if (buffer.remaining() < size) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * A binary min-heap of entries by distance, in primitive arrays.
+     */
+    private static final class EntryQueue {
+
+        private int[] entries = new int[64];
+        private double[] distances = new double[64];
+        private int size = 0;
+
+        void add(int entry, double distance) {
+
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, 2 * size);
+                distances = Arrays.copyOf(distances, 2 * size);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] <= distance)
+                    break;
+                entries[i] = entries[parent];
+                distances[i] = distances[parent];
+                i = parent;
+            }
+            entries[i] = entry;
+            distances[i] = distance;
+        }
+
+        double peekDistance() {
+            return distances[0];
+        }
+
+        int poll() {
+
+            int result = entries[0];
+            size--;
+            int lastEntry = entries[size];
+            double lastDistance = distances[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && distances[child + 1] < distances[child])
+                    child++;
+                if (distances[child] >= lastDistance)
+                    break;
+                entries[i] = entries[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            entries[i] = lastEntry;
+            distances[i] = lastDistance;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.geom.Envelope;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.LinearRing;
+import org.geolatte.geom.MultiPolygon;
+import org.geolatte.geom.PointCollection;
+import org.geolatte.geom.Polygon;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * A polygon or multipolygon prepared for fast point location. The edges of all rings are kept in flat arrays and
+ * bucketed into horizontal bands, so locating a point only visits the edges in the band of the point, instead of all
+ * edges. A point is located with the even-odd rule on a horizontal ray, which holds for the holes of a polygon and
+ * the (non-overlapping) polygons of a valid multipolygon.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class PreparedPolygon {
+
+    static final int EXTERIOR = -1;
+    static final int BOUNDARY = 0;
+    static final int INTERIOR = 1;
+
+    private static final int EDGES_PER_BAND = 4;
+    private static final int MAX_BAND_COUNT = 4096;
+    // (3 + 16e)e, with e half the distance between 1 and the next double
+    private static final double ORIENTATION_ERROR_BOUND = (3.0 + 16.0 * 0x1.0p-53) * 0x1.0p-53;
+
+    // x1, y1, x2, y2 of every edge
+    private final double[] edges;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final int bandCount;
+    private final double bandHeight;
+    // The edges of band b are bandEdges[bandStarts[b]] up to bandEdges[bandStarts[b + 1]]
+    private final int[] bandStarts;
+    private final int[] bandEdges;
+
+    /**
+     * @param geometry A non-empty polygon or multipolygon.
+     * @throws IllegalArgumentException if geometry is null, empty, or no polygon or multipolygon
+     */
+    PreparedPolygon(Geometry geometry) {
+
+        if (!(geometry instanceof Polygon) && !(geometry instanceof MultiPolygon) || geometry.isEmpty())
+            throw new IllegalArgumentException("A non-empty polygon or multipolygon is required");
+
+        List<LinearRing> rings = new ArrayList<LinearRing>();
+        if (geometry instanceof Polygon) {
+            addRings((Polygon) geometry, rings);
+        } else {
+            MultiPolygon multiPolygon = (MultiPolygon) geometry;
+            for (int i = 0; i < multiPolygon.getNumGeometries(); i++) {
+                addRings((Polygon) multiPolygon.getGeometryN(i), rings);
+            }
+        }
+
+        int edgeCount = 0;
+        for (LinearRing ring : rings) {
+            edgeCount += Math.max(0, ring.getPoints().size() - 1);
+        }
+        edges = new double[4 * edgeCount];
+        int edge = 0;
+        for (LinearRing ring : rings) {
+            PointCollection points = ring.getPoints();
+            for (int i = 0; i + 1 < points.size(); i++, edge++) {
+                edges[4 * edge] = points.getX(i);
+                edges[4 * edge + 1] = points.getY(i);
+                edges[4 * edge + 2] = points.getX(i + 1);
+                edges[4 * edge + 3] = points.getY(i + 1);
+            }
+        }
+
+        Envelope envelope = geometry.getEnvelope();
+        minX = envelope.getMinX();
+        minY = envelope.getMinY();
+        maxX = envelope.getMaxX();
+        maxY = envelope.getMaxY();
+        bandCount = maxY > minY ? Math.max(1, Math.min(MAX_BAND_COUNT, edgeCount / EDGES_PER_BAND)) : 1;
+        bandHeight = (maxY - minY) / bandCount;
+
+        // Count the edges per band, then fill them in
+        bandStarts = new int[bandCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            for (int band = band(Math.min(edges[4 * i + 1], edges[4 * i + 3])); band <= band(Math.max(edges[4 * i + 1], edges[4 * i + 3])); band++) {
+                bandStarts[band + 1]++;
+            }
+        }
+        for (int band = 0; band < bandCount; band++) {
+            bandStarts[band + 1] += bandStarts[band];
+        }
+        bandEdges = new int[bandStarts[bandCount]];
+        int[] positions = bandStarts.clone();
+        for (int i = 0; i < edgeCount; i++) {
+            for (int band = band(Math.min(edges[4 * i + 1], edges[4 * i + 3])); band <= band(Math.max(edges[4 * i + 1], edges[4 * i + 3])); band++) {
+                bandEdges[positions[band]++] = i;
+            }
+        }
+    }
+
+    Envelope getEnvelope() {
+        return new Envelope(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Locates the given point.
+     *
+     * @return {@link #INTERIOR}, {@link #BOUNDARY} or {@link #EXTERIOR}.
+     */
+    int locate(double x, double y) {
+
+        if (!(x >= minX && x <= maxX && y >= minY && y <= maxY))
+            return EXTERIOR;
+
+        int band = band(y);
+        boolean isInside = false;
+        for (int i = bandStarts[band]; i < bandStarts[band + 1]; i++) {
+            int edge = 4 * bandEdges[i];
+            double x1 = edges[edge];
+            double y1 = edges[edge + 1];
+            double x2 = edges[edge + 2];
+            double y2 = edges[edge + 3];
+
+            boolean isCrossing = (y1 > y) != (y2 > y);
+            boolean isInBox = x >= Math.min(x1, x2) && x <= Math.max(x1, x2) && y >= Math.min(y1, y2) && y <= Math.max(y1, y2);
+            if (!isCrossing && !isInBox)
+                continue;
+
+            int orientation = orientation(x1, y1, x2, y2, x, y);
+            if (orientation == 0 && isInBox)
+                return BOUNDARY;
+
+            // Count the edges that cross the ray to the right of the point (each vertex counts on one side only): the
+            // point lies left of an upward edge, or right of a downward one
+            if (isCrossing && (orientation > 0) == (y2 > y1))
+                isInside = !isInside;
+        }
+        return isInside ? INTERIOR : EXTERIOR;
+    }
+
+    /**
+     * Computes on which side of the line from (x1, y1) to (x2, y2) the point (x, y) lies. The sign is exact: it is
+     * computed in double precision when that is certainly right, as in Shewchuk's adaptive predicates, and exactly
+     * otherwise, so points close to an edge are located as by the (robust) JTS predicates.
+     *
+     * @return A positive number if the point lies to the left, a negative number if it lies to the right, or 0 if it
+     *         lies on the line.
+     */
+    static int orientation(double x1, double y1, double x2, double y2, double x, double y) {
+
+        double left = (x1 - x) * (y2 - y);
+        double right = (y1 - y) * (x2 - x);
+        double determinant = left - right;
+        double errorBound = ORIENTATION_ERROR_BOUND * (Math.abs(left) + Math.abs(right));
+        if (determinant > errorBound)
+            return 1;
+        if (-determinant > errorBound)
+            return -1;
+
+        BigDecimal px = new BigDecimal(x);
+        BigDecimal py = new BigDecimal(y);
+        return new BigDecimal(x1).subtract(px).multiply(new BigDecimal(y2).subtract(py))
+                .subtract(new BigDecimal(y1).subtract(py).multiply(new BigDecimal(x2).subtract(px))).signum();
+    }
+
+    private int band(double y) {
+
+        int band = (int) ((y - minY) / bandHeight);
+        return band < 0 ? 0 : (band >= bandCount ? bandCount - 1 : band);
+    }
+
+    private static void addRings(Polygon polygon, List<LinearRing> rings) {
+
+        if (polygon.isEmpty())
+            return;
+        rings.add(polygon.getExteriorRing());
+        for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+            rings.add(polygon.getInteriorRingN(i));
+        }
+    }
+}
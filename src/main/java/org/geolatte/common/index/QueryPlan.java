@@ -0,0 +1,84 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.Filter;
+
+/**
+ * <p>
+ * How an {@link IndexedCollection} evaluates a filter: the condition it looks up in an index, if any, and the residual
+ * filter it evaluates on the rows found (or on all rows, without an index).
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class QueryPlan {
+
+    private final Expression<Boolean> indexedCondition;
+    private final Index index;
+    private final Index.Lookup lookup;
+    private final Filter residualFilter;
+
+    QueryPlan(Expression<Boolean> indexedCondition, Index index, Index.Lookup lookup, Filter residualFilter) {
+
+        this.indexedCondition = indexedCondition;
+        this.index = index;
+        this.lookup = lookup;
+        this.residualFilter = residualFilter;
+    }
+
+    /**
+     * @return The condition looked up in an index, or null if the filter is evaluated on all objects.
+     */
+    public Expression<Boolean> getIndexedCondition() {
+        return indexedCondition;
+    }
+
+    /**
+     * @return The indexed property used, or null if the filter is evaluated on all objects.
+     */
+    public Expression<?> getIndexedProperty() {
+        return index == null ? null : index.getProperty();
+    }
+
+    /**
+     * @return The number of objects the residual filter is evaluated on, or -1 if it is evaluated on all objects.
+     */
+    public int getCandidateCount() {
+        return lookup == null ? -1 : lookup.getCandidateCount();
+    }
+
+    /**
+     * @return The filter evaluated on the candidates, or null if all candidates match.
+     */
+    public Filter getResidualFilter() {
+        return residualFilter;
+    }
+
+    Index.Lookup getLookup() {
+        return lookup;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.expressions.DateProperty;
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.NumberProperty;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * <p>
+ * An index that keeps the rows sorted by the value of a number, date or string property, in primitive arrays. Looks
+ * up comparisons with constants, ranges, (IN) sets and, for dates, BEFORE, AFTER and DURING with a binary search per
+ * bound.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class SortedIndex extends Index {
+
+    private final int[] rows;
+    // The sorted values: numbers and times in numbers, strings in strings
+    private final double[] numbers;
+    private final String[] strings;
+    private final int[] nanRows;
+
+    /**
+     * @param property A number, date or string property.
+     * @param objects The objects to index, by row.
+     */
+    SortedIndex(Expression<?> property, List<?> objects) {
+
+        super(property);
+
+        int size = objects.size();
+        final double[] numberValues = new double[size];
+        final String[] stringValues = new String[size];
+        Integer[] order = new Integer[size];
+        int count = 0;
+        int nanCount = 0;
+        int[] nans = new int[size];
+        boolean isNumber = property instanceof NumberProperty || property instanceof DateProperty;
+        for (int row = 0; row < size; row++) {
+            Object value = readValue(objects.get(row));
+            if (value == null)
+                continue;
+            if (isNumber) {
+                double number = value instanceof Date ? ((Date) value).getTime() : ((Number) value).doubleValue() + 0.0;
+                if (Double.isNaN(number)) {
+                    nans[nanCount++] = row;
+                    continue;
+                }
+                numberValues[row] = number;
+            } else {
+                stringValues[row] = (String) value;
+            }
+            order[count++] = row;
+        }
+
+        // A stable sort, so rows with the same value stay in ascending order
+        Arrays.sort(order, 0, count, isNumber
+                ? new Comparator<Integer>() {
+                    public int compare(Integer row, Integer other) {
+                        return Double.compare(numberValues[row], numberValues[other]);
+                    }
+                }
+                : new Comparator<Integer>() {
+                    public int compare(Integer row, Integer other) {
+                        return stringValues[row].compareTo(stringValues[other]);
+                    }
+                });
+
+        rows = new int[count];
+        numbers = isNumber ? new double[count] : null;
+        strings = isNumber ? null : new String[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = order[i];
+            if (isNumber)
+                numbers[i] = numberValues[order[i]];
+            else
+                strings[i] = stringValues[order[i]];
+        }
+        nanRows = Arrays.copyOf(nans, nanCount);
+    }
+
+    @Override
+    Lookup lookUp(Expression<Boolean> condition) {
+
+        Values values = toValues(condition);
+        if (values == null)
+            return null;
+
+        final int[] from;
+        final int[] to;
+        if (values.set != null) {
+            LinkedHashSet<Object> distinct = new LinkedHashSet<Object>(values.set);
+            from = new int[distinct.size()];
+            to = new int[distinct.size()];
+            int i = 0;
+            for (Object value : distinct) {
+                from[i] = search(value, false);
+                to[i] = search(value, true);
+                i++;
+            }
+        } else {
+            from = new int[]{values.low == null ? 0 : search(values.low, !values.isLowIncluded)};
+            to = new int[]{values.high == null ? rows.length : search(values.high, values.isHighIncluded)};
+        }
+        final int[] extraRows = values.matchesNaN ? nanRows : null;
+
+        return new Lookup() {
+            int getCandidateCount() {
+                int count = extraRows == null ? 0 : extraRows.length;
+                for (int i = 0; i < from.length; i++) {
+                    count += Math.max(0, to[i] - from[i]);
+                }
+                return count;
+            }
+
+            int[] getRows() {
+                return collectRows(rows, from, to, extraRows);
+            }
+
+            boolean isExact() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Searches the position of the given value in the sorted values.
+     *
+     * @param value The value to search.
+     * @param isAfter Whether to return the position after the last equal value, instead of the first equal value.
+     * @return The position.
+     */
+    private int search(Object value, boolean isAfter) {
+
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = numbers != null ? Double.compare(numbers[middle], (Double) value)
+                    : strings[middle].compareTo((String) value);
+            if (comparison < 0 || (isAfter && comparison == 0))
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+}
@@ -3,18 +3,27 @@ package org.geolatte.common.reflection;
 import org.geolatte.geom.Geometry;
 import org.geolatte.geom.jts.JTS;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 /**
  * A <code>Accessor</code> retrieves a property value from an object by means of reflection.
  * <br>
  * <p>This abstraction allows us to massage the return value of a Method.invoke() before using it,
  * e.g. so that we can first transform if from JTS Geometry to Geolatte Geometry.</p>
+ * <p>Whenever the getter is accessible, it is bound once to a JDK-generated {@link Getter}, so that fetching a value is
+ * a plain interface call to the getter instead of a reflective <code>Method.invoke()</code>. Otherwise the accessor
+ * falls back to reflection.</p>
  *
  * @author Karel Maesen, Geovise BVBA, 2012
  */
-abstract class Accessor {
+abstract class Accessor implements PropertyReader {
 
     static Accessor newInstance(Method accessorMethod, String propertyName) {
         if (com.vividsolutions.jts.geom.Geometry.class.isAssignableFrom(
@@ -25,11 +34,52 @@ abstract class Accessor {
         }
     }
 
-    abstract Object getValueFrom(Object object);
+    public abstract Object getValueFrom(Object object);
 
-    abstract String getPropertyName();
+    public abstract String getPropertyName();
 
-    abstract Class getReturnType();
+    public abstract Class getReturnType();
+
+    /**
+     * Fetches the value of a property directly. Implementations are generated per getter by {@link #bind(Method)}.
+     */
+    public interface Getter {
+        Object get(Object target);
+    }
+
+    /**
+     * Binds the given getter to a generated {@link Getter} implementation that calls it directly.
+     *
+     * @param method the getter to bind
+     * @return the generated getter, or null if the method can not be bound, e.g. because it or its class is not
+     *         public, or because its class is not visible from the class loader of this library.
+     */
+    static Getter bind(Method method) {
+        Class declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())
+                || Modifier.isStatic(method.getModifiers()) || !isVisible(declaringClass)) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Getter.class),
+                    MethodType.methodType(Object.class, Object.class), handle, handle.type().wrap());
+            return (Getter) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static boolean isVisible(Class type) {
+        try {
+            return Class.forName(type.getName(), false, Accessor.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
 
     /**
      * A <code>Accessor</code> returns the value of a property from a targetObject
@@ -37,13 +87,23 @@ abstract class Accessor {
     private static class BasicAccessor extends Accessor {
         final Method accessorMethod;
         final String propertyName;
+        final Getter getter;
 
         BasicAccessor(Method method, String name) {
             accessorMethod = method;
             propertyName = name;
+            getter = bind(method);
         }
 
-        Object getValueFrom(Object object) {
+        public Object getValueFrom(Object object) {
+            if (getter != null) {
+                try {
+                    return getter.get(object);
+                } catch (Throwable e) {
+                    // Anything the getter throws, wrapped as by Method.invoke
+                    throw new IllegalStateException("Failed to fetch value", new InvocationTargetException(e));
+                }
+            }
             try {
                 return accessorMethod.invoke(object);
             } catch (IllegalAccessException e) {
@@ -53,11 +113,11 @@ abstract class Accessor {
             }
         }
 
-        String getPropertyName() {
+        public String getPropertyName() {
             return propertyName;
         }
 
-        Class getReturnType(){
+        public Class getReturnType(){
             return accessorMethod.getReturnType();
         }
 
@@ -69,12 +129,12 @@ abstract class Accessor {
             super(accessor, propertyName);
         }
 
-        Object getValueFrom(Object object) {
+        public Object getValueFrom(Object object) {
             Object value = super.getValueFrom(object);
             return value == null ? null : JTS.from((com.vividsolutions.jts.geom.Geometry) value);
         }
 
-        Class getReturnType() {
+        public Class getReturnType() {
             return Geometry.class;
         }
 
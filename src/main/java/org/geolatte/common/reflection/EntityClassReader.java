@@ -24,9 +24,7 @@ package org.geolatte.common.reflection;
 import org.geolatte.common.Feature;
 import org.geolatte.geom.Geometry;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
 import java.util.*;
 
@@ -66,32 +64,10 @@ public class EntityClassReader {
 
     // Class mapped by this reader
     private Class entityClass;
-    /*
-     * The declaredmethods of the feature-interface which is accessed by the proxy implementation
-     */
-    final static private Method proxyIdGetMethod;
-    final static private Method proxyExistsMethod;
-    final static private Method proxyGeomGetMethod;
-    final static private Method proxyGeomNameGetMethod;
-    final static private Method proxyPropertiesGetMethod;
-    final static private Method proxyAttributeGetMethod;
-
-    static {
-        Class[] emptyArray = new Class[]{};
-        try {
-            proxyGeomGetMethod = Feature.class.getDeclaredMethod("getGeometry", emptyArray);
-            proxyGeomNameGetMethod = Feature.class.getDeclaredMethod("getGeometryName", emptyArray);
-            proxyIdGetMethod = Feature.class.getDeclaredMethod("getId", emptyArray);
-            proxyExistsMethod = Feature.class.getDeclaredMethod("hasProperty", new Class[]{String.class, boolean.class});
-            proxyAttributeGetMethod = Feature.class.getDeclaredMethod("getProperty", new Class[]{String.class});
-            proxyPropertiesGetMethod = Feature.class.getDeclaredMethod("getProperties", emptyArray);
-        } catch (NoSuchMethodException e) {
-            // This can not happen,  since we control the feature interface class. So this must be some version-
-            // error in the geolatte library!
-            throw new RuntimeException("Version mismatch: apparently certain methods are not present in the Feature interface", e);
-        }
-    }
 
+    // Array-indexed table of the normal properties, shared by the feature adapters of this reader
+    private final Accessor[] propertyAccessors;
+    private final Map<String, Integer> propertyIndexes = new HashMap<String, Integer>();
 
     private static String determineGeomProperty(Class entityClass) {
         if (entityClass == null) return null;
@@ -160,6 +136,12 @@ public class EntityClassReader {
             }
 
         }
+        String[] propertyNames = accessorMap.keySet().toArray(new String[accessorMap.size()]);
+        propertyAccessors = new Accessor[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            propertyAccessors[i] = accessorMap.get(propertyNames[i]);
+            propertyIndexes.put(propertyNames[i], i);
+        }
     }
 
     private boolean isPropertyIdProperty(String idPropertyName, String propertyName) {
@@ -405,6 +387,38 @@ public class EntityClassReader {
         }
     }
 
+    /**
+     * Resolves the given property path once and returns a reader that retrieves its value from objects of the
+     * entity class of this reader. Unlike {@link #getPropertyValue(Object, String)}, a direct (non-dotted) property name
+     * may also denote the id or geometry property.
+     *
+     * @param propertyPath The dot-separated path of the property to read. E.g. directly property: "name",
+     *                     sub property: "streetAddress.number"
+     * @return a reader for the given property, or null if the first part of the path is not a property of the class
+     *         managed by this reader.
+     * @throws IllegalArgumentException if propertyPath is null.
+     */
+    public PropertyReader getPropertyReader(String propertyPath) {
+
+        if (propertyPath == null) {
+            throw new IllegalArgumentException("Propertyname may not be null");
+        }
+
+        if (propertyPath.indexOf('.') < 0) {
+            if (accessorMap.containsKey(propertyPath)) {
+                return accessorMap.get(propertyPath);
+            } else if (propertyPath.equals(getIdName())) {
+                return idAccessor;
+            } else if (propertyPath.equals(getGeometryName())) {
+                return geometryAccessor;
+            }
+            return null;
+        }
+
+        Class propertyType = getPropertyType(propertyPath);
+        return propertyType == null ? null : new PathPropertyReader(propertyPath, propertyType);
+    }
+
     /**
      * Returns whether a 'normal' property exists with a given name. A property a is said to exist
      * if the underlying class contains a method A getA().
@@ -441,8 +455,10 @@ public class EntityClassReader {
      * Wraps the given object in a feature interface. This method will first validate whether the
      * class it represents is indeed a feature (containing exactly one geometry and id) and will then
      * generate a wrapper around the original object that obeys to the Feature interface.
-     * If this method is invoked multiple times on the same object, the same wrapper will be returned in
-     * each of these calls.
+     * <br>
+     * The wrapper calls the getters of the object directly through the property table of this reader, which is built
+     * once per entity class, so reading a property of the feature costs little more than calling its getter.
+     * Wrappers of the same object are equal.
      *
      * @param objectToTransform the object for which a feature is desired.
      * @return a feature wrapper around the given object
@@ -457,9 +473,42 @@ public class EntityClassReader {
         if (objectToTransform.getClass() != entityClass) {
             throw new InvalidObjectReaderException("Class of target object does not correspond with entityclass of this reader.");
         }
-        Feature proxy = (Feature) Proxy.newProxyInstance(entityClass.getClassLoader(),
-                new Class[]{Feature.class}, new ObjectInvocationHandler(objectToTransform));
-        return proxy;
+        return new FeatureAdapter(this, objectToTransform);
+    }
+
+    /**
+     * Returns the index of the given normal property in the property table of this reader.
+     *
+     * @param propertyName the name of the property
+     * @return the index, or -1 if no normal property exists with the given name
+     */
+    int getPropertyIndex(String propertyName) {
+        Integer index = propertyIndexes.get(propertyName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param index the index of a normal property in the property table of this reader
+     * @return the accessor of the property at the given index
+     */
+    Accessor getPropertyAccessor(int index) {
+        return propertyAccessors[index];
+    }
+
+    Accessor getIdAccessor() {
+        return idAccessor;
+    }
+
+    Accessor getGeometryAccessor() {
+        return geometryAccessor;
+    }
+
+    /**
+     * Returns the value of a property path without validating the object. Used by the feature adapters, whose object
+     * was validated when the adapter was created.
+     */
+    Object getPathValue(Object objectToGet, String propertyPath) {
+        return getPropertyValue(objectToGet, new StringTokenizer(propertyPath, ".", false));
     }
 
     private static String propertyName(Method m) {
@@ -489,7 +538,21 @@ public class EntityClassReader {
         if (propertyType == null) {
             return null;
         }
-        NumberTransformer parser = transformers.get(propertyType);
+        return parseAsType(stringToParse, propertyType);
+    }
+
+    /**
+     * Parses a given string into an object of the given type, using the same conversions as
+     * {@link #parseAsPropertyType(String, String)}. This allows callers that convert many values of the same property
+     * to resolve the type of the property only once.
+     *
+     * @param stringToParse The string to convert into an object
+     * @param type          The type to convert to. For primitive types, the boxed variant is returned.
+     * @return A converted instance of the given string. If the type is not a supported type, the original string is
+     *         returned.
+     */
+    public static Object parseAsType(String stringToParse, Class type) {
+        NumberTransformer parser = transformers.get(type);
         return parser == null ? stringToParse : parser.parseObject(stringToParse);
     }
 
@@ -507,34 +570,27 @@ public class EntityClassReader {
     }
 
     /**
-     * The objectinvocationhandler class is an internal class that implements the proxy interface of a feature
-     * by redirecting their calls to the creating entityclassreader.
+     * Reads a nested property path by walking the readers of the intermediate values.
      */
-    class ObjectInvocationHandler implements InvocationHandler {
-        private Object target;
-
-        ObjectInvocationHandler(Object targetObject) {
-            target = targetObject;
-        }
-
-        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            if (proxyAttributeGetMethod.equals(method)) {
-                return EntityClassReader.this.getPropertyValue(target, (String) args[0]);
-            } else if (proxyIdGetMethod.equals(method)) {
-                return EntityClassReader.this.getId(target);
-            } else if (proxyGeomGetMethod.equals(method)) {
-                return EntityClassReader.this.getGeometry(target);
-            } else if (proxyGeomNameGetMethod.equals(method)) {
-                return EntityClassReader.this.getGeometryName();
-            } else if (proxyPropertiesGetMethod.equals(method)) {
-                return EntityClassReader.this.getProperties();
-            } else if (proxyExistsMethod.equals(method)) {
-                return EntityClassReader.this.exists((String) args[0], (Boolean) args[1]);
-            } else {
-                // This should not happen! I use a runtimeexception since we can not
-                // change the interface of the invoke method.
-                throw new RuntimeException("Unexisting method invoked on proxy.");
-            }
+    private class PathPropertyReader implements PropertyReader {
+        private final String propertyPath;
+        private final Class propertyType;
+
+        PathPropertyReader(String propertyPath, Class propertyType) {
+            this.propertyPath = propertyPath;
+            this.propertyType = propertyType;
+        }
+
+        public String getPropertyName() {
+            return propertyPath;
+        }
+
+        public Class getReturnType() {
+            return propertyType;
+        }
+
+        public Object getValueFrom(Object object) {
+            return EntityClassReader.this.getPropertyValue(object, new StringTokenizer(propertyPath, ".", false));
         }
     }
 
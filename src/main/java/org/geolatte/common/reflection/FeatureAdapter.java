@@ -0,0 +1,156 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.reflection;
+
+import org.geolatte.common.Feature;
+import org.geolatte.geom.Geometry;
+
+import java.util.Collection;
+
+/**
+ * <p>
+ * The {@link Feature} view on an object, as returned by {@link EntityClassReader#asFeature(Object)}. All adapters of
+ * an entity class share the property table of its reader: a property name is resolved to an index once per call and
+ * its value is fetched through the accessor at that index, which calls the getter of the object directly.
+ * </p>
+ * <p>
+ * The object is validated against the entity class of the reader when the adapter is created, so the adapter itself
+ * does no further checks.
+ * </p>
+ * <p>
+ * A reusable adapter is a flyweight view that is re-bound to one object after another (see
+ * {@link ObjectToFeatureTransformation#ObjectToFeatureTransformation(boolean)}). It is only valid until it is bound to
+ * the next object; {@link #detach()} returns an adapter that can be retained.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class FeatureAdapter implements Feature {
+
+    private final EntityClassReader reader;
+    private final boolean isReusable;
+    private Object target;
+
+    FeatureAdapter(EntityClassReader reader, Object target) {
+        this(reader, target, false);
+    }
+
+    /**
+     * @param reader     the reader of the entity class of the objects to wrap
+     * @param target     the object to wrap, of the entity class of the reader. May be null for a reusable adapter that
+     *                   is bound later.
+     * @param isReusable whether the adapter may be re-bound to other objects
+     */
+    FeatureAdapter(EntityClassReader reader, Object target, boolean isReusable) {
+        this.reader = reader;
+        this.target = target;
+        this.isReusable = isReusable;
+    }
+
+    /**
+     * Re-binds this reusable adapter to the given object.
+     *
+     * @param newTarget the object to wrap, of the entity class of the reader
+     * @throws IllegalStateException if this adapter is not reusable
+     */
+    void bind(Object newTarget) {
+        if (!isReusable) {
+            throw new IllegalStateException("Only a reusable feature adapter can be re-bound");
+        }
+        target = newTarget;
+    }
+
+    /**
+     * Returns an adapter around the current object that is never re-bound.
+     *
+     * @return this adapter if it is not reusable, a new adapter around the current object otherwise
+     */
+    FeatureAdapter detach() {
+        return isReusable ? new FeatureAdapter(reader, target, false) : this;
+    }
+
+    public boolean hasProperty(String propertyName, boolean trueForSpecialProperties) {
+        return reader.exists(propertyName, trueForSpecialProperties);
+    }
+
+    public Collection<String> getProperties() {
+        return reader.getProperties();
+    }
+
+    public Object getProperty(String propertyName) {
+        if (propertyName == null) {
+            throw new IllegalArgumentException("Given object/propertyname may not be null");
+        }
+        int index = reader.getPropertyIndex(propertyName);
+        if (index >= 0) {
+            return reader.getPropertyAccessor(index).getValueFrom(target);
+        }
+        if (propertyName.indexOf('.') < 0) {
+            return null;
+        }
+        return reader.getPathValue(target, propertyName);
+    }
+
+    public Object getId() {
+        Accessor idAccessor = reader.getIdAccessor();
+        return idAccessor == null ? null : idAccessor.getValueFrom(target);
+    }
+
+    public Geometry getGeometry() {
+        Accessor geometryAccessor = reader.getGeometryAccessor();
+        return geometryAccessor == null ? null : (Geometry) geometryAccessor.getValueFrom(target);
+    }
+
+    public String getGeometryName() {
+        return reader.getGeometryName();
+    }
+
+    public boolean hasId() {
+        return reader.getIdAccessor() != null;
+    }
+
+    public boolean hasGeometry() {
+        return reader.getGeometryAccessor() != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FeatureAdapter that = (FeatureAdapter) o;
+        return reader == that.reader && target.equals(that.target);
+    }
+
+    @Override
+    public int hashCode() {
+        return target.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Feature[" + target + "]";
+    }
+}
@@ -26,12 +26,20 @@ import org.geolatte.common.transformer.Transformation;
 import org.geolatte.common.transformer.TransformationException;
 
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A base transformation that wraps any given object into a feature interface. The transformation
  * may be subsequently called with objects of different classes.
  * If a given object is null, null will be returned as output.
-
+ * <p>
+ * By default, every call returns a new feature. In streaming mode, the transformation instead keeps one feature view
+ * per thread and per class and re-binds it to each new object, so that converting a stream of objects allocates next
+ * to nothing per object. A feature returned in streaming mode is only valid until the next call of
+ * {@link #transform(Object)} on the same thread: it suits consumers that handle each feature immediately on the same
+ * thread, such as serializing sinks. Consumers that keep features, or hand them to other threads, must
+ * {@link #retain(Feature)} them first.
+ * </p>
  * <p>
  * <i>Creation-Date</i>: 23-apr-2010<br>
  * <i>Creation-Time</i>: 12:41:46<br>
@@ -43,15 +51,67 @@ import java.util.HashMap;
  */
 public class ObjectToFeatureTransformation<Source> implements Transformation<Source, Feature> {
 
+    private final boolean isStreaming;
+
+    // The reusable feature views of the current thread, per entity class. Only used in streaming mode.
+    private final ThreadLocal<Map<Class, FeatureAdapter>> views = new ThreadLocal<Map<Class, FeatureAdapter>>() {
+        @Override
+        protected Map<Class, FeatureAdapter> initialValue() {
+            return new HashMap<Class, FeatureAdapter>();
+        }
+    };
+
+    /**
+     * Constructs a transformation that returns a new feature for every object.
+     */
+    public ObjectToFeatureTransformation() {
+        this(false);
+    }
+
+    /**
+     * Constructs a transformation.
+     *
+     * @param streaming whether to reuse one feature view per thread and class, which is only valid until the next
+     *                  call of {@link #transform(Object)} on the same thread. See {@link #retain(Feature)}.
+     */
+    public ObjectToFeatureTransformation(boolean streaming) {
+        isStreaming = streaming;
+    }
+
+    /**
+     * Returns a feature that remains valid after the transformation that created the given feature is called again.
+     * Consumers that keep features produced in streaming mode must call this method on them.
+     *
+     * @param feature a feature, possibly a reusable view created in streaming mode
+     * @return a feature that is never re-bound; the given feature itself if it is not a reusable view. Null if the given
+     *         feature is null.
+     */
+    public static Feature retain(Feature feature) {
+        if (feature instanceof FeatureAdapter) {
+            return ((FeatureAdapter) feature).detach();
+        }
+        return feature;
+    }
+
     /**
      * Transforms any object into a feature. If the given object is null, null is returned.
      * @param input The given input
-     * @return a feature-wrapper around the given object
+     * @return a feature-wrapper around the given object. In streaming mode, the wrapper is re-bound to the next object
+     *         transformed on the same thread.
      * @throws TransformationException if the object can not be completed
      */
     public Feature transform(Source input) throws TransformationException {
         if (input == null) {
             return null;
+        } else if (isStreaming) {
+            Map<Class, FeatureAdapter> threadViews = views.get();
+            FeatureAdapter view = threadViews.get(input.getClass());
+            if (view == null) {
+                view = new FeatureAdapter(EntityClassReader.getClassReaderFor(input.getClass()), null, true);
+                threadViews.put(input.getClass(), view);
+            }
+            view.bind(input);
+            return view;
         } else {
             EntityClassReader reader = EntityClassReader.getClassReaderFor(input.getClass());
             try {
@@ -0,0 +1,61 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.reflection;
+
+/**
+ * <p>
+ * A resolved accessor for one property of an entity class, obtained through
+ * {@link EntityClassReader#getPropertyReader(String)}. Resolving a property once and reusing the reader avoids the
+ * name lookup that {@link EntityClassReader#getPropertyValue(Object, String)} performs on every call, which matters
+ * when the same properties are read from a large number of objects.
+ * </p>
+ * <p>
+ * A reader does not verify the class of the objects it is given: callers are expected to only pass instances of the
+ * entity class of the reader it was obtained from.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public interface PropertyReader {
+
+    /**
+     * @return The name (or dot-separated path) of the property read by this reader.
+     */
+    public String getPropertyName();
+
+    /**
+     * @return The type of the property read by this reader. JTS geometries are reported as geolatte geometries.
+     */
+    public Class getReturnType();
+
+    /**
+     * Reads the property from the given object.
+     *
+     * @param object An instance of the entity class this reader was obtained for, not null.
+     * @return The value of the property, null if the value or an intermediate value in the path is null.
+     * @throws IllegalStateException if the value can not be retrieved from the object.
+     */
+    public Object getValueFrom(Object object);
+}
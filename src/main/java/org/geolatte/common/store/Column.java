@@ -0,0 +1,369 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A single property column of a {@link FeatureStore}. Values are kept in primitive arrays according to the kind of the
+ * column: integral numbers in a <code>long[]</code>, other numbers in a <code>double[]</code>, dates as epoch
+ * milliseconds in a <code>long[]</code>, booleans in a bitset and strings dictionary-encoded as <code>int</code> codes.
+ * Values of any other type, and columns whose values have mixed types, are kept as objects.
+ * </p>
+ * <p>
+ * The kind of a column is determined by its first non-null value while the store is being built. An integral column
+ * that receives a floating point value is promoted to a floating point column; any other mismatch turns the column into
+ * an object column. Columns are immutable once the store is built.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class Column {
+
+    static final int UNKNOWN = 0;
+    static final int LONG = 1;
+    static final int DOUBLE = 2;
+    static final int STRING = 3;
+    static final int DATE = 4;
+    static final int BOOLEAN = 5;
+    static final int OBJECT = 6;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String name;
+    private int kind = UNKNOWN;
+    private int capacity = 0;
+
+    // Rows for which the feature has the property, and rows for which its value is not null
+    private final BitSet present = new BitSet();
+    private final BitSet nonNull = new BitSet();
+
+    // The value storage; which of these is used depends on the kind of the column
+    private long[] longs;
+    private double[] doubles;
+    private int[] codes;
+    private Object[] objects;
+    private BitSet booleans;
+
+    // The dictionary of a string column
+    private String[] dictionary;
+    private int dictionarySize;
+    private Map<String, Integer> codesByValue;
+
+    // The class of the numbers of a number column, so that values are returned with their original type
+    private Class numberType;
+
+    // The values of a LONG column as doubles, derived on first use
+    private volatile double[] doubleView;
+
+    Column(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getKind() {
+        return kind;
+    }
+
+    /**
+     * Sets the value of the property for the given row, which is marked as having the property.
+     *
+     * @param row   the row, rows are set in increasing order
+     * @param value the value, may be null
+     */
+    void set(int row, Object value) {
+        present.set(row);
+        if (value == null) {
+            return;
+        }
+
+        int valueKind = kindOf(value);
+        if (kind == UNKNOWN) {
+            kind = valueKind;
+            numberType = value.getClass();
+        } else if (kind == LONG && valueKind == DOUBLE) {
+            promoteToDouble();
+        } else if (kind == DOUBLE && valueKind == LONG) {
+            numberType = Double.class;
+        } else if (kind != valueKind && kind != OBJECT) {
+            promoteToObject();
+        }
+        if ((kind == LONG || kind == DOUBLE) && numberType != value.getClass()) {
+            numberType = kind == LONG ? Long.class : Double.class;
+        }
+
+        ensureCapacity(row + 1);
+        nonNull.set(row);
+        switch (kind) {
+            case LONG:
+                longs[row] = ((Number) value).longValue();
+                break;
+            case DOUBLE:
+                doubles[row] = ((Number) value).doubleValue();
+                break;
+            case STRING:
+                codes[row] = encode((String) value);
+                break;
+            case DATE:
+                longs[row] = ((Date) value).getTime();
+                break;
+            case BOOLEAN:
+                booleans.set(row, (Boolean) value);
+                break;
+            default:
+                objects[row] = value;
+        }
+    }
+
+    /**
+     * Trims the storage of this column to the given number of rows, after which it is no longer changed.
+     *
+     * @param rowCount the number of rows of the store
+     */
+    void trim(int rowCount) {
+        ensureCapacity(rowCount);
+        capacity = rowCount;
+        if (longs != null) longs = Arrays.copyOf(longs, rowCount);
+        if (doubles != null) doubles = Arrays.copyOf(doubles, rowCount);
+        if (codes != null) codes = Arrays.copyOf(codes, rowCount);
+        if (objects != null) objects = Arrays.copyOf(objects, rowCount);
+        if (dictionary != null) dictionary = Arrays.copyOf(dictionary, dictionarySize);
+    }
+
+    boolean isPresent(int row) {
+        return present.get(row);
+    }
+
+    BitSet getPresent() {
+        return present;
+    }
+
+    BitSet getNonNull() {
+        return nonNull;
+    }
+
+    /**
+     * @return the values of a LONG or DATE column
+     */
+    long[] getLongs() {
+        return longs;
+    }
+
+    /**
+     * @return the values of a DOUBLE column, or of a LONG column converted to doubles
+     */
+    double[] getDoubles() {
+        if (kind == DOUBLE) {
+            return doubles;
+        }
+        double[] view = doubleView;
+        if (view == null && kind == LONG) {
+            view = new double[longs.length];
+            for (int i = 0; i < view.length; i++) {
+                view[i] = longs[i];
+            }
+            doubleView = view;
+        }
+        return view;
+    }
+
+    /**
+     * @return the dictionary codes of a STRING column, per row
+     */
+    int[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * @return the distinct values of a STRING column, indexed by code
+     */
+    String[] getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @param value a string value
+     * @return the code of the given value in the dictionary of a STRING column, or -1 if no row has the value
+     */
+    int getCode(String value) {
+        Integer code = codesByValue == null ? null : codesByValue.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * @return the rows of a BOOLEAN column whose value is true
+     */
+    BitSet getBooleans() {
+        return booleans;
+    }
+
+    /**
+     * Returns the value of the given row, boxed in the type it was added with (numbers of mixed types are returned as
+     * Long or Double).
+     *
+     * @param row the row
+     * @return the value, or null if the row has no value for this column
+     */
+    Object get(int row) {
+        if (!nonNull.get(row)) {
+            return null;
+        }
+        switch (kind) {
+            case LONG:
+                return boxLong(longs[row]);
+            case DOUBLE:
+                return numberType == Float.class ? (Object) (float) doubles[row] : (Object) doubles[row];
+            case STRING:
+                return dictionary[codes[row]];
+            case DATE:
+                return new Date(longs[row]);
+            case BOOLEAN:
+                return booleans.get(row);
+            default:
+                return objects[row];
+        }
+    }
+
+    private Object boxLong(long value) {
+        if (numberType == Integer.class) {
+            return (int) value;
+        } else if (numberType == Short.class) {
+            return (short) value;
+        } else if (numberType == Byte.class) {
+            return (byte) value;
+        }
+        return value;
+    }
+
+    private static int kindOf(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return LONG;
+        } else if (value instanceof Double || value instanceof Float) {
+            return DOUBLE;
+        } else if (value instanceof String) {
+            return STRING;
+        } else if (value.getClass() == Date.class) {
+            return DATE;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        }
+        return OBJECT;
+    }
+
+    private int encode(String value) {
+        Integer code = codesByValue.get(value);
+        if (code == null) {
+            if (dictionarySize == dictionary.length) {
+                dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+            }
+            code = dictionarySize;
+            dictionary[dictionarySize++] = value;
+            codesByValue.put(value, code);
+        }
+        return code;
+    }
+
+    private void ensureCapacity(int rowCount) {
+        if (kind == UNKNOWN || (rowCount <= capacity && storageAllocated())) {
+            return;
+        }
+        int newCapacity = Math.max(rowCount, Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1)));
+        switch (kind) {
+            case LONG:
+            case DATE:
+                longs = longs == null ? new long[newCapacity] : Arrays.copyOf(longs, newCapacity);
+                break;
+            case DOUBLE:
+                doubles = doubles == null ? new double[newCapacity] : Arrays.copyOf(doubles, newCapacity);
+                break;
+            case STRING:
+                codes = codes == null ? new int[newCapacity] : Arrays.copyOf(codes, newCapacity);
+                if (dictionary == null) {
+                    dictionary = new String[INITIAL_CAPACITY];
+                    codesByValue = new HashMap<String, Integer>();
+                }
+                break;
+            case BOOLEAN:
+                if (booleans == null) {
+                    booleans = new BitSet();
+                }
+                break;
+            default:
+                objects = objects == null ? new Object[newCapacity] : Arrays.copyOf(objects, newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    private boolean storageAllocated() {
+        switch (kind) {
+            case LONG:
+            case DATE:
+                return longs != null;
+            case DOUBLE:
+                return doubles != null;
+            case STRING:
+                return codes != null;
+            case BOOLEAN:
+                return booleans != null;
+            default:
+                return objects != null;
+        }
+    }
+
+    private void promoteToDouble() {
+        int length = longs == null ? 0 : longs.length;
+        doubles = new double[Math.max(length, capacity)];
+        for (int i = 0; i < length; i++) {
+            doubles[i] = longs[i];
+        }
+        longs = null;
+        kind = DOUBLE;
+        numberType = Double.class;
+    }
+
+    private void promoteToObject() {
+        Object[] values = new Object[Math.max(capacity, INITIAL_CAPACITY)];
+        for (int i = nonNull.nextSetBit(0); i >= 0; i = nonNull.nextSetBit(i + 1)) {
+            values[i] = get(i);
+        }
+        longs = null;
+        doubles = null;
+        codes = null;
+        booleans = null;
+        dictionary = null;
+        codesByValue = null;
+        objects = values;
+        capacity = values.length;
+        kind = OBJECT;
+    }
+}
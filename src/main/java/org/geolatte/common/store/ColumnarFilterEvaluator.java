@@ -0,0 +1,896 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import org.geolatte.common.expressions.*;
+import org.geolatte.common.expressions.geo.BooleanBinaryGeometryExpression;
+import org.geolatte.common.expressions.geo.GeoContains;
+import org.geolatte.common.expressions.geo.GeoEquals;
+import org.geolatte.common.expressions.geo.GeoIntersects;
+import org.geolatte.common.expressions.geo.GeoWithin;
+import org.geolatte.common.expressions.geo.GeometryProperty;
+import org.geolatte.common.util.DateCodec;
+import org.geolatte.common.util.WildcardMatch;
+import org.geolatte.geom.Envelope;
+import org.geolatte.geom.Geometry;
+
+import java.util.BitSet;
+import java.util.Date;
+
+/**
+ * <p>
+ * Evaluates a filter expression on the columns of a {@link FeatureStore}, one node of the expression at a time. Every
+ * node is evaluated for all rows at once, in a loop over the primitive arrays of its columns, into a pair of bitsets:
+ * the rows for which the node is true and the rows for which it is false. Comparisons of a string column with a
+ * constant are evaluated once per distinct value of the column, after which the rows only look up the result of their
+ * dictionary code.
+ * </p>
+ * <p>
+ * Properties refer to the properties of the stored features, or to their geometry. A comparison involving a missing
+ * property or a null value is neither true nor false, so that it is not selected, whether it is negated or not.
+ * </p>
+ * <p>
+ * Supported are the boolean operators, constants and properties of all types, the comparisons of numbers (including
+ * sums), number ranges and number and string sets, strings, booleans and dates, (not) like, property (non-)existence
+ * and the geometry relations equals, within, contains and intersects. Other expressions can not be evaluated on the
+ * columns and are rejected. A geometry relation with a constant first scans the envelope column, and only decodes and
+ * relates the geometries of the rows whose envelopes can match.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class ColumnarFilterEvaluator {
+
+    private static final int EQ = 0;
+    private static final int NE = 1;
+    private static final int LT = 2;
+    private static final int LE = 3;
+    private static final int GT = 4;
+    private static final int GE = 5;
+
+    private static final int GEO_EQUALS = 0;
+    private static final int GEO_WITHIN = 1;
+    private static final int GEO_CONTAINS = 2;
+    private static final int GEO_INTERSECTS = 3;
+
+    private final FeatureStore store;
+    private final int size;
+
+    ColumnarFilterEvaluator(FeatureStore store) {
+        this.store = store;
+        this.size = store.size();
+    }
+
+    /**
+     * Selects the rows that match the given expression.
+     *
+     * @param expression the filter expression
+     * @return the matching rows
+     * @throws IllegalArgumentException if the expression can not be evaluated on the columns of the store
+     */
+    BitSet select(Expression<Boolean> expression) {
+        return evaluate(expression).isTrue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Truth evaluate(Expression<Boolean> expression) {
+
+        if (expression instanceof And) {
+            Truth left = evaluate(((And) expression).getLeft());
+            Truth right = evaluate(((And) expression).getRight());
+            left.isTrue.and(right.isTrue);
+            left.isFalse.or(right.isFalse);
+            return left;
+        }
+        if (expression instanceof Or) {
+            Truth left = evaluate(((Or) expression).getLeft());
+            Truth right = evaluate(((Or) expression).getRight());
+            left.isTrue.or(right.isTrue);
+            left.isFalse.and(right.isFalse);
+            return left;
+        }
+        if (expression instanceof Not) {
+            Truth inner = evaluate(((Not) expression).getExpression());
+            return new Truth(inner.isFalse, inner.isTrue);
+        }
+        if (expression instanceof ConstantExpression) {
+            Boolean value = expression.evaluate(null);
+            return value == null ? new Truth(new BitSet(), new BitSet()) : value ? whenTrue(all()) : whenFalse(all());
+        }
+        if (expression instanceof BooleanProperty) {
+            return booleanColumn(((BooleanProperty) expression).getPropertyName());
+        }
+        if (expression instanceof PropertyExists) {
+            return whenTrue(existing(((PropertyExists) expression).getPropertyName()));
+        }
+        if (expression instanceof PropertyDoesNotExist) {
+            return whenFalse(existing(((PropertyDoesNotExist) expression).getPropertyName()));
+        }
+        if (expression instanceof BinaryBooleanExpression) {
+            int op = booleanOperator(expression);
+            if (op >= 0) {
+                BinaryBooleanExpression<Boolean> binary = (BinaryBooleanExpression<Boolean>) expression;
+                return compareBooleans(op, evaluate(binary.getLeft()), evaluate(binary.getRight()));
+            }
+        }
+        if (expression instanceof BinaryNumberExpression) {
+            int op = numberOperator(expression);
+            if (op >= 0) {
+                BinaryNumberExpression<Boolean> binary = (BinaryNumberExpression<Boolean>) expression;
+                return compareNumbers(op, numbers(binary.getLeft()), numbers(binary.getRight()));
+            }
+        }
+        if (expression instanceof IsInRange) {
+            return inRange((IsInRange) expression);
+        }
+        if (expression instanceof IsIn) {
+            return in((IsIn) expression);
+        }
+        if (expression instanceof StringIsIn) {
+            return in((StringIsIn) expression);
+        }
+        if (expression instanceof StringLikeComparisonExpression) {
+            StringLikeComparisonExpression like = (StringLikeComparisonExpression) expression;
+            // NotLike always uses '%' as its wildcard, see NotLike.evaluate()
+            boolean isNegated = like instanceof NotLike;
+            WildcardMatch matcher = new WildcardMatch('_', isNegated ? '%' : like.getWildcardChar(), '\\');
+            matcher.setCaseSensitive(!like.isCaseInsensitive());
+            Truth matches = like(matcher, strings(like.getLeft()), strings(like.getRight()));
+            return isNegated ? new Truth(matches.isFalse, matches.isTrue) : matches;
+        }
+        if (expression instanceof BinaryStringExpression) {
+            int op = stringOperator(expression);
+            if (op >= 0) {
+                BinaryStringExpression<Boolean> binary = (BinaryStringExpression<Boolean>) expression;
+                return compareStrings(op, strings(binary.getLeft()), strings(binary.getRight()));
+            }
+        }
+        if (expression instanceof IsBefore || expression instanceof IsAfter) {
+            BinaryDateExpression<Boolean> binary = (BinaryDateExpression<Boolean>) expression;
+            return compareDates(expression instanceof IsBefore ? LT : GT, dates(binary.getLeft()), dates(binary.getRight()));
+        }
+        if (expression instanceof DateIsBetween) {
+            DateIsBetween between = (DateIsBetween) expression;
+            Dates base = dates(between.getBaseDate());
+            Truth result = compareDates(GT, base, dates(between.getLowDate()));
+            Truth upper = compareDates(LT, base, dates(between.getHighDate()));
+            result.isTrue.and(upper.isTrue);
+            result.isFalse.or(upper.isFalse);
+            return result;
+        }
+        if (expression instanceof GeoEquals || expression instanceof GeoWithin || expression instanceof GeoContains
+                || expression instanceof GeoIntersects) {
+            return geometryRelation((BooleanBinaryGeometryExpression) expression);
+        }
+        throw new IllegalArgumentException("Expression " + expression.getClass().getName() + " can not be evaluated on the columns of a feature store");
+    }
+
+    // ---------------------------------------------------------------- operators
+
+    private static int booleanOperator(Expression<Boolean> expression) {
+        if (expression instanceof BooleanIsEqual) return EQ;
+        if (expression instanceof BooleanIsNotEqual) return NE;
+        if (expression instanceof BooleanIsLessThan) return LT;
+        if (expression instanceof BooleanIsLessThanOrEqual) return LE;
+        if (expression instanceof BooleanIsGreaterThan) return GT;
+        if (expression instanceof BooleanIsGreaterThanOrEqual) return GE;
+        return -1;
+    }
+
+    private static int numberOperator(Expression<Boolean> expression) {
+        if (expression instanceof IsEqual) return EQ;
+        if (expression instanceof IsNotEqual) return NE;
+        if (expression instanceof IsLessThan) return LT;
+        if (expression instanceof IsLessThanOrEqual) return LE;
+        if (expression instanceof IsGreaterThan) return GT;
+        if (expression instanceof IsGreaterThanOrEqual) return GE;
+        return -1;
+    }
+
+    private static int stringOperator(Expression<Boolean> expression) {
+        if (expression instanceof StringIsEqual) return EQ;
+        if (expression instanceof StringIsNotEqual) return NE;
+        if (expression instanceof StringIsLessThan) return LT;
+        if (expression instanceof StringIsLessThanOrEqual) return LE;
+        if (expression instanceof StringIsGreaterThan) return GT;
+        if (expression instanceof StringIsGreaterThanOrEqual) return GE;
+        return -1;
+    }
+
+    /**
+     * @return whether the result of a comparison (negative, zero or positive) satisfies the given operator
+     */
+    private static boolean accepts(int op, int comparison) {
+        switch (op) {
+            case EQ:
+                return comparison == 0;
+            case NE:
+                return comparison != 0;
+            case LT:
+                return comparison < 0;
+            case LE:
+                return comparison <= 0;
+            case GT:
+                return comparison > 0;
+            default:
+                return comparison >= 0;
+        }
+    }
+
+    private static int compare(double left, double right) {
+        return left < right ? -1 : (left > right ? 1 : 0);
+    }
+
+    private static int compare(long left, long right) {
+        return left < right ? -1 : (left > right ? 1 : 0);
+    }
+
+    /**
+     * Compares two numbers as the number comparisons do: equality, inequality and greater than or equal compare the
+     * sign of their difference, which is 0 if a value is NaN, the other operators compare the values directly, which is
+     * false if a value is NaN.
+     */
+    private static boolean acceptsNumbers(int op, double left, double right) {
+        switch (op) {
+            case LT:
+                return left < right;
+            case LE:
+                return left <= right;
+            case GT:
+                return left > right;
+            default:
+                return accepts(op, compare(left, right));
+        }
+    }
+
+    // ---------------------------------------------------------------- booleans
+
+    private Truth booleanColumn(String propertyName) {
+        Column column = store.getColumn(propertyName);
+        if (column == null) {
+            return new Truth(new BitSet(), new BitSet());
+        }
+        BitSet isTrue = new BitSet();
+        BitSet isFalse = new BitSet();
+        if (column.getKind() == Column.BOOLEAN) {
+            isTrue.or(column.getBooleans());
+            isFalse.or(column.getNonNull());
+            isFalse.andNot(isTrue);
+        } else if (column.getKind() == Column.OBJECT) {
+            BitSet nonNull = column.getNonNull();
+            for (int i = nonNull.nextSetBit(0); i >= 0; i = nonNull.nextSetBit(i + 1)) {
+                Object value = column.get(i);
+                if (Boolean.TRUE.equals(value)) {
+                    isTrue.set(i);
+                } else if (Boolean.FALSE.equals(value)) {
+                    isFalse.set(i);
+                }
+            }
+        }
+        return new Truth(isTrue, isFalse);
+    }
+
+    private BitSet existing(String propertyName) {
+        BitSet result = new BitSet();
+        Column column = store.getColumn(propertyName);
+        if (column != null) {
+            result.or(column.getPresent());
+        } else if (propertyName != null && propertyName.equals(store.getGeometryName())) {
+            result.or(store.getGeometryColumn().getPresent());
+        }
+        return result;
+    }
+
+    private Truth compareBooleans(int op, Truth left, Truth right) {
+        BitSet isTrue = new BitSet();
+        BitSet bothValid = valid(left);
+        bothValid.and(valid(right));
+        for (int i = bothValid.nextSetBit(0); i >= 0; i = bothValid.nextSetBit(i + 1)) {
+            int comparison = compare(left.isTrue.get(i) ? 1 : 0, right.isTrue.get(i) ? 1 : 0);
+            if (accepts(op, comparison)) {
+                isTrue.set(i);
+            }
+        }
+        bothValid.andNot(isTrue);
+        return new Truth(isTrue, bothValid);
+    }
+
+    // ---------------------------------------------------------------- numbers
+
+    private Numbers numbers(Expression<Number> expression) {
+        if (expression instanceof ConstantExpression) {
+            Number value = expression.evaluate(null);
+            return value == null ? Numbers.none() : Numbers.constant(value.doubleValue());
+        }
+        if (expression instanceof NumberProperty) {
+            Column column = store.getColumn(((NumberProperty) expression).getPropertyName());
+            if (column == null) {
+                return Numbers.none();
+            }
+            if (column.getKind() == Column.LONG || column.getKind() == Column.DOUBLE) {
+                return new Numbers(column.getDoubles(), column.getNonNull());
+            }
+            if (column.getKind() == Column.OBJECT) {
+                double[] values = new double[size];
+                BitSet valid = new BitSet();
+                BitSet nonNull = column.getNonNull();
+                for (int i = nonNull.nextSetBit(0); i >= 0; i = nonNull.nextSetBit(i + 1)) {
+                    Object value = column.get(i);
+                    if (value instanceof Number) {
+                        values[i] = ((Number) value).doubleValue();
+                        valid.set(i);
+                    }
+                }
+                return new Numbers(values, valid);
+            }
+            return Numbers.none();
+        }
+        if (expression instanceof Add) {
+            Numbers left = numbers(((Add) expression).getLeft());
+            Numbers right = numbers(((Add) expression).getRight());
+            if (left.isConstant && right.isConstant) {
+                return Numbers.constant(left.constant + right.constant);
+            }
+            double[] values = new double[size];
+            BitSet valid = left.validRows(size);
+            valid.and(right.validRows(size));
+            for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+                values[i] = left.get(i) + right.get(i);
+            }
+            return new Numbers(values, valid);
+        }
+        throw new IllegalArgumentException("Expression " + expression.getClass().getName() + " can not be evaluated on the columns of a feature store");
+    }
+
+    private Truth compareNumbers(int op, Numbers left, Numbers right) {
+        if (!left.isConstant && right.isConstant) {
+            return compareToConstant(op, left.values, left.valid, right.constant, false);
+        }
+        if (left.isConstant && !right.isConstant) {
+            return compareToConstant(op, right.values, right.valid, left.constant, true);
+        }
+        BitSet valid = left.validRows(size);
+        valid.and(right.validRows(size));
+        BitSet isTrue = new BitSet();
+        for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+            if (acceptsNumbers(op, left.get(i), right.get(i))) {
+                isTrue.set(i);
+            }
+        }
+        valid.andNot(isTrue);
+        return new Truth(isTrue, valid);
+    }
+
+    private Truth compareToConstant(int op, double[] values, BitSet valid, double constant, boolean constantFirst) {
+        BitSet isTrue = new BitSet();
+        for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+            if (constantFirst ? acceptsNumbers(op, constant, values[i]) : acceptsNumbers(op, values[i], constant)) {
+                isTrue.set(i);
+            }
+        }
+        BitSet isFalse = (BitSet) valid.clone();
+        isFalse.andNot(isTrue);
+        return new Truth(isTrue, isFalse);
+    }
+
+    private Truth inRange(IsInRange range) {
+        Numbers value = numbers(range.getValue());
+        double low = range.getLowerBound() == null ? Double.NEGATIVE_INFINITY : range.getLowerBound().doubleValue();
+        double high = range.getUpperBound() == null ? Double.POSITIVE_INFINITY : range.getUpperBound().doubleValue();
+        boolean isLowIncluded = range.getLowerBound() == null || range.isLowerBoundIncluded();
+        boolean isHighIncluded = range.getUpperBound() == null || range.isUpperBoundIncluded();
+        BitSet valid = value.validRows(size);
+        BitSet isTrue = new BitSet();
+        for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+            double number = value.get(i);
+            if ((isLowIncluded ? number >= low : number > low) && (isHighIncluded ? number <= high : number < high)) {
+                isTrue.set(i);
+            }
+        }
+        valid.andNot(isTrue);
+        return new Truth(isTrue, valid);
+    }
+
+    private Truth in(IsIn in) {
+        Numbers value = numbers(in.getValue());
+        BitSet valid = value.validRows(size);
+        BitSet isTrue = new BitSet();
+        for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+            if (in.contains(value.get(i))) {
+                isTrue.set(i);
+            }
+        }
+        valid.andNot(isTrue);
+        return new Truth(isTrue, valid);
+    }
+
+    // ---------------------------------------------------------------- strings
+
+    private Strings strings(Expression<String> expression) {
+        if (expression instanceof ConstantExpression) {
+            return Strings.constant(expression.evaluate(null));
+        }
+        if (expression instanceof StringProperty && ((StringProperty) expression).getPropertyName() != null) {
+            Column column = store.getColumn(((StringProperty) expression).getPropertyName());
+            if (column == null) {
+                return Strings.constant(null);
+            }
+            if (column.getKind() == Column.STRING) {
+                return new Strings(column.getCodes(), column.getDictionary(), null, column.getNonNull());
+            }
+            // Like StringProperty, use the string representation of values of other types
+            String[] values = new String[size];
+            BitSet nonNull = column.getNonNull();
+            for (int i = nonNull.nextSetBit(0); i >= 0; i = nonNull.nextSetBit(i + 1)) {
+                values[i] = column.get(i).toString();
+            }
+            return new Strings(null, null, values, nonNull);
+        }
+        throw new IllegalArgumentException("Expression " + expression.getClass().getName() + " can not be evaluated on the columns of a feature store");
+    }
+
+    private Truth compareStrings(int op, Strings left, Strings right) {
+        if (left.isConstant && right.isConstant) {
+            return left.constant == null || right.constant == null ? new Truth(new BitSet(), new BitSet())
+                    : accepts(op, left.constant.compareTo(right.constant)) ? whenTrue(all()) : whenFalse(all());
+        }
+        if (left.codes != null && right.isConstant) {
+            return lookUp(left, dictionaryComparison(op, left.dictionary, right.constant, false));
+        }
+        if (left.isConstant && right.codes != null) {
+            return lookUp(right, dictionaryComparison(op, right.dictionary, left.constant, true));
+        }
+        BitSet valid = left.validRows(size);
+        valid.and(right.validRows(size));
+        BitSet isTrue = new BitSet();
+        for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+            if (accepts(op, left.get(i).compareTo(right.get(i)))) {
+                isTrue.set(i);
+            }
+        }
+        valid.andNot(isTrue);
+        return new Truth(isTrue, valid);
+    }
+
+    private Truth in(StringIsIn in) {
+        Strings value = strings(in.getValue());
+        if (value.isConstant) {
+            return value.constant == null ? new Truth(new BitSet(), new BitSet())
+                    : in.contains(value.constant) ? whenTrue(all()) : whenFalse(all());
+        }
+        if (value.codes != null) {
+            boolean[] results = new boolean[value.dictionary.length];
+            for (int code = 0; code < results.length; code++) {
+                results[code] = in.contains(value.dictionary[code]);
+            }
+            return lookUp(value, results);
+        }
+        BitSet valid = value.validRows(size);
+        BitSet isTrue = new BitSet();
+        for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+            if (in.contains(value.get(i))) {
+                isTrue.set(i);
+            }
+        }
+        valid.andNot(isTrue);
+        return new Truth(isTrue, valid);
+    }
+
+    /**
+     * Compares every distinct value of a string column with a constant.
+     *
+     * @return per dictionary code, whether the comparison holds; null if the constant is null
+     */
+    private static boolean[] dictionaryComparison(int op, String[] dictionary, String constant, boolean constantFirst) {
+        if (constant == null) {
+            return null;
+        }
+        boolean[] result = new boolean[dictionary.length];
+        for (int code = 0; code < dictionary.length; code++) {
+            int comparison = constantFirst ? constant.compareTo(dictionary[code]) : dictionary[code].compareTo(constant);
+            result[code] = accepts(op, comparison);
+        }
+        return result;
+    }
+
+    private Truth like(WildcardMatch matcher, Strings text, Strings pattern) {
+        if (text.isConstant && pattern.isConstant) {
+            return text.constant == null || pattern.constant == null ? new Truth(new BitSet(), new BitSet())
+                    : matcher.match(text.constant, pattern.constant) ? whenTrue(all()) : whenFalse(all());
+        }
+        if (text.codes != null && pattern.isConstant) {
+            boolean[] matches = null;
+            if (pattern.constant != null) {
+                matches = new boolean[text.dictionary.length];
+                for (int code = 0; code < matches.length; code++) {
+                    matches[code] = matcher.match(text.dictionary[code], pattern.constant);
+                }
+            }
+            return lookUp(text, matches);
+        }
+        BitSet valid = text.validRows(size);
+        valid.and(pattern.validRows(size));
+        BitSet isTrue = new BitSet();
+        for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+            if (matcher.match(text.get(i), pattern.get(i))) {
+                isTrue.set(i);
+            }
+        }
+        valid.andNot(isTrue);
+        return new Truth(isTrue, valid);
+    }
+
+    /**
+     * Evaluates a dictionary-encoded column by looking up the result of each row's code.
+     *
+     * @param column  the column
+     * @param results the result per code, or null if no row has a result
+     */
+    private static Truth lookUp(Strings column, boolean[] results) {
+        BitSet isTrue = new BitSet();
+        BitSet isFalse = new BitSet();
+        if (results != null) {
+            int[] codes = column.codes;
+            BitSet valid = column.valid;
+            for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+                if (results[codes[i]]) {
+                    isTrue.set(i);
+                } else {
+                    isFalse.set(i);
+                }
+            }
+        }
+        return new Truth(isTrue, isFalse);
+    }
+
+    // ---------------------------------------------------------------- dates
+
+    private Dates dates(Expression<Date> expression) {
+        if (expression instanceof ConstantExpression) {
+            Date value = expression.evaluate(null);
+            return value == null ? Dates.none() : Dates.constant(value.getTime());
+        }
+        if (expression instanceof DateProperty) {
+            Column column = store.getColumn(((DateProperty) expression).getPropertyName());
+            if (column == null) {
+                return Dates.none();
+            }
+            if (column.getKind() == Column.DATE) {
+                return new Dates(column.getLongs(), column.getNonNull());
+            }
+            if (column.getKind() == Column.OBJECT) {
+                long[] values = new long[size];
+                BitSet valid = new BitSet();
+                BitSet nonNull = column.getNonNull();
+                for (int i = nonNull.nextSetBit(0); i >= 0; i = nonNull.nextSetBit(i + 1)) {
+                    Date value = DateCodec.toDate(column.get(i));
+                    if (value != null) {
+                        values[i] = value.getTime();
+                        valid.set(i);
+                    }
+                }
+                return new Dates(values, valid);
+            }
+            return Dates.none();
+        }
+        throw new IllegalArgumentException("Expression " + expression.getClass().getName() + " can not be evaluated on the columns of a feature store");
+    }
+
+    private Truth compareDates(int op, Dates left, Dates right) {
+        BitSet valid = left.validRows(size);
+        valid.and(right.validRows(size));
+        BitSet isTrue = new BitSet();
+        if (!left.isConstant && right.isConstant) {
+            long[] values = left.values;
+            long constant = right.constant;
+            for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+                if (accepts(op, compare(values[i], constant))) {
+                    isTrue.set(i);
+                }
+            }
+        } else {
+            for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+                if (accepts(op, compare(left.get(i), right.get(i)))) {
+                    isTrue.set(i);
+                }
+            }
+        }
+        valid.andNot(isTrue);
+        return new Truth(isTrue, valid);
+    }
+
+    // ---------------------------------------------------------------- geometries
+
+    private Truth geometryRelation(BooleanBinaryGeometryExpression expression) {
+        int relation = expression instanceof GeoEquals ? GEO_EQUALS : expression instanceof GeoWithin ? GEO_WITHIN
+                : expression instanceof GeoContains ? GEO_CONTAINS : GEO_INTERSECTS;
+        Expression<Geometry> left = expression.getLeft();
+        Expression<Geometry> right = expression.getRight();
+        if (left instanceof ConstantExpression && !(right instanceof ConstantExpression)) {
+            Expression<Geometry> swap = left;
+            left = right;
+            right = swap;
+            relation = relation == GEO_WITHIN ? GEO_CONTAINS : relation == GEO_CONTAINS ? GEO_WITHIN : relation;
+        }
+        if (left instanceof ConstantExpression) {
+            Geometry a = left.evaluate(null);
+            Geometry b = right.evaluate(null);
+            return a == null || b == null ? new Truth(new BitSet(), new BitSet()) : relates(relation, a, b) ? whenTrue(all()) : whenFalse(all());
+        }
+
+        GeometryColumn column = geometryColumn(left);
+        BitSet valid = (BitSet) column.getNonNull().clone();
+        BitSet isTrue = new BitSet();
+        if (right instanceof ConstantExpression) {
+            Geometry constant = right.evaluate(null);
+            if (constant == null) {
+                return new Truth(new BitSet(), new BitSet());
+            }
+            Envelope envelope = constant.isEmpty() ? null : constant.getEnvelope();
+            double[] envelopes = column.getEnvelopes();
+            for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+                // Only rows whose envelope relates to that of the constant as the geometries must are decoded
+                if (envelope != null && !isEnvelopeCandidate(relation, envelopes, i, envelope)) {
+                    continue;
+                }
+                if (relates(relation, column.get(i), constant)) {
+                    isTrue.set(i);
+                }
+            }
+        } else {
+            GeometryColumn other = geometryColumn(right);
+            valid.and(other.getNonNull());
+            for (int i = valid.nextSetBit(0); i >= 0; i = valid.nextSetBit(i + 1)) {
+                Geometry geometry = column.get(i);
+                if ((relation == GEO_EQUALS && other == column) || relates(relation, geometry, other == column ? geometry : other.get(i))) {
+                    isTrue.set(i);
+                }
+            }
+        }
+        valid.andNot(isTrue);
+        return new Truth(isTrue, valid);
+    }
+
+    private static boolean relates(int relation, Geometry a, Geometry b) {
+        switch (relation) {
+            case GEO_EQUALS:
+                return a.equals(b);
+            case GEO_WITHIN:
+                return a.within(b);
+            case GEO_CONTAINS:
+                return a.contains(b);
+            default:
+                return a.intersects(b);
+        }
+    }
+
+    /**
+     * Tests the envelope of a row against that of a constant: equal geometries have equal envelopes, a geometry
+     * within another has its envelope inside the other's, and so on. Rows without an envelope (NaN) are candidates
+     * unless the relation is an equality.
+     */
+    private static boolean isEnvelopeCandidate(int relation, double[] envelopes, int row, Envelope envelope) {
+        double minX = envelopes[4 * row];
+        double minY = envelopes[4 * row + 1];
+        double maxX = envelopes[4 * row + 2];
+        double maxY = envelopes[4 * row + 3];
+        switch (relation) {
+            case GEO_EQUALS:
+                return minX == envelope.getMinX() && minY == envelope.getMinY() && maxX == envelope.getMaxX() && maxY == envelope.getMaxY();
+            case GEO_WITHIN:
+                return !(minX < envelope.getMinX() || minY < envelope.getMinY() || maxX > envelope.getMaxX() || maxY > envelope.getMaxY());
+            case GEO_CONTAINS:
+                return !(minX > envelope.getMinX() || minY > envelope.getMinY() || maxX < envelope.getMaxX() || maxY < envelope.getMaxY());
+            default:
+                return !(minX > envelope.getMaxX() || minY > envelope.getMaxY() || maxX < envelope.getMinX() || maxY < envelope.getMinY());
+        }
+    }
+
+    private GeometryColumn geometryColumn(Expression<Geometry> expression) {
+        if (expression instanceof GeometryProperty) {
+            String propertyName = ((GeometryProperty) expression).getPropertyName();
+            if (propertyName != null && propertyName.equals(store.getGeometryName())) {
+                return store.getGeometryColumn();
+            }
+            throw new IllegalArgumentException("Property " + propertyName + " is not the geometry of the feature store");
+        }
+        throw new IllegalArgumentException("Expression " + expression.getClass().getName() + " can not be evaluated on the columns of a feature store");
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private BitSet all() {
+        BitSet result = new BitSet(size);
+        result.set(0, size);
+        return result;
+    }
+
+    private Truth whenTrue(BitSet isTrue) {
+        BitSet isFalse = all();
+        isFalse.andNot(isTrue);
+        return new Truth(isTrue, isFalse);
+    }
+
+    private Truth whenFalse(BitSet isFalse) {
+        BitSet isTrue = all();
+        isTrue.andNot(isFalse);
+        return new Truth(isTrue, isFalse);
+    }
+
+    private static BitSet valid(Truth truth) {
+        BitSet result = (BitSet) truth.isTrue.clone();
+        result.or(truth.isFalse);
+        return result;
+    }
+
+    /**
+     * The rows for which an expression is true and those for which it is false. Rows in neither set are unknown.
+     */
+    private static final class Truth {
+        final BitSet isTrue;
+        final BitSet isFalse;
+
+        Truth(BitSet isTrue, BitSet isFalse) {
+            this.isTrue = isTrue;
+            this.isFalse = isFalse;
+        }
+    }
+
+    /**
+     * A number operand: a constant or a value per row.
+     */
+    private static final class Numbers {
+        final boolean isConstant;
+        final double constant;
+        final double[] values;
+        final BitSet valid;
+
+        Numbers(double[] values, BitSet valid) {
+            this(false, 0, values, valid);
+        }
+
+        private Numbers(boolean isConstant, double constant, double[] values, BitSet valid) {
+            this.isConstant = isConstant;
+            this.constant = constant;
+            this.values = values;
+            this.valid = valid;
+        }
+
+        static Numbers constant(double value) {
+            return new Numbers(true, value, null, null);
+        }
+
+        static Numbers none() {
+            return new Numbers(new double[0], new BitSet());
+        }
+
+        double get(int row) {
+            return isConstant ? constant : values[row];
+        }
+
+        BitSet validRows(int size) {
+            if (isConstant) {
+                BitSet result = new BitSet(size);
+                result.set(0, size);
+                return result;
+            }
+            return (BitSet) valid.clone();
+        }
+    }
+
+    /**
+     * A string operand: a constant, a dictionary-encoded column or a value per row.
+     */
+    private static final class Strings {
+        final boolean isConstant;
+        final String constant;
+        final int[] codes;
+        final String[] dictionary;
+        final String[] values;
+        final BitSet valid;
+
+        Strings(int[] codes, String[] dictionary, String[] values, BitSet valid) {
+            this.isConstant = false;
+            this.constant = null;
+            this.codes = codes;
+            this.dictionary = dictionary;
+            this.values = values;
+            this.valid = valid;
+        }
+
+        private Strings(String constant) {
+            this.isConstant = true;
+            this.constant = constant;
+            this.codes = null;
+            this.dictionary = null;
+            this.values = null;
+            this.valid = null;
+        }
+
+        static Strings constant(String value) {
+            return new Strings(value);
+        }
+
+        String get(int row) {
+            if (isConstant) {
+                return constant;
+            }
+            return codes != null ? dictionary[codes[row]] : values[row];
+        }
+
+        BitSet validRows(int size) {
+            if (isConstant) {
+                BitSet result = new BitSet(size);
+                if (constant != null) {
+                    result.set(0, size);
+                }
+                return result;
+            }
+            return (BitSet) valid.clone();
+        }
+    }
+
+    /**
+     * A date operand: a constant or epoch milliseconds per row.
+     */
+    private static final class Dates {
+        final boolean isConstant;
+        final long constant;
+        final long[] values;
+        final BitSet valid;
+
+        Dates(long[] values, BitSet valid) {
+            this(false, 0, values, valid);
+        }
+
+        private Dates(boolean isConstant, long constant, long[] values, BitSet valid) {
+            this.isConstant = isConstant;
+            this.constant = constant;
+            this.values = values;
+            this.valid = valid;
+        }
+
+        static Dates constant(long value) {
+            return new Dates(true, value, null, null);
+        }
+
+        static Dates none() {
+            return new Dates(new long[0], new BitSet());
+        }
+
+        long get(int row) {
+            return isConstant ? constant : values[row];
+        }
+
+        BitSet validRows(int size) {
+            if (isConstant) {
+                BitSet result = new BitSet(size);
+                result.set(0, size);
+                return result;
+            }
+            return (BitSet) valid.clone();
+        }
+    }
+}
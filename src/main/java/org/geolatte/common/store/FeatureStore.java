@@ -0,0 +1,205 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.common.transformer.TransformerSource;
+import org.geolatte.geom.Envelope;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <p>
+ * An immutable, column-oriented in-memory store of features, meant for the interactive filtering of large numbers of
+ * features. Instead of one object per feature, the store keeps one column per property, with the values in primitive
+ * arrays (see {@link Column}), and a geometry column with the geometries packed as (E)WKB next to a column of their
+ * envelopes.
+ * </p>
+ * <p>
+ * A {@link Filter} is evaluated on the columns, one node of its expression at a time for all features at once, into a
+ * bitset of the selected rows (see {@link #select(Filter)}). Properties in the filter refer to the properties of the
+ * stored features, or to their geometry. The selected features can be read back as a {@link TransformerSource}
+ * through {@link #query(Filter)}.
+ * </p>
+ * <p>
+ * A store is built from any collection of features with {@link #from(Iterable)}, or at the end of a transformer chain
+ * with a {@link FeatureStoreSink}. Features read from the store are light-weight views on its columns.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FeatureStore {
+
+    private final int size;
+    private final Map<String, Column> columns;
+    private final Column ids;
+    private final GeometryColumn geometries;
+    private final String geometryName;
+
+    FeatureStore(int size, Map<String, Column> columns, Column ids, GeometryColumn geometries, String geometryName) {
+        this.size = size;
+        this.columns = columns;
+        this.ids = ids;
+        this.geometries = geometries;
+        this.geometryName = geometryName;
+    }
+
+    /**
+     * Builds a store that holds the given features. Null features are skipped.
+     *
+     * @param features the features to store
+     * @return the store
+     * @throws IllegalArgumentException if features is null
+     */
+    public static FeatureStore from(Iterable<? extends Feature> features) {
+
+        if (features == null)
+            throw new IllegalArgumentException("Argument features cannot be null");
+
+        FeatureStoreBuilder builder = new FeatureStoreBuilder();
+        for (Feature feature : features) {
+            builder.add(feature);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the number of features in this store
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the names of all properties of the stored features, excluding their id and geometry
+     */
+    public Collection<String> getPropertyNames() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * @return the name of the geometry property of the stored features, or null if none of them has a geometry
+     */
+    public String getGeometryName() {
+        return geometryName;
+    }
+
+    /**
+     * Returns the feature at the given row.
+     *
+     * @param row the row, between 0 (inclusive) and the size of the store (exclusive)
+     * @return a view on the feature in the given row
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public Feature getFeature(int row) {
+
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row " + row + " is out of range [0, " + size + ")");
+
+        return new StoreFeature(this, row);
+    }
+
+    /**
+     * Selects the features that pass the given filter. The filter is evaluated column by column; a comparison with a
+     * missing property or a null value does not select a feature, whether it is negated or not.
+     *
+     * @param filter the filter to evaluate
+     * @return the rows of the selected features
+     * @throws IllegalArgumentException if filter is null, or if its expression contains an expression that can not be
+     *                                  evaluated on the columns of the store
+     */
+    public BitSet select(Filter filter) {
+
+        if (filter == null)
+            throw new IllegalArgumentException("Argument filter cannot be null");
+
+        return new ColumnarFilterEvaluator(this).select(filter.getFilterExpression());
+    }
+
+    /**
+     * Selects the features whose geometry has an envelope that intersects the given envelope. Only the envelope column
+     * is scanned; no geometry is decoded.
+     *
+     * @param envelope the envelope to intersect with
+     * @return the rows of the selected features
+     * @throws IllegalArgumentException if envelope is null
+     */
+    public BitSet selectIntersecting(Envelope envelope) {
+
+        if (envelope == null)
+            throw new IllegalArgumentException("Argument envelope cannot be null");
+
+        BitSet result = new BitSet();
+        if (envelope.isEmpty())
+            return result;
+
+        double minX = envelope.getMinX();
+        double minY = envelope.getMinY();
+        double maxX = envelope.getMaxX();
+        double maxY = envelope.getMaxY();
+        double[] envelopes = geometries.getEnvelopes();
+        for (int i = 0; i < size; i++) {
+            // Comparisons with the NaN envelope of rows without a geometry are false
+            if (envelopes[4 * i] <= maxX && envelopes[4 * i + 2] >= minX
+                    && envelopes[4 * i + 1] <= maxY && envelopes[4 * i + 3] >= minY) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a source of the features that pass the given filter. The filter is evaluated immediately.
+     *
+     * @param filter the filter to evaluate
+     * @return a source of the selected features, in the order of the store
+     * @throws IllegalArgumentException if filter is null, or if its expression can not be evaluated on the columns of
+     *                                  the store
+     */
+    public TransformerSource<Feature> query(Filter filter) {
+
+        return new FeatureStoreSource(this, select(filter));
+    }
+
+    /**
+     * @param propertyName the name of a property
+     * @return the column of the property, or null if no feature has the property
+     */
+    Column getColumn(String propertyName) {
+        return propertyName == null ? null : columns.get(propertyName);
+    }
+
+    Column getIdColumn() {
+        return ids;
+    }
+
+    GeometryColumn getGeometryColumn() {
+        return geometries;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import org.geolatte.common.Feature;
+import org.geolatte.geom.Geometry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Adds features, one row at a time, to the columns of a {@link FeatureStore} under construction.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class FeatureStoreBuilder {
+
+    private final Map<String, Column> columns = new LinkedHashMap<String, Column>();
+    private final Column ids = new Column(null);
+    private final GeometryColumn geometries = new GeometryColumn();
+    private String geometryName;
+    private int rowCount = 0;
+
+    // The properties of the feature being added, reused between features
+    private final List<String> names = new ArrayList<String>();
+    private final List<Object> values = new ArrayList<Object>();
+
+    /**
+     * Adds the values of the given feature as a new row. Null features are ignored. All values are read before any is
+     * stored, so a feature whose values can not be read leaves the store unchanged.
+     *
+     * @param feature the feature to add
+     */
+    void add(Feature feature) {
+        if (feature == null) {
+            return;
+        }
+        boolean hasId = feature.hasId();
+        Object id = hasId ? feature.getId() : null;
+        boolean hasGeometry = feature.hasGeometry();
+        Geometry geometry = hasGeometry ? feature.getGeometry() : null;
+        String featureGeometryName = hasGeometry ? feature.getGeometryName() : null;
+        names.clear();
+        values.clear();
+        for (String propertyName : feature.getProperties()) {
+            names.add(propertyName);
+            values.add(feature.getProperty(propertyName));
+        }
+
+        int row = rowCount++;
+        if (hasId) {
+            ids.set(row, id);
+        }
+        if (hasGeometry) {
+            geometries.set(row, geometry);
+            if (geometryName == null) {
+                geometryName = featureGeometryName;
+            }
+        }
+        for (int i = 0; i < names.size(); i++) {
+            Column column = columns.get(names.get(i));
+            if (column == null) {
+                column = new Column(names.get(i));
+                columns.put(names.get(i), column);
+            }
+            column.set(row, values.get(i));
+        }
+    }
+
+    /**
+     * @return the store with the features added so far. The builder can no longer be used afterwards.
+     */
+    FeatureStore build() {
+        for (Column column : columns.values()) {
+            column.trim(rowCount);
+        }
+        ids.trim(rowCount);
+        geometries.trim(rowCount);
+        return new FeatureStore(rowCount, columns, ids, geometries, geometryName);
+    }
+}
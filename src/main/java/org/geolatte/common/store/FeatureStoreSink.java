@@ -0,0 +1,80 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.transformer.AbstractObservableTransformerSink;
+
+/**
+ * <p>
+ * A {@link org.geolatte.common.transformer.TransformerSink} that builds a {@link FeatureStore} from the features of a
+ * transformer chain. Features are copied into the columns of the store as they arrive, so they need not be retained by
+ * the chain (e.g., the streamed views of {@link org.geolatte.common.reflection.ObjectToFeatureTransformation} can be
+ * stored directly).
+ * </p>
+ * <p>
+ * Features whose values can not be read are reported as an error event and skipped.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FeatureStoreSink extends AbstractObservableTransformerSink<Feature> {
+
+    private Iterable<? extends Feature> input;
+    private FeatureStore store;
+
+    /**
+     * @return the store built from the features of the chain, or null if the chain has not run yet
+     */
+    public FeatureStore getStore() {
+
+        return store;
+    }
+
+    @Override
+    protected void setInput(Iterable<? extends Feature> input) {
+
+        this.input = input;
+    }
+
+    /**
+     * Adds all features of the input to a new store.
+     */
+    @Override
+    protected void start() {
+
+        FeatureStoreBuilder builder = new FeatureStoreBuilder();
+        if (input != null) {
+            for (Feature feature : input) {
+                try {
+                    builder.add(feature);
+                } catch (RuntimeException e) {
+                    onTransformationSinkErrorOccurred(e);
+                }
+            }
+        }
+        store = builder.build();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.transformer.AbstractObservableTransformerSource;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A {@link org.geolatte.common.transformer.TransformerSource} of a selection of the features of a
+ * {@link FeatureStore}, in the order of the store. The features are views on the columns of the store. Unlike most
+ * sources, this source can be read more than once.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FeatureStoreSource extends AbstractObservableTransformerSource<Feature> {
+
+    private final FeatureStore store;
+    private final BitSet rows;
+
+    /**
+     * Constructs a source of all features of the given store.
+     *
+     * @param store the store to read
+     * @throws IllegalArgumentException if store is null
+     */
+    public FeatureStoreSource(FeatureStore store) {
+
+        if (store == null)
+            throw new IllegalArgumentException("Argument store cannot be null");
+
+        this.store = store;
+        this.rows = new BitSet(store.size());
+        rows.set(0, store.size());
+    }
+
+    /**
+     * Constructs a source of the features in the given rows of the given store, e.g. as selected by
+     * {@link FeatureStore#select(org.geolatte.common.expressions.Filter)}.
+     *
+     * @param store the store to read
+     * @param rows  the rows to read; rows beyond the size of the store are ignored. The bitset is copied.
+     * @throws IllegalArgumentException if store or rows is null
+     */
+    public FeatureStoreSource(FeatureStore store, BitSet rows) {
+
+        if (store == null)
+            throw new IllegalArgumentException("Argument store cannot be null");
+        if (rows == null)
+            throw new IllegalArgumentException("Argument rows cannot be null");
+
+        this.store = store;
+        this.rows = rows.get(0, store.size());
+    }
+
+    /**
+     * @return the number of features this source outputs
+     */
+    public int size() {
+
+        return rows.cardinality();
+    }
+
+    @Override
+    protected Iterable<Feature> output() {
+
+        return new Iterable<Feature>() {
+            public Iterator<Feature> iterator() {
+                return new RowIterator();
+            }
+        };
+    }
+
+    private class RowIterator implements Iterator<Feature> {
+
+        private int next = rows.nextSetBit(0);
+
+        public boolean hasNext() {
+
+            return next >= 0;
+        }
+
+        public Feature next() {
+
+            if (next < 0)
+                throw new NoSuchElementException();
+
+            Feature result = store.getFeature(next);
+            next = rows.nextSetBit(next + 1);
+            return result;
+        }
+
+        /**
+         * Not supported.
+         */
+        public void remove() {
+
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import org.geolatte.common.dataformats.wkb.WkbCodec;
+import org.geolatte.geom.ByteOrder;
+import org.geolatte.geom.Envelope;
+import org.geolatte.geom.Geometry;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * <p>
+ * The geometry column of a {@link FeatureStore}. The geometries are packed back to back as (E)WKB in a single byte
+ * array, next to a column with the envelope of each geometry (minX, minY, maxX, maxY), so that spatial selections
+ * can scan the envelopes without decoding any geometry. Geometries are only decoded when they are read.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class GeometryColumn {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final BitSet present = new BitSet();
+    private final BitSet nonNull = new BitSet();
+
+    private byte[] data = new byte[1024];
+    private int dataLength = 0;
+
+    // offsets[row] is the start of the geometry of a row in data, offsets[row + 1] its end
+    private int[] offsets = new int[INITIAL_CAPACITY + 1];
+    private double[] envelopes = emptyEnvelopes(4 * INITIAL_CAPACITY);
+    private int rowCount = 0;
+
+    /**
+     * Sets the geometry of the given row, which is marked as having a geometry.
+     *
+     * @param row      the row, rows are set in increasing order
+     * @param geometry the geometry, may be null
+     */
+    void set(int row, Geometry geometry) {
+        fillTo(row);
+        present.set(row);
+        if (geometry != null) {
+            byte[] wkb = WkbCodec.toWkb(geometry, ByteOrder.NDR);
+            if (dataLength + wkb.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(dataLength + wkb.length, data.length * 2));
+            }
+            System.arraycopy(wkb, 0, data, dataLength, wkb.length);
+            dataLength += wkb.length;
+            nonNull.set(row);
+
+            Envelope envelope = geometry.getEnvelope();
+            if (!geometry.isEmpty() && envelope != null && !envelope.isEmpty()) {
+                envelopes[4 * row] = envelope.getMinX();
+                envelopes[4 * row + 1] = envelope.getMinY();
+                envelopes[4 * row + 2] = envelope.getMaxX();
+                envelopes[4 * row + 3] = envelope.getMaxY();
+            }
+        }
+        offsets[row + 1] = dataLength;
+        rowCount = row + 1;
+    }
+
+    /**
+     * Trims the storage of this column to the given number of rows, after which it is no longer changed.
+     *
+     * @param totalRowCount the number of rows of the store
+     */
+    void trim(int totalRowCount) {
+        fillTo(totalRowCount);
+        data = Arrays.copyOf(data, dataLength);
+        offsets = Arrays.copyOf(offsets, totalRowCount + 1);
+        envelopes = Arrays.copyOf(envelopes, 4 * totalRowCount);
+    }
+
+    boolean isPresent(int row) {
+        return present.get(row);
+    }
+
+    BitSet getPresent() {
+        return present;
+    }
+
+    BitSet getNonNull() {
+        return nonNull;
+    }
+
+    /**
+     * @return the envelopes of the geometries, four values (minX, minY, maxX, maxY) per row. The values of rows
+     *         without a (non-empty) geometry are NaN.
+     */
+    double[] getEnvelopes() {
+        return envelopes;
+    }
+
+    /**
+     * Decodes the geometry of the given row.
+     *
+     * @param row the row
+     * @return the geometry, or null if the row has no geometry
+     */
+    Geometry get(int row) {
+        if (!nonNull.get(row)) {
+            return null;
+        }
+        return WkbCodec.fromWkb(Arrays.copyOfRange(data, offsets[row], offsets[row + 1]));
+    }
+
+    private static double[] emptyEnvelopes(int length) {
+        double[] result = new double[length];
+        Arrays.fill(result, Double.NaN);
+        return result;
+    }
+
+    // Rows that were not set up to the given row have no geometry
+    private void fillTo(int row) {
+        if (row + 1 >= offsets.length) {
+            int newCapacity = Math.max(row + 1, 2 * (offsets.length - 1));
+            offsets = Arrays.copyOf(offsets, newCapacity + 1);
+            int oldLength = envelopes.length;
+            envelopes = Arrays.copyOf(envelopes, 4 * newCapacity);
+            Arrays.fill(envelopes, oldLength, envelopes.length, Double.NaN);
+        }
+        for (int i = rowCount; i < row; i++) {
+            offsets[i + 1] = dataLength;
+        }
+        if (row > rowCount) {
+            rowCount = row;
+        }
+    }
+}
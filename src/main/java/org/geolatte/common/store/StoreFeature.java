@@ -0,0 +1,119 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import org.geolatte.common.Feature;
+import org.geolatte.geom.Geometry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * The {@link Feature} view on a row of a {@link FeatureStore}. Values are read from the columns of the store when they
+ * are requested.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+final class StoreFeature implements Feature {
+
+    private final FeatureStore store;
+    private final int row;
+
+    StoreFeature(FeatureStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    public boolean hasProperty(String propertyName, boolean trueForSpecialProperties) {
+        if (propertyName == null) {
+            throw new IllegalArgumentException("Given propertyname may not be null");
+        }
+        Column column = store.getColumn(propertyName);
+        if (column != null && column.isPresent(row)) {
+            return true;
+        }
+        return trueForSpecialProperties && hasGeometry() && propertyName.equals(store.getGeometryName());
+    }
+
+    public Collection<String> getProperties() {
+        List<String> result = new ArrayList<String>();
+        for (String propertyName : store.getPropertyNames()) {
+            if (store.getColumn(propertyName).isPresent(row)) {
+                result.add(propertyName);
+            }
+        }
+        return result;
+    }
+
+    public Object getProperty(String propertyName) {
+        if (propertyName == null) {
+            throw new IllegalArgumentException("Given propertyname may not be null");
+        }
+        Column column = store.getColumn(propertyName);
+        return column == null ? null : column.get(row);
+    }
+
+    public Object getId() {
+        return store.getIdColumn().get(row);
+    }
+
+    public Geometry getGeometry() {
+        return store.getGeometryColumn().get(row);
+    }
+
+    public String getGeometryName() {
+        return hasGeometry() ? store.getGeometryName() : null;
+    }
+
+    public boolean hasId() {
+        return store.getIdColumn().isPresent(row);
+    }
+
+    public boolean hasGeometry() {
+        return store.getGeometryColumn().isPresent(row);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StoreFeature that = (StoreFeature) o;
+        return row == that.row && store == that.store;
+    }
+
+    @Override
+    public int hashCode() {
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return "Feature[row " + row + "]";
+    }
+}
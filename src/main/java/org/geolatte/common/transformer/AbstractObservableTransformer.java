@@ -39,6 +39,7 @@ import java.util.ArrayList;
 public abstract class AbstractObservableTransformer<Source, Target> extends ObservableTransformer<Source, Target> {
 
     private ArrayList<TransformerEventListener> transformerEventListeners = new ArrayList<TransformerEventListener>();
+    private StageMonitor stageMonitor;
 
     /**
      * Adds a listener for transformer events. Null listeners are ignored.
@@ -66,6 +67,9 @@ public abstract class AbstractObservableTransformer<Source, Target> extends Obse
      */
     protected void onTransformerErrorOccurred(Source failedObject, Exception exception) {
 
+        if (stageMonitor != null)
+            stageMonitor.errorOccurred();
+
         for (TransformerEventListener listener : transformerEventListeners)
             fireErrorEvent(listener, new TransformerErrorEvent(this, failedObject, exception));
     }
@@ -80,6 +84,26 @@ public abstract class AbstractObservableTransformer<Source, Target> extends Obse
             fireErrorEvent(listener, event);
     }
 
+    /**
+     * Sets the monitor of the chain stage this transformer makes up. Called by the chain when it is configured with a
+     * {@link TransformerChainMonitor}.
+     * @param stageMonitor The monitor, or null if the chain is not instrumented.
+     */
+    void setStageMonitor(StageMonitor stageMonitor) {
+
+        this.stageMonitor = stageMonitor;
+    }
+
+    /**
+     * Gets the monitor of the chain stage this transformer makes up. Subclasses use it to report rejected elements
+     * or buffer occupancy.
+     * @return The monitor, or null if the chain is not instrumented.
+     */
+    protected StageMonitor getStageMonitor() {
+
+        return stageMonitor;
+    }
+
     /**
      * Fires the given event on the given listener.
      * @param listener The listener to fire the event to.
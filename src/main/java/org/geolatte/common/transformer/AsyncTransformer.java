@@ -0,0 +1,332 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>
+ * Transforms a collection of input elements like a {@link DefaultTransformer}, but runs the {@link Transformation} of
+ * several elements concurrently. Intended for transformations that block on I/O (lookups, enrichment from a database,
+ * ...), where transforming one element at a time limits the throughput to one element per round trip.
+ * </p>
+ * <p>
+ * At most <tt>maxConcurrency</tt> transformations are in flight at any time. The input is always pulled on the thread
+ * that iterates the output, so upstream transformers need not be thread-safe; the transformation itself however is
+ * invoked from several threads at once and must be thread-safe. Results are emitted in input order (ordered mode) or as
+ * soon as they are available (unordered mode).
+ * </p>
+ * <p>
+ * A transformation that throws a {@link TransformationException} causes an error event on the iterating thread, just like
+ * in {@link DefaultTransformer}; other exceptions are rethrown on the iterating thread. If the iterating thread is
+ * interrupted while it waits for a result, it keeps its interrupt status and an {@link IllegalStateException} is thrown,
+ * rather than ending the output early; the transformations in flight are kept, so iterating can resume afterwards.
+ * </p>
+ * <p>
+ * By default, each transformation runs on its own virtual thread when the runtime supports them (Java 21 and later),
+ * and on a shared pool of daemon threads otherwise.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <Source> The type of the elements that will be transformed.
+ * @param <Target> The type of the transformed elements.
+ * @since SDK1.5
+ */
+public class AsyncTransformer<Source, Target> extends AbstractObservableTransformer<Source, Target> {
+
+    private static Executor defaultExecutor;
+
+    private final Transformation<? super Source, ? extends Target> transformation;
+    private final int maxConcurrency;
+    private final boolean isOrdered;
+    private final Executor executor;
+
+    private Iterable<? extends Source> currentInput; // The currentInput Iterable set by the client
+    private Iterable<Target> currentOutput;
+
+    /**
+     * Constructs an ordered AsyncTransformer that runs the given transformation on the default executor.
+     *
+     * @param transformation Cannot be null.
+     * @param maxConcurrency The maximum number of concurrent transformations, at least 1.
+     * @throws IllegalArgumentException When transformation is null or maxConcurrency is smaller than 1.
+     */
+    public AsyncTransformer(Transformation<? super Source, ? extends Target> transformation, int maxConcurrency) {
+
+        this(transformation, maxConcurrency, true);
+    }
+
+    /**
+     * Constructs an AsyncTransformer that runs the given transformation on the default executor.
+     *
+     * @param transformation Cannot be null.
+     * @param maxConcurrency The maximum number of concurrent transformations, at least 1.
+     * @param isOrdered Whether the results are emitted in input order.
+     * @throws IllegalArgumentException When transformation is null or maxConcurrency is smaller than 1.
+     */
+    public AsyncTransformer(Transformation<? super Source, ? extends Target> transformation, int maxConcurrency, boolean isOrdered) {
+
+        this(transformation, maxConcurrency, isOrdered, getDefaultExecutor());
+    }
+
+    /**
+     * Constructs an AsyncTransformer that runs the given transformation on the given executor.
+     *
+     * @param transformation Cannot be null.
+     * @param maxConcurrency The maximum number of concurrent transformations, at least 1.
+     * @param isOrdered Whether the results are emitted in input order.
+     * @param executor The executor that runs the transformations. Cannot be null.
+     * @throws IllegalArgumentException When transformation or executor is null or maxConcurrency is smaller than 1.
+     */
+    public AsyncTransformer(Transformation<? super Source, ? extends Target> transformation, int maxConcurrency, boolean isOrdered, Executor executor) {
+
+        if (transformation == null)
+            throw new IllegalArgumentException("Argument transformation cannot be null");
+        if (maxConcurrency < 1)
+            throw new IllegalArgumentException("Argument maxConcurrency must be at least 1");
+        if (executor == null)
+            throw new IllegalArgumentException("Argument executor cannot be null");
+
+        this.transformation = transformation;
+        this.maxConcurrency = maxConcurrency;
+        this.isOrdered = isOrdered;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the executor used when none is given: a virtual-thread-per-task executor when the runtime supports virtual
+     * threads, a shared cached pool of daemon threads otherwise.
+     *
+     * @return The default executor.
+     */
+    public static synchronized Executor getDefaultExecutor() {
+
+        if (defaultExecutor == null) {
+            try {
+                // Looked up reflectively to keep running on runtimes without virtual threads
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                defaultExecutor = (ExecutorService) factory.invoke(null);
+            }
+            catch (Exception e) {
+                defaultExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "geolatte-async-transformer");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void setInput(Iterable<? extends Source> input) {
+
+        currentInput = input;
+        currentOutput = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Iterable<Target> output() {
+
+        if (currentInput == null && currentOutput == null)
+            return null;
+
+        // In case a transformation is already in progress, return the existing output iterable
+        if (currentOutput != null)
+            return currentOutput;
+
+        // No transformation is in progress -> create new output and forget the input
+        final AsyncTransformerIterator iterator = new AsyncTransformerIterator(currentInput.iterator());
+        currentOutput = new Iterable<Target>() {
+            public Iterator<Target> iterator() {
+                return iterator;
+            }
+        };
+        currentInput = null;
+
+        return currentOutput;
+    }
+
+    /**
+     * Pulls input elements, keeps up to maxConcurrency of them in flight and hands out the results.
+     */
+    private class AsyncTransformerIterator implements Iterator<Target> {
+
+        private final Iterator<? extends Source> inputIterator;
+        // In flight in input order (ordered mode) and finished in completion order (unordered mode)
+        private final ArrayDeque<PendingTransformation> inFlight = new ArrayDeque<PendingTransformation>();
+        private final BlockingQueue<PendingTransformation> completed = new LinkedBlockingQueue<PendingTransformation>();
+        private int inFlightCount = 0;
+
+        private Target cachedElement = null;
+        private boolean isCachedElementValid = false;
+
+        private AsyncTransformerIterator(Iterator<? extends Source> inputIterator) {
+
+            this.inputIterator = inputIterator;
+        }
+
+        public boolean hasNext() {
+
+            if (isCachedElementValid)
+                return true;
+
+            while (true) {
+
+                while (inFlightCount < maxConcurrency && inputIterator.hasNext())
+                    submit(inputIterator.next());
+
+                if (inFlightCount == 0)
+                    return false;
+
+                // An element only leaves the queues once it is done, so an interrupted wait loses nothing
+                PendingTransformation done;
+                try {
+                    if (isOrdered) {
+                        done = inFlight.peekFirst().await();
+                        inFlight.removeFirst();
+                    } else {
+                        done = completed.take();
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a transformation", e);
+                }
+                inFlightCount--;
+                reportOccupancy();
+
+                if (done.failure instanceof TransformationException) {
+                    onTransformerErrorOccurred(done.input, (TransformationException) done.failure);
+                    continue;
+                }
+                if (done.failure instanceof RuntimeException)
+                    throw (RuntimeException) done.failure;
+                if (done.failure instanceof Error)
+                    throw (Error) done.failure;
+                if (done.failure != null)
+                    throw new IllegalStateException("Transformation failed", done.failure);
+
+                cachedElement = done.result;
+                isCachedElementValid = true;
+                return true;
+            }
+        }
+
+        public Target next() {
+
+            if (isCachedElementValid || hasNext()) {
+                isCachedElementValid = false;
+                Target result = cachedElement;
+                cachedElement = null;
+                return result;
+            }
+
+            throw new NoSuchElementException();
+        }
+
+        /**
+         * Not supported.
+         */
+        public void remove() {
+
+            throw new UnsupportedOperationException();
+        }
+
+        private void submit(Source input) {
+
+            PendingTransformation pending = new PendingTransformation(input, isOrdered ? null : completed);
+            executor.execute(pending);
+            if (isOrdered)
+                inFlight.addLast(pending);
+            inFlightCount++;
+            reportOccupancy();
+        }
+
+        private void reportOccupancy() {
+
+            StageMonitor stageMonitor = getStageMonitor();
+            if (stageMonitor != null)
+                stageMonitor.bufferOccupancy(inFlightCount);
+        }
+    }
+
+    /**
+     * The transformation of a single input element.
+     */
+    private class PendingTransformation implements Runnable {
+
+        private final Source input;
+        private final BlockingQueue<PendingTransformation> completionQueue;
+        private final CountDownLatch isDone = new CountDownLatch(1);
+
+        private volatile Target result;
+        private volatile Throwable failure;
+
+        private PendingTransformation(Source input, BlockingQueue<PendingTransformation> completionQueue) {
+
+            this.input = input;
+            this.completionQueue = completionQueue;
+        }
+
+        public void run() {
+
+            try {
+                result = transformation.transform(input);
+            }
+            catch (Throwable t) {
+                failure = t;
+            }
+            finally {
+                isDone.countDown();
+                if (completionQueue != null)
+                    completionQueue.offer(this);
+            }
+        }
+
+        private PendingTransformation await() throws InterruptedException {
+
+            isDone.await();
+            return this;
+        }
+    }
+}
@@ -173,6 +173,9 @@ public class DefaultFilter<Source> extends AbstractObservableTransformer<Source,
                     else { // Not passed through filter -> try the next element
                         cachedElement = null;
                         isCachedElementValid = false;
+                        StageMonitor stageMonitor = getStageMonitor();
+                        if (stageMonitor != null)
+                            stageMonitor.elementRejected();
                         continue;
                     }
                     return true;
@@ -0,0 +1,191 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>
+ * Adapts the pull-based transformer framework to the push-based {@link java.util.concurrent.Flow} (reactive streams)
+ * API, so that sources, transformers and sinks can be plugged into non-blocking servers. All adapters honour the demand
+ * of their subscribers: nothing is pulled from a source or chain unless it was requested.
+ * </p>
+ * Usage:
+ * <pre>
+ * {@code
+ * Flow.Publisher<Feature> features = FlowAdapters.toPublisher(featureSource, executor);
+ * TransformationProcessor<Feature, String> toJson = FlowAdapters.toProcessor(new JsonSerializationTransformation());
+ * features.subscribe(toJson);
+ * toJson.subscribe(responseSubscriber);
+ * }
+ * </pre>
+ * <p>
+ * Adapters that need to pull from a {@link TransformerSource}, {@link Transformer} or {@link TransformerSink} do so on
+ * the given executor, and only hold a thread while there is outstanding demand. The ones that bridge pushed elements
+ * to a pull-based transformer or sink block their executor thread while waiting for input; make sure the executor has
+ * enough threads for all such stages. {@link Transformation}s do not need a thread of their own.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public final class FlowAdapters {
+
+    private FlowAdapters() {
+    }
+
+    /**
+     * Publishes the output of the given source, pulling on the common fork-join pool.
+     *
+     * @param source Cannot be null.
+     * @return A publisher that calls the output() method of the source once for each subscriber.
+     * @throws IllegalArgumentException When source is null.
+     */
+    public static <T> Flow.Publisher<T> toPublisher(TransformerSource<T> source) {
+
+        return toPublisher(source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Publishes the output of the given source.
+     *
+     * @param source Cannot be null.
+     * @param executor The executor on which the output of the source is pulled. Cannot be null.
+     * @return A publisher that calls the output() method of the source once for each subscriber.
+     * @throws IllegalArgumentException When source or executor is null.
+     */
+    public static <T> Flow.Publisher<T> toPublisher(final TransformerSource<T> source, Executor executor) {
+
+        if (source == null)
+            throw new IllegalArgumentException("Argument source cannot be null");
+
+        return new IterablePublisher<T>(executor) {
+            @Override
+            protected Iterable<? extends T> open() {
+                return source.output();
+            }
+        };
+    }
+
+    /**
+     * Publishes the output of the given open transformer chain. A chain can only be iterated once, so the publisher
+     * should be subscribed to only once.
+     *
+     * @param chain Cannot be null.
+     * @param executor The executor on which the chain is pulled. Cannot be null.
+     * @return A publisher for the output of the chain.
+     * @throws IllegalArgumentException When chain or executor is null.
+     */
+    public static <T> Flow.Publisher<T> toPublisher(final OpenTransformerChain<T> chain, Executor executor) {
+
+        if (chain == null)
+            throw new IllegalArgumentException("Argument chain cannot be null");
+
+        return new IterablePublisher<T>(executor) {
+            @Override
+            protected Iterable<? extends T> open() {
+                return chain;
+            }
+        };
+    }
+
+    /**
+     * Creates a processor that applies the given transformation to each element on the signalling thread.
+     *
+     * @param transformation Cannot be null.
+     * @return The processor.
+     * @throws IllegalArgumentException When transformation is null.
+     */
+    public static <Source, Target> TransformationProcessor<Source, Target> toProcessor(Transformation<? super Source, ? extends Target> transformation) {
+
+        return TransformationProcessor.transforming(transformation);
+    }
+
+    /**
+     * Creates a processor that only passes the elements for which the given filter transformation evaluates to true.
+     *
+     * @param filter Cannot be null.
+     * @return The processor.
+     * @throws IllegalArgumentException When filter is null.
+     */
+    public static <Source> TransformationProcessor<Source, Source> toFilterProcessor(Transformation<? super Source, Boolean> filter) {
+
+        return TransformationProcessor.filtering(filter);
+    }
+
+    /**
+     * Creates a processor that runs the given transformer, buffering up to {@link Flow#defaultBufferSize()} upstream
+     * elements.
+     *
+     * @param transformer Cannot be null.
+     * @param executor The executor on which the transformer runs. Cannot be null.
+     * @return The processor, which supports a single subscriber.
+     * @throws IllegalArgumentException When transformer or executor is null.
+     */
+    public static <Source, Target> Flow.Processor<Source, Target> toProcessor(Transformer<Source, Target> transformer, Executor executor) {
+
+        return toProcessor(transformer, executor, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Creates a processor that runs the given transformer.
+     *
+     * @param transformer Cannot be null.
+     * @param executor The executor on which the transformer runs. Cannot be null.
+     * @param bufferSize The maximum number of upstream elements buffered before the transformer, at least 1.
+     * @return The processor, which supports a single subscriber.
+     * @throws IllegalArgumentException When transformer or executor is null or bufferSize is smaller than 1.
+     */
+    public static <Source, Target> Flow.Processor<Source, Target> toProcessor(Transformer<Source, Target> transformer, Executor executor, int bufferSize) {
+
+        return new TransformerProcessor<Source, Target>(transformer, executor, bufferSize);
+    }
+
+    /**
+     * Creates a subscriber that feeds the given sink, buffering up to {@link Flow#defaultBufferSize()} elements.
+     *
+     * @param sink Cannot be null.
+     * @param executor The executor on which the sink runs. Cannot be null.
+     * @return The subscriber.
+     * @throws IllegalArgumentException When sink or executor is null.
+     */
+    public static <T> TransformerSinkSubscriber<T> toSubscriber(TransformerSink<T> sink, Executor executor) {
+
+        return new TransformerSinkSubscriber<T>(sink, executor, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Creates a transformer source that offers the elements of the given publisher to a transformer chain.
+     *
+     * @param publisher Cannot be null.
+     * @return The transformer source.
+     * @throws IllegalArgumentException When publisher is null.
+     */
+    public static <T> PublisherTransformerSource<T> toTransformerSource(Flow.Publisher<? extends T> publisher) {
+
+        return new PublisherTransformerSource<T>(publisher);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * <p>
+ * Bridges a push-based {@link Flow.Publisher} to the pull-based {@link Iterable} input of transformers and sinks.
+ * The buffer subscribes with a demand equal to its capacity and requests more elements in batches as they are pulled
+ * by the consumer, so at most <tt>capacity</tt> elements are ever buffered. The consumer blocks while the buffer is empty.
+ * </p>
+ * <p>
+ * The buffer can only be iterated once. An upstream error ends the iteration and is passed to {@link #failed(Throwable)}.
+ * {@link #cancel()} ends it as well, also when the consumer is blocked waiting for an element.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the buffered elements.
+ * @since SDK1.5
+ */
+class FlowBuffer<T> implements Flow.Subscriber<T>, Iterable<T> {
+
+    private static final Object COMPLETE = new Object();
+    private static final Object CANCELLED = new Object();
+
+    private final int capacity;
+    private final int replenishThreshold;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<Object>();
+
+    private volatile Flow.Subscription subscription;
+    private volatile Throwable error;
+    private volatile boolean isCancelled = false;
+    private Iterator<T> iterator;
+
+    /**
+     * Constructs a buffer with the given capacity.
+     *
+     * @param capacity The maximum number of buffered elements, at least 1.
+     * @throws IllegalArgumentException When capacity is smaller than 1.
+     */
+    FlowBuffer(int capacity) {
+
+        if (capacity < 1)
+            throw new IllegalArgumentException("Argument capacity must be at least 1");
+
+        this.capacity = capacity;
+        this.replenishThreshold = Math.max(1, capacity / 2);
+    }
+
+    public void onSubscribe(Flow.Subscription subscription) {
+
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+        if (isCancelled)
+            subscription.cancel();
+        else
+            subscription.request(capacity);
+    }
+
+    public void onNext(T item) {
+
+        if (item == null)
+            throw new NullPointerException("Flow elements cannot be null");
+
+        if (!isCancelled) // elements may still arrive after cancellation
+            queue.offer(item);
+    }
+
+    public void onError(Throwable throwable) {
+
+        queue.offer(new Failure(throwable));
+    }
+
+    public void onComplete() {
+
+        queue.offer(COMPLETE);
+    }
+
+    /**
+     * Cancels the upstream subscription, or the one that is still to come, and ends the iteration. A consumer that is
+     * blocked waiting for an element is woken up.
+     */
+    void cancel() {
+
+        isCancelled = true;
+        Flow.Subscription current = subscription;
+        if (current != null)
+            current.cancel();
+        queue.clear();
+        queue.offer(CANCELLED);
+    }
+
+    /**
+     * @return The error signalled by the publisher, or null if none occurred (yet).
+     */
+    Throwable getError() {
+
+        return error;
+    }
+
+    /**
+     * Called on the consuming thread when the publisher signalled an error. Does nothing by default.
+     *
+     * @param throwable The error signalled by the publisher.
+     */
+    void failed(Throwable throwable) {
+    }
+
+    /**
+     * Called on the consuming thread whenever the number of buffered elements changes. Does nothing by default.
+     *
+     * @param occupancy The number of buffered elements.
+     */
+    void occupancyChanged(int occupancy) {
+    }
+
+    /**
+     * Returns the single iterator over this buffer.
+     *
+     * @return The iterator that pulls the buffered elements.
+     */
+    public synchronized Iterator<T> iterator() {
+
+        if (iterator == null)
+            iterator = new BufferIterator();
+
+        return iterator;
+    }
+
+    private class BufferIterator implements Iterator<T> {
+
+        private T next;
+        private boolean isNextValid = false;
+        private boolean isFinished = false;
+        private int consumedSinceRequest = 0;
+
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+
+            if (isNextValid)
+                return true;
+
+            if (isFinished)
+                return false;
+
+            Object element;
+            try {
+                element = queue.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                isFinished = true;
+                cancel();
+                return false;
+            }
+
+            occupancyChanged(queue.size());
+
+            if (element == COMPLETE || element == CANCELLED) {
+                isFinished = true;
+                return false;
+            }
+
+            if (element instanceof Failure) {
+                isFinished = true;
+                error = ((Failure) element).throwable;
+                failed(error);
+                return false;
+            }
+
+            next = (T) element;
+            isNextValid = true;
+            if (++consumedSinceRequest == replenishThreshold) {
+                consumedSinceRequest = 0;
+                subscription.request(replenishThreshold);
+            }
+            return true;
+        }
+
+        public T next() {
+
+            if (isNextValid || hasNext()) {
+                isNextValid = false;
+                T result = next;
+                next = null;
+                return result;
+            }
+
+            throw new NoSuchElementException();
+        }
+
+        /**
+         * Not supported.
+         */
+        public void remove() {
+
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Queue marker for an upstream error.
+     */
+    private static class Failure {
+
+        private final Throwable throwable;
+
+        private Failure(Throwable throwable) {
+
+            this.throwable = throwable;
+        }
+    }
+}
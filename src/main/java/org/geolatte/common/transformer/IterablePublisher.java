@@ -0,0 +1,232 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Publishes the elements of a pull-based {@link Iterable} (e.g., the output of a {@link TransformerSource} or
+ * {@link Transformer}) to {@link Flow.Subscriber}s with demand-driven back-pressure.
+ * </p>
+ * <p>
+ * Elements are pulled on the given executor and only as long as there is outstanding demand: when a subscriber stops
+ * requesting, no thread is kept busy. A drain task is scheduled at most once per subscription at any time, so elements
+ * of one subscription are always signalled sequentially.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the published elements.
+ * @since SDK1.5
+ */
+abstract class IterablePublisher<T> implements Flow.Publisher<T> {
+
+    private final Executor executor;
+
+    /**
+     * @param executor The executor on which elements are pulled and signalled.
+     */
+    IterablePublisher(Executor executor) {
+
+        if (executor == null)
+            throw new IllegalArgumentException("Argument executor cannot be null");
+
+        this.executor = executor;
+    }
+
+    /**
+     * Opens the iterable to publish to a new subscriber. Called on the executor, before the first element is pulled.
+     *
+     * @return The elements to publish; null is treated as an empty iterable.
+     */
+    protected abstract Iterable<? extends T> open();
+
+    /**
+     * Gets the error to signal instead of completion once the opened iterable is exhausted. Returns null by default.
+     *
+     * @return The error that ended the iterable early, or null if it ended normally.
+     */
+    protected Throwable completionError() {
+
+        return null;
+    }
+
+    /**
+     * Called once when a subscriber cancels its subscription, on the thread that cancels. Does nothing by default.
+     */
+    protected void cancelled() {
+    }
+
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+
+        if (subscriber == null)
+            throw new NullPointerException("Argument subscriber cannot be null");
+
+        subscriber.onSubscribe(new IterableSubscription(subscriber));
+    }
+
+    /**
+     * Pulls elements for a single subscriber.
+     */
+    private class IterableSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+
+        private volatile boolean isCancelled = false;
+        private volatile Throwable invalidRequest;
+
+        // Only accessed from the drain task
+        private Iterator<? extends T> iterator;
+        private boolean isDone = false;
+
+        private IterableSubscription(Flow.Subscriber<? super T> subscriber) {
+
+            this.subscriber = subscriber;
+        }
+
+        public void request(long n) {
+
+            if (n <= 0)
+                invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+            else
+                addRequested(n);
+
+            schedule();
+        }
+
+        public void cancel() {
+
+            if (!isCancelled) {
+                isCancelled = true;
+                cancelled();
+            }
+        }
+
+        private void addRequested(long n) {
+
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                next = current + n;
+                if (next < 0) // overflow: unbounded demand
+                    next = Long.MAX_VALUE;
+            }
+            while (!requested.compareAndSet(current, next));
+        }
+
+        private void schedule() {
+
+            if (workInProgress.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                }
+                catch (RuntimeException e) {
+                    workInProgress.set(0);
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        public void run() {
+
+            int missed = 1;
+            while (true) {
+                drain();
+                missed = workInProgress.addAndGet(-missed);
+                if (missed == 0)
+                    return;
+            }
+        }
+
+        private void drain() {
+
+            if (isDone || isCancelled)
+                return;
+
+            if (invalidRequest != null) {
+                terminate(invalidRequest);
+                return;
+            }
+
+            try {
+                if (iterator == null) {
+                    Iterable<? extends T> iterable = open();
+                    iterator = iterable == null ? Collections.<T>emptyList().iterator() : iterable.iterator();
+                }
+
+                long demand = requested.get();
+                while (demand > 0) {
+
+                    long emitted = 0;
+                    while (emitted != demand) {
+
+                        if (isCancelled)
+                            return;
+
+                        if (!iterator.hasNext()) {
+                            if (isCancelled) // the iterable may end because of the cancellation
+                                return;
+                            Throwable error = completionError();
+                            if (error != null) {
+                                terminate(error);
+                            }
+                            else {
+                                isDone = true;
+                                subscriber.onComplete();
+                            }
+                            return;
+                        }
+
+                        T next = iterator.next();
+                        if (next != null) { // null elements cannot be signalled
+                            subscriber.onNext(next);
+                            emitted++;
+                        }
+                    }
+
+                    // Continue as long as new demand arrived while emitting
+                    demand = requested.addAndGet(-emitted);
+                }
+            }
+            catch (RuntimeException e) {
+                terminate(e);
+            }
+        }
+
+        private void terminate(Throwable throwable) {
+
+            isDone = true;
+            subscriber.onError(throwable);
+        }
+    }
+}
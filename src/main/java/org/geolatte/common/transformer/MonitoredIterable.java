@@ -0,0 +1,161 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.Iterator;
+
+/**
+ * <p>
+ * Wraps the output of a chain stage to report to a {@link StageMonitor}. Since stages are pull-based, the time measured
+ * around a call to the wrapped iterator includes the time spent in the upstream stages; the upstream wrapper is used to
+ * subtract that part, so that only the time spent in the stage itself is reported.
+ * </p>
+ * <p>
+ * Optionally, the time the consumer of this output spends between two pulls can be reported to a second monitor. This
+ * is how the work done by a {@link TransformerSink} is measured.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the elements produced by the stage.
+ * @since SDK1.5
+ */
+class MonitoredIterable<T> implements Iterable<T> {
+
+    private final Iterable<T> delegate;
+    private final StageMonitor monitor;
+    private final MonitoredIterable<?> upstream;
+    private StageMonitor consumerMonitor;
+
+    // Cumulative time spent inside the wrapped iterator, upstream stages included
+    private long inclusiveNanos = 0;
+
+    /**
+     * Wraps the output of a stage.
+     *
+     * @param delegate The output of the stage.
+     * @param monitor The monitor of the stage.
+     * @param upstream The wrapped output of the previous stage, null if this is the first stage.
+     */
+    MonitoredIterable(Iterable<T> delegate, StageMonitor monitor, MonitoredIterable<?> upstream) {
+
+        this.delegate = delegate;
+        this.monitor = monitor;
+        this.upstream = upstream;
+    }
+
+    /**
+     * Sets the monitor that receives the time spent by the consumer of this output between pulls.
+     *
+     * @param consumerMonitor The monitor of the consuming stage.
+     */
+    void setConsumerMonitor(StageMonitor consumerMonitor) {
+
+        this.consumerMonitor = consumerMonitor;
+    }
+
+    public Iterator<T> iterator() {
+
+        Iterator<T> iterator = delegate.iterator();
+        return iterator == null ? null : new MonitoredIterator(iterator);
+    }
+
+    private long upstreamNanos() {
+
+        return upstream == null ? 0 : upstream.inclusiveNanos;
+    }
+
+    private class MonitoredIterator implements Iterator<T> {
+
+        private final Iterator<T> iterator;
+        private long pendingNanos = 0;
+        private long consumerSince = -1;
+        private boolean isFinished = false;
+
+        private MonitoredIterator(Iterator<T> iterator) {
+
+            this.iterator = iterator;
+        }
+
+        public boolean hasNext() {
+
+            long start = System.nanoTime();
+            chargeConsumer(start);
+            long upstreamStart = upstreamNanos();
+            boolean hasNext = false;
+            try {
+                hasNext = iterator.hasNext();
+            }
+            finally {
+                account(start, upstreamStart);
+            }
+
+            if (!hasNext && !isFinished) {
+                isFinished = true;
+                monitor.finished(pendingNanos);
+                pendingNanos = 0;
+            }
+            return hasNext;
+        }
+
+        public T next() {
+
+            long start = System.nanoTime();
+            chargeConsumer(start);
+            long upstreamStart = upstreamNanos();
+            T next;
+            try {
+                next = iterator.next();
+            }
+            finally {
+                account(start, upstreamStart);
+            }
+
+            monitor.elementProcessed(pendingNanos);
+            pendingNanos = 0;
+            if (consumerMonitor != null)
+                consumerSince = System.nanoTime();
+            return next;
+        }
+
+        public void remove() {
+
+            iterator.remove();
+        }
+
+        private void account(long start, long upstreamStart) {
+
+            long elapsed = System.nanoTime() - start;
+            inclusiveNanos += elapsed;
+            pendingNanos += elapsed - (upstreamNanos() - upstreamStart);
+        }
+
+        private void chargeConsumer(long now) {
+
+            if (consumerSince >= 0) {
+                consumerMonitor.elementProcessed(now - consumerSince);
+                consumerSince = -1;
+            }
+        }
+    }
+}
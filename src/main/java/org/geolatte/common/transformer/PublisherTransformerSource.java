@@ -0,0 +1,95 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.concurrent.Flow;
+
+/**
+ * <p>
+ * A {@link TransformerSource} that subscribes to a {@link Flow.Publisher} and offers the published elements to a
+ * transformer chain. The publisher is subscribed to when the chain asks for the output; at most <tt>bufferSize</tt>
+ * elements are requested ahead of the chain, so a slow chain applies back-pressure to the publisher.
+ * </p>
+ * <p>
+ * An error signalled by the publisher ends the output and is reported as a terminating source error.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the provided data.
+ * @since SDK1.5
+ */
+public class PublisherTransformerSource<T> extends AbstractObservableTransformerSource<T> {
+
+    private final Flow.Publisher<? extends T> publisher;
+    private final int bufferSize;
+
+    /**
+     * Constructs a source that buffers up to {@link Flow#defaultBufferSize()} elements.
+     *
+     * @param publisher Cannot be null.
+     * @throws IllegalArgumentException When publisher is null.
+     */
+    public PublisherTransformerSource(Flow.Publisher<? extends T> publisher) {
+
+        this(publisher, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Constructs a source that buffers up to the given number of elements.
+     *
+     * @param publisher Cannot be null.
+     * @param bufferSize The maximum number of elements requested ahead of the chain, at least 1.
+     * @throws IllegalArgumentException When publisher is null or bufferSize is smaller than 1.
+     */
+    public PublisherTransformerSource(Flow.Publisher<? extends T> publisher, int bufferSize) {
+
+        if (publisher == null)
+            throw new IllegalArgumentException("Argument publisher cannot be null");
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Argument bufferSize must be at least 1");
+
+        this.publisher = publisher;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Subscribes to the publisher and returns the buffered elements. Each invocation creates a new subscription.
+     *
+     * @return The elements published.
+     */
+    @Override
+    protected Iterable<T> output() {
+
+        FlowBuffer<T> buffer = new FlowBuffer<T>(bufferSize) {
+            @Override
+            void failed(Throwable throwable) {
+
+                Exception exception = throwable instanceof Exception ? (Exception) throwable : new Exception(throwable);
+                onSourceErrorOccurred(true, exception);
+            }
+        };
+        publisher.subscribe(buffer);
+        return buffer;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A {@link StageMonitor} that accumulates the measurements of a single chain stage: element, reject and error counts,
+ * cumulative time, a latency histogram for percentiles and the buffer occupancy.
+ * </p>
+ * <p>
+ * Latencies are recorded in a log-linear histogram (8 sub-buckets per power of two), so reported percentiles are an
+ * upper bound that is at most 12.5% above the actual value.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class StageMetrics implements StageMonitor {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final int stageIndex;
+    private final Object stage;
+
+    private final AtomicLong elementCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicInteger bufferOccupancy = new AtomicInteger();
+    private final AtomicInteger maxBufferOccupancy = new AtomicInteger();
+
+    /**
+     * Constructs the metrics for the given stage.
+     *
+     * @param stageIndex The position of the stage in the chain.
+     * @param stage The source, transformer or sink that makes up the stage.
+     */
+    public StageMetrics(int stageIndex, Object stage) {
+
+        this.stageIndex = stageIndex;
+        this.stage = stage;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void elementProcessed(long nanos) {
+
+        if (nanos < 0)
+            nanos = 0;
+
+        elementCount.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        latencyHistogram.incrementAndGet(bucketOf(nanos));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void elementRejected() {
+
+        rejectedCount.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void errorOccurred() {
+
+        errorCount.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void bufferOccupancy(int occupancy) {
+
+        bufferOccupancy.set(occupancy);
+        int max = maxBufferOccupancy.get();
+        while (occupancy > max && !maxBufferOccupancy.compareAndSet(max, occupancy))
+            max = maxBufferOccupancy.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void finished(long nanos) {
+
+        if (nanos > 0)
+            totalNanos.addAndGet(nanos);
+    }
+
+    /**
+     * @return The position of the stage in the chain.
+     */
+    public int getStageIndex() {
+
+        return stageIndex;
+    }
+
+    /**
+     * @return The source, transformer or sink that makes up the stage.
+     */
+    public Object getStage() {
+
+        return stage;
+    }
+
+    /**
+     * @return The number of elements produced by the stage; for a filter, the number of elements that passed.
+     */
+    public long getElementCount() {
+
+        return elementCount.get();
+    }
+
+    /**
+     * @return The number of elements dropped by a filtering stage.
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return The number of transformation errors reported by the stage.
+     */
+    public long getErrorCount() {
+
+        return errorCount.get();
+    }
+
+    /**
+     * @return The cumulative time spent in this stage alone, in nanoseconds.
+     */
+    public long getTotalNanos() {
+
+        return totalNanos.get();
+    }
+
+    /**
+     * @return The mean time spent in this stage per produced element, in nanoseconds, or 0 if none was produced yet.
+     */
+    public long getMeanNanos() {
+
+        long count = elementCount.get();
+        return count == 0 ? 0 : totalNanos.get() / count;
+    }
+
+    /**
+     * Gets an upper bound for the given percentile of the per-element time spent in this stage.
+     *
+     * @param percentile A percentile between 0 and 100.
+     * @return The percentile, in nanoseconds, or 0 if no element was produced yet.
+     * @throws IllegalArgumentException When percentile is not between 0 and 100.
+     */
+    public long getPercentileNanos(double percentile) {
+
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Argument percentile must be between 0 and 100");
+
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = latencyHistogram.get(i);
+            total += counts[i];
+        }
+
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return upperBoundOf(i);
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * @return The number of elements buffered after this stage when last reported.
+     */
+    public int getBufferOccupancy() {
+
+        return bufferOccupancy.get();
+    }
+
+    /**
+     * @return The highest number of elements ever buffered after this stage.
+     */
+    public int getMaxBufferOccupancy() {
+
+        return maxBufferOccupancy.get();
+    }
+
+    @Override
+    public String toString() {
+
+        return "Stage " + stageIndex + " (" + stage.getClass().getSimpleName() + "): elements=" + getElementCount() +
+                ", rejected=" + getRejectedCount() + ", errors=" + getErrorCount() +
+                ", totalNanos=" + getTotalNanos() + ", p50Nanos=" + getPercentileNanos(50) +
+                ", p99Nanos=" + getPercentileNanos(99) + ", maxBuffer=" + getMaxBufferOccupancy();
+    }
+
+    private static int bucketOf(long value) {
+
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        int major = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (major - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (major - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+
+        int major = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long width = 1L << (major - SUB_BUCKET_BITS);
+        long upperBound = ((long) (SUB_BUCKETS + sub) << (major - SUB_BUCKET_BITS)) + width - 1;
+        return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+    }
+}
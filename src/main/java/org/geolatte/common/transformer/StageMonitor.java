@@ -0,0 +1,71 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+/**
+ * <p>
+ * Receives the measurements of a single stage (source, transformer or sink) of a monitored {@link TransformerChain}.
+ * Instances are handed out by a {@link TransformerChainMonitor} when the chain is configured.
+ * </p>
+ * <p>
+ * Stages of a pull-based chain are driven by a single thread, but buffering stages may report from other threads,
+ * so implementations should be thread-safe.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public interface StageMonitor {
+
+    /**
+     * Called each time the stage produced (or, for a sink, consumed) an element.
+     *
+     * @param nanos The time spent in this stage alone for this element, upstream stages excluded.
+     */
+    public void elementProcessed(long nanos);
+
+    /**
+     * Called each time a filtering stage drops an input element.
+     */
+    public void elementRejected();
+
+    /**
+     * Called each time the stage reports a transformation error for an input element.
+     */
+    public void errorOccurred();
+
+    /**
+     * Called by buffering stages whenever the number of elements held between this stage and the next one changes.
+     *
+     * @param occupancy The number of elements currently buffered.
+     */
+    public void bufferOccupancy(int occupancy);
+
+    /**
+     * Called once when the stage signals it has no more elements.
+     *
+     * @param nanos The time spent in this stage alone since the last produced element.
+     */
+    public void finished(long nanos);
+}
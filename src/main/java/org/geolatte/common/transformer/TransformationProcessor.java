@@ -0,0 +1,295 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.ArrayList;
+import java.util.concurrent.Flow;
+
+/**
+ * <p>
+ * A {@link Flow.Processor} that applies a {@link Transformation} (or a filter {@link Transformation}) to each element
+ * on the thread that signals it, the push-based counterpart of {@link DefaultTransformer} and {@link DefaultFilter}.
+ * Demand of the subscriber is passed on to the upstream publisher one-to-one.
+ * </p>
+ * <p>
+ * Elements for which the transformation throws a {@link TransformationException}, for which it returns null, or which do
+ * not pass the filter are dropped; the processor then requests one more element upstream so the downstream demand is
+ * still honoured. Transformation errors are reported to the registered {@link TransformerEventListener}s.
+ * </p>
+ * <p>
+ * A processor supports a single subscriber.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <Source> The type of the elements received from upstream.
+ * @param <Target> The type of the elements published downstream.
+ * @since SDK1.5
+ */
+public class TransformationProcessor<Source, Target> implements Flow.Processor<Source, Target> {
+
+    // One of the two transformations below will be filled in
+    private final Transformation<? super Source, ? extends Target> transformation;
+    private final Transformation<? super Source, Boolean> filter;
+
+    private final ArrayList<TransformerEventListener> transformerEventListeners = new ArrayList<TransformerEventListener>();
+
+    private final Object lock = new Object();
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super Target> downstream;
+    private long pendingDemand = 0;
+    private boolean isCancelled = false;
+    private boolean isTerminated = false;
+    private Throwable terminalError;
+
+    private TransformationProcessor(Transformation<? super Source, ? extends Target> transformation, Transformation<? super Source, Boolean> filter) {
+
+        this.transformation = transformation;
+        this.filter = filter;
+    }
+
+    /**
+     * Creates a processor that transforms each element with the given transformation.
+     *
+     * @param transformation Cannot be null.
+     * @return The processor.
+     * @throws IllegalArgumentException When transformation is null.
+     */
+    public static <Source, Target> TransformationProcessor<Source, Target> transforming(Transformation<? super Source, ? extends Target> transformation) {
+
+        if (transformation == null)
+            throw new IllegalArgumentException("Argument transformation cannot be null");
+
+        return new TransformationProcessor<Source, Target>(transformation, null);
+    }
+
+    /**
+     * Creates a processor that only passes the elements for which the given filter transformation evaluates to true.
+     *
+     * @param filter Cannot be null.
+     * @return The processor.
+     * @throws IllegalArgumentException When filter is null.
+     */
+    public static <Source> TransformationProcessor<Source, Source> filtering(Transformation<? super Source, Boolean> filter) {
+
+        if (filter == null)
+            throw new IllegalArgumentException("Argument filter cannot be null");
+
+        return new TransformationProcessor<Source, Source>(null, filter);
+    }
+
+    /**
+     * Adds a listener for transformer events. Null listeners are ignored.
+     * @param listener The listener to add
+     */
+    public void addTransformerEventListener(TransformerEventListener listener) {
+
+        if (listener != null) {
+            synchronized (transformerEventListeners) {
+                transformerEventListeners.add(listener);
+            }
+        }
+    }
+
+    /**
+     * Removes the given listener.
+     * @param listener The listener to remove.
+     */
+    public void removeTransformerEventListener(TransformerEventListener listener) {
+
+        synchronized (transformerEventListeners) {
+            transformerEventListeners.remove(listener);
+        }
+    }
+
+    public void subscribe(Flow.Subscriber<? super Target> subscriber) {
+
+        if (subscriber == null)
+            throw new NullPointerException("Argument subscriber cannot be null");
+
+        boolean isTerminatedNow;
+        Throwable error;
+        synchronized (lock) {
+            if (downstream != null) {
+                subscriber.onSubscribe(new RejectedSubscription());
+                subscriber.onError(new IllegalStateException("A TransformationProcessor supports a single subscriber"));
+                return;
+            }
+            downstream = subscriber;
+            isTerminatedNow = isTerminated;
+            error = terminalError;
+        }
+
+        subscriber.onSubscribe(new DownstreamSubscription());
+        if (isTerminatedNow)
+            signalTermination(subscriber, error);
+    }
+
+    public void onSubscribe(Flow.Subscription subscription) {
+
+        long demand;
+        boolean cancel;
+        synchronized (lock) {
+            if (upstream != null) {
+                cancel = true;
+                demand = 0;
+            }
+            else {
+                upstream = subscription;
+                cancel = isCancelled;
+                demand = pendingDemand;
+                pendingDemand = 0;
+            }
+        }
+
+        if (cancel)
+            subscription.cancel();
+        else if (demand > 0)
+            subscription.request(demand);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void onNext(Source item) {
+
+        Target result = null;
+        try {
+            if (transformation != null)
+                result = transformation.transform(item);
+            else if (Boolean.TRUE.equals(filter.transform(item)))
+                result = (Target) item;
+        }
+        catch (TransformationException e) {
+            onTransformerErrorOccurred(item, e);
+        }
+
+        if (result != null)
+            downstream.onNext(result);
+        else
+            upstream.request(1);
+    }
+
+    public void onError(Throwable throwable) {
+
+        terminate(throwable);
+    }
+
+    public void onComplete() {
+
+        terminate(null);
+    }
+
+    private void terminate(Throwable error) {
+
+        Flow.Subscriber<? super Target> subscriber;
+        synchronized (lock) {
+            isTerminated = true;
+            terminalError = error;
+            subscriber = downstream;
+        }
+
+        if (subscriber != null)
+            signalTermination(subscriber, error);
+    }
+
+    private void signalTermination(Flow.Subscriber<? super Target> subscriber, Throwable error) {
+
+        if (error == null)
+            subscriber.onComplete();
+        else
+            subscriber.onError(error);
+    }
+
+    /**
+     * Called when an exception occurred. Fires the ErrorOccured event.
+     * @param failedObject The input object that caused the error.
+     * @param exception The exception that was thrown by the Transformation.
+     */
+    protected void onTransformerErrorOccurred(Source failedObject, Exception exception) {
+
+        ArrayList<TransformerEventListener> listeners;
+        synchronized (transformerEventListeners) {
+            listeners = new ArrayList<TransformerEventListener>(transformerEventListeners);
+        }
+
+        TransformerErrorEvent event = new TransformerErrorEvent(this, failedObject, exception);
+        for (TransformerEventListener listener : listeners) {
+            try {
+                listener.ErrorOccurred(event);
+            }
+            catch (RuntimeException e) {
+                // Log this somehow
+                System.err.println("Exception thrown while trying to invoke event listener, removing bad behaved listener.");
+                e.printStackTrace();
+                removeTransformerEventListener(listener);
+            }
+        }
+    }
+
+    /**
+     * Passes the demand of the subscriber on to the upstream publisher.
+     */
+    private class DownstreamSubscription implements Flow.Subscription {
+
+        public void request(long n) {
+
+            Flow.Subscription subscription;
+            synchronized (lock) {
+                subscription = upstream;
+                if (subscription == null && n > 0) {
+                    pendingDemand += n;
+                    if (pendingDemand < 0) // overflow: unbounded demand
+                        pendingDemand = Long.MAX_VALUE;
+                }
+            }
+
+            if (subscription != null)
+                subscription.request(n);
+            else if (n <= 0)
+                terminate(new IllegalArgumentException("Non-positive request: " + n));
+        }
+
+        public void cancel() {
+
+            Flow.Subscription subscription;
+            synchronized (lock) {
+                isCancelled = true;
+                subscription = upstream;
+            }
+
+            if (subscription != null)
+                subscription.cancel();
+        }
+    }
+
+    /**
+     * Subscription handed to subscribers that cannot be served.
+     */
+    private static class RejectedSubscription implements Flow.Subscription {
+
+        public void request(long n) {
+        }
+
+        public void cancel() {
+        }
+    }
+}
@@ -28,6 +28,9 @@ import java.util.ArrayList;
  * Base class for transformer chains. A transformer chain can include a {@link TransformerSource}, a {@link Transformer} and {@link TransformerSink}, all of them optional.
  * This abstract class implements nothing more than the basic event mechanism for firing error events that might originate from a source, sink of a transformer.
  * </p>
+ * <p>
+ * A {@link TransformerChainMonitor} can be set to collect per-stage element counts and timings; see {@link TransformerChainMetrics}.
+ * </p>
  * <i>Creation-Date</i>: 04-May-2010<br>
  * <i>Creation-Time</i>:  14:54:50<br>
  *
@@ -41,6 +44,26 @@ public abstract class TransformerChain<Source, Target> {
     private ArrayList<TransformerEventListener> transformerEventListeners = new ArrayList<TransformerEventListener>();
     private ArrayList<TransformerSourceEventListener> transformerSourceEventListeners = new ArrayList<TransformerSourceEventListener>();
     private ArrayList<TransformerSinkEventListener> transformerSinkEventListeners = new ArrayList<TransformerSinkEventListener>();
+    private TransformerChainMonitor monitor;
+
+    /**
+     * Sets the monitor that receives the measurements of each stage of this chain. Must be set before the chain is
+     * started (i.e., before run() or iterator() is called) to have effect.
+     * @param monitor The monitor to use, or null to run the chain without instrumentation (the default).
+     */
+    public void setMonitor(TransformerChainMonitor monitor) {
+
+        this.monitor = monitor;
+    }
+
+    /**
+     * Gets the monitor of this chain.
+     * @return The monitor, or null if the chain is not instrumented.
+     */
+    public TransformerChainMonitor getMonitor() {
+
+        return monitor;
+    }
 
     /**
      * Adds a listener for transformer events. Null listeners are ignored.
@@ -294,6 +294,12 @@ public class TransformerChainFactory {
         private ArrayList<Transformer<?, ?>> chain = new ArrayList<Transformer<?, ?>>();
         private boolean isConfigured = false;
 
+        // Only filled in when the enclosing chain is instrumented
+        private TransformerChainMonitor monitor;
+        private MonitoredIterable<?> monitoredInput;
+        private int firstStageIndex;
+        private MonitoredIterable<?>[] monitoredOutputs;
+
         TransformerChain(ArrayList<Transformer<?, ?>> chain) {
 
             if (chain.size() > 0) {
@@ -318,7 +324,7 @@ public class TransformerChainFactory {
             for (int i = 1; i < chain.size(); i++) {
 
                 Transformer current = chain.get(i);
-                current.setInput(chain.get(i-1).output());
+                current.setInput(stageOutput(i-1));
 
                 if (current instanceof ObservableTransformer)
                     ((ObservableTransformer)current).addTransformerEventListener(this);
@@ -327,6 +333,52 @@ public class TransformerChainFactory {
             isConfigured = true;
         }
 
+        /**
+         * Instruments the transformers of this chain. Should be called before the input is set.
+         *
+         * @param monitor The monitor of the enclosing chain.
+         * @param monitoredInput The instrumented output of the stage preceding this chain.
+         * @param firstStageIndex The stage index of the first transformer in the enclosing chain.
+         */
+        void monitorWith(TransformerChainMonitor monitor, MonitoredIterable<?> monitoredInput, int firstStageIndex) {
+
+            this.monitor = monitor;
+            this.monitoredInput = monitoredInput;
+            this.firstStageIndex = firstStageIndex;
+            this.monitoredOutputs = new MonitoredIterable<?>[chain.size()];
+        }
+
+        /**
+         * @return The number of stages in this chain.
+         */
+        int size() {
+
+            return chain.size();
+        }
+
+        /**
+         * Gets the output of the given stage, wrapped in a MonitoredIterable if this chain is instrumented.
+         */
+        @SuppressWarnings("unchecked")
+        private Iterable<?> stageOutput(int i) {
+
+            Transformer<?, ?> stage = chain.get(i);
+            Iterable<?> output = stage.output();
+            if (monitor == null || output == null)
+                return output;
+
+            if (monitoredOutputs[i] == null) {
+
+                StageMonitor stageMonitor = monitor.createStageMonitor(firstStageIndex + i, stage);
+                if (stage instanceof AbstractObservableTransformer)
+                    ((AbstractObservableTransformer) stage).setStageMonitor(stageMonitor);
+
+                MonitoredIterable<?> upstream = i == 0 ? monitoredInput : monitoredOutputs[i-1];
+                monitoredOutputs[i] = new MonitoredIterable(output, stageMonitor, upstream);
+            }
+            return monitoredOutputs[i];
+        }
+
         public void setInput(Iterable<? extends Source> input) {
 
             // input cannot be set when source is set because then this instance is returned as a TransformerSource to the client (by the concatenator).
@@ -340,7 +392,7 @@ public class TransformerChainFactory {
         public Iterable<? extends Target> output() {
 
             configure();
-            return (Iterable<Target>)chain.get(chain.size()-1).output();
+            return (Iterable<Target>)stageOutput(chain.size()-1);
         }
 
         @SuppressWarnings({"ThrowableResultOfMethodCallIgnored"})
@@ -368,7 +420,7 @@ public class TransformerChainFactory {
 
             TransformerChain<Source, Target> transformerChain = new TransformerChain<Source, Target>(chain);
 
-            Iterable<? extends Source> output = transformerSource.output();
+            Iterable<? extends Source> output = monitoredSourceOutput(transformerSource, transformerChain, getMonitor());
             if (transformerSource instanceof ObservableTransformerSource) {
                 ((ObservableTransformerSource)transformerSource).addTransformerSourceEventListener(this);
             }
@@ -435,7 +487,7 @@ public class TransformerChainFactory {
 
             TransformerChain<Source, Target> transformerChain = new TransformerChain<Source, Target>(chain);
 
-            Iterable<? extends Source> output = transformerSource.output();
+            Iterable<? extends Source> output = monitoredSourceOutput(transformerSource, transformerChain, getMonitor());
             if (transformerSource instanceof ObservableTransformerSource) {
                 ((ObservableTransformerSource)transformerSource).addTransformerSourceEventListener(this);
             }
@@ -446,7 +498,14 @@ public class TransformerChainFactory {
             if (transformerSink instanceof ObservableTransformerSink) {
                 ((ObservableTransformerSink)transformerSink).addTransformerSinkEventListener(this);
             }
-            transformerSink.setInput(transformerChain.output());
+
+            Iterable<? extends Target> chainOutput = transformerChain.output();
+            if (chainOutput instanceof MonitoredIterable) {
+                // The sink is the last stage; it is measured by the time it spends between pulls on the chain output
+                StageMonitor sinkMonitor = getMonitor().createStageMonitor(transformerChain.size() + 1, transformerSink);
+                ((MonitoredIterable<?>) chainOutput).setConsumerMonitor(sinkMonitor);
+            }
+            transformerSink.setInput(chainOutput);
 
             isConfigured = true;
         }
@@ -496,6 +555,27 @@ public class TransformerChainFactory {
         }
     }
 
+    /**
+     * Gets the output of the given transformer source and, if a monitor is given, instruments it (as stage 0) and the
+     * transformers of the given chain.
+     *
+     * @param transformerSource The source of the chain.
+     * @param transformerChain The transformers of the chain.
+     * @param monitor The monitor of the chain, can be null.
+     * @return The (instrumented) output of the transformer source.
+     */
+    @SuppressWarnings("unchecked")
+    private static <Source> Iterable<? extends Source> monitoredSourceOutput(TransformerSource<? extends Source> transformerSource, TransformerChain<Source, ?> transformerChain, TransformerChainMonitor monitor) {
+
+        Iterable<? extends Source> output = transformerSource.output();
+        if (monitor == null || output == null)
+            return output;
+
+        MonitoredIterable<? extends Source> monitoredOutput = new MonitoredIterable(output, monitor.createStageMonitor(0, transformerSource), null);
+        transformerChain.monitorWith(monitor, monitoredOutput, 1);
+        return monitoredOutput;
+    }
+
     /**
      * Helper transformer that directly connects its input to its output (does nothing).
      */
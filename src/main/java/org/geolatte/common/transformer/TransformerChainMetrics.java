@@ -0,0 +1,89 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * A {@link TransformerChainMonitor} that collects {@link StageMetrics} for every stage of the chain it is set on.
+ * </p>
+ * Usage:
+ * <pre>
+ * {@code
+ * ClosedTransformerChain chain = TransformerChainFactory.<Source, Target>newChain().add(source)
+ *                                                                                 .add(transformation)
+ *                                                                                 .last(sink);
+ * TransformerChainMetrics metrics = new TransformerChainMetrics();
+ * chain.setMonitor(metrics);
+ * chain.run();
+ * for (StageMetrics stage : metrics.getStageMetrics())
+ *     System.out.println(stage);
+ * }
+ * </pre>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class TransformerChainMetrics implements TransformerChainMonitor {
+
+    private final List<StageMetrics> stageMetrics = new ArrayList<StageMetrics>();
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized StageMonitor createStageMonitor(int stageIndex, Object stage) {
+
+        StageMetrics metrics = new StageMetrics(stageIndex, stage);
+        stageMetrics.add(metrics);
+        return metrics;
+    }
+
+    /**
+     * Gets the metrics of all stages, in the order in which the stages were configured.
+     *
+     * @return A read-only snapshot of the list of stage metrics.
+     */
+    public synchronized List<StageMetrics> getStageMetrics() {
+
+        return Collections.unmodifiableList(new ArrayList<StageMetrics>(stageMetrics));
+    }
+
+    /**
+     * Gets the metrics of the stage that took the most time overall.
+     *
+     * @return The metrics of the slowest stage, or null if no stage was configured yet.
+     */
+    public synchronized StageMetrics getBottleneck() {
+
+        StageMetrics slowest = null;
+        for (StageMetrics metrics : stageMetrics) {
+            if (slowest == null || metrics.getTotalNanos() > slowest.getTotalNanos())
+                slowest = metrics;
+        }
+        return slowest;
+    }
+}
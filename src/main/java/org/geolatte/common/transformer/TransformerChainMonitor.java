@@ -0,0 +1,54 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+/**
+ * <p>
+ * Instrumentation SPI for transformer chains. When a monitor is set on a {@link TransformerChain} (see
+ * {@link TransformerChain#setMonitor(TransformerChainMonitor)}), the chain asks it for a {@link StageMonitor} for each
+ * of its stages when it is configured, and reports element counts and time spent to these stage monitors while it runs.
+ * </p>
+ * <p>
+ * Stages are numbered in chain order: the {@link TransformerSource} is stage 0, the transformers follow and the
+ * {@link TransformerSink} of a {@link ClosedTransformerChain} is the last stage. When no monitor is set, the chain runs
+ * without any instrumentation.
+ * </p>
+ * <p>
+ * See {@link TransformerChainMetrics} for a ready-to-use implementation.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public interface TransformerChainMonitor {
+
+    /**
+     * Creates the monitor that will receive the measurements of the given stage.
+     *
+     * @param stageIndex The position of the stage in the chain.
+     * @param stage The source, transformer or sink that makes up the stage.
+     * @return The monitor for the stage, cannot be null.
+     */
+    public StageMonitor createStageMonitor(int stageIndex, Object stage);
+}
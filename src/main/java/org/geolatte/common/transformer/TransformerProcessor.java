@@ -0,0 +1,153 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>
+ * A {@link Flow.Processor} around an arbitrary {@link Transformer}. Incoming elements are buffered in a bounded
+ * {@link FlowBuffer} that serves as the input of the transformer, and the output of the transformer is published with
+ * an {@link IterablePublisher}.
+ * </p>
+ * <p>
+ * Since a transformer pulls its input, the executor thread that drains the output blocks while the transformer waits
+ * for upstream elements. Use a {@link TransformationProcessor} instead when the transformer is a plain
+ * {@link Transformation} or filter, which does not need a thread of its own.
+ * </p>
+ * <p>
+ * A transformer can only be used once, hence this processor supports a single subscriber.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <Source> The type of the elements received from upstream.
+ * @param <Target> The type of the elements published downstream.
+ * @since SDK1.5
+ */
+class TransformerProcessor<Source, Target> extends IterablePublisher<Target> implements Flow.Processor<Source, Target> {
+
+    private final Transformer<Source, Target> transformer;
+    private final FlowBuffer<Source> input;
+    private final AtomicBoolean isSubscribed = new AtomicBoolean(false);
+
+    /**
+     * @param transformer The transformer to run.
+     * @param executor The executor on which the transformer is run.
+     * @param bufferSize The maximum number of upstream elements buffered before the transformer.
+     */
+    TransformerProcessor(Transformer<Source, Target> transformer, Executor executor, int bufferSize) {
+
+        super(executor);
+
+        if (transformer == null)
+            throw new IllegalArgumentException("Argument transformer cannot be null");
+
+        this.transformer = transformer;
+        this.input = new FlowBuffer<Source>(bufferSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Target> subscriber) {
+
+        if (subscriber == null)
+            throw new NullPointerException("Argument subscriber cannot be null");
+
+        if (!isSubscribed.compareAndSet(false, true)) {
+            super.subscribe(new RejectingSubscriber<Target>(subscriber));
+            return;
+        }
+
+        super.subscribe(subscriber);
+    }
+
+    @Override
+    protected Iterable<? extends Target> open() {
+
+        transformer.setInput(input);
+        return transformer.output();
+    }
+
+    @Override
+    protected Throwable completionError() {
+
+        return input.getError();
+    }
+
+    @Override
+    protected void cancelled() {
+
+        input.cancel(); // also wakes up the transformer if it waits for input
+    }
+
+    public void onSubscribe(Flow.Subscription subscription) {
+
+        input.onSubscribe(subscription);
+    }
+
+    public void onNext(Source item) {
+
+        input.onNext(item);
+    }
+
+    public void onError(Throwable throwable) {
+
+        input.onError(throwable);
+    }
+
+    public void onComplete() {
+
+        input.onComplete();
+    }
+
+    /**
+     * Fails the subscription of a subscriber that cannot be served, without pulling any element.
+     */
+    private static class RejectingSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final Flow.Subscriber<? super T> subscriber;
+
+        private RejectingSubscriber(Flow.Subscriber<? super T> subscriber) {
+
+            this.subscriber = subscriber;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+
+            subscription.cancel();
+            subscriber.onSubscribe(subscription);
+            subscriber.onError(new IllegalStateException("A Transformer can only be subscribed to once"));
+        }
+
+        public void onNext(T item) {
+        }
+
+        public void onError(Throwable throwable) {
+        }
+
+        public void onComplete() {
+        }
+    }
+}
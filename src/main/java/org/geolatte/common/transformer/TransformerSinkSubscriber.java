@@ -0,0 +1,139 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>
+ * A {@link Flow.Subscriber} that feeds the received elements to a {@link TransformerSink}. When subscribed, the sink is
+ * started on the given executor and pulls the elements from a bounded buffer; the subscriber requests more elements
+ * from the publisher as the sink consumes them.
+ * </p>
+ * <p>
+ * The sink blocks its executor thread while waiting for elements. Use {@link #getCompletion()} to find out when the sink
+ * has processed all elements.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @param <T> The type of the consumed data.
+ * @since SDK1.5
+ */
+public class TransformerSinkSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final TransformerSink<T> sink;
+    private final Executor executor;
+    private final FlowBuffer<T> buffer;
+    private final CompletableFuture<Void> completion = new CompletableFuture<Void>();
+    private final AtomicBoolean isSubscribed = new AtomicBoolean(false);
+
+    /**
+     * Constructs a subscriber for the given sink.
+     *
+     * @param sink Cannot be null.
+     * @param executor The executor on which the sink is run. Cannot be null.
+     * @param bufferSize The maximum number of elements requested ahead of the sink, at least 1.
+     * @throws IllegalArgumentException When sink or executor is null or bufferSize is smaller than 1.
+     */
+    public TransformerSinkSubscriber(TransformerSink<T> sink, Executor executor, int bufferSize) {
+
+        if (sink == null)
+            throw new IllegalArgumentException("Argument sink cannot be null");
+        if (executor == null)
+            throw new IllegalArgumentException("Argument executor cannot be null");
+
+        this.sink = sink;
+        this.executor = executor;
+        this.buffer = new FlowBuffer<T>(bufferSize);
+    }
+
+    /**
+     * Gets the future that completes when the sink has processed all elements. It completes exceptionally when the
+     * publisher signalled an error or the sink threw an exception.
+     *
+     * @return The completion of the sink.
+     */
+    public CompletableFuture<Void> getCompletion() {
+
+        return completion;
+    }
+
+    public void onSubscribe(Flow.Subscription subscription) {
+
+        if (!isSubscribed.compareAndSet(false, true)) {
+            subscription.cancel();
+            return;
+        }
+
+        buffer.onSubscribe(subscription);
+        sink.setInput(buffer);
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    runSink();
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            buffer.cancel();
+            completion.completeExceptionally(e);
+        }
+    }
+
+    public void onNext(T item) {
+
+        buffer.onNext(item);
+    }
+
+    public void onError(Throwable throwable) {
+
+        buffer.onError(throwable);
+    }
+
+    public void onComplete() {
+
+        buffer.onComplete();
+    }
+
+    private void runSink() {
+
+        try {
+            sink.start();
+        }
+        catch (RuntimeException e) {
+            buffer.cancel();
+            completion.completeExceptionally(e);
+            return;
+        }
+
+        Throwable error = buffer.getError();
+        if (error != null)
+            completion.completeExceptionally(error);
+        else
+            completion.complete(null);
+    }
+}
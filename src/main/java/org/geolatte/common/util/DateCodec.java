@@ -0,0 +1,445 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.util;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.time.zone.ZoneRules;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Formats and parses dates after a pattern, like {@link java.text.SimpleDateFormat}, but immutable and thread-safe, so a
+ * single codec can be shared by all threads. Codecs are created once per pattern and cached.
+ * </p>
+ * <p>
+ * The patterns are those of {@link DateTimeFormatter}, which are the same as those of {@code SimpleDateFormat} for the
+ * common letters (y, M, d, H, m, s, ...). As {@code SimpleDateFormat} does by default, parsing is lenient: out of range
+ * fields roll over (e.g. 2010-13-01 is 2011-01-01), numbers need not have the width of the pattern, and text after the
+ * part that matches the pattern is ignored (e.g. 2010-01-02T10:00:00Z is 2010-01-02 after yyyy-MM-dd). Dates are
+ * formatted and parsed in the time zone of the codec, by default the current default time zone, and in the ISO
+ * calendar (so dates before the Gregorian reform of 1582 differ from those of {@code SimpleDateFormat}).
+ * </p>
+ * <p>
+ * The ISO-8601 patterns {@code yyyy-MM-dd} and {@code yyyy-MM-dd'T'HH:mm:ss} are formatted and parsed directly
+ * from and into characters, without going through a formatter. The date-time pattern parses fractional seconds as
+ * well, to the millisecond.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class DateCodec {
+
+    private static final ConcurrentMap<String, DateCodec> CODECS = new ConcurrentHashMap<String, DateCodec>();
+
+    private static final String ISO_DATE_PATTERN = "yyyy-MM-dd";
+    private static final String ISO_DATE_TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final int ISO_DATE_LENGTH = 10;
+    private static final int ISO_DATE_TIME_LENGTH = 19;
+
+    /**
+     * Dates as {@code yyyy-MM-dd}, in the default time zone.
+     */
+    public static final DateCodec ISO_DATE = forPattern(ISO_DATE_PATTERN);
+
+    /**
+     * Dates and times as {@code yyyy-MM-dd'T'HH:mm:ss}, in the default time zone.
+     */
+    public static final DateCodec ISO_DATE_TIME = forPattern(ISO_DATE_TIME_PATTERN);
+
+    private final String pattern;
+    // Null for the default time zone at the time of use
+    private final ZoneId zone;
+    // The length of the ISO-8601 pattern that is handled directly, or 0
+    private final int isoLength;
+    private final DateTimeFormatter formatter;
+
+    private DateCodec(String pattern, ZoneId zone) {
+
+        this.pattern = pattern;
+        this.zone = zone;
+        if (pattern == null) {
+            isoLength = 0;
+            formatter = null;
+        } else {
+            isoLength = pattern.equals(ISO_DATE_PATTERN) ? ISO_DATE_LENGTH : pattern.equals(ISO_DATE_TIME_PATTERN) ? ISO_DATE_TIME_LENGTH : 0;
+            formatter = new DateTimeFormatterBuilder().parseCaseInsensitive()
+                                                      .parseLenient()
+                                                      .appendPattern(pattern)
+                                                      .toFormatter(Locale.getDefault(Locale.Category.FORMAT))
+                                                      .withResolverStyle(ResolverStyle.LENIENT);
+        }
+    }
+
+    /**
+     * Gets the codec for the given pattern, in the default time zone.
+     *
+     * @param pattern The pattern, as described in {@link DateTimeFormatter}.
+     * @return The codec.
+     * @throws IllegalArgumentException If pattern is null or invalid.
+     */
+    public static DateCodec forPattern(String pattern) {
+
+        if (pattern == null)
+            throw new IllegalArgumentException("Argument pattern cannot be null");
+
+        DateCodec codec = CODECS.get(pattern);
+        if (codec == null) {
+            DateCodec created = new DateCodec(pattern, null);
+            codec = CODECS.putIfAbsent(pattern, created);
+            if (codec == null)
+                codec = created;
+        }
+        return codec;
+    }
+
+    /**
+     * Creates a codec for the given pattern and time zone.
+     *
+     * @param pattern The pattern, as described in {@link DateTimeFormatter}.
+     * @param zone The time zone in which dates are formatted and parsed.
+     * @return The codec.
+     * @throws IllegalArgumentException If pattern or zone is null, or pattern is invalid.
+     */
+    public static DateCodec forPattern(String pattern, ZoneId zone) {
+
+        if (pattern == null)
+            throw new IllegalArgumentException("Argument pattern cannot be null");
+        if (zone == null)
+            throw new IllegalArgumentException("Argument zone cannot be null");
+
+        return new DateCodec(pattern, zone);
+    }
+
+    /**
+     * Creates a codec that formats and parses with a copy of the given format, one thread at a time. For
+     * configurations that still use a {@link DateFormat}.
+     *
+     * @param format The format.
+     * @return The codec.
+     * @throws IllegalArgumentException If format is null.
+     */
+    public static DateCodec forFormat(DateFormat format) {
+
+        if (format == null)
+            throw new IllegalArgumentException("Argument format cannot be null");
+
+        return new FormatCodec((DateFormat) format.clone());
+    }
+
+    /**
+     * @return The pattern of this codec, or null if it uses a {@link DateFormat}.
+     */
+    public String getPattern() {
+
+        return pattern;
+    }
+
+    /**
+     * Formats the given date.
+     *
+     * @param date The date.
+     * @return The text.
+     * @throws IllegalArgumentException If date is null.
+     */
+    public String format(Date date) {
+
+        if (date == null)
+            throw new IllegalArgumentException("Argument date cannot be null");
+
+        long millis = date.getTime();
+        ZoneId zoneId = zone != null ? zone : ZoneId.systemDefault();
+        if (isoLength > 0) {
+            long localSeconds = Math.floorDiv(millis, 1000) + zoneId.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds();
+            LocalDateTime local = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+            if (local.getYear() > 0 && local.getYear() <= 9999) {
+                char[] text = new char[isoLength];
+                putDigits(text, 0, 4, local.getYear());
+                text[4] = '-';
+                putDigits(text, 5, 2, local.getMonthValue());
+                text[7] = '-';
+                putDigits(text, 8, 2, local.getDayOfMonth());
+                if (isoLength == ISO_DATE_TIME_LENGTH) {
+                    text[10] = 'T';
+                    putDigits(text, 11, 2, local.getHour());
+                    text[13] = ':';
+                    putDigits(text, 14, 2, local.getMinute());
+                    text[16] = ':';
+                    putDigits(text, 17, 2, local.getSecond());
+                }
+                return new String(text);
+            }
+        }
+        return formatter.format(Instant.ofEpochMilli(millis).atZone(zoneId));
+    }
+
+    /**
+     * Parses the given text.
+     *
+     * @param text The text.
+     * @return The date.
+     * @throws ParseException If the beginning of the text does not match the pattern.
+     * @throws IllegalArgumentException If text is null.
+     */
+    public Date parse(String text) throws ParseException {
+
+        if (text == null)
+            throw new IllegalArgumentException("Argument text cannot be null");
+
+        ZoneId zoneId = zone != null ? zone : ZoneId.systemDefault();
+        if (isoLength > 0 && isIsoText(text)) {
+            int year = readDigits(text, 0, 4);
+            int month = readDigits(text, 5, 2);
+            int day = readDigits(text, 8, 2);
+            int hour = 0;
+            int minute = 0;
+            int second = 0;
+            int millis = 0;
+            if (isoLength == ISO_DATE_TIME_LENGTH) {
+                hour = readDigits(text, 11, 2);
+                minute = readDigits(text, 14, 2);
+                second = readDigits(text, 17, 2);
+                for (int i = 0; i < 3; i++) {
+                    int position = ISO_DATE_TIME_LENGTH + 1 + i;
+                    millis = 10 * millis + (position < text.length() ? text.charAt(position) - '0' : 0);
+                }
+            }
+            return new Date(toEpochMillis(year, month, day, hour, minute, second, zoneId) + millis);
+        }
+
+        try {
+            // As SimpleDateFormat.parse(String), ignore what follows the date
+            TemporalAccessor parsed = formatter.parse(text, new ParsePosition(0));
+            LocalDate date = parsed.query(TemporalQueries.localDate());
+            if (date == null) { // not all of year, month and day are in the pattern
+                date = LocalDate.of(1970, 1, 1);
+                if (parsed.isSupported(ChronoField.YEAR))
+                    date = date.withYear(parsed.get(ChronoField.YEAR));
+                if (parsed.isSupported(ChronoField.MONTH_OF_YEAR))
+                    date = date.plusMonths(parsed.getLong(ChronoField.MONTH_OF_YEAR) - 1);
+                if (parsed.isSupported(ChronoField.DAY_OF_MONTH))
+                    date = date.plusDays(parsed.getLong(ChronoField.DAY_OF_MONTH) - 1);
+            }
+            LocalTime time = parsed.query(TemporalQueries.localTime());
+            LocalDateTime local = time == null ? date.atStartOfDay() : date.atTime(time);
+            ZoneId parsedZone = parsed.query(TemporalQueries.zone());
+            return Date.from(ZonedDateTime.ofLocal(local, parsedZone != null ? parsedZone : zoneId, null).withLaterOffsetAtOverlap().toInstant());
+        } catch (DateTimeParseException e) {
+            ParseException exception = new ParseException("Unparseable date: \"" + text + "\"", e.getErrorIndex());
+            exception.initCause(e);
+            throw exception;
+        } catch (DateTimeException e) {
+            ParseException exception = new ParseException("Unparseable date: \"" + text + "\"", 0);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * Converts the given value into a date: a date, calendar or one of the java.time types {@link Instant},
+     * {@link ZonedDateTime}, {@link OffsetDateTime}, {@link LocalDateTime} or {@link LocalDate}. Local dates and times
+     * are taken in the default time zone, local dates at the start of the day.
+     *
+     * @param value The value.
+     * @return The date, or null if the value is null or none of the types above.
+     */
+    public static Date toDate(Object value) {
+
+        if (value instanceof Date)
+            return (Date) value;
+        if (value instanceof Instant)
+            return Date.from((Instant) value);
+        if (value instanceof ZonedDateTime)
+            return Date.from(((ZonedDateTime) value).toInstant());
+        if (value instanceof OffsetDateTime)
+            return Date.from(((OffsetDateTime) value).toInstant());
+        if (value instanceof LocalDateTime)
+            return Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant());
+        if (value instanceof LocalDate)
+            return Date.from(((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        if (value instanceof Calendar)
+            return ((Calendar) value).getTime();
+        return null;
+    }
+
+    /**
+     * Tells whether the values of the given type can be converted by {@link #toDate(Object)}.
+     *
+     * @param type The type.
+     * @return True for dates, calendars and the supported java.time types, false otherwise or if type is null.
+     */
+    public static boolean isDateType(Class<?> type) {
+
+        return type != null && (Date.class.isAssignableFrom(type) || Calendar.class.isAssignableFrom(type)
+                || type == Instant.class || type == ZonedDateTime.class || type == OffsetDateTime.class
+                || type == LocalDateTime.class || type == LocalDate.class);
+    }
+
+    @Override
+    public String toString() {
+
+        return "DateCodec[" + pattern + (zone == null ? "" : ", " + zone) + "]";
+    }
+
+    /**
+     * Whether the given text has the form of the ISO-8601 pattern of this codec: digits, separators and, for dates
+     * and times, optional fractional seconds.
+     */
+    private boolean isIsoText(String text) {
+
+        int length = text.length();
+        if (length < isoLength || (length > isoLength && (isoLength != ISO_DATE_TIME_LENGTH || length == isoLength + 1
+                || text.charAt(isoLength) != '.')))
+            return false;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            boolean isValid;
+            switch (i) {
+                case 4:
+                case 7:
+                    isValid = c == '-';
+                    break;
+                case 10:
+                    isValid = c == 'T';
+                    break;
+                case 13:
+                case 16:
+                    isValid = c == ':';
+                    break;
+                case ISO_DATE_TIME_LENGTH:
+                    isValid = c == '.';
+                    break;
+                default:
+                    isValid = c >= '0' && c <= '9';
+                    break;
+            }
+            if (!isValid)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Converts the given local date and time, whose fields roll over when out of range, into epoch milliseconds. Times
+     * in a gap of the time zone move forward by the length of the gap, ambiguous times take the later offset, as
+     * {@link java.util.GregorianCalendar} does.
+     */
+    private static long toEpochMillis(int year, int month, int day, int hour, int minute, int second, ZoneId zone) {
+
+        // Hours, minutes and seconds roll over by themselves
+        boolean isValidDate = month >= 1 && month <= 12 && day >= 1 && (day <= 28 || day <= YearMonth.of(year, month).lengthOfMonth());
+        long epochDay = isValidDate ? LocalDate.of(year, month, day).toEpochDay()
+                : LocalDate.of(year, 1, 1).plusMonths(month - 1).plusDays(day - 1).toEpochDay();
+        long localSeconds = epochDay * 86400 + hour * 3600 + minute * 60 + second;
+
+        ZoneRules rules = zone.getRules();
+        if (rules.isFixedOffset())
+            return (localSeconds - rules.getOffset(Instant.EPOCH).getTotalSeconds()) * 1000;
+
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+        return ZonedDateTime.ofLocal(local, zone, null).withLaterOffsetAtOverlap().toEpochSecond() * 1000;
+    }
+
+    private static int readDigits(String text, int start, int count) {
+
+        int value = 0;
+        for (int i = start; i < start + count; i++)
+            value = 10 * value + (text.charAt(i) - '0');
+        return value;
+    }
+
+    private static void putDigits(char[] text, int start, int count, int value) {
+
+        for (int i = start + count - 1; i >= start; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * A codec that uses a {@link DateFormat}, which is not thread-safe.
+     */
+    private static final class FormatCodec extends DateCodec {
+
+        private final DateFormat format;
+
+        private FormatCodec(DateFormat format) {
+
+            super(null, null);
+            this.format = format;
+        }
+
+        @Override
+        public String format(Date date) {
+
+            if (date == null)
+                throw new IllegalArgumentException("Argument date cannot be null");
+
+            synchronized (format) {
+                return format.format(date);
+            }
+        }
+
+        @Override
+        public Date parse(String text) throws ParseException {
+
+            if (text == null)
+                throw new IllegalArgumentException("Argument text cannot be null");
+
+            synchronized (format) {
+                return format.parse(text);
+            }
+        }
+
+        @Override
+        public String toString() {
+
+            return "DateCodec[" + format + "]";
+        }
+    }
+}
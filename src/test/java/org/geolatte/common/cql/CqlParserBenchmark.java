@@ -0,0 +1,80 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+import org.geolatte.testobjects.FilterableObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Compares the parse time of the generated parser and {@link FilterExpressionBuilder} with that of the hand-written
+ * {@link CqlParser}, on the search conditions of the data driven tests that both can parse. This is not a unit test
+ * and surefire does not run it: run its main method by hand, with the number of rounds as optional argument.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class CqlParserBenchmark {
+
+    public static void main(String[] args) throws Exception {
+
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        List<String> conditions = new ArrayList<String>();
+        for (CqlTestCase testCase : CqlTestClassConstructor.loadTestCases()) {
+            try {
+                FilterExpressionBuilder.parse(testCase.searchCondition, FilterableObject.class);
+                conditions.add(testCase.searchCondition);
+            }
+            catch (Exception e) {
+                // Only time the conditions that can be parsed
+            }
+        }
+
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                for (String condition : conditions)
+                    FilterExpressionBuilder.parse(condition, FilterableObject.class);
+            }
+            long grammarTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                for (String condition : conditions)
+                    CqlParser.parse(condition, FilterableObject.class);
+            }
+            long parserTime = System.nanoTime() - start;
+
+            if (warmUp == 1) {
+                int count = rounds * conditions.size();
+                System.out.println("CQL parse time per condition: generated parser " + grammarTime / count / 1000.0
+                        + " us, hand-written parser " + parserTime / count / 1000.0 + " us");
+            }
+        }
+    }
+}
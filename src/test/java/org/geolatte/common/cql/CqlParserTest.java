@@ -0,0 +1,456 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.ExpressionOptimizer;
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Tests {@link CqlParser}: differentially, against the generated parser and the {@link FilterExpressionBuilder}, on the
+ * search conditions of the data driven tests and on generated (and mutated) search conditions.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class CqlParserTest {
+
+    private static final String[] PROPERTIES = {
+            "anInteger", "aLong", "aShort", "aDouble", "aFloat", "aBigDecimal", "aString", "aBoolean", "aDate",
+            "aGeometry", "aChildObject.anInteger", "aChildObject . aString", "aChildObject.aSecondChildObject.anInteger"};
+    private static final String[] COMPARISONS = {"=", "<>", "<", ">", "<=", ">="};
+    private static final String[] LITERALS = {
+            "5", "-2.5", ".5", "+3", "'abc'", "'it''s'", "'%a_'", "2010-01-01T00:00:00", "2010-06-01T12:30:00.5", "true",
+            "FALSE", "unknown"};
+    private static final String[] DATETIMES = {"2010-01-01T00:00:00", "2011-02-03T04:05:06.789"};
+    private static final String[] GEO_OPERATORS = {"EQUALS", "within", "Contains", "INTERSECTS", "DISJOINT", "TOUCHES"};
+    private static final String[] GEOMETRIES = {
+            "POINT(1 2)", "point (-1.5 +2)", "POINT EMPTY", "LINESTRING(0 0, 1 1)", "polygon((0 0, 1 0, 1 1, 0 0))",
+            "MULTIPOINT((1 2), (3 4))", "GEOMETRYCOLLECTION(POINT(1 2))"};
+    private static final String[] SEPARATORS = {" ", " ", " ", "", "  ", "\t", "\n"};
+    // Tokens inserted to make the search conditions invalid
+    private static final String[] NOISE = {
+            "(", ")", ",", ".", "NOT", "AND", "or", "IS", "NULL", "'", "5", "x", "=", "/", "P1Y2M3D4H5M6S", "EMPTY",
+            "DWITHIN", ":", "-"};
+
+    @Test
+    public void testDataDrivenConditions() throws Exception {
+
+        int count = 0;
+        for (CqlTestCase testCase : CqlTestClassConstructor.loadTestCases()) {
+            assertSameResult(testCase.searchCondition);
+            count++;
+        }
+        Assert.assertTrue(count > 0);
+    }
+
+    @Test
+    public void testGeneratedConditions() throws Exception {
+
+        Random random = new Random(13);
+        for (int i = 0; i < 5000; i++) {
+            List<String> tokens = new ArrayList<String>();
+            generateCondition(tokens, random, 0);
+            if (random.nextInt(3) == 0)
+                mutate(tokens, random);
+
+            StringBuilder condition = new StringBuilder();
+            for (String token : tokens)
+                condition.append(token).append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+            assertSameResult(condition.toString());
+        }
+    }
+
+    @Test
+    public void testQuirks() throws Exception {
+
+        // Keywords win over identifiers of the same length
+        assertSyntaxError("anInteger IS NOT NULL");
+        assertSyntaxError("aDate DURING P1Y2M3D4H5M6S/2010-01-01T00:00:00");
+        assertSyntaxError("aString = ''");
+        assertSyntaxError("anInteger = 5.");
+        assertSyntaxError("NOT NOT anInteger = 5");
+        assertSyntaxError("WITHIN(aGeometry, POINT(1 2)");
+        assertSyntaxError("WITHIN(aGeometry, POINT Z(1 2 3))");
+        Assert.assertNull(CqlParser.parse("anInteger IS NULL", FilterableObject.class));
+        assertSameResult("anInteger=1and aString='a'");
+        assertSameResult("aDate BEFORE OR DURING 2010-01-01T00:00:00/2011-01-01T00:00:00 OR anInteger = 1");
+    }
+
+    @Test
+    public void testDurations() throws Exception {
+
+        assertSameParse("aDate DURING 2010-01-31T00:00:00/2010-03-02T12:00:00", "aDate DURING 2010-01-31T00:00:00/P1M2DT12H");
+        assertSameParse("aDate DURING 2010-01-01T00:00:00/2010-01-08T00:00:00", "aDate DURING P1W/2010-01-08T00:00:00");
+        assertSameParse("aDate DURING 2009-12-31T23:59:30/2010-01-01T00:00:00", "aDate DURING PT30S/2010-01-01T00:00:00");
+        Assert.assertNull(CqlParser.parse("aDate BEFORE OR DURING 2010-01-01T00:00:00/P1Y", FilterableObject.class));
+
+        String[] invalid = {"P", "PT", "P1DT", "P1Y2M3D4H5M6S", "p1d", "P1.5D", "P99999999999D"};
+        for (String duration : invalid) {
+            try {
+                CqlParser.parse("aDate DURING 2010-01-01T00:00:00/" + duration, FilterableObject.class);
+                Assert.fail("Parser accepted " + duration);
+            }
+            catch (ParseException e) {
+                // expected
+            }
+        }
+        try {
+            CqlParser.parse("aDate DURING P1D/P1D", FilterableObject.class);
+            Assert.fail("Parser accepted a period of two durations");
+        }
+        catch (ParseException e) {
+            // expected
+        }
+
+        // The generated lexer scans durations as identifiers
+        try {
+            parseWithGrammar("aDate DURING 2010-01-01T00:00:00/P1D");
+            Assert.fail("Generated parser accepted a duration");
+        }
+        catch (ParseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testJavaTimeProperties() throws Exception {
+
+        String condition = "aLocalDateTime AFTER 2010-01-01T00:00:00 AND aLocalDate BEFORE 2011-01-01T00:00:00"
+                + " AND anInstant DURING 2009-01-01T00:00:00/2012-01-01T00:00:00";
+        Expression<Boolean> expected = parseWithGrammar(condition, TimedObject.class);
+        Expression<Boolean> actual = CqlParser.parse(condition, TimedObject.class);
+        Assert.assertNotNull(expected);
+        Assert.assertTrue(ExpressionOptimizer.isSame(expected, actual));
+
+        TimedObject o = new TimedObject(LocalDateTime.of(2010, 6, 1, 12, 0), LocalDate.of(2010, 12, 31),
+                LocalDateTime.of(2011, 6, 1, 0, 0).atZone(ZoneId.systemDefault()).toInstant());
+        Assert.assertTrue(expected.evaluate(o));
+        Assert.assertTrue(actual.evaluate(o));
+        Assert.assertTrue(Cql.toStaticFilter(condition, TimedObject.class).evaluate(o));
+
+        o = new TimedObject(LocalDateTime.of(2009, 6, 1, 12, 0), LocalDate.of(2010, 12, 31), o.getAnInstant());
+        Assert.assertFalse(expected.evaluate(o));
+        Assert.assertFalse(actual.evaluate(o));
+    }
+
+    @Test
+    public void testLargeGeometryLiteral() throws Exception {
+
+        int vertexCount = 50000;
+        StringBuilder condition = new StringBuilder("anInteger = 5 OR WITHIN(aGeometry, POLYGON((");
+        for (int i = 0; i < vertexCount; i++) {
+            double angle = 2 * Math.PI * i / vertexCount;
+            condition.append(Math.round(1e6 * Math.cos(angle)) / 1e3).append(' ').append(Math.round(1e6 * Math.sin(angle)) / 1e3).append(", ");
+        }
+        condition.append("1000.0 0.0))) OR CONTAINS(aGeometry, POINT(1 2))");
+
+        assertSameResult(condition.toString());
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+
+        try {
+            CqlParser.parse("anInteger = 5 AND\n  unknownProperty = 5", FilterableObject.class);
+            Assert.fail("Unknown property accepted");
+        }
+        catch (ParseException e) {
+            Assert.assertEquals(20, e.getErrorOffset());
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("[2,3] "));
+        }
+        try {
+            CqlParser.parse("anInteger = 'five'", FilterableObject.class);
+            Assert.fail("String compared with a number");
+        }
+        catch (ParseException e) {
+            Assert.assertEquals(0, e.getErrorOffset());
+        }
+        try {
+            CqlParser.parse("anInteger = 5 aString", FilterableObject.class);
+            Assert.fail("Trailing identifier accepted");
+        }
+        catch (ParseException e) {
+            Assert.assertEquals(14, e.getErrorOffset());
+        }
+    }
+
+    @Test
+    public void testGeneratedParserCanBeSelected() throws Exception {
+
+        Assert.assertFalse(Cql.isGeneratedParserEnabled());
+        String condition = "aDate DURING 2010-01-01T00:00:00/P1D";
+        Assert.assertNotNull(Cql.toStaticFilter(condition, FilterableObject.class));
+
+        Cql.setGeneratedParserEnabled(true);
+        try {
+            // The generated lexer scans durations as identifiers, and the cache holds no filter of the other parser
+            Cql.toStaticFilter(condition, FilterableObject.class);
+            Assert.fail("Generated parser accepted a duration");
+        }
+        catch (ParseException e) {
+            // expected
+        }
+        finally {
+            Cql.setGeneratedParserEnabled(false);
+        }
+        Assert.assertNotNull(Cql.toStaticFilter(condition, FilterableObject.class));
+    }
+
+    /**
+     * Asserts that both parsers reject the given search condition, or accept it and translate it in the same
+     * expression. The builder also fails on conditions it can not translate (such as unknown properties or literals
+     * that are not numbers); as the parser translates while it reads, it may report those before a later syntax error.
+     */
+    private static void assertSameResult(String condition) {
+
+        Object expected;
+        try {
+            expected = parseWithGrammar(condition);
+        }
+        catch (Exception e) {
+            expected = e;
+        }
+
+        Object actual;
+        try {
+            actual = CqlParser.parse(condition, FilterableObject.class);
+        }
+        catch (Exception e) {
+            actual = e;
+        }
+
+        String message = "[" + condition + "] " + expected + " / " + actual;
+        if (expected instanceof Exception)
+            Assert.assertTrue(message, actual instanceof Exception);
+        else
+            Assert.assertTrue(message, !(actual instanceof Exception)
+                    && ExpressionOptimizer.isSame((Expression<?>) expected, (Expression<?>) actual));
+    }
+
+    private static void assertSameParse(String expected, String actual) throws ParseException {
+
+        Assert.assertTrue(actual, ExpressionOptimizer.isSame(CqlParser.parse(expected, FilterableObject.class), CqlParser.parse(actual, FilterableObject.class)));
+    }
+
+    private static void assertSyntaxError(String condition) {
+
+        try {
+            parseWithGrammar(condition);
+            Assert.fail("Generated parser accepted " + condition);
+        }
+        catch (Exception e) {
+            Assert.assertTrue(condition + ": " + e, e instanceof ParseException);
+        }
+        try {
+            CqlParser.parse(condition, FilterableObject.class);
+            Assert.fail("Parser accepted " + condition);
+        }
+        catch (ParseException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Parses the given condition as {@link Cql} does with the generated parser selected: with the generated parser
+     * and the {@link FilterExpressionBuilder}.
+     */
+    private static Expression<Boolean> parseWithGrammar(String condition) throws Exception {
+
+        return parseWithGrammar(condition, FilterableObject.class);
+    }
+
+    private static Expression<Boolean> parseWithGrammar(String condition, Class clazz) throws Exception {
+
+        return FilterExpressionBuilder.parse(condition, clazz);
+    }
+
+    private static void generateCondition(List<String> tokens, Random random, int depth) {
+
+        generateTerm(tokens, random, depth);
+        while (random.nextInt(4) == 0) {
+            tokens.add(random.nextBoolean() ? "OR" : "or");
+            generateTerm(tokens, random, depth);
+        }
+    }
+
+    private static void generateTerm(List<String> tokens, Random random, int depth) {
+
+        generateFactor(tokens, random, depth);
+        while (random.nextInt(3) == 0) {
+            tokens.add(random.nextBoolean() ? "AND" : "And");
+            generateFactor(tokens, random, depth);
+        }
+    }
+
+    private static void generateFactor(List<String> tokens, Random random, int depth) {
+
+        if (random.nextInt(5) == 0)
+            tokens.add("NOT");
+
+        int choice = random.nextInt(depth < 3 ? 10 : 9);
+        if (choice == 9) {
+            tokens.add("(");
+            generateCondition(tokens, random, depth + 1);
+            tokens.add(")");
+        } else if (choice == 8) {
+            tokens.add(pick(GEO_OPERATORS, random));
+            tokens.add("(");
+            tokens.add(random.nextInt(4) == 0 ? pick(PROPERTIES, random) : "aGeometry");
+            tokens.add(",");
+            tokens.add(pick(GEOMETRIES, random));
+            tokens.add(")");
+        } else {
+            generatePredicate(tokens, random);
+        }
+    }
+
+    private static void generatePredicate(List<String> tokens, Random random) {
+
+        tokens.add(pick(PROPERTIES, random));
+        switch (random.nextInt(12)) {
+            case 0:
+            case 1:
+            case 2:
+                tokens.add(pick(COMPARISONS, random));
+                tokens.add(pick(LITERALS, random));
+                break;
+            case 3:
+                if (random.nextBoolean())
+                    tokens.add("NOT");
+                tokens.add("IN");
+                tokens.add("(");
+                tokens.add(pick(LITERALS, random));
+                while (random.nextBoolean()) {
+                    tokens.add(",");
+                    tokens.add(pick(LITERALS, random));
+                }
+                tokens.add(")");
+                break;
+            case 4:
+                if (random.nextBoolean())
+                    tokens.add("not");
+                tokens.add("BETWEEN");
+                tokens.add(pick(LITERALS, random));
+                tokens.add("AND");
+                tokens.add(pick(LITERALS, random));
+                break;
+            case 5:
+                if (random.nextBoolean())
+                    tokens.add("NOT");
+                tokens.add(random.nextBoolean() ? "LIKE" : "ilike");
+                tokens.add(pick(LITERALS, random));
+                break;
+            case 6:
+                tokens.add("IS");
+                if (random.nextInt(4) == 0)
+                    tokens.add("NOT");
+                tokens.add("NULL");
+                break;
+            case 7:
+                tokens.add(random.nextBoolean() ? "EXISTS" : "DOES-NOT-EXIST");
+                break;
+            case 8:
+                tokens.add(random.nextBoolean() ? "BEFORE" : "after");
+                tokens.add(pick(DATETIMES, random));
+                break;
+            default:
+                tokens.add(random.nextInt(3) == 0 ? "DURING" : random.nextBoolean() ? "BEFORE OR DURING" : "during or after");
+                tokens.add(pick(DATETIMES, random));
+                tokens.add("/");
+                tokens.add(pick(DATETIMES, random));
+                break;
+        }
+    }
+
+    /**
+     * Deletes, duplicates, swaps or inserts a token.
+     */
+    private static void mutate(List<String> tokens, Random random) {
+
+        int index = random.nextInt(tokens.size());
+        switch (random.nextInt(4)) {
+            case 0:
+                tokens.remove(index);
+                break;
+            case 1:
+                tokens.add(index, tokens.get(index));
+                break;
+            case 2:
+                if (index + 1 < tokens.size())
+                    tokens.add(index + 1, tokens.remove(index));
+                break;
+            default:
+                tokens.add(index, pick(NOISE, random));
+                break;
+        }
+    }
+
+    private static String pick(String[] values, Random random) {
+
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * An object with java.time properties.
+     */
+    public static class TimedObject {
+
+        private final LocalDateTime aLocalDateTime;
+        private final LocalDate aLocalDate;
+        private final Instant anInstant;
+
+        public TimedObject(LocalDateTime aLocalDateTime, LocalDate aLocalDate, Instant anInstant) {
+
+            this.aLocalDateTime = aLocalDateTime;
+            this.aLocalDate = aLocalDate;
+            this.anInstant = anInstant;
+        }
+
+        public LocalDateTime getALocalDateTime() {
+            return aLocalDateTime;
+        }
+
+        public LocalDate getALocalDate() {
+            return aLocalDate;
+        }
+
+        public Instant getAnInstant() {
+            return anInstant;
+        }
+    }
+}
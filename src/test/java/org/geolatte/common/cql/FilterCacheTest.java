@@ -0,0 +1,242 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * Tests {@link FilterCache}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FilterCacheTest {
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+
+        FilterCache cache = new FilterCache(10);
+        Filter filter = cache.getFilter("anInteger > 5", FilterableObject.class);
+        Assert.assertSame(filter, cache.getFilter("anInteger > 5", FilterableObject.class));
+        Assert.assertNotSame(filter, cache.getFilter("anInteger > 6", FilterableObject.class));
+        Assert.assertNotSame(filter, cache.getFilter("anInteger > 5", new FilterableObject() {
+        }.getClass()));
+
+        Assert.assertEquals(1L, cache.getHitCount());
+        Assert.assertEquals(3L, cache.getMissCount());
+        Assert.assertEquals(0L, cache.getEvictionCount());
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals(0.25, cache.getHitRate(), 0);
+
+        FilterableObject o = new FilterableObject();
+        o.setAnInteger(6);
+        Assert.assertTrue(filter.evaluate(o));
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNotSame(filter, cache.getFilter("anInteger > 5", FilterableObject.class));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+
+        FilterCache cache = new FilterCache(2);
+        Filter first = cache.getFilter("anInteger > 1", FilterableObject.class);
+        Filter second = cache.getFilter("anInteger > 2", FilterableObject.class);
+        cache.getFilter("anInteger > 1", FilterableObject.class);
+        cache.getFilter("anInteger > 3", FilterableObject.class);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1L, cache.getEvictionCount());
+        Assert.assertSame(first, cache.getFilter("anInteger > 1", FilterableObject.class));
+        Assert.assertNotSame(second, cache.getFilter("anInteger > 2", FilterableObject.class));
+        Assert.assertEquals(2L, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testBufferedAccessesKeepRecentlyUsed() throws Exception {
+
+        // Enough hits to replay the access buffer in between, and some left in it at the eviction
+        FilterCache cache = new FilterCache(2);
+        Filter first = cache.getFilter("anInteger > 1", FilterableObject.class);
+        cache.getFilter("anInteger > 2", FilterableObject.class);
+        for (int i = 0; i < 1000; i++) {
+            cache.getFilter(i % 10 == 0 ? "anInteger > 2" : "anInteger > 1", FilterableObject.class);
+        }
+        cache.getFilter("anInteger > 1", FilterableObject.class);
+        cache.getFilter("anInteger > 3", FilterableObject.class);
+
+        Assert.assertEquals(1L, cache.getEvictionCount());
+        Assert.assertSame(first, cache.getFilter("anInteger > 1", FilterableObject.class));
+        Assert.assertEquals(1L, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testEvictionPolicy() throws Exception {
+
+        // Evicts the newest entry, so the cache keeps the first ones
+        FilterCache cache = new FilterCache(2, new EvictionPolicy() {
+            private final List<Object> keys = new ArrayList<Object>();
+
+            public void entryAdded(Object key) {
+                keys.add(key);
+            }
+
+            public void entryAccessed(Object key) {
+            }
+
+            public Object selectVictim() {
+                return keys.remove(keys.size() - 1);
+            }
+
+            public void clear() {
+                keys.clear();
+            }
+        });
+        Filter first = cache.getFilter("anInteger > 1", FilterableObject.class);
+        Filter second = cache.getFilter("anInteger > 2", FilterableObject.class);
+        for (int i = 3; i < 10; i++) {
+            cache.getFilter("anInteger > " + i, FilterableObject.class);
+        }
+        Assert.assertSame(first, cache.getFilter("anInteger > 1", FilterableObject.class));
+        Assert.assertSame(second, cache.getFilter("anInteger > 2", FilterableObject.class));
+        Assert.assertEquals(7L, cache.getEvictionCount());
+
+        cache = new FilterCache(1, new LruEvictionPolicy() {
+            @Override
+            public Object selectVictim() {
+                return "not a key";
+            }
+        });
+        cache.getFilter("anInteger > 1", FilterableObject.class);
+        try {
+            cache.getFilter("anInteger > 2", FilterableObject.class);
+            Assert.fail("A victim that is not in the cache must be rejected");
+        }
+        catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testErrorsAreNotCached() throws Exception {
+
+        FilterCache cache = new FilterCache(10);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.getFilter("unknownProperty > 5", FilterableObject.class);
+                Assert.fail("Unknown property must fail to parse");
+            }
+            catch (ParseException e) {
+                // expected
+            }
+        }
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(2L, cache.getMissCount());
+    }
+
+    @Test
+    public void testZeroSizeCachesNothing() throws Exception {
+
+        FilterCache cache = new FilterCache(0);
+        Filter filter = cache.getFilter("anInteger > 5", FilterableObject.class);
+        Assert.assertNotSame(filter, cache.getFilter("anInteger > 5", FilterableObject.class));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(2L, cache.getMissCount());
+        Assert.assertEquals(0L, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+
+        final FilterCache cache = new FilterCache(20);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        FilterableObject o = new FilterableObject();
+                        for (int i = 0; i < 2000; i++) {
+                            int bound = (i * 7 + seed) % 30;
+                            o.setAnInteger(i % 40);
+                            boolean matches = cache.getFilter("anInteger > " + bound, FilterableObject.class).evaluate(o);
+                            if (matches != (i % 40 > bound))
+                                throw new AssertionError("Wrong filter for anInteger > " + bound);
+                        }
+                    }
+                    catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertNull(String.valueOf(failure.get()), failure.get());
+        Assert.assertEquals(8L * 2000L, cache.getHitCount() + cache.getMissCount());
+        Assert.assertTrue(cache.size() <= 20);
+        Assert.assertTrue(cache.getHitCount() > 0);
+    }
+
+    @Test
+    public void testCqlUsesCache() throws Exception {
+
+        FilterCache previous = Cql.getFilterCache();
+        FilterCache cache = new FilterCache(10);
+        Cql.setFilterCache(cache);
+        try {
+            Assert.assertSame(Cql.toStaticFilter("anInteger > 5", FilterableObject.class),
+                    Cql.toStaticFilter("anInteger > 5", FilterableObject.class));
+
+            // A CQL filter compiles once per class, and then through the cache
+            CqlFilter filter = Cql.toFilter("anInteger > 5");
+            FilterableObject o = new FilterableObject();
+            for (int i = 0; i < 100; i++) {
+                o.setAnInteger(i);
+                Assert.assertEquals(i > 5, filter.evaluate(o));
+            }
+            Assert.assertEquals(1L, cache.getMissCount());
+            Assert.assertEquals(2L, cache.getHitCount());
+        }
+        finally {
+            Cql.setFilterCache(previous);
+        }
+    }
+}
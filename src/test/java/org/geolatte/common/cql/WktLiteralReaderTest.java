@@ -0,0 +1,205 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.cql;
+
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkt;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Tests {@link WktLiteralReader}, against {@link Wkt#fromWkt(String)}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class WktLiteralReaderTest {
+
+    private static final String[] NUMBERS = {
+            "0", "-0", "1", "-12.5", ".5", "-.25", "5.", "0001.100", "123456789012345", "1234567890123456789",
+            "0.1234567890123456789", "3.14159265358979", "+1", "1.2.3", "-"};
+    private static final String[] BLANKS = {"", " ", " ", "  ", "\t", "\n"};
+
+    @Test
+    public void testLiterals() throws Exception {
+
+        assertSameGeometry("POINT(1 2)");
+        assertSameGeometry("point ( -1.5   .5 )");
+        assertSameGeometry("LINESTRING(0 0, 1 1, 2 0)");
+        assertSameGeometry("POLYGON((0 0, 4 0, 4 4, 0 0), (1 1, 2 1, 2 2, 1 1))");
+        assertSameGeometry("MULTIPOINT(1 2, 3 4)");
+        assertSameGeometry("MULTIPOINT((1 2), (3 4))");
+        assertSameGeometry("MULTIPOINT((1 2), 3 4)");
+        assertSameGeometry("MULTILINESTRING((0 0, 1 1), (2 2, 3 3))");
+        assertSameGeometry("MULTIPOLYGON(((0 0, 1 0, 1 1, 0 0)), ((5 5, 6 5, 6 6, 5 5), (5.1 5.1, 5.2 5.1, 5.2 5.2, 5.1 5.1)))");
+
+        // Handed to the WKT decoder
+        assertSameGeometry("POINT EMPTY");
+        assertSameGeometry("POINT(1 2 3)");
+        assertSameGeometry("POINT(1 2 3 4)");
+        assertSameGeometry("GEOMETRYCOLLECTION(POINT(1 2), LINESTRING(0 0, 1 1))");
+        assertSameGeometry("LINESTRING(1 2)");
+        assertSameGeometry("POLYGON((0 0, 1 0, 1 1))");
+        assertSameGeometry("POLYGON((0 0, 1 0, 1 1, 0 1))");
+        assertSameGeometry("POINT(+1 2)");
+        assertSameGeometry("POINT(1,2)");
+        assertSameGeometry("POINT(1 2),");
+    }
+
+    @Test
+    public void testGeneratedLiterals() throws Exception {
+
+        Random random = new Random(3);
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder wkt = new StringBuilder();
+            switch (random.nextInt(6)) {
+                case 0:
+                    wkt.append("POINT").append(blank(random));
+                    appendPoints(wkt, random, 1);
+                    break;
+                case 1:
+                    wkt.append("LineString").append(blank(random));
+                    appendPoints(wkt, random, 1 + random.nextInt(4));
+                    break;
+                case 2:
+                    wkt.append("POLYGON").append(blank(random));
+                    appendPolygon(wkt, random);
+                    break;
+                case 3:
+                    wkt.append("MULTIPOINT").append(blank(random)).append('(');
+                    boolean isParenthesized = random.nextBoolean();
+                    for (int j = random.nextInt(3); j >= 0; j--) {
+                        wkt.append(isParenthesized ? "(" : "").append(pick(NUMBERS, random)).append(' ').append(pick(NUMBERS, random));
+                        wkt.append(isParenthesized ? ")" : "").append(j > 0 ? "," + blank(random) : "");
+                    }
+                    wkt.append(')');
+                    break;
+                case 4:
+                    wkt.append("MULTILINESTRING").append(blank(random)).append('(');
+                    for (int j = random.nextInt(3); j >= 0; j--) {
+                        appendPoints(wkt, random, 2 + random.nextInt(2));
+                        wkt.append(j > 0 ? "," + blank(random) : "");
+                    }
+                    wkt.append(')');
+                    break;
+                default:
+                    wkt.append("MultiPolygon").append(blank(random)).append('(');
+                    for (int j = random.nextInt(3); j >= 0; j--) {
+                        appendPolygon(wkt, random);
+                        wkt.append(j > 0 ? "," + blank(random) : "");
+                    }
+                    wkt.append(')');
+                    break;
+            }
+            assertSameGeometry(wkt.toString());
+        }
+    }
+
+    @Test
+    public void testReadsPartOfText() throws Exception {
+
+        String text = "WITHIN(aGeometry, POLYGON((0 0, 1 0, 1 1, 0 0)))";
+        Assert.assertEquals(Wkt.fromWkt("POLYGON((0 0, 1 0, 1 1, 0 0))"), WktLiteralReader.read(text, 18, text.length() - 1));
+    }
+
+    /**
+     * Appends a point list, with a random number in place of a coordinate now and then.
+     */
+    private static void appendPoints(StringBuilder wkt, Random random, int count) {
+
+        wkt.append('(').append(blank(random));
+        for (int i = 0; i < count; i++) {
+            wkt.append(random.nextInt(10) == 0 ? pick(NUMBERS, random) : String.valueOf(random.nextInt(100) / 10.0));
+            wkt.append(' ').append(blank(random));
+            wkt.append(random.nextInt(10) == 0 ? pick(NUMBERS, random) : String.valueOf(random.nextInt(100) / 10.0));
+            if (random.nextInt(50) == 0)
+                wkt.append(' ').append(pick(NUMBERS, random));
+            wkt.append(blank(random)).append(i + 1 < count ? "," + blank(random) : "");
+        }
+        wkt.append(')');
+    }
+
+    /**
+     * Appends the rings of a polygon, which are mostly closed.
+     */
+    private static void appendPolygon(StringBuilder wkt, Random random) {
+
+        wkt.append('(');
+        for (int i = random.nextInt(2); i >= 0; i--) {
+            String first = pick(NUMBERS, random) + " " + pick(NUMBERS, random);
+            wkt.append('(').append(first);
+            for (int j = 2 + random.nextInt(3); j > 0; j--)
+                wkt.append(',').append(blank(random)).append(random.nextInt(10)).append(' ').append(random.nextInt(10));
+            wkt.append(", ").append(random.nextInt(10) == 0 ? "0 0" : first).append(')');
+            wkt.append(i > 0 ? "," + blank(random) : "");
+        }
+        wkt.append(')');
+    }
+
+    private static void assertSameGeometry(String wkt) {
+
+        Object expected;
+        try {
+            expected = Wkt.fromWkt(wkt);
+        }
+        catch (Exception e) {
+            expected = e.getClass();
+        }
+
+        Object actual;
+        try {
+            String text = "x" + wkt + "y";
+            actual = WktLiteralReader.read(text, 1, text.length() - 1);
+        }
+        catch (Exception e) {
+            actual = e.getClass();
+        }
+
+        Assert.assertEquals(wkt, expected, actual);
+        if (expected instanceof Geometry) {
+            Geometry expectedGeometry = (Geometry) expected;
+            Geometry actualGeometry = (Geometry) actual;
+            Assert.assertEquals(wkt, Wkt.toWkt(expectedGeometry), Wkt.toWkt(actualGeometry));
+            Assert.assertEquals(wkt, expectedGeometry.getCrsId(), actualGeometry.getCrsId());
+            for (int i = 0; i < expectedGeometry.getNumPoints(); i++) {
+                Assert.assertEquals(wkt, Double.doubleToLongBits(expectedGeometry.getPointN(i).getX()), Double.doubleToLongBits(actualGeometry.getPointN(i).getX()));
+                Assert.assertEquals(wkt, Double.doubleToLongBits(expectedGeometry.getPointN(i).getY()), Double.doubleToLongBits(actualGeometry.getPointN(i).getY()));
+            }
+        }
+    }
+
+    private static String blank(Random random) {
+
+        return pick(BLANKS, random);
+    }
+
+    private static String pick(String[] values, Random random) {
+
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.csv;
+
+import org.geolatte.common.dataformats.wkb.GeometryEncoding;
+import org.geolatte.common.dataformats.wkb.WkbCodec;
+import org.geolatte.common.transformer.ClosedTransformerChain;
+import org.geolatte.common.transformer.TransformerChainFactory;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkt;
+import org.geolatte.testobjects.DummyTransformerSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Tests {@link CsvTransformerSink}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ */
+public class CsvTransformerSinkTest {
+
+    @Test
+    public void testSelectedColumns() {
+
+        StringWriter out = new StringWriter();
+        CsvTransformerSink<Object> sink = new CsvTransformerSink<Object>(out, Row.class, ',', Arrays.asList("name", "ID"));
+        Assert.assertEquals("name,ID", sink.getHeader());
+
+        run(sink, new Row(1, "plain", 2.5), new Row(2, null, 0));
+        Assert.assertEquals("name,ID\r\nplain,1\r\n,2\r\n", out.toString());
+    }
+
+    @Test
+    public void testQuotingAndEscaping() {
+
+        StringWriter out = new StringWriter();
+        CsvTransformerSink<Object> sink = new CsvTransformerSink<Object>(out, Row.class, ',', Arrays.asList("name", "value"));
+        sink.setHeaderWritten(false);
+        sink.setLineSeparator("\n");
+
+        run(sink, new Row(1, "a,b", 1), new Row(2, "say \"hi\"", 2), new Row(3, "two\r\nlines", 3));
+        Assert.assertEquals("\"a,b\",1.0\n\"say \"\"hi\"\"\",2.0\n\"two\r\nlines\",3.0\n", out.toString());
+    }
+
+    @Test
+    public void testAllColumns() {
+
+        StringWriter out = new StringWriter();
+        CsvTransformerSink<Object> sink = new CsvTransformerSink<Object>(out, Row.class, ';');
+        Assert.assertTrue(sink.getHeader().startsWith("id;"));
+        Assert.assertEquals(3, sink.getHeader().split(";").length);
+
+        run(sink, new Row(7, "x", 1));
+        String[] lines = out.toString().split("\r\n");
+        Assert.assertEquals(2, lines.length);
+        Assert.assertTrue(lines[1].startsWith("7;"));
+        Assert.assertEquals(3, lines[1].split(";").length);
+    }
+
+    @Test
+    public void testOutputStreamIsUtf8() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvTransformerSink<Object> sink = new CsvTransformerSink<Object>(out, Row.class, ',', Arrays.asList("name"));
+        sink.setHeaderWritten(false);
+
+        run(sink, new Row(1, "été", 0));
+        Assert.assertEquals("été\r\n", new String(out.toByteArray(), "UTF-8"));
+    }
+
+    @Test
+    public void testWrongClassIsSkipped() {
+
+        StringWriter out = new StringWriter();
+        CsvTransformerSink<Object> sink = new CsvTransformerSink<Object>(out, Row.class, ',', Arrays.asList("id"));
+        sink.setHeaderWritten(false);
+
+        run(sink, new Row(1, "a", 0), "not a row", new Row(2, "b", 0));
+        Assert.assertEquals("1\r\n2\r\n", out.toString());
+    }
+
+    @Test
+    public void testGeometryEncoding() {
+
+        StringWriter out = new StringWriter();
+        CsvTransformerSink<Object> sink = new CsvTransformerSink<Object>(out, Located.class, ',', Arrays.asList("id", "location"));
+        sink.setHeaderWritten(false);
+        Located located = new Located(1, Wkt.fromWkt("LINESTRING(0 0,1 1)"));
+
+        run(sink, located);
+        Assert.assertEquals("1,\"LINESTRING(0 0,1 1)\"\r\n", out.toString());
+
+        for (GeometryEncoding encoding : new GeometryEncoding[]{GeometryEncoding.WKB_HEX, GeometryEncoding.WKB_BASE64}) {
+            out = new StringWriter();
+            sink = new CsvTransformerSink<Object>(out, Located.class, ',', Arrays.asList("id", "location"));
+            sink.setHeaderWritten(false);
+            sink.setGeometryEncoding(encoding);
+
+            run(sink, located);
+            String field = out.toString().substring(2, out.toString().length() - 2);
+            Assert.assertEquals(located.getLocation(), WkbCodec.parse(field, encoding));
+        }
+    }
+
+    private void run(CsvTransformerSink<Object> sink, Object... rows) {
+
+        ClosedTransformerChain chain = TransformerChainFactory.<Object, Object>newChain()
+                .add(new DummyTransformerSource<Object>(new ArrayList<Object>(Arrays.asList(rows)), false))
+                .last(sink);
+        chain.run();
+    }
+
+    public static class Located {
+
+        private final int id;
+        private final Geometry location;
+
+        public Located(int id, Geometry location) {
+            this.id = id;
+            this.location = location;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Geometry getLocation() {
+            return location;
+        }
+    }
+
+    public static class Row {
+
+        private final int id;
+        private final String name;
+        private final double value;
+
+        public Row(int id, String name, double value) {
+            this.id = id;
+            this.name = name;
+            this.value = value;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.csv;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.transformer.ClosedTransformerChain;
+import org.geolatte.common.transformer.TransformerChainFactory;
+import org.geolatte.common.transformer.TransformerSource;
+import org.geolatte.common.transformer.testutil.LoggingTransformerSourceEventListener;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkb;
+import org.geolatte.geom.codec.Wkt;
+import org.geolatte.testobjects.DummyTransformerSink;
+import org.geolatte.testobjects.DummyTransformerSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>
+ * Tests {@link CsvTransformerSource} and {@link CsvFeatureSource}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ */
+public class CsvTransformerSourceTest {
+
+    @Test
+    public void testTypedObjects() throws Exception {
+
+        String csv = "ID,name,value,flag,day,location,unknown\r\n"
+                + "1,plain,2.5,true,2010-12-03,POINT(1 2),x\r\n"
+                + "\r\n"
+                + "2,\"a,\"\"quoted\"\"\nvalue\",,false,,,\n"
+                + "3";
+        List<Row> rows = read(new CsvTransformerSource<Row>(new StringReader(csv), ',', Row.class), null);
+
+        Assert.assertEquals(3, rows.size());
+        Row first = rows.get(0);
+        Assert.assertEquals(1, first.getId());
+        Assert.assertEquals("plain", first.getName());
+        Assert.assertEquals(2.5, first.getValue(), 0.0);
+        Assert.assertTrue(first.getFlag());
+        Assert.assertEquals(new SimpleDateFormat("yyyy-MM-dd").parse("2010-12-03"), first.getDay());
+        Assert.assertEquals(Wkt.fromWkt("POINT(1 2)"), first.getLocation());
+
+        Row second = rows.get(1);
+        Assert.assertEquals(2, second.getId());
+        Assert.assertEquals("a,\"quoted\"\nvalue", second.getName());
+        Assert.assertEquals(0.0, second.getValue(), 0.0);
+        Assert.assertNull(second.getDay());
+        Assert.assertNull(second.getLocation());
+
+        Assert.assertEquals(3, rows.get(2).getId());
+        Assert.assertNull(rows.get(2).getName());
+    }
+
+    @Test
+    public void testOverloadedSetters() throws Exception {
+
+        String csv = "day,code\n2010-12-03,7\n";
+        List<OverloadedRow> rows = read(new CsvTransformerSource<OverloadedRow>(new StringReader(csv), ',', OverloadedRow.class), null);
+        Assert.assertEquals(1, rows.size());
+        Assert.assertEquals(new SimpleDateFormat("yyyy-MM-dd").parse("2010-12-03"), rows.get(0).getDay());
+        Assert.assertEquals(7, rows.get(0).code);
+
+        try {
+            read(new CsvTransformerSource<AmbiguousRow>(new StringReader("code\n7\n"), ',', AmbiguousRow.class), null);
+            Assert.fail("Ambiguous setters should be rejected");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("setCode"));
+        }
+    }
+
+    @Test
+    public void testInvalidRecordIsSkipped() {
+
+        String csv = "id;value\n1;1.5\n2;not a number\n3;3.5\n";
+        LoggingTransformerSourceEventListener listener = new LoggingTransformerSourceEventListener();
+        List<Row> rows = read(new CsvTransformerSource<Row>(new StringReader(csv), ';', Row.class), listener);
+
+        Assert.assertEquals(2, rows.size());
+        Assert.assertEquals(1, rows.get(0).getId());
+        Assert.assertEquals(3, rows.get(1).getId());
+        Assert.assertEquals(1, listener.errorsReported);
+        Assert.assertFalse(listener.eventsOccurred.get(0).getIsTerminating());
+    }
+
+    @Test
+    public void testRoundTripWithSink() {
+
+        Row row = new Row();
+        row.setId(42);
+        row.setName("tricky, \"name\"\r\nover lines");
+        row.setValue(-1.25);
+        row.setLocation(Wkt.fromWkt("LINESTRING(0 0,1 1)"));
+
+        StringWriter out = new StringWriter();
+        CsvTransformerSink<Row> sink = new CsvTransformerSink<Row>(out, Row.class, ',', Arrays.asList("id", "name", "value", "location"));
+        ClosedTransformerChain chain = TransformerChainFactory.<Row, Row>newChain()
+                .add(new DummyTransformerSource<Row>(new ArrayList<Row>(Arrays.asList(row)), false))
+                .last(sink);
+        chain.run();
+
+        List<Row> rows = read(new CsvTransformerSource<Row>(new StringReader(out.toString()), ',', Row.class), null);
+        Assert.assertEquals(1, rows.size());
+        Assert.assertEquals(42, rows.get(0).getId());
+        Assert.assertEquals(row.getName(), rows.get(0).getName());
+        Assert.assertEquals(-1.25, rows.get(0).getValue(), 0.0);
+        Assert.assertEquals(row.getLocation(), rows.get(0).getLocation());
+    }
+
+    @Test
+    public void testUntypedFeatures() {
+
+        Geometry point = Wkt.fromWkt("POINT(3 4)");
+        String csv = "fid|name|count|GEOM\n7|first|12|" + Wkb.toWkb(point).toString() + "\n";
+        List<Feature> features = read(new CsvFeatureSource(new StringReader(csv), '|', "FID", "geom"), null);
+
+        Assert.assertEquals(1, features.size());
+        Feature feature = features.get(0);
+        Assert.assertEquals("7", feature.getId());
+        Assert.assertEquals("geom", feature.getGeometryName());
+        Assert.assertEquals(point, feature.getGeometry());
+        Assert.assertEquals("12", feature.getProperty("count"));
+        Assert.assertEquals("first", feature.getProperty("name"));
+        Assert.assertFalse(feature.hasProperty("fid", false));
+    }
+
+    @Test
+    public void testTypedFeatures() {
+
+        String csv = "id,value,flag,location\n5,0.5,true,POINT(1 1)\n";
+        List<Feature> features = read(new CsvFeatureSource(new StringReader(csv), ',', Row.class), null);
+
+        Assert.assertEquals(1, features.size());
+        Feature feature = features.get(0);
+        Assert.assertEquals(5, feature.getId());
+        Assert.assertEquals(0.5, feature.getProperty("value"));
+        Assert.assertEquals(Boolean.TRUE, feature.getProperty("flag"));
+        Assert.assertEquals(Wkt.fromWkt("POINT(1 1)"), feature.getGeometry());
+    }
+
+    @Test
+    public void testSourceCanOnlyBeReadOnce() {
+
+        CsvFeatureSource source = new CsvFeatureSource(new StringReader("a\n1\n"), ',', null, null);
+        Assert.assertEquals(1, read(source, null).size());
+        try {
+            read(source, null);
+            Assert.fail("Reading a CSV source twice should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private <T> List<T> read(TransformerSource<T> source, LoggingTransformerSourceEventListener listener) {
+
+        ArrayList<T> results = new ArrayList<T>();
+        if (listener != null)
+            ((AbstractCsvTransformerSource<T>) source).addTransformerSourceEventListener(listener);
+        TransformerChainFactory.<T, T>newChain().add(source).last(new DummyTransformerSink<T>(results)).run();
+        return results;
+    }
+
+    public static class Row {
+
+        private int id;
+        private String name;
+        private double value;
+        private boolean flag;
+        private Date day;
+        private Geometry location;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public void setValue(double value) {
+            this.value = value;
+        }
+
+        public boolean getFlag() {
+            return flag;
+        }
+
+        public void setFlag(boolean flag) {
+            this.flag = flag;
+        }
+
+        public Date getDay() {
+            return day;
+        }
+
+        public void setDay(Date day) {
+            this.day = day;
+        }
+
+        public Geometry getLocation() {
+            return location;
+        }
+
+        public void setLocation(Geometry location) {
+            this.location = location;
+        }
+    }
+
+    public static class OverloadedRow {
+
+        private Date day;
+        private int code;
+
+        public Date getDay() {
+            return day;
+        }
+
+        public void setDay(String day) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void setDay(Object day) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void setDay(Date day) {
+            this.day = day;
+        }
+
+        public void setCode(String code) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void setCode(int code) {
+            this.code = code;
+        }
+    }
+
+    public static class AmbiguousRow {
+
+        public void setCode(String code) {
+        }
+
+        public void setCode(int code) {
+        }
+    }
+}
@@ -20,6 +20,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * No comment provided yet for this class.
@@ -72,5 +77,29 @@ public class AbstractJsonDeserializerTest {
         Assert.assertEquals(3.3, d, ACCURACY);
     }
 
+    @Test
+    public void testGetDateParam() throws IOException
+    {
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("date", "2010-01-02");
+        params.put("dateTime", "2010-01-02T10:00:00Z");
+        params.put("spaced", "2010-01-02 10:00");
+        params.put("european", "02/01/2010 10:00");
+        params.put("noDate", "yesterday");
+        Date expected = new GregorianCalendar(2010, Calendar.JANUARY, 2).getTime();
+        Assert.assertEquals(expected, test.getDateParam("date", null, params));
+        // As with SimpleDateFormat, text after the date is ignored
+        Assert.assertEquals(expected, test.getDateParam("dateTime", "error", params));
+        Assert.assertEquals(expected, test.getDateParam("spaced", "error", params));
+        Assert.assertEquals(expected, test.getDateParam("european", "error", params));
+        Assert.assertNull(test.getDateParam("noDate", null, params));
+        try {
+            test.getDateParam("noDate", "error", params);
+            Assert.fail("Not a date");
+        } catch (IOException e) {
+            // Ok!
+        }
+    }
+
 
 }
@@ -0,0 +1,149 @@
+/*
+ * This file is part of the GeoLatte project. This code is licenced under
+ * the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions and limitations under the
+ * License.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.Qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.json.jackson;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.transformer.TransformerChainFactory;
+import org.geolatte.common.transformer.testutil.LoggingTransformerSourceEventListener;
+import org.geolatte.geom.Point;
+import org.geolatte.geom.codec.Wkt;
+import org.geolatte.testobjects.DummyTransformerSink;
+import org.geolatte.testobjects.DummyTransformerSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Tests {@link NdjsonFeatureSource} and {@link NdjsonTransformerSink}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ */
+public class NdjsonFeatureSourceTest {
+
+    private static final int FEATURE_COUNT = 50;
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+
+        file = File.createTempFile("features", ".geojsonl");
+        ArrayList<Feature> features = new ArrayList<Feature>();
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            DefaultFeature feature = new DefaultFeature();
+            feature.setId("id", i);
+            feature.setGeometry("geometry", Wkt.fromWkt("POINT(" + i + " 1)"));
+            feature.addProperty("name", "feature " + i);
+            features.add(feature);
+        }
+
+        OutputStream out = new FileOutputStream(file);
+        try {
+            NdjsonTransformerSink<Feature> sink = new NdjsonTransformerSink<Feature>(out);
+            sink.setRecordSeparated(true);
+            TransformerChainFactory.<Feature, Feature>newChain()
+                    .add(new DummyTransformerSource<Feature>(features, false))
+                    .last(sink)
+                    .run();
+        } finally {
+            out.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+
+        file.delete();
+    }
+
+    @Test
+    public void testReadAll() {
+
+        List<Feature> features = read(new NdjsonFeatureSource(file), null);
+        Assert.assertEquals(FEATURE_COUNT, features.size());
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            Feature feature = features.get(i);
+            Assert.assertEquals(i, feature.getId());
+            Assert.assertEquals("feature " + i, feature.getProperty("name"));
+            Assert.assertEquals((double) i, ((Point) feature.getGeometry()).getX(), 0.0);
+        }
+    }
+
+    @Test
+    public void testSplitReadsEveryFeatureOnce() {
+
+        for (int parts = 1; parts <= 7; parts++) {
+            List<Feature> features = new ArrayList<Feature>();
+            for (NdjsonFeatureSource part : new NdjsonFeatureSource(file).split(parts))
+                features.addAll(read(part, null));
+
+            Assert.assertEquals(FEATURE_COUNT, features.size());
+            for (int i = 0; i < FEATURE_COUNT; i++)
+                Assert.assertEquals(i, features.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testSmallWindow() {
+
+        NdjsonFeatureSource source = new NdjsonFeatureSource(file);
+        source.setWindowSize(512);
+        Assert.assertEquals(FEATURE_COUNT, read(source, null).size());
+
+        source.setWindowSize(16);
+        LoggingTransformerSourceEventListener listener = new LoggingTransformerSourceEventListener();
+        Assert.assertEquals(0, read(source, listener).size());
+        Assert.assertEquals(1, listener.errorsReported);
+        Assert.assertTrue(listener.eventsOccurred.get(0).getIsTerminating());
+    }
+
+    @Test
+    public void testInvalidRecordIsSkipped() throws Exception {
+
+        OutputStream out = new FileOutputStream(file);
+        out.write(("\r\n{\"type\": \"Feature\", \"geometry\": {\"type\": \"Point\", \"coordinates\": [1.0, 2.0]}, \"properties\": {\"a\": 1}}\r\n"
+                + "{\"type\": \"Feature\", \n"
+                + "   \n"
+                + "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Point\", \"coordinates\": [1.0, 2.0]}, \"properties\": {\"a\": 2}}").getBytes("UTF-8"));
+        out.close();
+
+        LoggingTransformerSourceEventListener listener = new LoggingTransformerSourceEventListener();
+        List<Feature> features = read(new NdjsonFeatureSource(file), listener);
+        Assert.assertEquals(2, features.size());
+        Assert.assertEquals(1, features.get(0).getProperty("a"));
+        Assert.assertEquals(2, features.get(1).getProperty("a"));
+        Assert.assertEquals(1, listener.errorsReported);
+        Assert.assertFalse(listener.eventsOccurred.get(0).getIsTerminating());
+    }
+
+    private List<Feature> read(NdjsonFeatureSource source, LoggingTransformerSourceEventListener listener) {
+
+        ArrayList<Feature> results = new ArrayList<Feature>();
+        if (listener != null)
+            source.addTransformerSourceEventListener(listener);
+        TransformerChainFactory.<Feature, Feature>newChain().add(source).last(new DummyTransformerSink<Feature>(results)).run();
+        return results;
+    }
+}
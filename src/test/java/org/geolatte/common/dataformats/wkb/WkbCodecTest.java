@@ -0,0 +1,114 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.dataformats.wkb;
+
+import org.geolatte.common.transformer.TransformationException;
+import org.geolatte.geom.ByteOrder;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkb;
+import org.geolatte.geom.codec.Wkt;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * <p>
+ * Tests {@link WkbCodec} and the WKB transformations.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ */
+public class WkbCodecTest {
+
+    private static final String[] GEOMETRIES = {
+            "POINT(1 2)",
+            "SRID=31370;POINT(150000.5 200000.25)",
+            "SRID=4326;LINESTRING(0 0,1 1,2 0)",
+            "POLYGON((0 0,10 0,10 10,0 10,0 0),(2 2,3 2,3 3,2 2))"
+    };
+
+    @Test
+    public void testBinaryRoundTrip() throws TransformationException {
+
+        for (String wkt : GEOMETRIES) {
+            Geometry geometry = Wkt.fromWkt(wkt);
+            for (ByteOrder byteOrder : ByteOrder.values()) {
+                byte[] wkb = new GeometryToWkbTransformation(byteOrder).transform(geometry);
+                Assert.assertEquals(byteOrder.byteValue(), wkb[0]);
+                Assert.assertEquals(geometry, new WkbToGeometryTransformation().transform(wkb));
+            }
+        }
+    }
+
+    @Test
+    public void testTextEncodings() throws TransformationException {
+
+        for (String wkt : GEOMETRIES) {
+            Geometry geometry = Wkt.fromWkt(wkt);
+            byte[] wkb = WkbCodec.toWkb(geometry, ByteOrder.NDR);
+
+            String hex = new GeometryToTextTransformation(GeometryEncoding.WKB_HEX).transform(geometry);
+            Assert.assertEquals(Wkb.toWkb(geometry, ByteOrder.NDR).toString().toUpperCase(), hex);
+
+            String base64 = new GeometryToTextTransformation(GeometryEncoding.WKB_BASE64).transform(geometry);
+            Assert.assertEquals(Base64.getEncoder().encodeToString(wkb), base64);
+
+            String text = new GeometryToTextTransformation(GeometryEncoding.WKT).transform(geometry);
+            Assert.assertEquals(geometry.asText(), text);
+
+            for (String encoded : Arrays.asList(hex, hex.toLowerCase(), base64)) {
+                Assert.assertEquals(geometry, new TextToGeometryTransformation().transform(encoded));
+            }
+            Assert.assertEquals(geometry, new TextToGeometryTransformation(GeometryEncoding.WKB_HEX).transform(hex));
+            Assert.assertEquals(geometry, new TextToGeometryTransformation(GeometryEncoding.WKB_BASE64).transform(base64));
+        }
+    }
+
+    @Test
+    public void testBase64Padding() {
+
+        StringBuilder target = new StringBuilder("prefix:");
+        Geometry geometry = Wkt.fromWkt("POINT(1 2)");
+        WkbCodec.append(geometry, GeometryEncoding.WKB_BASE64, ByteOrder.XDR, target);
+        Assert.assertEquals("prefix:" + Base64.getEncoder().encodeToString(WkbCodec.toWkb(geometry, ByteOrder.XDR)), target.toString());
+    }
+
+    @Test
+    public void testInvalidInput() {
+
+        try {
+            new TextToGeometryTransformation(GeometryEncoding.WKB_HEX).transform("01X");
+            Assert.fail("Invalid hexadecimal text should fail");
+        } catch (TransformationException e) {
+            // expected
+        }
+        try {
+            new WkbToGeometryTransformation().transform(new byte[]{1, 2});
+            Assert.fail("Truncated WKB should fail");
+        } catch (TransformationException e) {
+            // expected
+        }
+    }
+}
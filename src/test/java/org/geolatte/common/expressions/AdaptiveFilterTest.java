@@ -0,0 +1,134 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link AdaptiveFilter}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class AdaptiveFilterTest {
+
+    @Test
+    public void testCheapSelectiveOperandMovesToFront() {
+
+        CountingExpression slow = new CountingExpression(true, 1);
+        Expression<Boolean> selective = isLessThan(numberProperty("anInteger"), constant(1));
+        AdaptiveFilter filter = new AdaptiveFilter(and(slow, selective), 1, 10);
+
+        Assert.assertSame(slow, ((And) filter.getCurrentExpression()).getLeft());
+
+        FilterableObject object = new FilterableObject();
+        for (int i = 0; i < 10; i++) {
+            object.setAnInteger(i);
+            Assert.assertEquals(i < 1, filter.evaluate(object));
+        }
+        Assert.assertSame(selective, ((And) filter.getCurrentExpression()).getLeft());
+        Assert.assertSame(slow, ((And) filter.getCurrentExpression()).getRight());
+
+        // Without sampling, the slow operand is no longer evaluated for objects the selective one rejects
+        AdaptiveFilter unsampled = new AdaptiveFilter(and(slow, selective), Integer.MAX_VALUE, 10);
+        Assert.assertSame(slow, ((And) unsampled.getCurrentExpression()).getLeft());
+        int count = slow.count;
+        object.setAnInteger(5);
+        Assert.assertFalse(unsampled.evaluate(object));
+        Assert.assertEquals(count + 1, slow.count);
+        Assert.assertFalse(filter.evaluate(object) && filter.evaluate(object));
+    }
+
+    @Test
+    public void testDisjunctionsAndNestedJunctions() {
+
+        CountingExpression slowFalse = new CountingExpression(false, 1);
+        Expression<Boolean> inner = or(isEqual(stringProperty("aString"), constant("a")), isEqual(stringProperty("aString"), constant("b")));
+        Expression<Boolean> expression = and(isGreaterThan(numberProperty("anInteger"), constant(-1)), or(slowFalse, inner));
+        AdaptiveFilter filter = new AdaptiveFilter(expression, 1, 5);
+
+        FilterableObject object = new FilterableObject();
+        String[] strings = {"a", "b", "c"};
+        for (int i = 0; i < 30; i++) {
+            object.setAnInteger(i);
+            object.setaString(strings[i % 3]);
+            Assert.assertEquals(expression.evaluate(object), filter.evaluate(object));
+        }
+
+        // The comparison that is always true never decides the And, so the Or is moved in front of it
+        Expression<Boolean> current = ((And) filter.getCurrentExpression()).getLeft();
+        Assert.assertTrue(current instanceof Or);
+        // The nested Or is flattened and its slow operand, which never decides, is moved to the end
+        Assert.assertTrue(((Or) current).getLeft() instanceof Or);
+        Assert.assertSame(slowFalse, ((Or) current).getRight());
+    }
+
+    @Test
+    public void testIllegalArguments() {
+
+        try {
+            new AdaptiveFilter(constant(true), 0, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            new AdaptiveFilter(null);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    /**
+     * A slow expression with a fixed value that counts its evaluations.
+     */
+    private static class CountingExpression extends BooleanExpression {
+
+        private final boolean value;
+        private final long millis;
+        private int count = 0;
+
+        CountingExpression(boolean value, long millis) {
+            this.value = value;
+            this.millis = millis;
+        }
+
+        public Boolean evaluate(Object o) {
+            count++;
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }
+    }
+}
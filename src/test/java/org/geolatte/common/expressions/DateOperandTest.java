@@ -0,0 +1,132 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * <p>
+ * Tests {@link DateOperand}, through the temporal predicates that use it.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class DateOperandTest {
+
+    @Test
+    public void testPredicatesCompareDates() throws Exception {
+
+        Random random = new Random(9);
+        TrackPoint point = new TrackPoint();
+        for (int i = 0; i < 1000; i++) {
+            point.time = random.nextInt(5) == 0 ? null : new Date(random.nextInt(10));
+            Date low = new Date(random.nextInt(10));
+            Date high = new Date(random.nextInt(10));
+
+            assertSameResult(point.time == null ? null : point.time.before(low), Expressions.isBefore(Expressions.dateProperty("time"), Expressions.constant(low)), point);
+            assertSameResult(point.time == null ? null : low.before(point.time), Expressions.isBefore(Expressions.constant(low), Expressions.dateProperty("time")), point);
+            assertSameResult(point.time == null ? null : point.time.after(low), Expressions.isAfter(Expressions.dateProperty("time"), Expressions.constant(low)), point);
+            assertSameResult(point.time == null ? null : point.time.after(low) && point.time.before(high),
+                    Expressions.isBetween(Expressions.dateProperty("time"), Expressions.constant(low), Expressions.constant(high)), point);
+        }
+    }
+
+    @Test
+    public void testPropertyIsReadOnce() throws Exception {
+
+        TrackPoint point = new TrackPoint();
+        point.time = new Date(5);
+        Expression<Boolean> between = Expressions.isBetween(Expressions.dateProperty("time"), Expressions.constant(new Date(1)), Expressions.constant(new Date(9)));
+
+        Assert.assertTrue(between.evaluate(point));
+        Assert.assertEquals(1, point.readCount);
+    }
+
+    @Test
+    public void testNullDates() throws Exception {
+
+        TrackPoint point = new TrackPoint();
+        point.time = new Date(5);
+        Date nullDate = null;
+
+        // The base date must not be null, the bounds of a period are arguments
+        assertFails(NullPointerException.class, Expressions.isBetween(Expressions.dateProperty("unknown"), Expressions.constant(nullDate), Expressions.constant(new Date(9))), point);
+        assertFails(IllegalArgumentException.class, Expressions.isBetween(Expressions.dateProperty("time"), Expressions.constant(nullDate), Expressions.constant(new Date(9))), point);
+        assertFails(IllegalArgumentException.class, Expressions.isBetween(Expressions.dateProperty("time"), Expressions.constant(new Date(1)), Expressions.constant(nullDate)), point);
+        // The end is not read when the date is before the start
+        Assert.assertFalse(Expressions.isBetween(Expressions.dateProperty("time"), Expressions.constant(new Date(7)), Expressions.constant(nullDate)).evaluate(point));
+        assertFails(NullPointerException.class, Expressions.isAfter(Expressions.dateProperty("time"), Expressions.constant(nullDate)), point);
+    }
+
+    @Test
+    public void testJavaTimeProperty() throws Exception {
+
+        TrackPoint point = new TrackPoint();
+        point.instant = Instant.ofEpochMilli(5);
+        Assert.assertTrue(Expressions.isBefore(Expressions.dateProperty("instant"), Expressions.constant(Instant.ofEpochMilli(6))).evaluate(point));
+        Assert.assertFalse(Expressions.isAfter(Expressions.dateProperty("instant"), Expressions.constant(new Date(5))).evaluate(point));
+    }
+
+    private static void assertSameResult(Boolean expected, Expression<Boolean> expression, Object o) {
+
+        if (expected != null) {
+            Assert.assertEquals(expected, expression.evaluate(o));
+        } else {
+            assertFails(NullPointerException.class, expression, o);
+        }
+    }
+
+    private static void assertFails(Class<? extends Exception> expected, Expression<Boolean> expression, Object o) {
+
+        try {
+            expression.evaluate(o);
+            Assert.fail("Expected " + expected.getSimpleName());
+        }
+        catch (Exception e) {
+            Assert.assertEquals(expected, e.getClass());
+        }
+    }
+
+    public static class TrackPoint {
+
+        private Date time;
+        private Instant instant;
+        private int readCount;
+
+        public Date getTime() {
+            readCount++;
+            return time;
+        }
+
+        public Instant getInstant() {
+            return instant;
+        }
+    }
+}
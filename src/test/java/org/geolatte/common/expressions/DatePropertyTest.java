@@ -25,6 +25,11 @@ import org.geolatte.testobjects.FilterableObject;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Date;
 
 /**
@@ -54,6 +59,29 @@ public class DatePropertyTest {
         Assert.assertEquals(date, prop.evaluate(obj));
     }
 
+    @Test
+    public void testEvaluateJavaTimeValues() throws Exception {
+
+        TemporalObject temporalObject = new TemporalObject();
+        Date date = new Date(1296705906000L);
+        Assert.assertEquals(date, new DateProperty("instant").evaluate(temporalObject));
+        Assert.assertEquals(date, new DateProperty("offsetDateTime").evaluate(temporalObject));
+        Assert.assertEquals(Date.from(LocalDate.of(2011, 2, 3).atStartOfDay(ZoneId.systemDefault()).toInstant()),
+                new DateProperty("localDate").evaluate(temporalObject));
+
+        CompiledFilter<TemporalObject> compiled = ExpressionCompiler.compile(
+                Expressions.isBefore(new DateProperty("instant"), Expressions.constant(Instant.ofEpochMilli(1296705907000L))), TemporalObject.class);
+        Assert.assertTrue(compiled.test(temporalObject));
+        Assert.assertEquals(0, compiled.getInterpretedNodeCount());
+
+        try {
+            new DateProperty("text").evaluate(temporalObject);
+            Assert.fail("A string is no date");
+        } catch (ClassCastException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testGetPropertyName() throws Exception {
 
@@ -61,4 +89,23 @@ public class DatePropertyTest {
 
         Assert.assertEquals("aDate", prop.getPropertyName());
     }
+
+    public static class TemporalObject {
+
+        public Instant getInstant() {
+            return Instant.ofEpochMilli(1296705906000L);
+        }
+
+        public OffsetDateTime getOffsetDateTime() {
+            return Instant.ofEpochMilli(1296705906000L).atOffset(ZoneOffset.ofHours(2));
+        }
+
+        public LocalDate getLocalDate() {
+            return LocalDate.of(2011, 2, 3);
+        }
+
+        public String getText() {
+            return "2011-02-03";
+        }
+    }
 }
@@ -25,6 +25,8 @@ import junit.framework.TestCase;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.Date;
 
 /**
@@ -50,4 +52,13 @@ public class DateTimeConstantTest extends TestCase {
 
         Assert.assertEquals(date, dateConstant.evaluate(null));
     }
+
+    @Test
+    public void testEvaluateJavaTimeValue() throws Exception {
+
+        Date date = new Date(1296705906000L);
+
+        Assert.assertEquals(date, new DateConstant(Instant.ofEpochMilli(1296705906000L)).evaluate(null));
+        Assert.assertEquals(date, new DateConstant(Instant.ofEpochMilli(1296705906000L).atZone(ZoneId.of("Europe/Brussels"))).evaluate(null));
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.common.transformer.Transformation;
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link ExpressionCompiler}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class ExpressionCompilerTest {
+
+    @Test
+    public void testCompiledFilterAgreesWithInterpreter() {
+
+        List<Expression<Boolean>> expressions = new ArrayList<Expression<Boolean>>();
+        expressions.add(numberProperty("anInteger").isEqual(constant(5)));
+        expressions.add(isNotEqual(numberProperty("aDouble"), constant(2.5)));
+        expressions.add(isLessThan(numberProperty("anInteger"), constant(5)));
+        expressions.add(isLessThanOrEqual(numberProperty("aLong"), constant(3)));
+        expressions.add(isGreaterThan(add(numberProperty("anInteger"), numberProperty("aDouble")), constant(6)));
+        expressions.add(isGreaterThanOrEqual(numberProperty("aFloat"), numberProperty("aDouble")));
+        expressions.add(isEqual(stringProperty("aString"), constant("abc")));
+        expressions.add(isLessThan(stringProperty("aString"), stringProperty("anotherString")));
+        expressions.add(like(stringProperty("aString"), "A%", true));
+        expressions.add(notLike(stringProperty("aString"), "a*", '*'));
+        expressions.add(isEqual(booleanProperty("aBoolean"), constant(true)));
+        expressions.add(isGreaterThan(booleanProperty("aBoolean"), booleanProperty("anotherBoolean")));
+        expressions.add(isBefore(dateProperty("aDate"), constant(new Date(5000))));
+        expressions.add(isAfter(dateProperty("aDate"), dateProperty("anotherDate")));
+        expressions.add(isBetween(dateProperty("aDate"), constant(new Date(0)), constant(new Date(10000))));
+        expressions.add(isEqual(numberProperty("aChildObject.anInteger"), constant(0)));
+        expressions.add(isInRange(numberProperty("aDouble"), 1, false, 3, true));
+        expressions.add(isInRange(numberProperty("anInteger"), null, false, 4, false));
+        expressions.add(and(exists("anInteger"), not(doesNotExist("aString"))));
+        expressions.add(or(isEqual(stringProperty("aString"), constant("x")), isGreaterThan(numberProperty("anInteger"), constant(2))));
+
+        List<FilterableObject> objects = new ArrayList<FilterableObject>();
+        for (int i = 0; i < 10; i++) {
+            FilterableObject object = new FilterableObject();
+            object.setAnInteger(i);
+            object.setaDouble(i / 2.0);
+            object.setaLong(i % 4);
+            object.setaFloat(i * 0.75f);
+            object.setaString(i % 3 == 0 ? "abc" : "Abd" + i);
+            object.setAnotherString("abc" + (9 - i));
+            object.setaBoolean(i % 2 == 0);
+            object.setAnotherBoolean(i % 3 == 0);
+            object.setaDate(new Date(i * 1000));
+            object.setAnotherDate(new Date(5000));
+            objects.add(object);
+        }
+
+        for (Expression<Boolean> expression : expressions) {
+            CompiledFilter<FilterableObject> compiled = ExpressionCompiler.compile(new Filter(expression), FilterableObject.class);
+            Assert.assertEquals(0, compiled.getInterpretedNodeCount());
+            for (FilterableObject object : objects) {
+                Assert.assertEquals(expression.evaluate(object), compiled.test(object));
+            }
+        }
+    }
+
+    @Test
+    public void testNullValuesFallBackToInterpreter() {
+
+        FilterableObject object = new FilterableObject();
+        object.setaString(null);
+        object.setaBoolean(null);
+
+        CompiledFilter<FilterableObject> compiled = ExpressionCompiler.compile(isEqual(booleanProperty("aBoolean"), booleanProperty("anotherBoolean")), FilterableObject.class);
+        Assert.assertEquals(0, compiled.getInterpretedNodeCount());
+        object.setAnotherBoolean(null);
+        // The interpreter compares the Boolean objects, so two nulls are equal
+        Assert.assertTrue(compiled.test(object));
+
+        compiled = ExpressionCompiler.compile(isEqual(stringProperty("aString"), constant("abc")), FilterableObject.class);
+        try {
+            compiled.test(object);
+            Assert.fail("The interpreter fails on a null string, so should the compiled filter");
+        } catch (NullPointerException e) {
+            // ok
+        }
+
+        // Unknown number properties are always null, which the interpreter does not accept either
+        compiled = ExpressionCompiler.compile(isLessThan(numberProperty("unknown"), constant(1)), FilterableObject.class);
+        Assert.assertEquals(0, compiled.getInterpretedNodeCount());
+        try {
+            compiled.test(object);
+            Assert.fail("The interpreter fails on a null number, so should the compiled filter");
+        } catch (NullPointerException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testUnsupportedNodesAreInterpreted() {
+
+        Expression<Boolean> unsupported = new BooleanExpression() {
+            public Boolean evaluate(Object o) {
+                return ((FilterableObject) o).getAnInteger() > 3;
+            }
+        };
+        Expression<Boolean> expression = and(unsupported, isLessThan(numberProperty("anInteger"), constant(6)));
+        CompiledFilter<FilterableObject> compiled = ExpressionCompiler.compile(expression, FilterableObject.class);
+        Assert.assertEquals(1, compiled.getInterpretedNodeCount());
+
+        FilterableObject object = new FilterableObject();
+        for (int i = 0; i < 8; i++) {
+            object.setAnInteger(i);
+            Assert.assertEquals(i > 3 && i < 6, compiled.test(object));
+        }
+    }
+
+    @Test
+    public void testAsFilterTransformation() throws Exception {
+
+        Transformation<FilterableObject, Boolean> transformation = ExpressionCompiler.compile(
+                new Filter(isGreaterThan(numberProperty("anInteger"), constant(10))), FilterableObject.class);
+
+        FilterableObject object = new FilterableObject();
+        object.setAnInteger(20);
+        Assert.assertEquals(Boolean.TRUE, transformation.transform(object));
+        object.setAnInteger(5);
+        Assert.assertEquals(Boolean.FALSE, transformation.transform(object));
+    }
+
+    @Test
+    public void testIllegalArguments() {
+
+        try {
+            ExpressionCompiler.compile((Filter) null, FilterableObject.class);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            ExpressionCompiler.compile(constant(true), null);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link ExpressionOptimizer}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class ExpressionOptimizerTest {
+
+    private final NumberProperty x = numberProperty("aDouble");
+
+    @Test
+    public void testRangeMerging() {
+
+        Expression<Boolean> optimized = ExpressionOptimizer.optimize(and(and(isGreaterThan(x, constant(1)), isLessThan(x, constant(5))), isGreaterThan(x, constant(2))));
+
+        Assert.assertTrue(optimized instanceof IsInRange);
+        IsInRange range = (IsInRange) optimized;
+        Assert.assertEquals(2, range.getLowerBound());
+        Assert.assertFalse(range.isLowerBoundIncluded());
+        Assert.assertEquals(5, range.getUpperBound());
+        Assert.assertFalse(range.isUpperBoundIncluded());
+
+        // Bounds given as constant < property
+        optimized = ExpressionOptimizer.optimize(and(isLessThanOrEqual(constant(3), x), isLessThanOrEqual(x, constant(3))));
+        range = (IsInRange) optimized;
+        Assert.assertEquals(3, range.getLowerBound());
+        Assert.assertTrue(range.isLowerBoundIncluded());
+        Assert.assertEquals(3, range.getUpperBound());
+        Assert.assertTrue(range.isUpperBoundIncluded());
+
+        // Only comparisons of the same property are merged, others are kept
+        optimized = ExpressionOptimizer.optimize(and(and(isGreaterThan(x, constant(1)), isEqual(stringProperty("aString"), constant("a"))), isLessThan(x, constant(5))));
+        Assert.assertTrue(optimized instanceof And);
+        Assert.assertTrue(((And) optimized).getLeft() instanceof IsInRange);
+        Assert.assertTrue(((And) optimized).getRight() instanceof StringIsEqual);
+    }
+
+    @Test
+    public void testEmptyRange() {
+
+        Assert.assertTrue(isFalse(ExpressionOptimizer.optimize(and(isGreaterThan(x, constant(5)), isLessThan(x, constant(3))))));
+        Assert.assertTrue(isFalse(ExpressionOptimizer.optimize(and(isGreaterThan(x, constant(5)), isLessThanOrEqual(x, constant(5))))));
+    }
+
+    @Test
+    public void testComparisonsThatAreTrueForNaNAreNotMerged() {
+
+        // Both comparisons are true for NaN, a range is not
+        Expression<Boolean> expression = and(isGreaterThanOrEqual(x, constant(1)), isGreaterThanOrEqual(x, constant(2)));
+        Assert.assertTrue(ExpressionOptimizer.optimize(expression) instanceof And);
+    }
+
+    @Test
+    public void testEqualityMerging() {
+
+        Expression<Boolean> optimized = ExpressionOptimizer.optimize(or(or(isEqual(x, constant(1)), isEqual(constant(3), x)), isEqual(x, constant(2))));
+        Assert.assertTrue(optimized instanceof IsIn);
+        Assert.assertEquals(Arrays.<Number>asList(1, 3, 2), ((IsIn) optimized).getValues());
+
+        StringProperty s = stringProperty("aString");
+        optimized = ExpressionOptimizer.optimize(or(or(isEqual(s, constant("a")), isLessThan(x, constant(0))), isEqual(s, constant("b"))));
+        Assert.assertTrue(optimized instanceof Or);
+        Assert.assertTrue(((Or) optimized).getLeft() instanceof StringIsIn);
+        Assert.assertTrue(((Or) optimized).getRight() instanceof IsLessThan);
+
+        // A single equality is kept
+        Expression<Boolean> equality = isEqual(x, constant(1));
+        Assert.assertSame(equality, ((Or) ExpressionOptimizer.optimize(or(equality, isEqual(s, constant("a"))))).getLeft());
+    }
+
+    @Test
+    public void testConstantFolding() {
+
+        Assert.assertTrue(isTrue(ExpressionOptimizer.optimize(isGreaterThan(add(constant(1), constant(2)), constant(2)))));
+        Assert.assertTrue(isFalse(ExpressionOptimizer.optimize(isEqual(stringProperty("aString"), constant("a")).and(constant(false)))));
+        Assert.assertTrue(isTrue(ExpressionOptimizer.optimize(or(constant(true), isEqual(stringProperty("aString"), constant("a"))))));
+
+        Expression<Boolean> optimized = ExpressionOptimizer.optimize(isLessThan(x, add(constant(1), constant(2))));
+        Assert.assertTrue(((IsLessThan) optimized).getRight() instanceof NumberConstant);
+        Assert.assertEquals(3.0, ((IsLessThan) optimized).getRight().evaluate(null));
+
+        // A true operand of a conjunction is dropped
+        Expression<Boolean> comparison = isLessThan(x, constant(1));
+        Assert.assertSame(comparison, ExpressionOptimizer.optimize(and(constant(true), comparison)));
+    }
+
+    @Test
+    public void testNegations() {
+
+        Expression<Boolean> property = booleanProperty("aBoolean");
+        Assert.assertSame(property, ExpressionOptimizer.optimize(not(not(property))));
+        Assert.assertTrue(isFalse(ExpressionOptimizer.optimize(not(constant(true)))));
+        Assert.assertTrue(isFalse(ExpressionOptimizer.optimize(and(property, not(property)))));
+        Assert.assertTrue(isTrue(ExpressionOptimizer.optimize(or(not(property), property))));
+        Assert.assertSame(property, ExpressionOptimizer.optimize(and(property, booleanProperty("aBoolean"))));
+    }
+
+    @Test
+    public void testOptimizedExpressionsAgreeWithOriginal() {
+
+        List<Expression<Boolean>> expressions = new ArrayList<Expression<Boolean>>();
+        expressions.add(and(and(isGreaterThan(x, constant(1)), isLessThan(x, constant(5))), isGreaterThan(x, constant(2))));
+        expressions.add(and(isGreaterThanOrEqual(x, constant(1)), isLessThanOrEqual(x, constant(3))));
+        expressions.add(and(isEqual(x, (Object) 2), isLessThan(x, constant(3))));
+        expressions.add(and(isLessThan(constant(1), x), isNotEqual(x, constant(2))));
+        expressions.add(or(isLessThan(x, constant(1)), not(not(isGreaterThan(x, constant(3))))));
+        expressions.add(and(isEqual(x, x), isGreaterThan(x, add(constant(1), constant(1)))));
+        expressions.add(and(isLessThanOrEqual(x, x), constant(true)));
+        expressions.add(and(isGreaterThanOrEqual(x, constant(1)), isGreaterThanOrEqual(constant(4), x)));
+        expressions.add(isLessThan(stringProperty("aString"), stringProperty("aString")));
+        expressions.add(or(or(isEqual(x, constant(1)), isEqual(x, constant(Double.NaN))), isEqual(constant(4), x)));
+        expressions.add(or(or(isEqual(x, constant(2)), isEqual(x, constant(5))), isGreaterThan(x, constant(5))));
+
+        double[] values = {Double.NaN, Double.NEGATIVE_INFINITY, 0, 1, 1.5, 2, 2.5, 3, 4, 5, 6, Double.POSITIVE_INFINITY};
+        FilterableObject object = new FilterableObject();
+        object.setaString("a");
+        for (Expression<Boolean> expression : expressions) {
+            Expression<Boolean> optimized = ExpressionOptimizer.optimize(expression);
+            for (double value : values) {
+                object.setaDouble(value);
+                Assert.assertEquals("Value " + value, expression.evaluate(object), optimized.evaluate(object));
+            }
+        }
+    }
+
+    @Test
+    public void testIllegalArguments() {
+
+        try {
+            ExpressionOptimizer.optimize((Expression<Boolean>) null);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    private static boolean isTrue(Expression<Boolean> expression) {
+        return expression instanceof BooleanConstant && Boolean.TRUE.equals(expression.evaluate(null));
+    }
+
+    private static boolean isFalse(Expression<Boolean> expression) {
+        return expression instanceof BooleanConstant && Boolean.FALSE.equals(expression.evaluate(null));
+    }
+}
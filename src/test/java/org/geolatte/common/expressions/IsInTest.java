@@ -0,0 +1,94 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link IsIn}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class IsInTest {
+
+    private final NumberProperty x = numberProperty("aDouble");
+
+    @Test
+    public void testEvaluate() {
+
+        IsIn in = isIn(x, Arrays.asList(3, 1.5, -0.0, 7L));
+        FilterableObject object = new FilterableObject();
+
+        object.setaDouble(1.5);
+        Assert.assertTrue(in.evaluate(object));
+        object.setaDouble(7);
+        Assert.assertTrue(in.evaluate(object));
+        object.setaDouble(0.0);
+        Assert.assertTrue(in.evaluate(object));
+        object.setaDouble(2);
+        Assert.assertFalse(in.evaluate(object));
+
+        Assert.assertFalse(isIn(x, Collections.<Number>emptyList()).evaluate(object));
+    }
+
+    @Test
+    public void testAgreesWithDisjunctionOfEqualities() {
+
+        Number[][] lists = {{1, 2, 3}, {Double.NaN, 5}, {Double.POSITIVE_INFINITY, -1}, {4}};
+        double[] values = {Double.NaN, Double.NEGATIVE_INFINITY, -1, 0, 1, 2, 3, 4, 5, Double.POSITIVE_INFINITY};
+        FilterableObject object = new FilterableObject();
+        for (Number[] list : lists) {
+            Expression<Boolean> disjunction = isEqual(x, constant(list[0]));
+            for (int i = 1; i < list.length; i++) {
+                disjunction = or(disjunction, isEqual(x, constant(list[i])));
+            }
+            IsIn in = isIn(x, Arrays.asList(list));
+            for (double value : values) {
+                object.setaDouble(value);
+                Assert.assertEquals(Arrays.toString(list) + " / " + value, disjunction.evaluate(object), in.evaluate(object));
+            }
+        }
+    }
+
+    @Test
+    public void testIllegalArguments() {
+
+        try {
+            isIn(x, Arrays.asList(1, null));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.common.cql.Cql;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link ReadOnceFilter}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class ReadOnceFilterTest {
+
+    private final Expression<Boolean> expression = or(
+            and(and(isGreaterThan(numberProperty("speed"), constant(10)), isLessThan(numberProperty("speed"), constant(120))),
+                    isNotEqual(numberProperty("speed"), constant(55))),
+            and(like(stringProperty("name"), "A%"), notLike(stringProperty("name"), "AB%")));
+
+    @Test
+    public void testPropertiesAreReadOnce() {
+
+        Vehicle vehicle = new Vehicle(80, "Bus");
+
+        Filter plain = new Filter(expression);
+        Assert.assertTrue(plain.evaluate(vehicle));
+        Assert.assertEquals(3, vehicle.speedReads);
+
+        vehicle.speedReads = 0;
+        ReadOnceFilter filter = new ReadOnceFilter(expression);
+        Assert.assertEquals(Arrays.asList("speed", "name"), filter.getRepeatedPropertyNames());
+        Assert.assertTrue(filter.evaluate(vehicle));
+        Assert.assertEquals(1, vehicle.speedReads);
+
+        // Every evaluation reads the current value
+        vehicle.speed = 55;
+        Assert.assertFalse(filter.evaluate(vehicle));
+        Assert.assertEquals(2, vehicle.speedReads);
+        vehicle.name = "Auto";
+        Assert.assertTrue(filter.evaluate(vehicle));
+        Assert.assertEquals(3, vehicle.speedReads);
+    }
+
+    @Test
+    public void testAgreesWithPlainFilter() {
+
+        Filter plain = new Filter(expression);
+        Filter filter = new ReadOnceFilter(expression);
+        double[] speeds = {0, 10, 11, 55, 56, 119, 120, 200};
+        String[] names = {"Auto", "ABC", "Bus"};
+        for (double speed : speeds) {
+            for (String name : names) {
+                Vehicle vehicle = new Vehicle(speed, name);
+                Assert.assertEquals(plain.evaluate(vehicle), filter.evaluate(vehicle));
+            }
+        }
+    }
+
+    @Test
+    public void testSlotsInNestedExpressions() {
+
+        Vehicle vehicle = new Vehicle(80, "Bus");
+        Expression<Boolean> nested = and(not(isIn(numberProperty("speed"), Arrays.asList(1, 2, 3))),
+                or(isEqual(stringProperty("name"), constant("Car")),
+                        isGreaterThan(add(numberProperty("speed"), constant(5)), constant(50))));
+        ReadOnceFilter filter = new ReadOnceFilter(nested);
+        Assert.assertTrue(filter.evaluate(vehicle));
+        Assert.assertEquals(1, vehicle.speedReads);
+        Assert.assertSame(nested, filter.getFilterExpression());
+
+        // A plain filter reads the property for every reference
+        vehicle.speedReads = 0;
+        Assert.assertTrue(new Filter(nested).evaluate(vehicle));
+        Assert.assertEquals(2, vehicle.speedReads);
+    }
+
+    @Test
+    public void testCreate() {
+
+        Assert.assertTrue(ReadOnceFilter.create(expression) instanceof ReadOnceFilter);
+        Filter filter = ReadOnceFilter.create(and(isLessThan(numberProperty("speed"), constant(1)), isEqual(stringProperty("name"), constant("A"))));
+        Assert.assertFalse(filter instanceof ReadOnceFilter);
+    }
+
+    @Test
+    public void testCqlFiltersReadOnce() throws Exception {
+
+        Vehicle vehicle = new Vehicle(80, "Bus");
+        Assert.assertTrue(Cql.toFilter("speed > 10 AND speed < 120 AND speed <> 55 OR name LIKE 'A%' AND name NOT LIKE 'AB%'").evaluate(vehicle));
+        Assert.assertEquals(1, vehicle.speedReads);
+    }
+
+    /**
+     * An object that counts the reads of its speed.
+     */
+    public static class Vehicle {
+
+        private double speed;
+        private String name;
+        private int speedReads = 0;
+
+        public Vehicle(double speed, String name) {
+            this.speed = speed;
+            this.name = name;
+        }
+
+        public double getSpeed() {
+            speedReads++;
+            return speed;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions;
+
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link StringIsIn}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class StringIsInTest {
+
+    @Test
+    public void testEvaluate() {
+
+        StringIsIn in = isIn(stringProperty("aString"), Arrays.asList("Rhett", "Scarlett"));
+        FilterableObject object = new FilterableObject();
+
+        object.setaString("Scarlett");
+        Assert.assertTrue(in.evaluate(object));
+        object.setaString("scarlett");
+        Assert.assertFalse(in.evaluate(object));
+
+        object.setaString(null);
+        try {
+            in.evaluate(object);
+            Assert.fail();
+        } catch (NullPointerException e) {
+            // ok, as StringIsEqual
+        }
+    }
+
+    @Test
+    public void testIllegalArguments() {
+
+        try {
+            isIn(stringProperty("aString"), Arrays.asList("a", null));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+}
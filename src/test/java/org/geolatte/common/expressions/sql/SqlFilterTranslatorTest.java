@@ -0,0 +1,177 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.expressions.sql;
+
+import org.geolatte.common.cql.Cql;
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkt;
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link SqlFilterTranslator}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class SqlFilterTranslatorTest {
+
+    @Test
+    public void testComparisons() throws Exception {
+
+        SqlFilter filter = Cql.toSqlFilter("anInteger > 5 AND aString LIKE 'Sca%' AND aDate BEFORE 2010-05-01T00:00:00",
+                FilterableObject.class, new SqlDialect());
+
+        Assert.assertTrue(filter.isComplete());
+        Assert.assertEquals("\"anInteger\" > ? AND \"aString\" LIKE ? ESCAPE '\\' AND \"aDate\" < ?", filter.getWhereClause());
+        Assert.assertEquals(5.0, filter.getParameters().get(0));
+        Assert.assertEquals("Sca%", filter.getParameters().get(1));
+        Assert.assertTrue(filter.getParameters().get(2) instanceof Timestamp);
+    }
+
+    @Test
+    public void testSetsAndRanges() throws Exception {
+
+        SqlFilter filter = Cql.toSqlFilter("anInteger IN (1, 2) AND aDouble BETWEEN 1 AND 2 AND NOT (aString = 'a' OR aBoolean = true)",
+                FilterableObject.class, new SqlDialect());
+
+        Assert.assertEquals("\"anInteger\" IN (?, ?) AND (\"aDouble\" >= ? AND \"aDouble\" <= ?)"
+                + " AND NOT ((\"aString\" = ? OR \"aBoolean\" = ?))", filter.getWhereClause());
+        Assert.assertEquals(Arrays.<Object>asList(1.0, 2.0, 1.0, 2.0, "a", true), filter.getParameters());
+
+        filter = new SqlFilterTranslator(new SqlDialect()).translate(isIn(numberProperty("anInteger"), Collections.<Number>emptyList()));
+        Assert.assertEquals("(1 = 0)", filter.getWhereClause());
+    }
+
+    @Test
+    public void testResidualFilter() throws Exception {
+
+        SqlFilter filter = Cql.toSqlFilter("anInteger > 5 AND aChildObject.anInteger = 3 AND aString EXISTS",
+                FilterableObject.class, new SqlDialect());
+
+        Assert.assertFalse(filter.isComplete());
+        Assert.assertEquals("\"anInteger\" > ?", filter.getWhereClause());
+
+        FilterableObject object = new FilterableObject();
+        object.setProperty("aChildObject.anInteger", 3);
+        Assert.assertTrue(filter.evaluate(object));
+        object.setProperty("aChildObject.anInteger", 4);
+        Assert.assertFalse(filter.evaluate(object));
+
+        // A disjunction with an untranslatable operand stays in the residual filter as a whole
+        Expression<Boolean> disjunction = or(isEqual(numberProperty("anInteger"), constant(1)), exists("aString"));
+        filter = new SqlFilterTranslator(new SqlDialect()).translate(disjunction);
+        Assert.assertNull(filter.getWhereClause());
+        Assert.assertTrue(filter.getParameters().isEmpty());
+        Assert.assertSame(disjunction, filter.getResidualFilter().getFilterExpression());
+    }
+
+    @Test
+    public void testColumnMapping() {
+
+        SqlFilterTranslator translator = new SqlFilterTranslator(new SqlDialect(),
+                Collections.singletonMap("aChildObject.anInteger", "child.an_integer"));
+
+        SqlFilter filter = translator.translate(and(isEqual(numberProperty("aChildObject.anInteger"), constant(3)),
+                isEqual(numberProperty("anInteger"), constant(4))));
+        Assert.assertEquals("child.an_integer = ?", filter.getWhereClause());
+        Assert.assertFalse(filter.isComplete());
+    }
+
+    @Test
+    public void testPostgisDialect() throws Exception {
+
+        SqlFilterTranslator translator = new SqlFilterTranslator(new PostgisDialect());
+        SqlFilter filter = translator.translate(and(like(stringProperty("aString"), constant("sca*"), '*', true),
+                isLessThan(stringProperty("aString"), constant("b"))));
+        Assert.assertEquals("\"aString\" ILIKE ? ESCAPE '\\' AND \"aString\" COLLATE \"C\" < ?", filter.getWhereClause());
+        Assert.assertEquals(Arrays.<Object>asList("sca%", "b"), filter.getParameters());
+
+        Geometry point = Wkt.fromWkt("POINT(5 10)");
+        filter = translator.translate(geoEquals(geometryProperty("aGeometry"), constant(point)));
+        Assert.assertEquals("ST_OrderingEquals(\"aGeometry\", ST_GeomFromEWKB(?))", filter.getWhereClause());
+        Assert.assertTrue(filter.getParameters().get(0) instanceof byte[]);
+
+        Geometry polygon = Wkt.fromWkt("POLYGON((0 0, 10 0, 10 10, 0 10, 0 0))");
+        filter = translator.translate(and(geoWithin(geometryProperty("aGeometry"), constant(polygon)),
+                or(geoContains(constant(polygon), geometryProperty("aGeometry")), geoIntersects(geometryProperty("aGeometry"), constant(point)))));
+        Assert.assertEquals("ST_Within(\"aGeometry\", ST_GeomFromEWKB(?)) AND (ST_Contains(ST_GeomFromEWKB(?), \"aGeometry\")"
+                + " OR ST_Intersects(\"aGeometry\", ST_GeomFromEWKB(?)))", filter.getWhereClause());
+        Assert.assertEquals(3, filter.getParameters().size());
+        Assert.assertNull(filter.getResidualFilter());
+
+        // Geometries are left to the residual filter by the standard dialect
+        filter = new SqlFilterTranslator(new SqlDialect()).translate(geoEquals(geometryProperty("aGeometry"), constant(point)));
+        Assert.assertNull(filter.getWhereClause());
+        filter = new SqlFilterTranslator(new SqlDialect()).translate(geoIntersects(geometryProperty("aGeometry"), constant(polygon)));
+        Assert.assertNull(filter.getWhereClause());
+    }
+
+    @Test
+    public void testLikePatterns() {
+
+        Assert.assertEquals("a%b\\%c\\*_", SqlFilterTranslator.toSqlPattern("a*b%c\\*_", '*'));
+        Assert.assertEquals("a%\\\\", SqlFilterTranslator.toSqlPattern("a%\\\\", '%'));
+        Assert.assertNull(SqlFilterTranslator.toSqlPattern("a\\", '%'));
+    }
+
+    @Test
+    public void testSetParameters() throws Exception {
+
+        SqlFilter filter = new SqlFilterTranslator(new SqlDialect()).translate(
+                and(isEqual(stringProperty("aString"), constant("a")), isGreaterThan(numberProperty("anInteger"), constant(3))));
+
+        final Map<Integer, Object> bound = new HashMap<Integer, Object>();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{PreparedStatement.class}, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (!method.getName().equals("setObject"))
+                            throw new UnsupportedOperationException(method.getName());
+                        bound.put((Integer) args[0], args[1]);
+                        return null;
+                    }
+                });
+
+        Assert.assertEquals(4, filter.setParameters(statement, 2));
+        Assert.assertEquals(2, bound.size());
+        Assert.assertEquals("a", bound.get(2));
+        Assert.assertEquals(3, bound.get(3));
+    }
+}
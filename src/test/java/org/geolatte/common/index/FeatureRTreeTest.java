@@ -0,0 +1,101 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.dataformats.json.jackson.DefaultFeature;
+import org.geolatte.common.transformer.SimpleTransformerSource;
+import org.geolatte.geom.Envelope;
+import org.geolatte.geom.codec.Wkt;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Tests {@link FeatureRTree}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FeatureRTreeTest {
+
+    @Test
+    public void testQueries() {
+
+        List<Feature> features = new ArrayList<Feature>();
+        features.add(feature(1, "POINT(1 1)"));
+        features.add(feature(2, "LINESTRING(4 4, 6 8)"));
+        features.add(feature(3, null));
+        features.add(feature(4, "POLYGON((10 10, 12 10, 12 12, 10 12, 10 10))"));
+        features.add(feature(5, "POINT EMPTY"));
+
+        FeatureRTree tree = new FeatureRTree(new SimpleTransformerSource<Feature>(features));
+        Assert.assertEquals(5, tree.getFeatures().size());
+        Assert.assertEquals(3, tree.getTree().getIndexedItemCount());
+
+        Assert.assertEquals(ids(features.get(0), features.get(1)), ids(tree.query(new Envelope(0, 0, 5, 5))));
+        Assert.assertEquals(ids(features.get(3)), ids(tree.query(new Envelope(11, 11, 20, 20))));
+        Assert.assertTrue(tree.query(new Envelope(20, 20, 30, 30)).isEmpty());
+
+        Assert.assertEquals(ids(features.get(3), features.get(1)), ids(tree.nearest(13, 13, 2)));
+
+        FeatureRTree reused = new FeatureRTree(features, tree.getTree());
+        Assert.assertEquals(ids(features.get(0)), ids(reused.nearest(0, 0, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedTree() {
+
+        List<Feature> features = new ArrayList<Feature>();
+        features.add(feature(1, "POINT(1 1)"));
+        new FeatureRTree(features, PackedRTree.build(new double[0]));
+    }
+
+    private static Feature feature(int id, String wkt) {
+
+        DefaultFeature feature = new DefaultFeature();
+        feature.setId("id", id);
+        if (wkt != null)
+            feature.setGeometry("geometry", Wkt.fromWkt(wkt));
+        return feature;
+    }
+
+    private static List<Object> ids(Feature... features) {
+
+        List<Object> result = new ArrayList<Object>();
+        for (Feature feature : features) {
+            result.add(feature.getId());
+        }
+        return result;
+    }
+
+    private static List<Object> ids(List<Feature> features) {
+
+        return ids(features.toArray(new Feature[features.size()]));
+    }
+}
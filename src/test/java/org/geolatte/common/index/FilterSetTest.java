@@ -0,0 +1,161 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.cql.Cql;
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Tests {@link FilterSet}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FilterSetTest {
+
+    private static final String[] NAMES = {"Scarlett", "Rhett", "Ashley", "Melanie"};
+
+    @Test
+    public void testMatchesIndividualFilters() throws Exception {
+
+        Random random = new Random(11);
+        List<String> conditions = new ArrayList<String>();
+        for (int i = 0; i < 300; i++) {
+            conditions.add(randomCondition(random));
+        }
+        conditions.add("aString LIKE 'Sca%'");
+        conditions.add("aString LIKE 'Sca%' AND anInteger > 5");
+        conditions.add("anInteger = 3 OR aString = 'Rhett'");
+        conditions.add("NOT (anInteger < 10)");
+        conditions.add("aDouble >= 0 AND aDouble <= 0");
+        conditions.add("aDouble = 2.5");
+        conditions.add("aDate DURING 2001-09-10T00:00:00/2001-09-20T00:00:00");
+        conditions.add("aDate BEFORE 2001-09-15T00:00:00 AND anInteger IN (1, 2, 3, 4, 5)");
+        conditions.add("anInteger > 5 AND anInteger < 3");
+
+        FilterSet<Integer> set = new FilterSet<Integer>();
+        List<Filter> filters = new ArrayList<Filter>();
+        for (int i = 0; i < conditions.size(); i++) {
+            Filter filter = Cql.toStaticFilter(conditions.get(i), FilterableObject.class);
+            filters.add(filter);
+            set.add(i, filter);
+        }
+        Assert.assertEquals(conditions.size(), set.size());
+
+        for (int i = 0; i < 300; i++) {
+            FilterableObject o = randomObject(random, i);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int j = 0; j < filters.size(); j++) {
+                if (filters.get(j).evaluate(o))
+                    expected.add(j);
+            }
+            Assert.assertEquals(expected, set.match(o));
+        }
+    }
+
+    @Test
+    public void testAddAndRemove() throws Exception {
+
+        FilterSet<String> set = new FilterSet<String>();
+        set.add("small", "anInteger < 10", FilterableObject.class);
+        set.add("large", "anInteger >= 10", FilterableObject.class);
+        set.add("seven", "anInteger = 7", FilterableObject.class);
+
+        FilterableObject o = new FilterableObject();
+        o.setAnInteger(7);
+        Assert.assertEquals(Arrays.asList("small", "seven"), set.match(o));
+
+        Assert.assertTrue(set.remove("small"));
+        Assert.assertFalse(set.remove("small"));
+        Assert.assertEquals(Arrays.asList("seven"), set.match(o));
+
+        set.add("seven", "anInteger = 8", FilterableObject.class);
+        Assert.assertTrue(set.match(o).isEmpty());
+        o.setAnInteger(8);
+        Assert.assertEquals(Arrays.asList("seven"), set.match(o));
+    }
+
+    @Test
+    public void testFailingFilterDoesNotMatch() throws Exception {
+
+        FilterSet<String> set = new FilterSet<String>();
+        set.add("name", "aString = 'Rhett'", FilterableObject.class);
+        set.add("like", "aString LIKE 'R%'", FilterableObject.class);
+        set.add("all", "anInteger >= 0", FilterableObject.class);
+
+        Assert.assertEquals(Arrays.asList("all"), set.match(new FilterableObject()));
+    }
+
+    private static String randomCondition(Random random) {
+
+        StringBuilder condition = new StringBuilder();
+        int conjuncts = 1 + random.nextInt(3);
+        for (int i = 0; i < conjuncts; i++) {
+            if (i > 0)
+                condition.append(" AND ");
+            switch (random.nextInt(6)) {
+                case 0:
+                    condition.append("anInteger = ").append(random.nextInt(20));
+                    break;
+                case 1:
+                    condition.append("anInteger ").append(new String[]{"<", "<=", ">", ">="}[random.nextInt(4)]).append(' ').append(random.nextInt(20));
+                    break;
+                case 2:
+                    condition.append("anInteger BETWEEN ").append(random.nextInt(10)).append(" AND ").append(5 + random.nextInt(15));
+                    break;
+                case 3:
+                    condition.append("aString = '").append(NAMES[random.nextInt(NAMES.length)]).append('\'');
+                    break;
+                case 4:
+                    condition.append("aString ").append(new String[]{"<", ">="}[random.nextInt(2)]).append(" '").append(NAMES[random.nextInt(NAMES.length)]).append('\'');
+                    break;
+                default:
+                    condition.append("aDouble ").append(new String[]{"<", "<=", ">", ">=", "="}[random.nextInt(5)]).append(' ').append(random.nextInt(10) - 5);
+                    break;
+            }
+        }
+        return condition.toString();
+    }
+
+    private static FilterableObject randomObject(Random random, int i) {
+
+        FilterableObject o = new FilterableObject();
+        o.setAnInteger(random.nextInt(22) - 1);
+        o.setaDouble(i % 10 == 0 ? Double.NaN : (random.nextInt(21) - 10) / 2.0);
+        o.setaString(NAMES[random.nextInt(NAMES.length)]);
+        o.setaDate(new Date(1000000000000L + random.nextInt(20) * 86400000L));
+        return o;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.cql.Cql;
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.common.expressions.geo.GeometryConstant;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.Point;
+import org.geolatte.geom.codec.Wkt;
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * <p>
+ * Tests {@link GeofenceIndex}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class GeofenceIndexTest {
+
+    @Test
+    public void testMatchesFilters() throws Exception {
+
+        Random random = new Random(5);
+        GeofenceIndex<Integer> index = new GeofenceIndex<Integer>();
+        Map<Integer, Filter> filters = new LinkedHashMap<Integer, Filter>();
+        for (int i = 0; i < 150; i++) {
+            String cql = (i % 3 == 0 ? "INTERSECTS" : "WITHIN") + " (aGeometry, " + randomFence(random) + ")";
+            Filter filter = Cql.toStaticFilter(cql, FilterableObject.class);
+            filters.put(i, filter);
+            if (i % 2 == 0)
+                index.add(i, cql, FilterableObject.class);
+            else
+                index.add(i, filter);
+        }
+        assertMatches(index, filters, random);
+
+        // Remove and add enough fences to rebuild the tree, checking in between
+        for (int i = 0; i < 150; i += 2) {
+            Assert.assertTrue(index.remove(i));
+            filters.remove(i);
+        }
+        assertMatches(index, filters, random);
+        for (int i = 150; i < 250; i++) {
+            String cql = "WITHIN (aGeometry, " + randomFence(random) + ")";
+            filters.put(i, Cql.toStaticFilter(cql, FilterableObject.class));
+            index.add(i, cql, FilterableObject.class);
+            if (i % 40 == 0)
+                assertMatches(index, filters, random);
+        }
+        Assert.assertEquals(filters.size(), index.size());
+        assertMatches(index, filters, random);
+    }
+
+    @Test
+    public void testBoundaryAndHoles() {
+
+        GeofenceIndex<String> index = new GeofenceIndex<String>();
+        Geometry square = Wkt.fromWkt("POLYGON((0 0, 10 0, 10 10, 0 10, 0 0), (4 4, 6 4, 6 6, 4 6, 4 4))");
+        index.add("within", new GeometryConstant(square));
+        index.add("intersects", square, true);
+        index.add("islands", Wkt.fromWkt("MULTIPOLYGON(((20 0, 30 0, 30 10, 20 0)), ((40 0, 50 0, 50 10, 40 10, 40 0)))"), false);
+
+        Assert.assertEquals(Arrays.asList("within", "intersects"), index.match(2, 2));
+        Assert.assertEquals(Arrays.asList("intersects"), index.match(10, 5));
+        Assert.assertEquals(Arrays.asList("intersects"), index.match(0, 0));
+        Assert.assertEquals(Arrays.asList("intersects"), index.match(4, 5));
+        Assert.assertTrue(index.match(5, 5).isEmpty());
+        Assert.assertEquals(Arrays.asList("islands"), index.match(29, 5));
+        Assert.assertTrue(index.match(21, 5).isEmpty());
+        Assert.assertEquals(Arrays.asList("islands"), index.match((Point) Wkt.fromWkt("POINT(45 5)")));
+        Assert.assertTrue(index.match(null).isEmpty());
+
+        index.add("within", Wkt.fromWkt("POLYGON((40 0, 50 0, 50 10, 40 10, 40 0))"), false);
+        Assert.assertEquals(Arrays.asList("intersects"), index.match(2, 2));
+        Assert.assertEquals(Arrays.asList("islands", "within"), index.match(45, 5));
+        Assert.assertEquals(3, index.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPolygon() {
+
+        new GeofenceIndex<String>().add("line", Wkt.fromWkt("LINESTRING(0 0, 1 1)"), false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSpatialPredicate() throws Exception {
+
+        new GeofenceIndex<String>().add("integer", "anInteger = 5", FilterableObject.class);
+    }
+
+    private static void assertMatches(GeofenceIndex<Integer> index, Map<Integer, Filter> filters, Random random) {
+
+        for (int i = 0; i < 100; i++) {
+            FilterableObject o = new FilterableObject();
+            o.setaGeometry(Wkt.fromWkt("POINT(" + random.nextInt(1000) / 10.0 + " " + random.nextInt(1000) / 10.0 + ")"));
+            List<Integer> expected = new ArrayList<Integer>();
+            for (Map.Entry<Integer, Filter> entry : filters.entrySet()) {
+                if (entry.getValue().evaluate(o))
+                    expected.add(entry.getKey());
+            }
+            Assert.assertEquals(expected, index.match((Point) o.getaGeometry()));
+        }
+    }
+
+    /**
+     * A star-shaped polygon, sometimes with a hole, with integer vertices so points can fall on its boundary.
+     */
+    private static String randomFence(Random random) {
+
+        int cx = 10 + random.nextInt(80);
+        int cy = 10 + random.nextInt(80);
+        int vertices = 3 + random.nextInt(20);
+        StringBuilder wkt = new StringBuilder("POLYGON((");
+        String first = null;
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            int radius = 3 + random.nextInt(10);
+            String vertex = (cx + (int) Math.round(radius * Math.cos(angle))) + " " + (cy + (int) Math.round(radius * Math.sin(angle)));
+            if (first == null)
+                first = vertex;
+            wkt.append(vertex).append(", ");
+        }
+        wkt.append(first).append(')');
+        if (random.nextBoolean())
+            wkt.append(", (").append(cx - 1).append(' ').append(cy - 1).append(", ").append(cx + 1).append(' ').append(cy - 1)
+                    .append(", ").append(cx + 1).append(' ').append(cy + 1).append(", ").append(cx - 1).append(' ').append(cy + 1)
+                    .append(", ").append(cx - 1).append(' ').append(cy - 1).append(')');
+        return wkt.append(')').toString();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.geolatte.common.cql.Cql;
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.common.expressions.IsInRange;
+import org.geolatte.common.expressions.PropertyExpression;
+import org.geolatte.common.expressions.geo.GeoWithin;
+import org.geolatte.geom.codec.Wkt;
+import org.geolatte.testobjects.FilterableObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link IndexedCollection}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class IndexedCollectionTest {
+
+    private static final String[] NAMES = {"Scarlett", "Rhett", "Ashley", "Melanie", "scarlett"};
+
+    private List<FilterableObject> objects;
+    private IndexedCollection<FilterableObject> collection;
+
+    @Before
+    public void setUp() {
+
+        objects = new ArrayList<FilterableObject>();
+        for (int i = 0; i < 200; i++) {
+            FilterableObject o = new FilterableObject();
+            o.setAnInteger(i % 37);
+            o.setaDouble(i % 11 == 0 ? Double.NaN : (i % 23) - 11.5);
+            o.setaString(NAMES[i % NAMES.length]);
+            o.setaDate(new Date(1000000000000L + (i % 50) * 86400000L));
+            o.setaGeometry(Wkt.fromWkt("POINT(" + (i % 7) + " " + (i % 3) + ")"));
+            objects.add(o);
+        }
+
+        collection = new IndexedCollection<FilterableObject>(objects);
+        collection.addHashIndex(numberProperty("anInteger"));
+        collection.addSortedIndex(numberProperty("anInteger"));
+        collection.addSortedIndex(numberProperty("aDouble"));
+        collection.addHashIndex(stringProperty("aString"));
+        collection.addSortedIndex(stringProperty("aString"));
+        collection.addSortedIndex(dateProperty("aDate"));
+        collection.addGeometryIndex(geometryProperty("aGeometry"));
+    }
+
+    @Test
+    public void testSelectMatchesScan() throws Exception {
+
+        String[] conditions = {
+                "anInteger = 5",
+                "anInteger <> 5",
+                "anInteger > 30",
+                "anInteger >= 30 AND aString = 'Rhett'",
+                "anInteger < 3 OR anInteger > 35",
+                "anInteger IN (1, 3, 40)",
+                "anInteger BETWEEN 10 AND 12",
+                "aDouble = 0.5",
+                "aDouble >= 10",
+                "aDouble < -10",
+                "aDouble > 10.5",
+                "aDouble <= -11.5",
+                "aString = 'Scarlett'",
+                "aString IN ('Ashley', 'Melanie')",
+                "aString > 'Rhett'",
+                "aString LIKE 'Sca%'",
+                "aDate BEFORE 2001-09-12T00:00:00",
+                "aDate AFTER 2001-10-20T00:00:00 AND anInteger < 20",
+                "aDate DURING 2001-09-20T00:00:00/2001-09-25T00:00:00",
+                "EQUALS (aGeometry, POINT(5 1))",
+                "EQUALS (aGeometry, POINT(5 1)) AND anInteger > 10",
+                "WITHIN (aGeometry, POLYGON((0.5 0.5, 3.5 0.5, 3.5 2.5, 0.5 2.5, 0.5 0.5)))",
+                "CONTAINS (aGeometry, POINT(2 1))",
+                "INTERSECTS (aGeometry, LINESTRING(0 0, 6 2))",
+                "INTERSECTS (aGeometry, POLYGON((4 0, 6 0, 6 1, 4 1, 4 0))) AND aString = 'Rhett'"
+        };
+        for (String condition : conditions) {
+            Filter filter = Cql.toStaticFilter(condition, FilterableObject.class);
+            Assert.assertEquals(condition, scan(filter), collection.select(filter));
+        }
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+
+        QueryPlan plan = collection.plan(Cql.toStaticFilter("anInteger > 2 AND aString = 'Rhett' AND anInteger = 7",
+                FilterableObject.class));
+        // The optimizer merges both conditions on anInteger, which has fewer candidates than the one on aString
+        Assert.assertEquals("anInteger", ((PropertyExpression<?>) plan.getIndexedProperty()).getPropertyName());
+        Assert.assertEquals(6, plan.getCandidateCount());
+        Assert.assertNotNull(plan.getResidualFilter());
+
+        plan = collection.plan(Cql.toStaticFilter("anInteger BETWEEN 30 AND 32", FilterableObject.class));
+        Assert.assertTrue(plan.getIndexedCondition() instanceof IsInRange);
+        Assert.assertNull(plan.getResidualFilter());
+
+        // The geometry index only finds candidates with the same envelope
+        plan = collection.plan(Cql.toStaticFilter("EQUALS (aGeometry, POINT(5 1))", FilterableObject.class));
+        Assert.assertNotNull(plan.getResidualFilter());
+
+        // Only the rows whose envelope lies inside that of the polygon are candidates
+        plan = collection.plan(Cql.toStaticFilter("WITHIN (aGeometry, POLYGON((0.5 0.5, 3.5 0.5, 3.5 2.5, 0.5 2.5, 0.5 0.5)))",
+                FilterableObject.class));
+        Assert.assertTrue(plan.getIndexedCondition() instanceof GeoWithin);
+        Assert.assertEquals(58, plan.getCandidateCount());
+        Assert.assertNotNull(plan.getResidualFilter());
+
+        plan = collection.plan(Cql.toStaticFilter("anotherInteger = 0", FilterableObject.class));
+        Assert.assertNull(plan.getIndexedCondition());
+        Assert.assertEquals(-1, plan.getCandidateCount());
+        Assert.assertEquals(200, collection.select(Cql.toStaticFilter("anotherInteger = 0", FilterableObject.class)).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedIndex() {
+
+        collection.addHashIndex(dateProperty("aDate"));
+    }
+
+    private List<FilterableObject> scan(Filter filter) {
+
+        List<FilterableObject> result = new ArrayList<FilterableObject>();
+        for (FilterableObject o : objects) {
+            if (filter.evaluate(o))
+                result.add(o);
+        }
+        return result;
+    }
+}
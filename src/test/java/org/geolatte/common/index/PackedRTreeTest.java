@@ -0,0 +1,178 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>
+ * Tests {@link PackedRTree}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class PackedRTreeTest {
+
+    @Test
+    public void testSearchMatchesScan() {
+
+        Random random = new Random(42);
+        for (int capacity : new int[]{2, 4, 16}) {
+            for (int count : new int[]{0, 1, 5, 17, 1000}) {
+                double[] bounds = randomBounds(random, count);
+                PackedRTree tree = PackedRTree.build(bounds, capacity);
+                Assert.assertEquals(count, tree.getItemCount());
+                for (int q = 0; q < 20; q++) {
+                    double x = random.nextDouble() * 100;
+                    double y = random.nextDouble() * 100;
+                    double size = random.nextDouble() * 30;
+                    assertItems(scan(bounds, x, y, x + size, y + size), tree.search(x, y, x + size, y + size));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNearest() {
+
+        Random random = new Random(7);
+        double[] bounds = randomBounds(random, 500);
+        PackedRTree tree = PackedRTree.build(bounds, 8);
+        for (int q = 0; q < 20; q++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            int[] nearest = tree.nearest(x, y, 10);
+            Assert.assertEquals(10, nearest.length);
+
+            // The distances of the items found are the 10 smallest, in increasing order
+            double[] distances = new double[bounds.length / 4];
+            for (int i = 0; i < distances.length; i++) {
+                distances[i] = distance(bounds, i, x, y);
+            }
+            double[] sorted = distances.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < nearest.length; i++) {
+                Assert.assertEquals(sorted[i], distances[nearest[i]], 0);
+            }
+        }
+
+        int[] nearby = tree.nearest(50, 50, 500, 5);
+        for (int item : nearby) {
+            Assert.assertTrue(distance(bounds, item, 50, 50) <= 5);
+        }
+        Assert.assertEquals(0, tree.nearest(50, 50, 0).length);
+    }
+
+    @Test
+    public void testEmptyItemsAreNotIndexed() {
+
+        double[] bounds = {0, 0, 1, 1, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 2, 2, 3, 3};
+        PackedRTree tree = PackedRTree.build(bounds);
+        Assert.assertEquals(3, tree.getItemCount());
+        Assert.assertEquals(2, tree.getIndexedItemCount());
+        assertItems(new int[]{0, 2}, tree.search(-10, -10, 10, 10));
+        assertItems(new int[]{2, 0}, tree.nearest(3, 3, 5));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+
+        Random random = new Random(3);
+        double[] bounds = randomBounds(random, 300);
+        PackedRTree tree = PackedRTree.build(bounds, 6);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tree.writeTo(out);
+        PackedRTree read = PackedRTree.read(ByteBuffer.wrap(out.toByteArray()));
+
+        File file = File.createTempFile("rtree", ".bin");
+        file.deleteOnExit();
+        FileOutputStream fileOut = new FileOutputStream(file);
+        try {
+            tree.writeTo(fileOut);
+        } finally {
+            fileOut.close();
+        }
+        PackedRTree mapped = PackedRTree.map(file);
+
+        for (PackedRTree copy : new PackedRTree[]{read, mapped}) {
+            Assert.assertEquals(300, copy.getItemCount());
+            Assert.assertEquals(6, copy.getNodeCapacity());
+            assertItems(tree.search(20, 20, 40, 40), copy.search(20, 20, 40, 40));
+            assertItems(tree.nearest(70, 30, 15), copy.nearest(70, 30, 15));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadInvalidBuffer() {
+
+        PackedRTree.read(ByteBuffer.wrap(new byte[64]));
+    }
+
+    private static void assertItems(int[] expected, int[] actual) {
+
+        Assert.assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+    }
+
+    private static double[] randomBounds(Random random, int count) {
+
+        double[] bounds = new double[4 * count];
+        for (int i = 0; i < count; i++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            bounds[4 * i] = x;
+            bounds[4 * i + 1] = y;
+            bounds[4 * i + 2] = x + random.nextDouble() * 5;
+            bounds[4 * i + 3] = y + random.nextDouble() * 5;
+        }
+        return bounds;
+    }
+
+    private static int[] scan(double[] bounds, double minX, double minY, double maxX, double maxY) {
+
+        int[] result = new int[bounds.length / 4];
+        int count = 0;
+        for (int i = 0; i < bounds.length / 4; i++) {
+            if (bounds[4 * i] <= maxX && bounds[4 * i + 1] <= maxY && bounds[4 * i + 2] >= minX && bounds[4 * i + 3] >= minY)
+                result[count++] = i;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static double distance(double[] bounds, int item, double x, double y) {
+
+        double dx = Math.max(Math.max(bounds[4 * item] - x, x - bounds[4 * item + 2]), 0);
+        double dy = Math.max(Math.max(bounds[4 * item + 1] - y, y - bounds[4 * item + 3]), 0);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -32,6 +32,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 
 /**
@@ -217,6 +219,77 @@ public class EntityClassReaderTest {
     }
 
 
+    @Test
+    public void AsFeatureAdapterTest() throws Exception {
+        Feature asFeature = reader.asFeature(testFeature);
+
+        Assert.assertTrue(asFeature.hasId());
+        Assert.assertTrue(asFeature.hasGeometry());
+        Assert.assertEquals(128, asFeature.getProperty("length"));
+        Assert.assertNull(asFeature.getProperty("doesNotExist"));
+        // The id and geometry are not normal properties
+        Assert.assertNull(asFeature.getProperty("id"));
+
+        // Compound properties
+        Assert.assertSame("sub", asFeature.getProperty("subObject.name"));
+        Assert.assertSame("subsub", asFeature.getProperty("subObject.subSubObject.name"));
+        Assert.assertNull(asFeature.getProperty("subObject.doesNotExist"));
+
+        Assert.assertEquals(asFeature, reader.asFeature(testFeature));
+        Assert.assertEquals(asFeature.hashCode(), reader.asFeature(testFeature).hashCode());
+
+        Feature noShape = EntityClassReader.getClassReaderFor(TestFeatureNoShape.class)
+                .asFeature(new TestFeatureNoShape("Gent", 12, new String[0], 6, "sub", "subsub"));
+        Assert.assertFalse(noShape.hasGeometry());
+        Assert.assertNull(noShape.getGeometry());
+        Assert.assertEquals(6, noShape.getId());
+    }
+
+    @Test
+    public void GetterBindingTest() throws Exception {
+        // Public getters of public classes are called directly, others through reflection
+        Assert.assertNotNull(Accessor.bind(TestFeature.class.getMethod("getShape")));
+        Assert.assertNotNull(Accessor.bind(TestFeature.class.getMethod("getLength")));
+
+        Object hidden = new Object() {
+            public String getName() { return "hidden"; }
+        };
+        Assert.assertNull(Accessor.bind(hidden.getClass().getMethod("getName")));
+        Assert.assertEquals("hidden", EntityClassReader.getClassReaderFor(hidden.getClass()).asFeature(hidden).getProperty("name"));
+    }
+
+    @Test
+    public void GetterExceptionTest() throws Exception {
+        // Exceptions and errors of bound getters are wrapped as those of reflective ones
+        Assert.assertNotNull(Accessor.bind(FailingGetters.class.getMethod("getChecked")));
+        EntityClassReader failingReader = EntityClassReader.getClassReaderFor(FailingGetters.class);
+        String[] properties = {"checked", "error", "unchecked"};
+        Class[] causes = {IOException.class, AssertionError.class, UnsupportedOperationException.class};
+        for (int i = 0; i < properties.length; i++) {
+            try {
+                failingReader.getPropertyValue(new FailingGetters(), properties[i]);
+                Assert.fail(properties[i] + " did not fail");
+            } catch (IllegalStateException e) {
+                Assert.assertTrue(e.getCause() instanceof InvocationTargetException);
+                Assert.assertSame(causes[i], e.getCause().getCause().getClass());
+            }
+        }
+    }
+
+    public static class FailingGetters {
+        public int getChecked() throws IOException {
+            throw new IOException("checked");
+        }
+
+        public int getError() {
+            throw new AssertionError("error");
+        }
+
+        public int getUnchecked() {
+            throw new UnsupportedOperationException("unchecked");
+        }
+    }
+
     @Test
     public void alternativeConstructorTest()
     {
@@ -54,4 +54,55 @@ public class ObjectToFeatureTransformationTest {
             Assert.fail("No exception should have been thrown.");
         }
     }
+
+    @Test
+    public void testStreamingTransform() throws Exception {
+        ObjectToFeatureTransformation<TestFeature> trans = new ObjectToFeatureTransformation<TestFeature>(true);
+
+        Feature first = trans.transform(new TestFeature("Antwerpen", 1, new String[0], null, 1, "sub"));
+        Feature retained = ObjectToFeatureTransformation.retain(first);
+        Feature second = trans.transform(new TestFeature("Gent", 2, new String[0], null, 2, "sub"));
+
+        // The same view is re-bound to the next object
+        Assert.assertSame(first, second);
+        Assert.assertEquals("Gent", first.getProperty("name"));
+        Assert.assertEquals(2, first.getId());
+
+        // A retained feature keeps its object
+        Assert.assertNotSame(first, retained);
+        Assert.assertEquals("Antwerpen", retained.getProperty("name"));
+        Assert.assertSame(retained, ObjectToFeatureTransformation.retain(retained));
+        Assert.assertNull(ObjectToFeatureTransformation.retain(null));
+    }
+
+    @Test
+    public void testStreamingTransformPerThread() throws Exception {
+        final ObjectToFeatureTransformation<TestFeature> trans = new ObjectToFeatureTransformation<TestFeature>(true);
+        Feature mine = trans.transform(new TestFeature("Antwerpen", 1, new String[0], null, 1, "sub"));
+
+        final Feature[] other = new Feature[1];
+        Thread thread = new Thread() {
+            public void run() {
+                try {
+                    other[0] = trans.transform(new TestFeature("Gent", 2, new String[0], null, 2, "sub"));
+                } catch (TransformationException e) {
+                    // Checked below
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+
+        Assert.assertNotSame(mine, other[0]);
+        Assert.assertEquals("Antwerpen", mine.getProperty("name"));
+        Assert.assertEquals("Gent", other[0].getProperty("name"));
+    }
+
+    @Test
+    public void testDefaultTransformDoesNotReuse() throws Exception {
+        ObjectToFeatureTransformation<TestFeature> trans = new ObjectToFeatureTransformation<TestFeature>();
+        Feature first = trans.transform(new TestFeature());
+        Assert.assertNotSame(first, trans.transform(new TestFeature()));
+        Assert.assertSame(first, ObjectToFeatureTransformation.retain(first));
+    }
 }
@@ -0,0 +1,346 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.store;
+
+import org.geolatte.common.Feature;
+import org.geolatte.common.dataformats.json.jackson.DefaultFeature;
+import org.geolatte.common.expressions.Expression;
+import org.geolatte.common.expressions.Expressions;
+import org.geolatte.common.expressions.Filter;
+import org.geolatte.common.expressions.NumberConstant;
+import org.geolatte.common.reflection.ObjectToFeatureTransformation;
+import org.geolatte.common.transformer.TransformerChainFactory;
+import org.geolatte.geom.Envelope;
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkt;
+import org.geolatte.testobjects.DummyTransformerSink;
+import org.geolatte.testobjects.DummyTransformerSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+
+import static org.geolatte.common.expressions.Expressions.*;
+
+/**
+ * <p>
+ * Tests {@link FeatureStore}, {@link FeatureStoreSource} and {@link FeatureStoreSink}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ */
+public class FeatureStoreTest {
+
+    private List<Place> places;
+    private FeatureStore store;
+
+    @Before
+    public void setUp() throws Exception {
+
+        places = new ArrayList<Place>();
+        String[] names = {"Antwerpen", "Gent", "Brugge", "Aalst", "Leuven", "Gent"};
+        for (int i = 0; i < 60; i++) {
+            places.add(new Place(i, names[i % names.length] + (i < names.length ? "" : " " + i / names.length),
+                    i * 1000, i * 2.5, new Date(1000000000000L + i * 86400000L), i % 3 == 0,
+                    Wkt.fromWkt("POINT(" + i + " " + (i % 10) + ")")));
+        }
+
+        ObjectToFeatureTransformation<Place> toFeature = new ObjectToFeatureTransformation<Place>(true);
+        List<Feature> features = new ArrayList<Feature>();
+        for (Place place : places) {
+            features.add(ObjectToFeatureTransformation.retain(toFeature.transform(place)));
+        }
+        store = FeatureStore.from(features);
+    }
+
+    @Test
+    public void testReadBack() throws Exception {
+
+        Assert.assertEquals(60, store.size());
+        Assert.assertEquals("location", store.getGeometryName());
+        Assert.assertTrue(store.getPropertyNames().containsAll(Arrays.asList("name", "population", "area", "founded", "capital")));
+
+        Feature feature = store.getFeature(7);
+        Place place = places.get(7);
+        Assert.assertEquals(7, feature.getId());
+        Assert.assertEquals(place.getName(), feature.getProperty("name"));
+        Assert.assertEquals(7000L, feature.getProperty("population"));
+        Assert.assertEquals(17.5, feature.getProperty("area"));
+        Assert.assertEquals(place.getFounded(), feature.getProperty("founded"));
+        Assert.assertEquals(Boolean.FALSE, feature.getProperty("capital"));
+        Assert.assertEquals(place.getLocation(), feature.getGeometry());
+        Assert.assertEquals("location", feature.getGeometryName());
+        Assert.assertTrue(feature.hasProperty("location", true));
+        Assert.assertFalse(feature.hasProperty("location", false));
+        Assert.assertNull(feature.getProperty("doesNotExist"));
+
+        try {
+            store.getFeature(60);
+            Assert.fail("Row is out of range");
+        } catch (IndexOutOfBoundsException e) {
+            // Ok!
+        }
+    }
+
+    @Test
+    public void testSelectMatchesObjectEvaluation() throws Exception {
+
+        List<Expression<Boolean>> expressions = new ArrayList<Expression<Boolean>>();
+        expressions.add(isGreaterThan(numberProperty("area"), constant(40)));
+        expressions.add(isLessThanOrEqual(numberProperty("population"), (Object) 12000));
+        expressions.add(isGreaterThanOrEqual(constant(20), numberProperty("area")));
+        expressions.add(numberProperty("population").isEqual(constant(5000)));
+        expressions.add(isNotEqual(numberProperty("population"), (Object) 5000));
+        expressions.add(isLessThan(add(numberProperty("area"), numberProperty("population")), (Object) 10010));
+        expressions.add(isInRange(numberProperty("area"), 10, true, 50, false));
+        expressions.add(isEqual(stringProperty("name"), (Object) "Gent"));
+        expressions.add(isGreaterThan(stringProperty("name"), constant("B")));
+        expressions.add(like(stringProperty("name"), "A%"));
+        expressions.add(like(stringProperty("name"), "g%", true));
+        expressions.add(notLike(stringProperty("name"), "%1"));
+        expressions.add(isBefore(dateProperty("founded"), constant(places.get(10).getFounded())));
+        expressions.add(isBetween(dateProperty("founded"), constant(places.get(10).getFounded()), constant(places.get(20).getFounded())));
+        expressions.add(booleanProperty("capital"));
+        expressions.add(isEqual(booleanProperty("capital"), (Object) false));
+        expressions.add(and(booleanProperty("capital"), or(like(stringProperty("name"), "A%"), isLessThan(numberProperty("area"), (Object) 10))));
+        expressions.add(not(isGreaterThan(numberProperty("area"), constant(40))));
+        expressions.add(geoEquals(geometryProperty("location"), constant(places.get(13).getLocation())));
+        Geometry polygon = Wkt.fromWkt("POLYGON((10 2, 30 2, 30 8, 10 8, 10 2))");
+        expressions.add(geoWithin(geometryProperty("location"), constant(polygon)));
+        expressions.add(geoContains(constant(polygon), geometryProperty("location")));
+        expressions.add(geoContains(geometryProperty("location"), constant(places.get(13).getLocation())));
+        expressions.add(geoIntersects(geometryProperty("location"), constant(Wkt.fromWkt("LINESTRING(0 0, 50 5)"))));
+        expressions.add(not(geoIntersects(constant(polygon), geometryProperty("location"))));
+
+        for (Expression<Boolean> expression : expressions) {
+            Filter filter = new Filter(expression);
+            BitSet expected = new BitSet();
+            for (int i = 0; i < places.size(); i++) {
+                if (filter.evaluate(places.get(i)))
+                    expected.set(i);
+            }
+            Assert.assertEquals(expression.getClass().getSimpleName(), expected, store.select(filter));
+        }
+    }
+
+    @Test
+    public void testMissingAndNullValues() {
+
+        DefaultFeature complete = new DefaultFeature();
+        complete.addProperty("name", "a");
+        complete.addProperty("size", 5);
+        DefaultFeature withNull = new DefaultFeature();
+        withNull.addProperty("name", null);
+        withNull.addProperty("size", null);
+        DefaultFeature without = new DefaultFeature();
+        without.addProperty("other", 1.5);
+        FeatureStore sparse = FeatureStore.from(Arrays.<Feature>asList(complete, withNull, without, null));
+
+        Assert.assertEquals(3, sparse.size());
+        Assert.assertEquals(5, sparse.getFeature(0).getProperty("size"));
+        Assert.assertTrue(sparse.getFeature(1).hasProperty("size", false));
+        Assert.assertNull(sparse.getFeature(1).getProperty("size"));
+        Assert.assertFalse(sparse.getFeature(2).hasProperty("size", false));
+        Assert.assertEquals(Arrays.asList("other"), sparse.getFeature(2).getProperties());
+
+        // Comparisons with missing or null values are neither true nor false
+        Assert.assertEquals(rows(0), sparse.select(new Filter(isLessThan(numberProperty("size"), (Object) 10))));
+        Assert.assertEquals(rows(), sparse.select(new Filter(not(isLessThan(numberProperty("size"), (Object) 10)))));
+        Assert.assertEquals(rows(0), sparse.select(new Filter(or(isEqual(stringProperty("name"), (Object) "a"), not(constant(true))))));
+        Assert.assertEquals(rows(0, 1), sparse.select(new Filter(exists("size"))));
+        Assert.assertEquals(rows(2), sparse.select(new Filter(doesNotExist("size"))));
+    }
+
+    @Test
+    public void testNaNComparisons() throws Exception {
+
+        List<Place> sized = new ArrayList<Place>();
+        ObjectToFeatureTransformation<Place> toFeature = new ObjectToFeatureTransformation<Place>(true);
+        List<Feature> features = new ArrayList<Feature>();
+        for (double area : new double[]{3, Double.NaN, 7}) {
+            Place place = new Place(sized.size(), "Place", 0, area, null, null, null);
+            sized.add(place);
+            features.add(ObjectToFeatureTransformation.retain(toFeature.transform(place)));
+        }
+        FeatureStore nan = FeatureStore.from(features);
+
+        // As the expressions themselves: =, <> and >= compare the sign of the difference, which is 0 for NaN, while
+        // <, <= and > are false for NaN, also with the constant first
+        Assert.assertEquals(rows(0), nan.select(new Filter(isLessThanOrEqual(numberProperty("area"), (Object) 5))));
+        Assert.assertEquals(rows(2), nan.select(new Filter(isLessThanOrEqual(constant(5), numberProperty("area")))));
+        Assert.assertEquals(rows(1, 2), nan.select(new Filter(isGreaterThanOrEqual(numberProperty("area"), constant(5)))));
+        Assert.assertEquals(rows(0, 1), nan.select(new Filter(isGreaterThanOrEqual(constant(5), numberProperty("area")))));
+
+        List<Expression<Boolean>> expressions = new ArrayList<Expression<Boolean>>();
+        for (NumberConstant five : new NumberConstant[]{constant(5), constant(Double.NaN)}) {
+            expressions.add(isEqual(numberProperty("area"), five));
+            expressions.add(isNotEqual(five, numberProperty("area")));
+            expressions.add(isLessThan(numberProperty("area"), five));
+            expressions.add(isLessThan(five, numberProperty("area")));
+            expressions.add(isLessThanOrEqual(numberProperty("area"), five));
+            expressions.add(isLessThanOrEqual(five, numberProperty("area")));
+            expressions.add(isGreaterThan(numberProperty("area"), five));
+            expressions.add(isGreaterThan(five, numberProperty("area")));
+            expressions.add(isGreaterThanOrEqual(numberProperty("area"), five));
+            expressions.add(isGreaterThanOrEqual(five, numberProperty("area")));
+        }
+        expressions.add(isLessThanOrEqual(numberProperty("area"), add(numberProperty("area"), constant(1))));
+        expressions.add(isGreaterThanOrEqual(numberProperty("area"), add(numberProperty("area"), constant(1))));
+        for (Expression<Boolean> expression : expressions) {
+            Filter filter = new Filter(expression);
+            BitSet expected = new BitSet();
+            for (int i = 0; i < sized.size(); i++) {
+                if (filter.evaluate(sized.get(i)))
+                    expected.set(i);
+            }
+            Assert.assertEquals(expression.toString(), expected, nan.select(filter));
+        }
+    }
+
+    @Test
+    public void testMixedTypes() {
+
+        DefaultFeature first = new DefaultFeature();
+        first.addProperty("value", 1);
+        DefaultFeature second = new DefaultFeature();
+        second.addProperty("value", 2.5);
+        DefaultFeature third = new DefaultFeature();
+        third.addProperty("value", "text");
+        FeatureStore mixed = FeatureStore.from(Arrays.<Feature>asList(first, second, third));
+
+        // The integral column was promoted when the floating point value arrived
+        Assert.assertEquals(1.0, mixed.getFeature(0).getProperty("value"));
+        Assert.assertEquals(2.5, mixed.getFeature(1).getProperty("value"));
+        Assert.assertEquals("text", mixed.getFeature(2).getProperty("value"));
+        Assert.assertEquals(rows(1), mixed.select(new Filter(isGreaterThan(numberProperty("value"), constant(2)))));
+        Assert.assertEquals(rows(2), mixed.select(new Filter(isEqual(stringProperty("value"), (Object) "text"))));
+    }
+
+    @Test
+    public void testSelectIntersecting() {
+
+        BitSet selected = store.selectIntersecting(new Envelope(9.5, 4.5, 20.5, 5.5));
+        BitSet expected = new BitSet();
+        for (int i = 10; i <= 20; i++) {
+            if (i % 10 == 5)
+                expected.set(i);
+        }
+        Assert.assertEquals(expected, selected);
+    }
+
+    @Test
+    public void testUnsupportedExpression() {
+
+        try {
+            store.select(new Filter(geoEquals(geometryProperty("name"), geometryProperty("location"))));
+            Assert.fail("Only the geometry of the store can be used as a geometry");
+        } catch (IllegalArgumentException e) {
+            // Ok!
+        }
+    }
+
+    @Test
+    public void testQueryAndSink() {
+
+        ArrayList<Feature> results = new ArrayList<Feature>();
+        TransformerChainFactory.<Feature, Feature>newChain()
+                .add(store.query(new Filter(booleanProperty("capital"))))
+                .last(new DummyTransformerSink<Feature>(results))
+                .run();
+        Assert.assertEquals(20, results.size());
+        Assert.assertEquals(3, results.get(1).getId());
+
+        FeatureStoreSink sink = new FeatureStoreSink();
+        TransformerChainFactory.<Feature, Feature>newChain()
+                .add(new DummyTransformerSource<Feature>(results))
+                .last(sink)
+                .run();
+        FeatureStore copy = sink.getStore();
+        Assert.assertEquals(20, copy.size());
+        Assert.assertEquals(results.get(5).getProperty("name"), copy.getFeature(5).getProperty("name"));
+        Assert.assertEquals(results.get(5).getGeometry(), copy.getFeature(5).getGeometry());
+        Assert.assertEquals(20, new FeatureStoreSource(copy).size());
+    }
+
+    private static BitSet rows(int... indexes) {
+
+        BitSet result = new BitSet();
+        for (int index : indexes)
+            result.set(index);
+        return result;
+    }
+
+    public static class Place {
+
+        private final int id;
+        private final String name;
+        private final long population;
+        private final double area;
+        private final Date founded;
+        private final Boolean capital;
+        private final Geometry location;
+
+        public Place(int id, String name, long population, double area, Date founded, Boolean capital, Geometry location) {
+            this.id = id;
+            this.name = name;
+            this.population = population;
+            this.area = area;
+            this.founded = founded;
+            this.capital = capital;
+            this.location = location;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getPopulation() {
+            return population;
+        }
+
+        public double getArea() {
+            return area;
+        }
+
+        public Date getFounded() {
+            return founded;
+        }
+
+        public Boolean getCapital() {
+            return capital;
+        }
+
+        public Geometry getLocation() {
+            return location;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import org.geolatte.common.transformer.testutil.LoggingTransformerEventListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Unit test for the AsyncTransformer class.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class AsyncTransformerTest {
+
+    private static final List<Integer> INPUT = Arrays.asList(50, 10, 40, 0, 30, 20, 5, 15);
+
+    /**
+     * Tests the constructor of AsyncTransformer
+     */
+    @Test
+    public void test_Constructor() {
+
+        try {
+            new AsyncTransformer<Integer, Integer>(null, 4);
+            Assert.fail();
+        }
+        catch (IllegalArgumentException e) {
+            Assert.assertTrue(true); // this should happen
+        }
+
+        try {
+            new AsyncTransformer<Integer, Integer>(new SleepingTransformation(null), 0);
+            Assert.fail();
+        }
+        catch (IllegalArgumentException e) {
+            Assert.assertTrue(true); // this should happen
+        }
+
+        Assert.assertNotNull(AsyncTransformer.getDefaultExecutor());
+    }
+
+    /**
+     * Tests whether an ordered AsyncTransformer emits the results in input order and respects the concurrency limit.
+     */
+    @Test
+    public void test_Ordered() {
+
+        SleepingTransformation transformation = new SleepingTransformation(null);
+        AsyncTransformer<Integer, Integer> transformer = new AsyncTransformer<Integer, Integer>(transformation, 3, true);
+        transformer.setInput(INPUT);
+
+        List<Integer> output = new ArrayList<Integer>();
+        for (Integer i : transformer.output())
+            output.add(i);
+
+        Assert.assertEquals(INPUT, output);
+        Assert.assertTrue(transformation.maxConcurrent.get() <= 3);
+        Assert.assertTrue(transformation.maxConcurrent.get() > 1);
+    }
+
+    /**
+     * Tests whether an unordered AsyncTransformer emits every result exactly once.
+     */
+    @Test
+    public void test_Unordered() {
+
+        AsyncTransformer<Integer, Integer> transformer = new AsyncTransformer<Integer, Integer>(new SleepingTransformation(null), INPUT.size(), false);
+        transformer.setInput(INPUT);
+
+        List<Integer> output = new ArrayList<Integer>();
+        for (Integer i : transformer.output())
+            output.add(i);
+
+        Assert.assertEquals(INPUT.size(), output.size());
+        Assert.assertEquals(0, (int) output.get(0)); // the input that did not sleep finishes first
+        List<Integer> sorted = new ArrayList<Integer>(INPUT);
+        Collections.sort(sorted);
+        Collections.sort(output);
+        Assert.assertEquals(sorted, output);
+    }
+
+    /**
+     * Tests whether transformation errors are reported through the error event and skipped in the output.
+     */
+    @Test
+    public void test_ErrorEvents() {
+
+        AsyncTransformer<Integer, Integer> transformer = new AsyncTransformer<Integer, Integer>(new SleepingTransformation(40), 4);
+        LoggingTransformerEventListener listener = new LoggingTransformerEventListener();
+        transformer.addTransformerEventListener(listener);
+        transformer.setInput(INPUT);
+
+        List<Integer> output = new ArrayList<Integer>();
+        for (Integer i : transformer.output())
+            output.add(i);
+
+        List<Integer> expected = new ArrayList<Integer>(INPUT);
+        expected.remove(Integer.valueOf(40));
+        Assert.assertEquals(expected, output);
+        Assert.assertEquals(1, listener.errorsReported);
+        Assert.assertEquals(40, listener.eventsOccurred.get(0).getFailedObject());
+    }
+
+    /**
+     * Tests whether an interrupt while waiting for a result is rethrown, without losing the transformations in flight.
+     */
+    @Test
+    public void test_Interrupted() {
+
+        for (boolean isOrdered : new boolean[]{true, false}) {
+            AsyncTransformer<Integer, Integer> transformer = new AsyncTransformer<Integer, Integer>(new SleepingTransformation(null), 3, isOrdered);
+            transformer.setInput(INPUT);
+            Iterator<Integer> iterator = transformer.output().iterator();
+
+            Thread.currentThread().interrupt();
+            try {
+                iterator.hasNext();
+                Assert.fail("The interrupt must not end the output");
+            }
+            catch (IllegalStateException e) {
+                Assert.assertTrue(e.getCause() instanceof InterruptedException);
+            }
+            Assert.assertTrue(Thread.interrupted()); // the interrupt status is kept, and cleared here
+
+            List<Integer> output = new ArrayList<Integer>();
+            while (iterator.hasNext())
+                output.add(iterator.next());
+            if (!isOrdered)
+                Collections.sort(output);
+            List<Integer> expected = new ArrayList<Integer>(INPUT);
+            if (!isOrdered)
+                Collections.sort(expected);
+            Assert.assertEquals(expected, output);
+        }
+    }
+
+    /**
+     * Transformation that sleeps for the number of milliseconds given as input, and fails on a given input.
+     */
+    private static class SleepingTransformation implements Transformation<Integer, Integer> {
+
+        private final Integer failOn;
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        private SleepingTransformation(Integer failOn) {
+
+            this.failOn = failOn;
+        }
+
+        public Integer transform(Integer input) throws TransformationException {
+
+            int now = concurrent.incrementAndGet();
+            synchronized (maxConcurrent) {
+                if (now > maxConcurrent.get())
+                    maxConcurrent.set(now);
+            }
+            try {
+                Thread.sleep(input);
+                if (input.equals(failOn))
+                    throw new TransformationException("Deliberate error for testing purposes", input);
+                return input;
+            }
+            catch (InterruptedException e) {
+                throw new TransformationException(e, input);
+            }
+            finally {
+                concurrent.decrementAndGet();
+            }
+        }
+    }
+}
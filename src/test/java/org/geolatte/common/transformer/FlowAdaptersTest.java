@@ -0,0 +1,329 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import org.geolatte.common.transformer.testutil.LoggingTransformerEventListener;
+import org.geolatte.common.transformer.testutil.LoggingTransformerSourceEventListener;
+import org.geolatte.testobjects.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Tests the {@link java.util.concurrent.Flow} adapters for sources, transformations, transformers and sinks.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class FlowAdaptersTest {
+
+    private static final ArrayList<Double> INPUT = new ArrayList<Double>(Arrays.asList(1.0, 22.0, 333.0, 4444.0, 55555.0, 6.0, 77.0, 888.0, 9999.0, 10.0));
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests whether a source publisher only emits the requested number of elements.
+     */
+    @Test
+    public void test_SourcePublisherBackPressure() throws Exception {
+
+        Flow.Publisher<Double> publisher = FlowAdapters.toPublisher(new SimpleTransformerSource<Double>(INPUT), executor);
+        CollectingSubscriber<Double> subscriber = new CollectingSubscriber<Double>(0);
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(3);
+        subscriber.awaitCount(3);
+        Thread.sleep(50);
+        Assert.assertEquals(INPUT.subList(0, 3), subscriber.snapshot());
+        Assert.assertFalse(subscriber.isCompleted);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.awaitTermination();
+        Assert.assertEquals(INPUT, subscriber.snapshot());
+        Assert.assertTrue(subscriber.isCompleted);
+    }
+
+    /**
+     * Tests a source publisher, transformation processor and sink subscriber connected in a pipeline, with a
+     * transformation error that must be reported to the listeners of the processor.
+     */
+    @Test
+    public void test_Pipeline() throws Exception {
+
+        Flow.Publisher<Double> publisher = FlowAdapters.toPublisher(new SimpleTransformerSource<Double>(INPUT), executor);
+        TransformationProcessor<Double, Double> failing = FlowAdapters.toProcessor(new ExceptionThrowingTransformation<Double>(3));
+        TransformationProcessor<Double, String> toText = FlowAdapters.toProcessor(new CharacterNumberTransformation());
+        LoggingTransformerEventListener listener = new LoggingTransformerEventListener();
+        failing.addTransformerEventListener(listener);
+
+        SimpleTransformerSink<String> sink = new SimpleTransformerSink<String>();
+        TransformerSinkSubscriber<String> subscriber = new TransformerSinkSubscriber<String>(sink, executor, 2);
+
+        publisher.subscribe(failing);
+        failing.subscribe(toText);
+        toText.subscribe(subscriber);
+        subscriber.getCompletion().get(5, TimeUnit.SECONDS);
+
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < INPUT.size(); i++)
+            if (i != 2)
+                expected.add(INPUT.get(i).toString());
+
+        Assert.assertEquals(expected, sink.getCollectedOutput());
+        Assert.assertEquals(1, listener.errorsReported);
+        Assert.assertEquals(333.0, listener.eventsOccurred.get(0).getFailedObject());
+    }
+
+    /**
+     * Tests whether a filter processor drops elements while still honouring the downstream demand.
+     */
+    @Test
+    public void test_FilterProcessor() throws Exception {
+
+        Flow.Publisher<Double> publisher = FlowAdapters.toPublisher(new SimpleTransformerSource<Double>(INPUT), executor);
+        TransformationProcessor<Double, Double> filter = FlowAdapters.toFilterProcessor(new ProgrammableFilter<Double>(1, 2, 5));
+        CollectingSubscriber<Double> subscriber = new CollectingSubscriber<Double>(0);
+        publisher.subscribe(filter);
+        filter.subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        subscriber.awaitCount(2);
+        Thread.sleep(50);
+        Assert.assertEquals(Arrays.asList(333.0, 4444.0), subscriber.snapshot());
+
+        subscriber.subscription.request(100);
+        subscriber.awaitTermination();
+        Assert.assertEquals(7, subscriber.snapshot().size());
+    }
+
+    /**
+     * Tests whether an arbitrary transformer can be used as a processor, and whether it can only be subscribed once.
+     */
+    @Test
+    public void test_TransformerProcessor() throws Exception {
+
+        Flow.Publisher<Double> publisher = FlowAdapters.toPublisher(new SimpleTransformerSource<Double>(INPUT), executor);
+        Flow.Processor<Double, String> processor =
+                FlowAdapters.toProcessor(new DefaultTransformer<Double, String>(new CharacterNumberTransformation()), executor, 3);
+        CollectingSubscriber<String> subscriber = new CollectingSubscriber<String>(1);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        subscriber.awaitTermination();
+
+        Assert.assertTrue(subscriber.isCompleted);
+        Assert.assertEquals(INPUT.size(), subscriber.snapshot().size());
+        Assert.assertEquals("55555.0", subscriber.snapshot().get(4));
+
+        CollectingSubscriber<String> second = new CollectingSubscriber<String>(1);
+        processor.subscribe(second);
+        second.awaitTermination();
+        Assert.assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    /**
+     * Tests whether a downstream cancel of a transformer processor cancels its upstream subscription, and releases the
+     * thread that waits for upstream elements.
+     */
+    @Test
+    public void test_TransformerProcessorCancel() throws Exception {
+
+        ExecutorService drainExecutor = Executors.newSingleThreadExecutor();
+        try {
+            SubmissionPublisher<Double> publisher = new SubmissionPublisher<Double>(executor, 4);
+            Flow.Processor<Double, String> processor =
+                    FlowAdapters.toProcessor(new DefaultTransformer<Double, String>(new CharacterNumberTransformation()), drainExecutor, 3);
+            CollectingSubscriber<String> subscriber = new CollectingSubscriber<String>(0);
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+
+            subscriber.subscription.request(10);
+            publisher.submit(1.0);
+            subscriber.awaitCount(1);
+
+            // The drain thread now waits for the next upstream element
+            subscriber.subscription.cancel();
+            Assert.assertEquals("released", drainExecutor.submit(new Callable<String>() {
+                public String call() {
+                    return "released";
+                }
+            }).get(5, TimeUnit.SECONDS));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (publisher.getNumberOfSubscribers() > 0 && System.currentTimeMillis() < deadline)
+                Thread.sleep(5);
+            Assert.assertEquals(0, publisher.getNumberOfSubscribers());
+            Assert.assertFalse(subscriber.isCompleted);
+            Assert.assertNull(subscriber.error);
+        }
+        finally {
+            drainExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests whether a publisher can act as the source of an open transformer chain.
+     */
+    @Test
+    public void test_PublisherTransformerSource() throws Exception {
+
+        SubmissionPublisher<Double> publisher = new SubmissionPublisher<Double>(executor, 4);
+        LoggingTransformerSourceEventListener listener = new LoggingTransformerSourceEventListener();
+        Future<List<String>> results = iterateInBackground(publisher, listener);
+
+        for (Double d : INPUT)
+            publisher.submit(d);
+        publisher.close();
+
+        Assert.assertEquals(INPUT.size(), results.get(5, TimeUnit.SECONDS).size());
+        Assert.assertEquals(0, listener.errorsReported);
+    }
+
+    /**
+     * Tests whether an error of the publisher ends the chain and is reported as a source error.
+     */
+    @Test
+    public void test_PublisherTransformerSourceError() throws Exception {
+
+        SubmissionPublisher<Double> publisher = new SubmissionPublisher<Double>(executor, 4);
+        LoggingTransformerSourceEventListener listener = new LoggingTransformerSourceEventListener();
+        Future<List<String>> results = iterateInBackground(publisher, listener);
+
+        publisher.closeExceptionally(new Exception("Feed interrupted"));
+
+        Assert.assertEquals(0, results.get(5, TimeUnit.SECONDS).size());
+        Assert.assertEquals(1, listener.errorsReported);
+    }
+
+    /**
+     * Iterates a chain with the given publisher as its source on a background thread, returns once subscribed.
+     */
+    private Future<List<String>> iterateInBackground(SubmissionPublisher<Double> publisher, LoggingTransformerSourceEventListener listener) throws InterruptedException {
+
+        final OpenTransformerChain<String> chain = TransformerChainFactory.<Double, String>newChain()
+                .add(FlowAdapters.<Double>toTransformerSource(publisher))
+                .last(new DefaultTransformer<Double, String>(new CharacterNumberTransformation()));
+        chain.addSourceEventListener(listener);
+
+        Future<List<String>> results = executor.submit(new Callable<List<String>>() {
+            public List<String> call() {
+                List<String> collected = new ArrayList<String>();
+                for (String s : chain)
+                    collected.add(s);
+                return collected;
+            }
+        });
+
+        while (publisher.getNumberOfSubscribers() == 0)
+            Thread.sleep(5);
+        return results;
+    }
+
+    /**
+     * Subscriber that collects the elements it receives, optionally requesting a fixed batch each time.
+     */
+    private static class CollectingSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final int batch;
+        private final List<T> received = new ArrayList<T>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile boolean isCompleted = false;
+        private volatile Throwable error;
+        private int receivedInBatch = 0;
+
+        private CollectingSubscriber(int batch) {
+
+            this.batch = batch;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+
+            this.subscription = subscription;
+            if (batch > 0)
+                subscription.request(batch);
+        }
+
+        public void onNext(T item) {
+
+            synchronized (received) {
+                received.add(item);
+            }
+            if (batch > 0 && ++receivedInBatch == batch) {
+                receivedInBatch = 0;
+                subscription.request(batch);
+            }
+        }
+
+        public void onError(Throwable throwable) {
+
+            error = throwable;
+            terminated.countDown();
+        }
+
+        public void onComplete() {
+
+            isCompleted = true;
+            terminated.countDown();
+        }
+
+        private List<T> snapshot() {
+
+            synchronized (received) {
+                return new ArrayList<T>(received);
+            }
+        }
+
+        private void awaitCount(int count) throws InterruptedException {
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (snapshot().size() < count && System.currentTimeMillis() < deadline)
+                Thread.sleep(5);
+        }
+
+        private void awaitTermination() throws InterruptedException {
+
+            Assert.assertTrue(terminated.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.transformer;
+
+import org.geolatte.testobjects.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Tests the instrumentation of transformer chains with a {@link TransformerChainMetrics} monitor.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class TransformerChainMetricsTest {
+
+    private static final ArrayList<Double> INPUT = new ArrayList<Double>(Arrays.asList(1.0, 22.0, 333.0, 4444.0, 55555.0, 6.0, 77.0, 888.0, 9999.0, 10.0));
+
+    /**
+     * Tests whether a closed chain reports the element, reject and error counts of each of its stages.
+     */
+    @Test
+    public void test_ClosedChainCounts() {
+
+        ArrayList<String> results = new ArrayList<String>();
+        ClosedTransformerChain chain =
+                TransformerChainFactory.<Double, String>newChain()
+                                       .add(new DummyTransformerSource<Double>(INPUT))
+                                       .addFilter(new ProgrammableFilter<Double>(2, 4))
+                                       .add(new ExceptionThrowingTransformation<Double>(1))
+                                       .add(new CharacterNumberTransformation())
+                                       .last(new DummyTransformerSink<String>(results));
+
+        TransformerChainMetrics metrics = new TransformerChainMetrics();
+        chain.setMonitor(metrics);
+        chain.run();
+
+        Assert.assertEquals(7, results.size());
+
+        List<StageMetrics> stages = metrics.getStageMetrics();
+        Assert.assertEquals(5, stages.size());
+        for (int i = 0; i < stages.size(); i++)
+            Assert.assertEquals(i, stages.get(i).getStageIndex());
+
+        Assert.assertTrue(stages.get(0).getStage() instanceof DummyTransformerSource);
+        Assert.assertTrue(stages.get(1).getStage() instanceof DefaultFilter);
+        Assert.assertTrue(stages.get(4).getStage() instanceof DummyTransformerSink);
+
+        long[] expectedElements = {10, 8, 7, 7, 7};
+        long[] expectedRejects = {0, 2, 0, 0, 0};
+        long[] expectedErrors = {0, 0, 1, 0, 0};
+        for (int i = 0; i < stages.size(); i++) {
+            Assert.assertEquals(expectedElements[i], stages.get(i).getElementCount());
+            Assert.assertEquals(expectedRejects[i], stages.get(i).getRejectedCount());
+            Assert.assertEquals(expectedErrors[i], stages.get(i).getErrorCount());
+        }
+        Assert.assertNotNull(metrics.getBottleneck());
+    }
+
+    /**
+     * Tests whether an open chain reports its source and transformer stages.
+     */
+    @Test
+    public void test_OpenChainCounts() {
+
+        OpenTransformerChain<String> chain =
+                TransformerChainFactory.<Double, String>newChain()
+                                       .add(new DummyTransformerSource<Double>(INPUT))
+                                       .addFilter(new ProgrammableFilter<Double>(1))
+                                       .last(new DefaultTransformer<Double, String>(new CharacterNumberTransformation()));
+
+        TransformerChainMetrics metrics = new TransformerChainMetrics();
+        chain.setMonitor(metrics);
+
+        int count = 0;
+        for (String s : chain)
+            count++;
+
+        Assert.assertEquals(9, count);
+        List<StageMetrics> stages = metrics.getStageMetrics();
+        Assert.assertEquals(3, stages.size());
+        Assert.assertEquals(10L, stages.get(0).getElementCount());
+        Assert.assertEquals(9L, stages.get(1).getElementCount());
+        Assert.assertEquals(1L, stages.get(1).getRejectedCount());
+        Assert.assertEquals(9L, stages.get(2).getElementCount());
+    }
+
+    /**
+     * Tests whether a chain without a monitor produces no metrics and the same output.
+     */
+    @Test
+    public void test_NoMonitor() {
+
+        ArrayList<Double> results = new ArrayList<Double>();
+        ClosedTransformerChain chain =
+                TransformerChainFactory.<Double, Double>newChain()
+                                       .add(new DummyTransformerSource<Double>(INPUT))
+                                       .last(new DummyTransformerSink<Double>(results));
+
+        Assert.assertNull(chain.getMonitor());
+        chain.run();
+        Assert.assertEquals(INPUT, results);
+    }
+
+    /**
+     * Tests the time, percentile and buffer occupancy bookkeeping of StageMetrics.
+     */
+    @Test
+    public void test_StageMetrics() {
+
+        StageMetrics metrics = new StageMetrics(3, "stage");
+        Assert.assertEquals(0L, metrics.getPercentileNanos(50));
+        Assert.assertEquals(0L, metrics.getMeanNanos());
+
+        for (int i = 1; i <= 100; i++)
+            metrics.elementProcessed(i * 1000);
+        metrics.finished(500);
+
+        Assert.assertEquals(100L, metrics.getElementCount());
+        Assert.assertEquals(5050L * 1000 + 500, metrics.getTotalNanos());
+
+        long p50 = metrics.getPercentileNanos(50);
+        Assert.assertTrue(p50 >= 50000 && p50 <= 50000 * 1.125);
+        long p99 = metrics.getPercentileNanos(99);
+        Assert.assertTrue(p99 >= 99000 && p99 <= 99000 * 1.125);
+        Assert.assertTrue(metrics.getPercentileNanos(100) >= 100000);
+
+        metrics.bufferOccupancy(4);
+        metrics.bufferOccupancy(9);
+        metrics.bufferOccupancy(2);
+        Assert.assertEquals(2, metrics.getBufferOccupancy());
+        Assert.assertEquals(9, metrics.getMaxBufferOccupancy());
+
+        try {
+            metrics.getPercentileNanos(101);
+            Assert.fail();
+        }
+        catch (IllegalArgumentException e) {
+            Assert.assertTrue(true); // this should happen
+        }
+    }
+}
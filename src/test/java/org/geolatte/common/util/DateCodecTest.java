@@ -0,0 +1,186 @@
+/*
+ * This file is part of the GeoLatte project.
+ *
+ *     GeoLatte is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     GeoLatte is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with GeoLatte.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2010 - 2010 and Ownership of code is shared by:
+ * Qmino bvba - Romeinsestraat 18 - 3001 Heverlee  (http://www.qmino.com)
+ * Geovise bvba - Generaal Eisenhowerlei 9 - 2140 Antwerpen (http://www.geovise.com)
+ */
+
+package org.geolatte.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * <p>
+ * Tests {@link DateCodec}, against {@link SimpleDateFormat}.
+ * </p>
+ * <p>
+ * <i>Creation-Date</i>: 19-Oct-2026<br>
+ * </p>
+ *
+ * @since SDK1.5
+ */
+public class DateCodecTest {
+
+    private static final String[] ZONES = {"UTC", "Europe/Brussels", "America/New_York", "Asia/Kolkata"};
+    private static final String[] PATTERNS = {"yyyy-MM-dd", "yyyy-MM-dd'T'HH:mm:ss", "dd/MM/yyyy", "yyyyMMdd HH:mm"};
+
+    @Test
+    public void testFormatAndParseAsSimpleDateFormat() throws Exception {
+
+        Random random = new Random(5);
+        for (String zoneName : ZONES) {
+            ZoneId zone = ZoneId.of(zoneName);
+            for (String pattern : PATTERNS) {
+                DateCodec codec = DateCodec.forPattern(pattern, zone);
+                DateFormat format = new SimpleDateFormat(pattern);
+                format.setTimeZone(TimeZone.getTimeZone(zone));
+                for (int i = 0; i < 2000; i++) {
+                    // Between 1900 and 2100, around the daylight saving time changes now and then
+                    long millis = i % 4 == 0 ? transitionNear(random, zone) : -2208988800000L + (long) (random.nextDouble() * 6311433600000L);
+                    Date date = new Date(millis - millis % 1000);
+                    String text = format.format(date);
+                    Assert.assertEquals(zoneName + " " + pattern, text, codec.format(date));
+                    Assert.assertEquals(zoneName + " " + pattern + " " + text, format.parse(text), codec.parse(text));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLenientParsing() throws Exception {
+
+        String[] texts = {
+                "2010-13-01T00:00:00", "2010-00-00T00:00:00", "2011-02-29T24:60:60", "2012-02-29T23:59:59",
+                "2010-03-28T02:30:00", "2010-10-31T02:30:00", "2010-1-5T1:2:3", "0001-01-01T00:00:00"};
+        for (String zoneName : ZONES) {
+            DateCodec codec = DateCodec.forPattern("yyyy-MM-dd'T'HH:mm:ss", ZoneId.of(zoneName));
+            DateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+            format.setTimeZone(TimeZone.getTimeZone(zoneName));
+            for (String text : texts) {
+                if (!text.startsWith("0001")) // before the Gregorian reform
+                    Assert.assertEquals(zoneName + " " + text, format.parse(text), codec.parse(text));
+            }
+        }
+    }
+
+    @Test
+    public void testFractionalSeconds() throws Exception {
+
+        DateCodec codec = DateCodec.forPattern("yyyy-MM-dd'T'HH:mm:ss", ZoneId.of("UTC"));
+        long seconds = codec.parse("2011-02-03T04:05:06").getTime();
+        Assert.assertEquals(seconds + 500, codec.parse("2011-02-03T04:05:06.5").getTime());
+        Assert.assertEquals(seconds + 789, codec.parse("2011-02-03T04:05:06.789").getTime());
+        Assert.assertEquals(seconds + 789, codec.parse("2011-02-03T04:05:06.78912").getTime());
+        Assert.assertEquals("2011-02-03T04:05:06", codec.format(new Date(seconds + 789)));
+    }
+
+    @Test
+    public void testTrailingTextIsIgnored() throws Exception {
+
+        String[][] cases = {
+                {"yyyy-MM-dd'T'HH:mm:ss", "2010-01-01T00:00:00."}, {"yyyy-MM-dd'T'HH:mm:ss", "2010-01-01T00:00:00x"},
+                {"yyyy-MM-dd", "2010-01-02T10:00:00Z"}, {"yyyy-MM-dd", "2010-01-02 10:00"}, {"dd/MM/yyyy", "02/01/2010 10:00"}};
+        for (String[] c : cases) {
+            Assert.assertEquals(c[1], new SimpleDateFormat(c[0]).parse(c[1]), DateCodec.forPattern(c[0]).parse(c[1]));
+        }
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+
+        String[] texts = {"", "2010", "2010-01-01T", "2010-01-01T00:", "x2010-01-01T00:00:00"};
+        for (String text : texts) {
+            try {
+                DateCodec.ISO_DATE_TIME.parse(text);
+                Assert.fail("Must fail: " + text);
+            } catch (ParseException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testCodecsAreCached() throws Exception {
+
+        Assert.assertSame(DateCodec.ISO_DATE, DateCodec.forPattern("yyyy-MM-dd"));
+        Assert.assertSame(DateCodec.forPattern("dd/MM/yyyy"), DateCodec.forPattern("dd/MM/yyyy"));
+        Assert.assertEquals("dd/MM/yyyy", DateCodec.forPattern("dd/MM/yyyy").getPattern());
+    }
+
+    @Test
+    public void testDefaultTimeZone() throws Exception {
+
+        TimeZone previous = TimeZone.getDefault();
+        try {
+            for (String zoneName : ZONES) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zoneName));
+                Assert.assertEquals(new SimpleDateFormat("yyyy-MM-dd").parse("2010-06-01"), DateCodec.ISO_DATE.parse("2010-06-01"));
+                Assert.assertEquals("2010-06-01T12:00:00", DateCodec.ISO_DATE_TIME.format(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").parse("2010-06-01T12:00:00")));
+            }
+        } finally {
+            TimeZone.setDefault(previous);
+        }
+    }
+
+    @Test
+    public void testFormatCodec() throws Exception {
+
+        DateFormat format = new SimpleDateFormat("dd MMM yyyy");
+        DateCodec codec = DateCodec.forFormat(format);
+        Date date = format.parse("03 Feb 2011");
+        Assert.assertEquals("03 Feb 2011", codec.format(date));
+        Assert.assertEquals(date, codec.parse("03 Feb 2011"));
+        Assert.assertNull(codec.getPattern());
+    }
+
+    @Test
+    public void testToDate() throws Exception {
+
+        Date date = new Date(1296705906000L);
+        Assert.assertSame(date, DateCodec.toDate(date));
+        Assert.assertEquals(date, DateCodec.toDate(Instant.ofEpochMilli(1296705906000L)));
+        Assert.assertEquals(date, DateCodec.toDate(Instant.ofEpochMilli(1296705906000L).atZone(ZoneId.of("Europe/Brussels"))));
+        Assert.assertEquals(date, DateCodec.toDate(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault())));
+        Assert.assertEquals(new SimpleDateFormat("yyyy-MM-dd").parse("2011-02-03"), DateCodec.toDate(LocalDate.of(2011, 2, 3)));
+        Assert.assertNull(DateCodec.toDate("2011-02-03"));
+        Assert.assertNull(DateCodec.toDate(null));
+    }
+
+    /**
+     * @return A time within a few hours of a daylight saving time change of the given zone, if it has any.
+     */
+    private static long transitionNear(Random random, ZoneId zone) {
+
+        Instant start = Instant.ofEpochMilli(-2208988800000L + (long) (random.nextDouble() * 6311433600000L));
+        ZoneOffsetTransition transition = zone.getRules().nextTransition(start);
+        long millis = transition == null ? start.toEpochMilli() : transition.toEpochSecond() * 1000;
+        return millis + (random.nextInt(4 * 3600) - 2 * 3600) * 1000L;
+    }
+}